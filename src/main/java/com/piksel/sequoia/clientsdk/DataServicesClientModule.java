@@ -37,6 +37,8 @@ import com.piksel.sequoia.clientsdk.registry.DefaultRegistryClient;
 import com.piksel.sequoia.clientsdk.registry.RegistryClient;
 import com.piksel.sequoia.clientsdk.registry.RegistryClientConfiguration;
 import com.piksel.sequoia.clientsdk.request.DefaultRequestClient;
+import com.piksel.sequoia.clientsdk.request.HttpResponseCache;
+import com.piksel.sequoia.clientsdk.request.InFlightRequests;
 import com.piksel.sequoia.clientsdk.request.RegistryRequestClient;
 import com.piksel.sequoia.clientsdk.request.RequestClient;
 import com.piksel.sequoia.clientsdk.token.ClientGrantCredentialUnsuccessfulResponseHandler;
@@ -52,9 +54,16 @@ import com.piksel.sequoia.clientsdk.token.HttpClientAccessCredentialProvider;
 public class DataServicesClientModule extends AbstractModule {
 
     private ClientConfiguration configuration;
+
+    private final HttpResponseCache responseCache;
+
+    private final InFlightRequests inFlightRequests;
     
     public DataServicesClientModule(ClientConfiguration config) {
         this.configuration = config;
+        this.responseCache = config.getHttpCacheConfiguration().isEnabled()
+                ? new HttpResponseCache(config.getHttpCacheConfiguration()) : null;
+        this.inFlightRequests = config.isCoalesceGetRequests() ? new InFlightRequests() : null;
     }
 
     @Override
@@ -106,7 +115,9 @@ public class DataServicesClientModule extends AbstractModule {
     @Provides
     public DefaultRequestClient providesDefaultRequestClient(RequestFactory requestFactory,
                                                             HttpRequestInitializer requestInitializer, Gson gson){
-        return new DefaultRequestClient(requestFactory, requestInitializer, gson);
+        return new DefaultRequestClient(requestFactory, requestInitializer, gson,
+                configuration.getAsyncRequestExecutor(), configuration.getRequestContentConfiguration(),
+                responseCache, inFlightRequests);
     }
 
     @Provides
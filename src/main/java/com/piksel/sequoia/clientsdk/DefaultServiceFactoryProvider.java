@@ -25,26 +25,40 @@ import static com.google.api.client.repackaged.com.google.common.base.Preconditi
 import com.google.gson.Gson;
 import com.google.inject.Inject;
 import com.piksel.sequoia.annotations.Internal;
+import com.piksel.sequoia.clientsdk.configuration.ClientConfiguration;
 import com.piksel.sequoia.clientsdk.registry.RegisteredService;
 import com.piksel.sequoia.clientsdk.registry.service.DefaultServiceProvider;
 import com.piksel.sequoia.clientsdk.request.RequestClient;
+import com.piksel.sequoia.clientsdk.resource.ResourceEndpointConfiguration;
 
 @Internal
 public class DefaultServiceFactoryProvider implements ServiceFactoryProvider {
 
     protected final RequestClient requestClient;
     protected final Gson gson;
+    protected final ResourceEndpointConfiguration endpointConfiguration;
 
-    @Inject
     public DefaultServiceFactoryProvider(RequestClient requestClient, Gson gson) {
+        this(requestClient, gson, ResourceEndpointConfiguration.builder().build());
+    }
+
+    @Inject
+    public DefaultServiceFactoryProvider(RequestClient requestClient, Gson gson,
+            ClientConfiguration configuration) {
+        this(requestClient, gson, ResourceEndpointConfiguration.from(configuration));
+    }
+
+    public DefaultServiceFactoryProvider(RequestClient requestClient, Gson gson,
+            ResourceEndpointConfiguration endpointConfiguration) {
         this.requestClient = requestClient;
         this.gson = gson;
+        this.endpointConfiguration = endpointConfiguration;
     }
 
     @Override
     public ServiceFactory from(RegisteredService service) {
         checkNotNull(service, "Registered service must not be null");
-        return s -> new DefaultServiceProvider(requestClient, service, gson);
+        return s -> new DefaultServiceProvider(requestClient, service, gson, endpointConfiguration);
     }
 
 }
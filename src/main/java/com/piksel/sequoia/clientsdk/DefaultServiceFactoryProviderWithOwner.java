@@ -24,23 +24,30 @@ import static com.google.api.client.repackaged.com.google.common.base.Preconditi
 
 import com.google.gson.Gson;
 import com.piksel.sequoia.annotations.Internal;
+import com.piksel.sequoia.clientsdk.configuration.ClientConfiguration;
 import com.piksel.sequoia.clientsdk.registry.RegisteredService;
 import com.piksel.sequoia.clientsdk.registry.service.DefaultServiceProvider;
 import com.piksel.sequoia.clientsdk.registry.service.ServiceProviderWithOwner;
 import com.piksel.sequoia.clientsdk.request.RequestClient;
+import com.piksel.sequoia.clientsdk.resource.ResourceEndpointConfiguration;
 import javax.inject.Inject;
 
 @Internal
 public class DefaultServiceFactoryProviderWithOwner extends DefaultServiceProvider implements ServiceFactoryProviderWithOwner {
 
-    @Inject
     public DefaultServiceFactoryProviderWithOwner(RequestClient requestClient, RegisteredService service, Gson gson) {
         super(requestClient, service, gson);
     }
 
+    @Inject
+    public DefaultServiceFactoryProviderWithOwner(RequestClient requestClient, RegisteredService service, Gson gson,
+            ClientConfiguration configuration) {
+        super(requestClient, service, gson, ResourceEndpointConfiguration.from(configuration));
+    }
+
     @Override
     public ServiceForOwnerFactory from(RegisteredService service, String owner) {
         checkNotNull(service, "Registered service must not be null");
-        return (s, o) -> new ServiceProviderWithOwner(requestClient, service, gson, owner);
+        return (s, o) -> new ServiceProviderWithOwner(requestClient, service, gson, owner, endpointConfiguration);
     }
 }
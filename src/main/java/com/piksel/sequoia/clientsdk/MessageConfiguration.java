@@ -20,9 +20,13 @@ package com.piksel.sequoia.clientsdk;
  * #L%
  */
 
+import java.util.Optional;
+
 import com.google.api.client.http.HttpTransport;
 import com.google.api.client.json.JsonFactory;
 import com.piksel.sequoia.annotations.PublicEvolving;
+import com.piksel.sequoia.clientsdk.transport.ConnectionPoolStats;
+import com.piksel.sequoia.clientsdk.transport.PooledHttpTransport;
 
 import lombok.Value;
 
@@ -37,4 +41,15 @@ public class MessageConfiguration {
     HttpTransport transport;
 
     JsonFactory jsonFactory;
+
+    /**
+     * Provides the statistics of the connection pool when the transport is a
+     * {@link PooledHttpTransport}.
+     */
+    public Optional<ConnectionPoolStats> getConnectionPoolStats() {
+        return transport instanceof PooledHttpTransport
+                ? Optional.of(((PooledHttpTransport) transport).getPoolStats())
+                : Optional.empty();
+    }
+
 }
@@ -25,6 +25,8 @@ import java.util.Collections;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Function;
 import com.google.api.client.repackaged.com.google.common.base.Objects;
 import com.google.common.util.concurrent.ServiceManager;
@@ -32,6 +34,7 @@ import com.google.inject.Guice;
 import com.google.inject.Injector;
 import com.piksel.sequoia.annotations.PublicEvolving;
 import com.piksel.sequoia.clientsdk.configuration.ClientConfiguration;
+import com.piksel.sequoia.clientsdk.configuration.VirtualThreads;
 import com.piksel.sequoia.clientsdk.endpoint.Endpoint;
 import com.piksel.sequoia.clientsdk.registry.HostRegistry;
 import com.piksel.sequoia.clientsdk.registry.RegisteredService;
@@ -109,6 +112,8 @@ public final class SequoiaClient implements ServiceFactory, ServiceForOwnerFacto
 
     private static SequoiaClient instance;
 
+    private static final Lock INSTANCE_LOCK = new ReentrantLock();
+
     private final ServiceManager serviceManager;
 
     private final ClientConfiguration clientConfiguration;
@@ -133,26 +138,33 @@ public final class SequoiaClient implements ServiceFactory, ServiceForOwnerFacto
             .refreshIntervalSeconds(
                 clientConfig.getServiceRefreshIntervalSeconds())
             .registryServiceOwner(clientConfig.getRegistryServiceOwner())
+            .threadFactory(clientConfig.isVirtualThreads()
+                ? VirtualThreads.threadFactory("sequoia-registry-refresh-") : null)
             .build();
     }
 
     /**
      * Provides a {@link SequoiaClient} instance.
      */
-    public static synchronized SequoiaClient client(
+    public static SequoiaClient client(
             ClientConfiguration clientConfiguration) {
-        if (instance == null) {
-            log.debug("Starting sequoia client with configuration [{}]",
-                    clientConfiguration);
-            instance = new SequoiaClient(clientConfiguration);
-        }
-        if (!Objects.equal(instance.clientConfiguration, clientConfiguration)) {
-            log.debug(
-                    "Updating and generating new sequoia client instance with new configuration [{}]",
-                    clientConfiguration);
-            instance = new SequoiaClient(clientConfiguration);
+        INSTANCE_LOCK.lock();
+        try {
+            if (instance == null) {
+                log.debug("Starting sequoia client with configuration [{}]",
+                        clientConfiguration);
+                instance = new SequoiaClient(clientConfiguration);
+            }
+            if (!Objects.equal(instance.clientConfiguration, clientConfiguration)) {
+                log.debug(
+                        "Updating and generating new sequoia client instance with new configuration [{}]",
+                        clientConfiguration);
+                instance = new SequoiaClient(clientConfiguration);
+            }
+            return instance;
+        } finally {
+            INSTANCE_LOCK.unlock();
         }
-        return instance;
     }
 
     public RegistryClient registryClient() {
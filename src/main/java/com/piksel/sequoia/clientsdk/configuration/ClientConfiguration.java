@@ -25,6 +25,7 @@ import com.piksel.sequoia.clientsdk.ServiceFactoryProviderWithOwner;
 import com.piksel.sequoia.clientsdk.request.DefaultRequestClient;
 import com.piksel.sequoia.clientsdk.request.RequestClient;
 import java.util.Collection;
+import java.util.concurrent.Executor;
 
 import com.google.api.client.http.HttpTransport;
 import com.google.api.client.http.javanet.NetHttpTransport;
@@ -37,6 +38,10 @@ import com.piksel.sequoia.clientsdk.MessageConfiguration;
 import com.piksel.sequoia.clientsdk.SequoiaClient;
 import com.piksel.sequoia.clientsdk.ServiceFactoryProvider;
 import com.piksel.sequoia.clientsdk.recovery.RecoveryStrategy;
+import com.piksel.sequoia.clientsdk.resource.ResourceCache;
+import com.piksel.sequoia.clientsdk.transport.ConnectionPoolConfiguration;
+import com.piksel.sequoia.clientsdk.transport.Http2Transport;
+import com.piksel.sequoia.clientsdk.transport.PooledHttpTransport;
 
 import javax.validation.constraints.NotNull;
 import lombok.Builder;
@@ -50,7 +55,7 @@ import lombok.Value;
  */
 @Value
 @Builder
-@EqualsAndHashCode(exclude = { "httpTransport", "httpResponseInterceptorName", "serviceFactoryProviderClass", "gsonBuilder", "typeAdapters"})
+@EqualsAndHashCode(exclude = { "httpTransport", "httpResponseInterceptorName", "serviceFactoryProviderClass", "gsonBuilder", "typeAdapters", "asyncExecutor"})
 @PublicEvolving
 public class ClientConfiguration {
 
@@ -83,7 +88,11 @@ public class ClientConfiguration {
 
     /**
      * Allows the low-level HTTP transport to be provided for request/
-     * response interception or mocking.
+     * response interception or mocking. Use
+     * {@link ClientConfigurationBuilder#pooledHttpTransport(ConnectionPoolConfiguration)}
+     * to keep connections alive in a pool, or
+     * {@link ClientConfigurationBuilder#http2Transport()} to multiplex
+     * requests over HTTP/2.
      */
     @NonNull
     private HttpTransport httpTransport;
@@ -132,6 +141,85 @@ public class ClientConfiguration {
     @NonNull
     private GsonBuilder gsonBuilder;
 
+    /**
+     * The executor on which asynchronous requests are run. Requests are
+     * blocking underneath, so the executor should be able to hold as many
+     * threads as requests are expected to be in flight.
+     */
+    @NonNull
+    private Executor asyncExecutor;
+
+    /**
+     * When enabled and the JVM supports them (Java 21 onwards), asynchronous
+     * requests and background service refreshes run on virtual threads
+     * instead of {@link #asyncExecutor}, so a blocked request does not hold a
+     * platform thread. Ignored with a warning on older JVMs.
+     */
+    private boolean virtualThreads;
+
+    /**
+     * Configures how request bodies are encoded.
+     */
+    @NonNull
+    private RequestContentConfiguration requestContentConfiguration;
+
+    /**
+     * Configures the cache of GET responses, disabled by default.
+     */
+    @NonNull
+    private HttpCacheConfiguration httpCacheConfiguration;
+
+    /**
+     * When enabled, concurrent GET requests for the same url and headers
+     * share a single in-flight request and its response. Requests of a
+     * client are made with the same credentials, so they share the
+     * authorization scope.
+     */
+    private boolean coalesceGetRequests;
+
+    /**
+     * If set, resources read by reference are kept in the given cache and
+     * served from it until they expire or are modified through the client.
+     */
+    private ResourceCache resourceCache;
+
+    /**
+     * The maximum length of the url of a multi reference read or delete.
+     * Requests for more references are split into chunks of references whose
+     * urls fit, requested concurrently and merged into a single response.
+     */
+    private int maxUrlLength;
+
+    /**
+     * The number of chunks of a multi reference read or delete requested
+     * concurrently.
+     */
+    private int chunkParallelism;
+
+    /**
+     * The number of pages of a browse result requested in the background
+     * ahead of the page being iterated, or zero to request each page only
+     * once the previous one has been iterated.
+     */
+    private int pagePrefetchDepth;
+
+    /**
+     * Whether a linked resource included in several pages of a browse result
+     * is decoded once and the same instance shared by every page. Within a
+     * page, a linked resource is always decoded once and shared by the
+     * resources that include it. Sharing across pages keeps every linked
+     * resource of the iteration in memory until the iteration is discarded.
+     */
+    private boolean shareLinkedResourcesAcrossPages;
+
+    /**
+     * Provides the executor on which asynchronous requests are run, taking
+     * {@link #virtualThreads} into account.
+     */
+    public Executor getAsyncRequestExecutor() {
+        return virtualThreads ? VirtualThreads.executor() : asyncExecutor;
+    }
+
     public MessageConfiguration getMessageConfiguration() {
         return new MessageConfiguration(httpTransport,
                 GsonFactory.getDefaultInstance());
@@ -152,6 +240,12 @@ public class ClientConfiguration {
             .serviceFactoryProviderClass(DefaultServiceFactoryProvider.class)
             .serviceFactoryProviderWithOwnerClass(DefaultServiceFactoryProviderWithOwner.class)
             .requestClientClass(DefaultRequestClient.class)
+            .asyncExecutor(DefaultClientConfiguration.getDefaultAsyncExecutor())
+            .requestContentConfiguration(RequestContentConfiguration.builder().build())
+            .httpCacheConfiguration(HttpCacheConfiguration.builder().build())
+            .maxUrlLength(4000)
+            .chunkParallelism(4)
+            .pagePrefetchDepth(0)
             .httpTransport(new NetHttpTransport());
     }
 
@@ -159,4 +253,27 @@ public class ClientConfiguration {
         return s -> s;
     }
 
+    public static class ClientConfigurationBuilder {
+
+        /**
+         * Uses a {@link PooledHttpTransport} with the given connection pool
+         * configuration as the HTTP transport.
+         */
+        public ClientConfigurationBuilder pooledHttpTransport(
+                ConnectionPoolConfiguration connectionPoolConfiguration) {
+            return httpTransport(new PooledHttpTransport(connectionPoolConfiguration));
+        }
+
+        /**
+         * Uses an {@link Http2Transport} as the HTTP transport.
+         *
+         * @throws UnsupportedOperationException if the runtime is older than
+         *         Java 11
+         */
+        public ClientConfigurationBuilder http2Transport() {
+            return httpTransport(new Http2Transport());
+        }
+
+    }
+
 }
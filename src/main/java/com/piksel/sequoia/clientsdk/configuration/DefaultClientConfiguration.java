@@ -21,6 +21,7 @@ package com.piksel.sequoia.clientsdk.configuration;
  */
 
 import com.google.common.collect.ForwardingList;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.piksel.sequoia.annotations.Internal;
@@ -29,10 +30,22 @@ import com.piksel.sequoia.clientsdk.resource.json.*;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @Internal
 public class DefaultClientConfiguration {
 
+    /**
+     * Produce the executor used for asynchronous requests when none is
+     * configured. It is shared by every client and its daemon threads are
+     * created on demand and released when idle.
+     */
+    public static Executor getDefaultAsyncExecutor() {
+        return AsyncExecutorHolder.EXECUTOR;
+    }
+
     public static Gson getDefaultGson() {
         return getDefaultGsonBuilder().create();
     }
@@ -106,4 +119,11 @@ public class DefaultClientConfiguration {
         return addTypeAdapters(addDefaulTypeAdatpers(gsonBuilder), typeAdapters)
                 .create();
     }
+
+    private static final class AsyncExecutorHolder {
+
+        private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat("sequoia-client-async-%d").build());
+
+    }
 }
@@ -0,0 +1,61 @@
+package com.piksel.sequoia.clientsdk.configuration;
+
+/*-
+ * #%L
+ * Sequoia Java Client SDK
+ * %%
+ * Copyright (C) 2018 Piksel
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.piksel.sequoia.annotations.PublicEvolving;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Configures the client-side cache of GET responses. Responses carrying an
+ * {@code ETag} or {@code Last-Modified} header are kept and revalidated with
+ * {@code If-None-Match} and {@code If-Modified-Since} on repeat requests, so a
+ * {@code 304 Not Modified} answer is served from the cache without
+ * transferring or parsing the body again. Responses are served without
+ * revalidation while fresh according to {@code Cache-Control: max-age}.
+ */
+@Value
+@Builder
+@PublicEvolving
+public class HttpCacheConfiguration {
+
+    /**
+     * Whether GET responses are cached. Disabled by default.
+     */
+    private boolean enabled;
+
+    /**
+     * The approximate number of response body bytes held by the cache. The
+     * least recently used responses are evicted once the bound is reached.
+     */
+    private long maximumSizeBytes;
+
+    /**
+     * Provides a builder with default values configured ready to be overridden if needed.
+     */
+    public static HttpCacheConfigurationBuilder builder() {
+        return new HttpCacheConfigurationBuilder()
+            .enabled(false)
+            .maximumSizeBytes(32L * 1024 * 1024);
+    }
+
+}
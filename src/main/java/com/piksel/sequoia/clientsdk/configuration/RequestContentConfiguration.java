@@ -0,0 +1,90 @@
+package com.piksel.sequoia.clientsdk.configuration;
+
+/*-
+ * #%L
+ * Sequoia Java Client SDK
+ * %%
+ * Copyright (C) 2018 Piksel
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.piksel.sequoia.annotations.PublicEvolving;
+import com.piksel.sequoia.clientsdk.request.ContentStatistics;
+
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.NonNull;
+import lombok.Value;
+
+/**
+ * Configures how the JSON bodies of POST and PUT requests are encoded, and
+ * whether responses may be compressed.
+ */
+@Value
+@Builder
+@PublicEvolving
+@EqualsAndHashCode(exclude = "statistics")
+public class RequestContentConfiguration {
+
+    /**
+     * When enabled, bodies are serialized straight to the connection and sent
+     * chunked, so no copy of the body is held in memory. Bodies are then
+     * serialized again on every retry, and are not logged. By default bodies
+     * are encoded once into a buffer that is reused for the content length,
+     * retries and logging.
+     */
+    private boolean streamed;
+
+    /**
+     * Request bodies of at least this many bytes are gzip-compressed and sent
+     * with {@code Content-Encoding: gzip}. Streamed bodies, whose size is not
+     * known up front, are compressed whenever the threshold is zero or more.
+     * A negative threshold, the default, disables request compression.
+     */
+    private int gzipThresholdBytes;
+
+    /**
+     * Whether responses may be gzip-compressed by the services, by sending
+     * {@code Accept-Encoding: gzip}. Compressed responses are decompressed as
+     * they are read.
+     */
+    private boolean gzipResponses;
+
+    /**
+     * Counts the bytes of bodies before and after compression.
+     */
+    @NonNull
+    private ContentStatistics statistics;
+
+    /**
+     * Whether a body of the given size, or of unknown size if negative, is
+     * compressed.
+     */
+    public boolean isGzipped(long length) {
+        return gzipThresholdBytes >= 0 && (length < 0 || length >= gzipThresholdBytes);
+    }
+
+    /**
+     * Provides a builder with default values configured ready to be overridden if needed.
+     */
+    public static RequestContentConfigurationBuilder builder() {
+        return new RequestContentConfigurationBuilder()
+            .streamed(false)
+            .gzipThresholdBytes(-1)
+            .gzipResponses(true)
+            .statistics(new ContentStatistics());
+    }
+
+}
@@ -0,0 +1,108 @@
+package com.piksel.sequoia.clientsdk.configuration;
+
+/*-
+ * #%L
+ * Sequoia Java Client SDK
+ * %%
+ * Copyright (C) 2018 Piksel
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.piksel.sequoia.annotations.Internal;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Gives access to virtual threads when the running JVM provides them (Java 21
+ * onwards). The client is compiled for Java 8, so they are looked up
+ * reflectively; on older JVMs daemon platform threads are used instead.
+ */
+@Slf4j
+@Internal
+public final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * Whether the running JVM supports virtual threads.
+     */
+    public static boolean isSupported() {
+        return ExecutorHolder.SUPPORTED;
+    }
+
+    /**
+     * Provides a shared executor that starts a new virtual thread for each
+     * task, or the {@link DefaultClientConfiguration#getDefaultAsyncExecutor()
+     * default executor} when virtual threads are not supported.
+     */
+    public static Executor executor() {
+        return ExecutorHolder.EXECUTOR;
+    }
+
+    /**
+     * Provides a factory of virtual threads named with the given prefix, or of
+     * daemon platform threads when virtual threads are not supported.
+     */
+    public static ThreadFactory threadFactory(String namePrefix) {
+        if (isSupported()) {
+            try {
+                Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+                Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+                builder = builderType.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+                return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+            } catch (ReflectiveOperationException e) {
+                log.warn("Unable to create a virtual thread factory, using platform threads", e);
+            }
+        }
+        return new ThreadFactoryBuilder().setDaemon(true).setNameFormat(namePrefix + "%d").build();
+    }
+
+    private static final class ExecutorHolder {
+
+        private static final Method VIRTUAL_THREAD_PER_TASK_EXECUTOR = virtualThreadPerTaskExecutor();
+        private static final boolean SUPPORTED = VIRTUAL_THREAD_PER_TASK_EXECUTOR != null;
+        private static final Executor EXECUTOR = createExecutor();
+
+        private static Method virtualThreadPerTaskExecutor() {
+            try {
+                return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            } catch (NoSuchMethodException e) {
+                return null;
+            }
+        }
+
+        private static Executor createExecutor() {
+            if (SUPPORTED) {
+                try {
+                    return (Executor) VIRTUAL_THREAD_PER_TASK_EXECUTOR.invoke(null);
+                } catch (ReflectiveOperationException e) {
+                    log.warn("Unable to create a virtual thread executor, using platform threads", e);
+                }
+            } else {
+                log.warn("Virtual threads are not supported by this JVM, using platform threads");
+            }
+            return DefaultClientConfiguration.getDefaultAsyncExecutor();
+        }
+
+    }
+
+}
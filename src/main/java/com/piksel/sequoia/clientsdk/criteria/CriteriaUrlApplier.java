@@ -44,6 +44,21 @@ public class CriteriaUrlApplier {
         return url;
     }
 
+    /**
+     * Apply the criteria to the {@link GenericUrl url} for the given page,
+     * along with the total count of the resources, leaving the criteria
+     * unchanged.
+     */
+    public GenericUrl applyCriteria(GenericUrl url, Criteria<?> criteria, int page) {
+        applyCriteria(url, criteria);
+        String documentName = criteria.getDocumentName().get();
+        if (!url.containsKey(documentName.concat("count"))) {
+            url.set(documentName.concat("count"), "true");
+        }
+        url.set(documentName.concat("page"), Integer.toString(page));
+        return url;
+    }
+
     private void processQueryString(GenericUrl url, Criteria<?> criteria) {
         QueryString qs = queryStringFactory
                 .createQueryString((DefaultCriteria<?>) criteria);
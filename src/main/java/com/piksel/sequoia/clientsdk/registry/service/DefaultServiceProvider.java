@@ -29,6 +29,7 @@ import com.piksel.sequoia.clientsdk.registry.RegisteredService;
 import com.piksel.sequoia.clientsdk.request.RequestClient;
 import com.piksel.sequoia.clientsdk.resource.DynamicResourceEndpointHandler;
 import com.piksel.sequoia.clientsdk.resource.Resource;
+import com.piksel.sequoia.clientsdk.resource.ResourceEndpointConfiguration;
 import com.piksel.sequoia.clientsdk.resource.ResourceEndpointHandler;
 import com.piksel.sequoia.clientsdk.resource.ResourcefulEndpoint;
 import com.piksel.sequoia.clientsdk.validation.Validatable;
@@ -44,11 +45,18 @@ public class DefaultServiceProvider implements ServiceProvider {
     protected final RegisteredService service;
     protected final RequestClient requestClient;
     protected final Gson gson;
+    protected final ResourceEndpointConfiguration endpointConfiguration;
 
     public DefaultServiceProvider(RequestClient requestClient, RegisteredService service, Gson gson) {
+        this(requestClient, service, gson, ResourceEndpointConfiguration.builder().build());
+    }
+
+    public DefaultServiceProvider(RequestClient requestClient, RegisteredService service, Gson gson,
+            ResourceEndpointConfiguration endpointConfiguration) {
         this.service = service;
         this.requestClient = requestClient;
         this.gson = gson;
+        this.endpointConfiguration = endpointConfiguration;
     }
 
     @Override
@@ -58,7 +66,7 @@ public class DefaultServiceProvider implements ServiceProvider {
                 endpoint);
         log.debug("Endpoint composed [{}] ", endpointComposed);
         return new ResourceEndpointHandler<>(requestClient, endpoint,
-                endpointComposed, resourceClass, gson);
+                endpointComposed, resourceClass, gson, endpointConfiguration);
     }
 
     @Override
@@ -68,7 +76,7 @@ public class DefaultServiceProvider implements ServiceProvider {
                 endpoint);
         log.debug("Endpoint composed [{}] ", endpointComposed);
         return new DynamicResourceEndpointHandler<>(requestClient, owner,
-                endpoint, endpointComposed, resourceClass, gson);
+                endpoint, endpointComposed, resourceClass, gson, endpointConfiguration);
     }
 
     @Override
@@ -25,6 +25,7 @@ import static java.util.concurrent.TimeUnit.SECONDS;
 
 import com.google.common.collect.Maps;
 import com.google.common.util.concurrent.AbstractScheduledService;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.piksel.sequoia.annotations.Internal;
 import com.piksel.sequoia.clientsdk.RequestExecutionException;
 import com.piksel.sequoia.clientsdk.registry.HostRegistry;
@@ -35,7 +36,10 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
 import java.util.function.Consumer;
 import lombok.extern.slf4j.Slf4j;
 
@@ -57,12 +61,15 @@ public class RegisteredServicesService extends AbstractScheduledService implemen
 
     private String registryOwner;
 
+    private final ThreadFactory threadFactory;
+
     public RegisteredServicesService(
             RegisteredServicesServiceConfiguration configuration,
             RegistryClient registryClient) {
         this.registryOwner = configuration.getRegistryServiceOwner();
         this.refreshIntervalSeconds = configuration.getRefreshIntervalSeconds();
         this.registryClient = registryClient;
+        this.threadFactory = configuration.getThreadFactory();
     }
 
     @Override
@@ -102,6 +109,26 @@ public class RegisteredServicesService extends AbstractScheduledService implemen
         return newFixedDelaySchedule(0, refreshIntervalSeconds, SECONDS);
     }
 
+    @Override
+    protected ScheduledExecutorService executor() {
+        if (threadFactory == null) {
+            return super.executor();
+        }
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        addListener(new Listener() {
+            @Override
+            public void terminated(State from) {
+                executor.shutdown();
+            }
+
+            @Override
+            public void failed(State from, Throwable failure) {
+                executor.shutdown();
+            }
+        }, MoreExecutors.directExecutor());
+        return executor;
+    }
+
     @Override
     public boolean isPopulated() {
         return isPopulated;
@@ -20,6 +20,8 @@ package com.piksel.sequoia.clientsdk.registry.service;
  * #L%
  */
 
+import java.util.concurrent.ThreadFactory;
+
 import com.piksel.sequoia.annotations.Internal;
 
 import lombok.Builder;
@@ -36,6 +38,11 @@ public class RegisteredServicesServiceConfiguration {
 
     private String registryServiceOwner;
 
+    /**
+     * If set, the factory of the thread on which the registry is refreshed.
+     */
+    private ThreadFactory threadFactory;
+
     public static RegisteredServicesServiceConfigurationBuilder builder() {
         return new RegisteredServicesServiceConfigurationBuilder()
                 .refreshIntervalSeconds(DEFAULT_REFRESH_INTERVAL_SECONDS);
@@ -24,6 +24,7 @@ import com.google.gson.Gson;
 import com.piksel.sequoia.clientsdk.registry.RegisteredService;
 import com.piksel.sequoia.clientsdk.request.RequestClient;
 import com.piksel.sequoia.clientsdk.resource.Resource;
+import com.piksel.sequoia.clientsdk.resource.ResourceEndpointConfiguration;
 import com.piksel.sequoia.clientsdk.resource.ResourcefulEndpoint;
 
 public class ServiceProviderWithOwner extends DefaultServiceProvider {
@@ -32,7 +33,12 @@ public class ServiceProviderWithOwner extends DefaultServiceProvider {
 
     public ServiceProviderWithOwner(RequestClient requestClient,
         RegisteredService service, Gson gson, String owner) {
-        super(requestClient, service, gson);
+        this(requestClient, service, gson, owner, ResourceEndpointConfiguration.builder().build());
+    }
+
+    public ServiceProviderWithOwner(RequestClient requestClient,
+        RegisteredService service, Gson gson, String owner, ResourceEndpointConfiguration endpointConfiguration) {
+        super(requestClient, service, gson, endpointConfiguration);
         this.owner = owner;
     }
 
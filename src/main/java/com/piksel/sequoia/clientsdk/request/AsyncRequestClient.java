@@ -0,0 +1,111 @@
+package com.piksel.sequoia.clientsdk.request;
+
+/*-
+ * #%L
+ * Sequoia Java Client SDK
+ * %%
+ * Copyright (C) 2018 Piksel
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import com.google.api.client.http.GenericUrl;
+import com.google.gson.JsonElement;
+import com.piksel.sequoia.annotations.PublicEvolving;
+import com.piksel.sequoia.clientsdk.Response;
+import com.piksel.sequoia.clientsdk.resource.Reference;
+import com.piksel.sequoia.clientsdk.resource.Resource;
+
+/**
+ * Non-blocking counterpart of {@link RequestClient}. Every request is executed
+ * on the executor configured for the client and the returned future is
+ * completed with the response, or exceptionally with the
+ * {@link com.piksel.sequoia.clientsdk.RequestExecutionException} that the
+ * blocking call would have thrown.
+ */
+@PublicEvolving
+public interface AsyncRequestClient {
+
+    /**
+     * Executes a GET request for the given url and adding the given headers.
+     *
+     * @param url is the url to do the request
+     * @param headers are the headers needed to do the request
+     * @return a future completed with the json response
+     */
+    CompletableFuture<Response<JsonElement>> executeGetRequestAsync(GenericUrl url,
+            Map<? extends String, ?> headers);
+
+    /**
+     * Executes a GET request for the resource with the given reference.
+     *
+     * @param url is the url to do the request
+     * @param headers are the headers needed to do the request
+     * @param reference the reference of the resource to retrieve
+     * @return a future completed with the json response
+     */
+    CompletableFuture<Response<JsonElement>> executeGetRequestAsync(GenericUrl url,
+            Map<? extends String, ?> headers, Reference reference);
+
+    /**
+     * Executes a GET request for the resources with the given references.
+     *
+     * @param url is the url to do the request
+     * @param headers are the headers needed to do the request
+     * @param references the references of the resources to retrieve
+     * @return a future completed with the json response
+     */
+    CompletableFuture<Response<JsonElement>> executeGetRequestAsync(GenericUrl url,
+            Map<? extends String, ?> headers, Reference... references);
+
+    /**
+     * Executes a POST request storing the given resources.
+     *
+     * @param url is the url to do the request
+     * @param headers are the headers needed to do the request
+     * @param resourceKey the key under which the resources are sent
+     * @param content the resources to store
+     * @return a future completed with the json response
+     */
+    <T extends Resource> CompletableFuture<Response<JsonElement>> executePostRequestAsync(GenericUrl url,
+            Map<? extends String, ?> headers, String resourceKey, T... content);
+
+    /**
+     * Executes a PUT request updating the resource with the given reference.
+     *
+     * @param url is the url to do the request
+     * @param headers are the headers needed to do the request
+     * @param resourceKey the key under which the resource is sent
+     * @param content the resource to update
+     * @param reference the reference of the resource to update
+     * @return a future completed with the json response
+     */
+    <T extends Resource> CompletableFuture<Response<JsonElement>> executePutRequestAsync(GenericUrl url,
+            Map<? extends String, ?> headers, String resourceKey, T content, Reference reference);
+
+    /**
+     * Executes a DELETE request for the resources with the given references.
+     *
+     * @param url is the url to do the request
+     * @param headers are the headers needed to do the request
+     * @param references the references of the resources to delete
+     * @return a future completed with the json response
+     */
+    CompletableFuture<Response<JsonElement>> executeDeleteRequestAsync(GenericUrl url,
+            Map<? extends String, ?> headers, Reference... references);
+
+}
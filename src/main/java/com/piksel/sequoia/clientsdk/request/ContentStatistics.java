@@ -0,0 +1,113 @@
+package com.piksel.sequoia.clientsdk.request;
+
+/*-
+ * #%L
+ * Sequoia Java Client SDK
+ * %%
+ * Copyright (C) 2018 Piksel
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.concurrent.atomic.LongAdder;
+
+import com.piksel.sequoia.annotations.PublicEvolving;
+
+/**
+ * Counts the bytes of request and response bodies before and after
+ * compression, to measure the bandwidth saved by gzip.
+ */
+@PublicEvolving
+public class ContentStatistics {
+
+    private final LongAdder requestBytes = new LongAdder();
+    private final LongAdder requestBytesSent = new LongAdder();
+    private final LongAdder responseBytes = new LongAdder();
+    private final LongAdder responseBytesReceived = new LongAdder();
+    private final LongAdder compressedResponsesWithoutLength = new LongAdder();
+
+    /**
+     * The bytes of JSON request bodies written, before compression.
+     */
+    public long getRequestBytes() {
+        return requestBytes.sum();
+    }
+
+    /**
+     * The bytes of request bodies written to the connection, after
+     * compression.
+     */
+    public long getRequestBytesSent() {
+        return requestBytesSent.sum();
+    }
+
+    /**
+     * The bytes of response bodies read, after decompression.
+     */
+    public long getResponseBytes() {
+        return responseBytes.sum();
+    }
+
+    /**
+     * The bytes of response bodies as received from the connection. The
+     * transport decompresses responses itself, so a compressed response is
+     * counted by its declared {@code Content-Length}; compressed responses
+     * sent without one are counted by
+     * {@link #getCompressedResponsesWithoutLength()} instead.
+     */
+    public long getResponseBytesReceived() {
+        return responseBytesReceived.sum();
+    }
+
+    /**
+     * The number of compressed responses whose received size is unknown.
+     */
+    public long getCompressedResponsesWithoutLength() {
+        return compressedResponsesWithoutLength.sum();
+    }
+
+    /**
+     * Records a request body of the given size written as the given number
+     * of bytes.
+     */
+    public void recordRequest(long bytes, long bytesSent) {
+        requestBytes.add(bytes);
+        requestBytesSent.add(bytesSent);
+    }
+
+    /**
+     * Records a response body of the given decompressed size, with its
+     * declared length when it was received compressed.
+     */
+    public void recordResponse(long bytes, boolean compressed, Long bytesReceived) {
+        responseBytes.add(bytes);
+        if (!compressed) {
+            responseBytesReceived.add(bytes);
+        } else if (bytesReceived != null) {
+            responseBytesReceived.add(bytesReceived);
+        } else {
+            compressedResponsesWithoutLength.increment();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ContentStatistics(requestBytes=" + getRequestBytes()
+                + ", requestBytesSent=" + getRequestBytesSent()
+                + ", responseBytes=" + getResponseBytes()
+                + ", responseBytesReceived=" + getResponseBytesReceived()
+                + ", compressedResponsesWithoutLength=" + getCompressedResponsesWithoutLength() + ")";
+    }
+
+}
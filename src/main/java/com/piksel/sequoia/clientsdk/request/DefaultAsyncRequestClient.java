@@ -0,0 +1,91 @@
+package com.piksel.sequoia.clientsdk.request;
+
+/*-
+ * #%L
+ * Sequoia Java Client SDK
+ * %%
+ * Copyright (C) 2018 Piksel
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import com.google.api.client.http.GenericUrl;
+import com.google.gson.JsonElement;
+import com.piksel.sequoia.annotations.Internal;
+import com.piksel.sequoia.clientsdk.Response;
+import com.piksel.sequoia.clientsdk.resource.Reference;
+import com.piksel.sequoia.clientsdk.resource.Resource;
+
+/**
+ * Adapts a blocking {@link RequestClient} to the {@link AsyncRequestClient}
+ * contract by running each request on the given executor.
+ */
+@Internal
+public class DefaultAsyncRequestClient implements AsyncRequestClient {
+
+    private final RequestClient requestClient;
+    private final Executor executor;
+
+    public DefaultAsyncRequestClient(RequestClient requestClient, Executor executor) {
+        this.requestClient = requestClient;
+        this.executor = executor;
+    }
+
+    @Override
+    public CompletableFuture<Response<JsonElement>> executeGetRequestAsync(GenericUrl url,
+            Map<? extends String, ?> headers) {
+        return CompletableFuture.supplyAsync(() -> requestClient.executeGetRequest(url, headers), executor);
+    }
+
+    @Override
+    public CompletableFuture<Response<JsonElement>> executeGetRequestAsync(GenericUrl url,
+            Map<? extends String, ?> headers, Reference reference) {
+        return CompletableFuture.supplyAsync(() -> requestClient.executeGetRequest(url, headers, reference),
+                executor);
+    }
+
+    @Override
+    public CompletableFuture<Response<JsonElement>> executeGetRequestAsync(GenericUrl url,
+            Map<? extends String, ?> headers, Reference... references) {
+        return CompletableFuture.supplyAsync(() -> requestClient.executeGetRequest(url, headers, references),
+                executor);
+    }
+
+    @Override
+    @SafeVarargs
+    public final <T extends Resource> CompletableFuture<Response<JsonElement>> executePostRequestAsync(
+            GenericUrl url, Map<? extends String, ?> headers, String resourceKey, T... content) {
+        return CompletableFuture.supplyAsync(
+                () -> requestClient.executePostRequest(url, headers, resourceKey, content), executor);
+    }
+
+    @Override
+    public <T extends Resource> CompletableFuture<Response<JsonElement>> executePutRequestAsync(GenericUrl url,
+            Map<? extends String, ?> headers, String resourceKey, T content, Reference reference) {
+        return CompletableFuture.supplyAsync(
+                () -> requestClient.executePutRequest(url, headers, resourceKey, content, reference), executor);
+    }
+
+    @Override
+    public CompletableFuture<Response<JsonElement>> executeDeleteRequestAsync(GenericUrl url,
+            Map<? extends String, ?> headers, Reference... references) {
+        return CompletableFuture.supplyAsync(() -> requestClient.executeDeleteRequest(url, headers, references),
+                executor);
+    }
+
+}
@@ -21,27 +21,38 @@ package com.piksel.sequoia.clientsdk.request;
  */
 
 import com.google.api.client.http.*;
+import com.google.common.io.CountingInputStream;
 import com.google.gson.Gson;
 import com.google.gson.JsonElement;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonNull;
 import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
 import com.piksel.sequoia.annotations.PublicEvolving;
 import com.piksel.sequoia.clientsdk.DefaultJsonElementResponse;
 import com.piksel.sequoia.clientsdk.RequestExecutionException;
 import com.piksel.sequoia.clientsdk.RequestFactory;
 import com.piksel.sequoia.clientsdk.Response;
+import com.piksel.sequoia.clientsdk.configuration.DefaultClientConfiguration;
+import com.piksel.sequoia.clientsdk.configuration.RequestContentConfiguration;
 import com.piksel.sequoia.clientsdk.resource.Reference;
 import com.piksel.sequoia.clientsdk.resource.Resource;
 import com.piksel.sequoia.clientsdk.resource.ResourceCollection;
+import com.piksel.sequoia.clientsdk.resource.json.EncodedJson;
 import com.piksel.sequoia.clientsdk.resource.json.JsonHttpContent;
 import lombok.extern.slf4j.Slf4j;
 
 import javax.inject.Inject;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
@@ -54,23 +65,70 @@ import static java.nio.charset.StandardCharsets.UTF_8;
 public class DefaultRequestClient implements RequestClient {
 
     private static final String APPLICATION_JSON = "application/json";
+    private static final String GZIP = "gzip";
     private final RequestFactory requestFactory;
     private final HttpRequestInitializer requestInitializer;
     private static final JsonParser JSONPARSER = new JsonParser();
     private final Gson gson;
+    private final Executor asyncExecutor;
+    private final AsyncRequestClient asyncRequestClient;
+    private final RequestContentConfiguration contentConfiguration;
+    private final HttpResponseCache responseCache;
+    private final InFlightRequests inFlightRequests;
 
     @Inject
     public DefaultRequestClient(RequestFactory requestFactory,
             HttpRequestInitializer requestInitializer, Gson gson) {
+        this(requestFactory, requestInitializer, gson,
+                DefaultClientConfiguration.getDefaultAsyncExecutor());
+    }
+
+    public DefaultRequestClient(RequestFactory requestFactory,
+            HttpRequestInitializer requestInitializer, Gson gson, Executor asyncExecutor) {
+        this(requestFactory, requestInitializer, gson, asyncExecutor,
+                RequestContentConfiguration.builder().build());
+    }
+
+    public DefaultRequestClient(RequestFactory requestFactory,
+            HttpRequestInitializer requestInitializer, Gson gson, Executor asyncExecutor,
+            RequestContentConfiguration contentConfiguration) {
+        this(requestFactory, requestInitializer, gson, asyncExecutor, contentConfiguration, null, null);
+    }
+
+    /**
+     * Creates a client serving GET responses from the given cache, and
+     * coalescing concurrent identical GET requests through the given
+     * in-flight requests. Either may be shared between clients, or be null to
+     * disable it.
+     */
+    public DefaultRequestClient(RequestFactory requestFactory,
+            HttpRequestInitializer requestInitializer, Gson gson, Executor asyncExecutor,
+            RequestContentConfiguration contentConfiguration, HttpResponseCache responseCache,
+            InFlightRequests inFlightRequests) {
         this.requestFactory = requestFactory;
         this.requestInitializer = requestInitializer;
         this.gson = gson;
+        this.asyncExecutor = asyncExecutor;
+        this.asyncRequestClient = new DefaultAsyncRequestClient(this, asyncExecutor);
+        this.contentConfiguration = contentConfiguration;
+        this.responseCache = responseCache;
+        this.inFlightRequests = inFlightRequests;
     }
 
     protected DefaultRequestClient(DefaultRequestClient requestClient) {
         this.requestFactory = requestClient.requestFactory;
         this.requestInitializer = requestClient.requestInitializer;
         this.gson = requestClient.gson;
+        this.asyncExecutor = requestClient.asyncExecutor;
+        this.asyncRequestClient = new DefaultAsyncRequestClient(this, asyncExecutor);
+        this.contentConfiguration = requestClient.contentConfiguration;
+        this.responseCache = requestClient.responseCache;
+        this.inFlightRequests = requestClient.inFlightRequests;
+    }
+
+    @Override
+    public AsyncRequestClient async() {
+        return asyncRequestClient;
     }
 
     @Override
@@ -175,6 +233,16 @@ public class DefaultRequestClient implements RequestClient {
         return executeRequest(request);
     }
 
+    @Override
+    public Response<JsonElement> executePostRequest(GenericUrl url, Map<? extends String, ?> headers,
+            EncodedJson body) {
+        log.debug("Performing client request to URL [{}] ", url.toString());
+        HttpRequest request = createPostRequest(url, body);
+        request.getHeaders().putAll(headers);
+        configureApplicationJsonHeaders(request);
+        return executeRequest(request);
+    }
+
     private HttpRequest createHttpRequest(GenericUrl url) {
         HttpRequest request = createRequest(url);
         configureApplicationJsonHeaders(request);
@@ -199,23 +267,124 @@ public class DefaultRequestClient implements RequestClient {
     }
 
     protected Response<JsonElement> executeRequest(HttpRequest request) {
+        if (inFlightRequests != null && HttpMethods.GET.equals(request.getRequestMethod())) {
+            return inFlightRequests.execute(HttpResponseCache.keyOf(request), () -> exchange(request));
+        }
+        return exchange(request);
+    }
+
+    private Response<JsonElement> exchange(HttpRequest request) {
+        String cacheKey = cacheKey(request);
+        HttpResponseCache.Entry cached = cacheKey == null ? null : responseCache.get(cacheKey);
+        if (cached != null && responseCache.isFresh(cached)) {
+            log.debug("Serving fresh cached response for URL [{}]", request.getUrl());
+            return cached.response();
+        }
+        invalidateCache(request);
         try {
             initializeRequest(request);
+            configureContentEncoding(request);
+            if (cached != null) {
+                cached.addConditionalHeaders(request.getHeaders());
+            }
             logRequest(request);
             HttpResponse httpResponse = request.execute();
-            String jsonString = httpResponse.parseAsString();
-            JsonElement jsonElement = JSONPARSER.parse(jsonString);
+            CountingInputStream content = countingContent(httpResponse);
+            JsonElement jsonElement = parseResponse(httpResponse, content);
             log.debug("Request client parsed response [{}]", jsonElement);
-            return DefaultJsonElementResponse.builder()
+            Response<JsonElement> response = DefaultJsonElementResponse.builder()
                     .payload(Optional.ofNullable(jsonElement))
                     .statusCode(httpResponse.getStatusCode())
                     .successStatusCode(httpResponse.isSuccessStatusCode())
                     .build();
+            if (cacheKey != null) {
+                responseCache.put(cacheKey, response, httpResponse.getHeaders(),
+                        content == null ? 0 : content.getCount());
+            }
+            return response;
         } catch (IOException requestExecutionException) {
+            if (cached != null && isNotModified(requestExecutionException)) {
+                log.debug("Serving revalidated cached response for URL [{}]", request.getUrl());
+                return responseCache.revalidated(cacheKey, cached,
+                        ((HttpResponseException) requestExecutionException).getHeaders());
+            }
             return manageException(request, requestExecutionException);
         }
     }
 
+    /**
+     * Provides the cache key of a GET request, or null if the request is not
+     * cached.
+     */
+    private String cacheKey(HttpRequest request) {
+        if (responseCache == null || !HttpMethods.GET.equals(request.getRequestMethod())) {
+            return null;
+        }
+        return HttpResponseCache.keyOf(request);
+    }
+
+    /**
+     * Drops cached responses that a modifying request may make stale, before
+     * the request is sent so that no stale response is served once it has
+     * been applied.
+     */
+    private void invalidateCache(HttpRequest request) {
+        if (responseCache != null && !HttpMethods.GET.equals(request.getRequestMethod())) {
+            responseCache.invalidate(request.getUrl().build());
+        }
+    }
+
+    private static boolean isNotModified(IOException requestExecutionException) {
+        return requestExecutionException instanceof HttpResponseException
+                && ((HttpResponseException) requestExecutionException)
+                        .getStatusCode() == HttpStatusCodes.STATUS_CODE_NOT_MODIFIED;
+    }
+
+    private void configureContentEncoding(HttpRequest request) throws IOException {
+        if (!contentConfiguration.isGzipResponses()) {
+            request.getHeaders().setAcceptEncoding(null);
+        }
+        if (request.getContent() instanceof JsonHttpContent
+                && ((JsonHttpContent) request.getContent()).isGzipped()) {
+            request.getHeaders().setContentEncoding(GZIP);
+        }
+    }
+
+    /**
+     * Decodes the response body straight from the content stream into a json
+     * tree, so the body is never buffered as an intermediate string. Gzipped
+     * responses are decompressed by the stream as they are read.
+     */
+    private JsonElement parseResponse(HttpResponse httpResponse,
+            CountingInputStream countingContent) throws IOException {
+        if (countingContent == null) {
+            return JsonNull.INSTANCE;
+        }
+        try (JsonReader reader = new JsonReader(
+                new InputStreamReader(countingContent, responseCharset(httpResponse)))) {
+            return JSONPARSER.parse(reader);
+        } catch (JsonIOException readException) {
+            throw new IOException(readException.getMessage(), readException.getCause());
+        } finally {
+            String contentEncoding = httpResponse.getContentEncoding();
+            contentConfiguration.getStatistics().recordResponse(countingContent.getCount(),
+                    contentEncoding != null && contentEncoding.contains(GZIP),
+                    httpResponse.getHeaders().getContentLength());
+        }
+    }
+
+    private static CountingInputStream countingContent(HttpResponse httpResponse)
+            throws IOException {
+        InputStream content = httpResponse.getContent();
+        return content == null ? null : new CountingInputStream(content);
+    }
+
+    private Charset responseCharset(HttpResponse httpResponse) {
+        HttpMediaType mediaType = httpResponse.getMediaType();
+        return mediaType == null || mediaType.getCharsetParameter() == null ? UTF_8
+                : mediaType.getCharsetParameter();
+    }
+
     protected HttpRequest createRequest(GenericUrl url) {
         try {
             return requestFactory.getRequestFactory().buildGetRequest(url);
@@ -300,7 +469,7 @@ public class DefaultRequestClient implements RequestClient {
             Map<String, T> content) {
         try {
             return requestFactory.getRequestFactory().buildPostRequest(url,
-                    new JsonHttpContent(gson, content));
+                    jsonContent(content));
 
         } catch (IOException requestBuildException) {
             throw new RequestExecutionException(requestBuildException);
@@ -310,7 +479,7 @@ public class DefaultRequestClient implements RequestClient {
     private <T> HttpRequest createPostRequest(GenericUrl url, T content) {
         try {
             return requestFactory.getRequestFactory().buildPostRequest(url,
-                    new JsonHttpContent(gson, content));
+                    jsonContent(content));
 
         } catch (IOException requestBuildException) {
             throw new RequestExecutionException(requestBuildException);
@@ -321,13 +490,17 @@ public class DefaultRequestClient implements RequestClient {
             Map<String, T> content) {
         try {
             return requestFactory.getRequestFactory().buildPutRequest(url,
-                    new JsonHttpContent(gson, content));
+                    jsonContent(content));
 
         } catch (IOException requestBuildException) {
             throw new RequestExecutionException(requestBuildException);
         }
     }
 
+    private JsonHttpContent jsonContent(Object content) {
+        return new JsonHttpContent(gson, content, contentConfiguration);
+    }
+
     private HttpRequest createGetRequest(GenericUrl url) {
         try {
             return requestFactory.getRequestFactory().buildGetRequest(url);
@@ -354,7 +527,16 @@ public class DefaultRequestClient implements RequestClient {
     }
 
     private void logRequest(HttpRequest request) throws IOException {
-        if (request.getContent() != null) {
+        if (!log.isDebugEnabled() || request.getContent() == null) {
+            return;
+        }
+        if (request.getContent() instanceof JsonHttpContent
+                && ((JsonHttpContent) request.getContent()).isStreamed()) {
+            log.debug("Request client streamed json request, body not logged");
+        } else if (request.getContent() instanceof JsonHttpContent) {
+            log.debug("Request client json request [{}]",
+                    new String(((JsonHttpContent) request.getContent()).getEncoded(), UTF_8));
+        } else {
             ByteArrayOutputStream baos = new ByteArrayOutputStream();
             request.getContent().writeTo(baos);
             log.debug("Request client json request [{}]", baos.toString(UTF_8.name()));
@@ -0,0 +1,211 @@
+package com.piksel.sequoia.clientsdk.request;
+
+/*-
+ * #%L
+ * Sequoia Java Client SDK
+ * %%
+ * Copyright (C) 2018 Piksel
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.LongSupplier;
+
+import com.google.api.client.http.HttpHeaders;
+import com.google.api.client.http.HttpRequest;
+import com.google.common.base.Splitter;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.gson.JsonElement;
+import com.piksel.sequoia.annotations.Internal;
+import com.piksel.sequoia.clientsdk.Response;
+import com.piksel.sequoia.clientsdk.configuration.HttpCacheConfiguration;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Keeps GET responses by url and request headers, with the validators needed
+ * to revalidate them. Entries are weighed by the size of their body and the
+ * least recently used are evicted once the configured bound is reached.
+ *
+ * <p>Responses are kept encoded and every response served from the cache has
+ * its own payload, so a caller modifying it does not affect the others.
+ */
+@Internal
+public class HttpResponseCache {
+
+    private static final String NO_STORE = "no-store";
+    private static final String NO_CACHE = "no-cache";
+    private static final String MAX_AGE = "max-age=";
+    private static final Splitter DIRECTIVES = Splitter.on(',').trimResults().omitEmptyStrings();
+
+    private final Cache<String, Entry> entries;
+    private final LongSupplier clock;
+
+    public HttpResponseCache(HttpCacheConfiguration configuration) {
+        this(configuration, System::currentTimeMillis);
+    }
+
+    HttpResponseCache(HttpCacheConfiguration configuration, LongSupplier clock) {
+        this.entries = CacheBuilder.newBuilder()
+                .maximumWeight(configuration.getMaximumSizeBytes())
+                .weigher((String key, Entry entry) -> entry.getWeight())
+                .build();
+        this.clock = clock;
+    }
+
+    /**
+     * Provides the key under which the response to the given request is
+     * cached, made of the url and the headers the caller set on the request.
+     */
+    static String keyOf(HttpRequest request) {
+        return request.getUrl().build() + " " + new TreeMap<>(request.getHeaders());
+    }
+
+    Entry get(String key) {
+        return entries.getIfPresent(key);
+    }
+
+    long size() {
+        return entries.size();
+    }
+
+    /**
+     * Caches a successful response when its headers allow it and it can be
+     * either revalidated or served while fresh.
+     */
+    void put(String key, Response<JsonElement> response, HttpHeaders headers, long bodySize) {
+        String cacheControl = headers.getCacheControl();
+        if (!response.isSuccessStatusCode() || hasDirective(cacheControl, NO_STORE)) {
+            entries.invalidate(key);
+            return;
+        }
+        long maxAgeMillis = maxAgeMillis(cacheControl);
+        if (headers.getETag() == null && headers.getLastModified() == null && maxAgeMillis <= 0) {
+            entries.invalidate(key);
+            return;
+        }
+        entries.put(key, new Entry(ResponseSnapshot.of(response), headers.getETag(), headers.getLastModified(),
+                clock.getAsLong() + maxAgeMillis, weigh(key, bodySize)));
+    }
+
+    /**
+     * Refreshes the given entry from the headers of a {@code 304 Not Modified}
+     * response, keeping its payload, and provides a copy of it.
+     */
+    Response<JsonElement> revalidated(String key, Entry entry, HttpHeaders headers) {
+        String eTag = headers.getETag() == null ? entry.getETag() : headers.getETag();
+        String lastModified = headers.getLastModified() == null ? entry.getLastModified()
+                : headers.getLastModified();
+        entries.put(key, new Entry(entry.getSnapshot(), eTag, lastModified,
+                clock.getAsLong() + maxAgeMillis(headers.getCacheControl()), entry.getWeight()));
+        return entry.response();
+    }
+
+    /**
+     * Drops the entries of the parent path of the given url, whatever their
+     * query, and of every url under it. For a modified resource this covers
+     * the browses of its collection, its reads and any multi reference reads
+     * of it.
+     */
+    void invalidate(String url) {
+        int query = url.indexOf('?');
+        String path = query < 0 ? url : url.substring(0, query);
+        String collection = path.substring(0, path.lastIndexOf('/'));
+        entries.asMap().keySet().removeIf(key -> isWithin(key, collection));
+    }
+
+    private static boolean isWithin(String key, String collection) {
+        if (!key.startsWith(collection)) {
+            return false;
+        }
+        if (key.length() == collection.length()) {
+            return true;
+        }
+        char next = key.charAt(collection.length());
+        return next == '/' || next == '?' || next == ' ';
+    }
+
+    boolean isFresh(Entry entry) {
+        return clock.getAsLong() < entry.getFreshUntil();
+    }
+
+    private static int weigh(String key, long bodySize) {
+        return (int) Math.min(Integer.MAX_VALUE, key.length() + Math.max(bodySize, 0));
+    }
+
+    private static long maxAgeMillis(String cacheControl) {
+        if (cacheControl == null || hasDirective(cacheControl, NO_CACHE)) {
+            return 0;
+        }
+        for (String directive : DIRECTIVES.split(cacheControl)) {
+            if (directive.toLowerCase().startsWith(MAX_AGE)) {
+                try {
+                    return Long.parseLong(directive.substring(MAX_AGE.length()).trim()) * 1000;
+                } catch (NumberFormatException invalidMaxAge) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+
+    private static boolean hasDirective(String cacheControl, String name) {
+        if (cacheControl == null) {
+            return false;
+        }
+        for (String directive : DIRECTIVES.split(cacheControl)) {
+            if (directive.equalsIgnoreCase(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Getter
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    static final class Entry {
+
+        private final ResponseSnapshot snapshot;
+        private final String eTag;
+        private final String lastModified;
+        private final long freshUntil;
+        private final int weight;
+
+        /**
+         * Provides a copy of the cached response.
+         */
+        Response<JsonElement> response() {
+            return snapshot.toResponse();
+        }
+
+        /**
+         * Adds the validators of this entry to the given request headers.
+         */
+        void addConditionalHeaders(HttpHeaders headers) {
+            if (Objects.nonNull(eTag)) {
+                headers.setIfNoneMatch(eTag);
+            }
+            if (Objects.nonNull(lastModified)) {
+                headers.setIfModifiedSince(lastModified);
+            }
+        }
+
+    }
+
+}
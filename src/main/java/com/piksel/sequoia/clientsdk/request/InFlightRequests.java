@@ -0,0 +1,121 @@
+package com.piksel.sequoia.clientsdk.request;
+
+/*-
+ * #%L
+ * Sequoia Java Client SDK
+ * %%
+ * Copyright (C) 2018 Piksel
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+import com.google.gson.JsonElement;
+import com.piksel.sequoia.annotations.Internal;
+import com.piksel.sequoia.clientsdk.Response;
+
+/**
+ * Coalesces identical concurrent requests, so that callers arriving while a
+ * request is in flight wait for it and receive its response, or its failure,
+ * instead of sending their own. Each waiting caller receives its own copy of
+ * the response.
+ */
+@Internal
+public class InFlightRequests {
+
+    private final ConcurrentMap<String, Call> requests = new ConcurrentHashMap<>();
+
+    /**
+     * Executes the given request unless one with the same key is in flight,
+     * in which case its outcome is awaited instead. The response is only
+     * encoded for the waiting callers if there are any.
+     */
+    Response<JsonElement> execute(String key, Supplier<Response<JsonElement>> request) {
+        Call call = new Call();
+        Call inFlight = requests.putIfAbsent(key, call);
+        if (inFlight != null) {
+            return inFlight.await() ? await(inFlight.response).toResponse() : request.get();
+        }
+        try {
+            Response<JsonElement> response = request.get();
+            if (call.finish()) {
+                call.response.complete(ResponseSnapshot.of(response));
+            }
+            return response;
+        } catch (RuntimeException | Error failure) {
+            call.finish();
+            call.response.completeExceptionally(failure);
+            throw failure;
+        } finally {
+            requests.remove(key, call);
+        }
+    }
+
+    int size() {
+        return requests.size();
+    }
+
+    private static ResponseSnapshot await(CompletableFuture<ResponseSnapshot> inFlight) {
+        try {
+            return inFlight.join();
+        } catch (CompletionException completionException) {
+            Throwable failure = completionException.getCause();
+            if (failure instanceof RuntimeException) {
+                throw (RuntimeException) failure;
+            }
+            if (failure instanceof Error) {
+                throw (Error) failure;
+            }
+            throw completionException;
+        }
+    }
+
+    /**
+     * A request in flight and the number of callers waiting for it.
+     */
+    private static final class Call {
+
+        private final CompletableFuture<ResponseSnapshot> response = new CompletableFuture<>();
+        private int waiters;
+        private boolean finished;
+
+        /**
+         * Registers a waiting caller, unless the request has already
+         * finished, in which case the caller sends its own.
+         */
+        synchronized boolean await() {
+            if (finished) {
+                return false;
+            }
+            waiters++;
+            return true;
+        }
+
+        /**
+         * Marks the request as finished, and tells whether any caller is
+         * waiting for it.
+         */
+        synchronized boolean finish() {
+            finished = true;
+            return waiters > 0;
+        }
+
+    }
+
+}
@@ -25,8 +25,10 @@ import java.util.Map;
 import com.google.api.client.http.GenericUrl;
 import com.google.gson.JsonElement;
 import com.piksel.sequoia.clientsdk.Response;
+import com.piksel.sequoia.clientsdk.configuration.DefaultClientConfiguration;
 import com.piksel.sequoia.clientsdk.resource.Reference;
 import com.piksel.sequoia.clientsdk.resource.Resource;
+import com.piksel.sequoia.clientsdk.resource.json.EncodedJson;
 
 public interface RequestClient {
 
@@ -168,6 +170,20 @@ public interface RequestClient {
         return executePostRequest(url, resourceKey, content);
     }
 
+    /**
+     * Executes a POST request sending the given JSON, encoded beforehand, as
+     * the body.
+     *
+     * @param url is the url to do the request
+     * @param headers are the params to add to do the request
+     * @param body the encoded body of the request
+     * @return Json with the response
+     */
+    default Response<JsonElement> executePostRequest(GenericUrl url, Map<? extends String, ?> headers,
+            EncodedJson body) {
+        return executePostRequest(url, body, JsonElement.class, headers);
+    }
+
     /**
      *
      * Executes a PUT request
@@ -224,4 +240,14 @@ public interface RequestClient {
         return executeDeleteRequest(url, references);
     }
 
+    /**
+     * Provides the non-blocking view of this client. Unless overridden,
+     * requests are run on the default async executor shared by the clients.
+     *
+     * @return an {@link AsyncRequestClient} delegating to this client
+     */
+    default AsyncRequestClient async() {
+        return new DefaultAsyncRequestClient(this, DefaultClientConfiguration.getDefaultAsyncExecutor());
+    }
+
 }
@@ -0,0 +1,66 @@
+package com.piksel.sequoia.clientsdk.request;
+
+/*-
+ * #%L
+ * Sequoia Java Client SDK
+ * %%
+ * Copyright (C) 2018 Piksel
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Optional;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.piksel.sequoia.clientsdk.DefaultJsonElementResponse;
+import com.piksel.sequoia.clientsdk.Response;
+
+/**
+ * A response kept as its encoded body, so that every caller it is handed to
+ * receives its own payload. Gson json trees are mutable and cannot be copied,
+ * so the payload is parsed again for each of them.
+ */
+
+final class ResponseSnapshot {
+
+    private static final JsonParser JSON_PARSER = new JsonParser();
+
+    private final Optional<String> body;
+    private final int statusCode;
+    private final boolean successStatusCode;
+
+    private ResponseSnapshot(Optional<String> body, int statusCode, boolean successStatusCode) {
+        this.body = body;
+        this.statusCode = statusCode;
+        this.successStatusCode = successStatusCode;
+    }
+
+    static ResponseSnapshot of(Response<JsonElement> response) {
+        return new ResponseSnapshot(response.getPayload().map(JsonElement::toString), response.getStatusCode(),
+                response.isSuccessStatusCode());
+    }
+
+    /**
+     * Provides a new response with its own copy of the payload.
+     */
+    Response<JsonElement> toResponse() {
+        return DefaultJsonElementResponse.builder()
+                .payload(body.map(JSON_PARSER::parse))
+                .statusCode(statusCode)
+                .successStatusCode(successStatusCode)
+                .build();
+    }
+
+}
@@ -92,10 +92,19 @@ public abstract class AbstractLoadingIterable<T extends Resource> {
 
     protected int addPage(JsonElement payload) {
         Meta meta = getMeta(payload);
-        pages.put(meta.getPage(), Page.from(meta, deserializer.contentsFrom(payload)));
+        putPage(meta.getPage(), Page.from(meta, deserializer.contentsFrom(payload)));
         return meta.getPage();
     }
 
+    /**
+     * Holds the given page as the page being iterated, releasing the pages
+     * already iterated so that only one page is held at a time.
+     */
+    protected void putPage(int index, Page<T> page) {
+        pages.clear();
+        pages.put(index, page);
+    }
+
     protected Page<T> currentPage() {
         return pages.get(pageIndex);
     }
@@ -0,0 +1,285 @@
+package com.piksel.sequoia.clientsdk.resource;
+
+/*-
+ * #%L
+ * Sequoia Java Client SDK
+ * %%
+ * Copyright (C) 2018 Piksel
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import com.google.api.client.http.HttpStatusCodes;
+import com.piksel.sequoia.clientsdk.ClientException;
+import com.piksel.sequoia.clientsdk.RequestExecutionException;
+import com.piksel.sequoia.clientsdk.Response;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Splits resources into batches bounded by count and encoded size, and stores
+ * up to {@code parallelism} batches at a time, retrying each batch on its own.
+ *
+ * <p>
+ * Each resource is encoded once: the batches are sized from the encoded
+ * resources, along with the {@code envelopeBytes} of the request body around
+ * them and a separator between them, and the encoded resources are then sent
+ * as they are. The resources are encoded and the batches stored by the
+ * calling thread along with workers on the given executor, which only take
+ * work once they run, so that a busy executor slows the store down instead of
+ * blocking it.
+ */
+@Slf4j
+class BatchedStore<T extends Resource> {
+
+    private static final int STATUS_CODE_TOO_MANY_REQUESTS = 429;
+    private static final int ENCODED_CHUNK = 16;
+
+    private final BatchedStoreConfiguration configuration;
+    private final Executor executor;
+    private final Function<T, byte[]> encoder;
+    private final int envelopeBytes;
+    private final BiFunction<T[], List<byte[]>, Response<?>> storeBatch;
+
+    BatchedStore(BatchedStoreConfiguration configuration, Executor executor, Function<T, byte[]> encoder,
+            int envelopeBytes, BiFunction<T[], List<byte[]>, Response<?>> storeBatch) {
+        if (configuration.getMaxBatchSize() < 1 || configuration.getMaxBatchBytes() < 1
+                || configuration.getParallelism() < 1 || configuration.getMaxAttempts() < 1) {
+            throw new IllegalArgumentException("The batch size and bytes, parallelism and attempts must be at least 1");
+        }
+        this.configuration = configuration;
+        this.executor = executor;
+        this.encoder = encoder;
+        this.envelopeBytes = envelopeBytes;
+        this.storeBatch = storeBatch;
+    }
+
+    BatchedStoreResult store(T[] resources) {
+        Batches batches = new Batches(resources);
+        int workers = Math.min(configuration.getParallelism(), resources.length);
+        for (int worker = 1; worker < workers; worker++) {
+            executor.execute(batches::work);
+        }
+        batches.work();
+        return batches.await();
+    }
+
+    private StoreBatchResult storeBatch(T[] batch, List<byte[]> encoded, int offset) {
+        for (int attempt = 1;; attempt++) {
+            StoreBatchResult result;
+            try {
+                Response<?> response = storeBatch.apply(batch, encoded);
+                result = new StoreBatchResult(offset, batch.length, response.getStatusCode(),
+                        response.isSuccessStatusCode(), attempt, Optional.empty());
+            } catch (RequestExecutionException requestException) {
+                result = new StoreBatchResult(offset, batch.length, requestException.getStatusCode(), false,
+                        attempt, Optional.of(requestException));
+            }
+            if (result.isSuccessStatusCode() || !isRetryable(result.getStatusCode())
+                    || attempt >= configuration.getMaxAttempts()) {
+                return result;
+            }
+            log.debug("Retrying batch at offset [{}] after attempt [{}] with status code [{}]", offset, attempt,
+                    result.getStatusCode());
+            try {
+                Thread.sleep(configuration.getRetryDelay().toMillis() * attempt);
+            } catch (InterruptedException interruptedException) {
+                Thread.currentThread().interrupt();
+                return result;
+            }
+        }
+    }
+
+    private static boolean isRetryable(int statusCode) {
+        return statusCode == 0 || statusCode == STATUS_CODE_TOO_MANY_REQUESTS
+                || statusCode >= HttpStatusCodes.STATUS_CODE_SERVER_ERROR;
+    }
+
+    /**
+     * The batches of one store. Workers encode the resources in chunks outside
+     * of the lock, and cut the next batch under the lock from the resources
+     * encoded so far, closing it when the next resource would exceed its
+     * count or size. Encoding stays at most {@code parallelism} batches ahead
+     * of the batches taken.
+     */
+    private final class Batches {
+
+        private final T[] resources;
+        private final byte[][] encoded;
+        private final Lock lock = new ReentrantLock();
+        private final Condition progressed = lock.newCondition();
+        private final List<StoreBatchResult> results = new ArrayList<>();
+        private int next;
+        private int claimed;
+        private int ready;
+        private int encoding;
+        private int sending;
+        private Throwable failure;
+
+        Batches(T[] resources) {
+            this.resources = resources;
+            this.encoded = new byte[resources.length][];
+        }
+
+        void work() {
+            lock.lock();
+            try {
+                while (failure == null && next < resources.length) {
+                    int end = cut();
+                    if (end > next) {
+                        send(end);
+                    } else if (claimed < resources.length && claimed - next < maxEncodedAhead()) {
+                        encode(Math.min(claimed + ENCODED_CHUNK, resources.length));
+                    } else {
+                        progressed.await();
+                    }
+                }
+            } catch (InterruptedException interruptedException) {
+                Thread.currentThread().interrupt();
+                fail(new ClientException("Interrupted while storing batches", interruptedException));
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        BatchedStoreResult await() {
+            lock.lock();
+            try {
+                while (sending > 0 || encoding > 0) {
+                    progressed.await();
+                }
+            } catch (InterruptedException interruptedException) {
+                Thread.currentThread().interrupt();
+                fail(new ClientException("Interrupted while storing batches", interruptedException));
+            } finally {
+                lock.unlock();
+            }
+            if (failure instanceof Error) {
+                throw (Error) failure;
+            }
+            if (failure != null) {
+                throw (RuntimeException) failure;
+            }
+            results.sort(Comparator.comparingInt(StoreBatchResult::getOffset));
+            return new BatchedStoreResult(results);
+        }
+
+        /**
+         * Provides the end of the next batch from the resources encoded so
+         * far, or {@code next} if the batch cannot be closed yet.
+         */
+        private int cut() {
+            long bytes = envelopeBytes;
+            int end = next;
+            while (end < ready) {
+                int size = encoded[end].length + (end > next ? 1 : 0);
+                if (end > next && bytes + size > configuration.getMaxBatchBytes()) {
+                    return end;
+                }
+                bytes += size;
+                end++;
+                if (end - next >= configuration.getMaxBatchSize()) {
+                    return end;
+                }
+            }
+            return end == resources.length ? end : next;
+        }
+
+        /**
+         * Sends the batch ending at the given position, releasing the lock
+         * while it is sent.
+         */
+        private void send(int end) {
+            int offset = next;
+            List<byte[]> batch = new ArrayList<>(Arrays.asList(encoded).subList(offset, end));
+            Arrays.fill(encoded, offset, end, null);
+            next = end;
+            sending++;
+            StoreBatchResult result = null;
+            Throwable batchFailure = null;
+            lock.unlock();
+            try {
+                result = storeBatch(Arrays.copyOfRange(resources, offset, end), batch, offset);
+            } catch (RuntimeException | Error exception) {
+                batchFailure = exception;
+            } finally {
+                lock.lock();
+            }
+            sending--;
+            if (batchFailure != null) {
+                fail(batchFailure);
+            } else {
+                results.add(result);
+            }
+            progressed.signalAll();
+        }
+
+        /**
+         * Encodes the resources from the first unclaimed one to the given
+         * end, releasing the lock while they are encoded.
+         */
+        private void encode(int end) {
+            int start = claimed;
+            claimed = end;
+            encoding++;
+            byte[][] chunk = new byte[end - start][];
+            Throwable encodingFailure = null;
+            lock.unlock();
+            try {
+                for (int index = start; index < end; index++) {
+                    chunk[index - start] = encoder.apply(resources[index]);
+                }
+            } catch (RuntimeException | Error exception) {
+                encodingFailure = exception;
+            } finally {
+                lock.lock();
+            }
+            encoding--;
+            if (encodingFailure != null) {
+                fail(encodingFailure);
+            } else {
+                System.arraycopy(chunk, 0, encoded, start, chunk.length);
+                while (ready < resources.length && encoded[ready] != null) {
+                    ready++;
+                }
+            }
+            progressed.signalAll();
+        }
+
+        private long maxEncodedAhead() {
+            return (long) configuration.getParallelism() * configuration.getMaxBatchSize();
+        }
+
+        private void fail(Throwable exception) {
+            if (failure == null) {
+                failure = exception;
+            }
+            progressed.signalAll();
+        }
+
+    }
+
+}
@@ -0,0 +1,82 @@
+package com.piksel.sequoia.clientsdk.resource;
+
+/*-
+ * #%L
+ * Sequoia Java Client SDK
+ * %%
+ * Copyright (C) 2018 Piksel
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.time.Duration;
+
+import com.piksel.sequoia.annotations.PublicEvolving;
+
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+
+/**
+ * Controls how {@link ResourcefulEndpoint#storeInBatches(java.util.Collection, BatchedStoreConfiguration)}
+ * splits a collection of resources into batches and sends them.
+ */
+@Value
+@Builder
+@PublicEvolving
+public class BatchedStoreConfiguration {
+
+    /**
+     * The maximum number of resources stored by a single request.
+     */
+    private int maxBatchSize;
+
+    /**
+     * The maximum size in bytes of the serialized resources of a single
+     * request. A resource larger than this on its own is stored by itself.
+     */
+    private int maxBatchBytes;
+
+    /**
+     * The number of batches stored concurrently.
+     */
+    private int parallelism;
+
+    /**
+     * The number of times a batch is sent before its failure is reported.
+     * Only failures without a status code, {@code 429} and {@code 5xx}
+     * responses are retried.
+     */
+    private int maxAttempts;
+
+    /**
+     * The delay before the first retry of a batch, increased by the same
+     * amount for every further retry.
+     */
+    @NonNull
+    private Duration retryDelay;
+
+    /**
+     * Provides a builder with default values configured ready to be overridden if needed.
+     */
+    public static BatchedStoreConfigurationBuilder builder() {
+        return new BatchedStoreConfigurationBuilder()
+            .maxBatchSize(500)
+            .maxBatchBytes(1024 * 1024)
+            .parallelism(4)
+            .maxAttempts(3)
+            .retryDelay(Duration.ofMillis(500));
+    }
+
+}
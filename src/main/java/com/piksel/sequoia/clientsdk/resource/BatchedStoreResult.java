@@ -0,0 +1,62 @@
+package com.piksel.sequoia.clientsdk.resource;
+
+/*-
+ * #%L
+ * Sequoia Java Client SDK
+ * %%
+ * Copyright (C) 2018 Piksel
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.piksel.sequoia.annotations.PublicEvolving;
+
+import lombok.Value;
+
+/**
+ * The outcome of storing a collection of resources in batches, holding the
+ * result of every batch in the order of the collection.
+ */
+@Value
+@PublicEvolving
+public class BatchedStoreResult {
+
+    private List<StoreBatchResult> batches;
+
+    /**
+     * Whether every batch was stored.
+     */
+    public boolean isSuccessful() {
+        return batches.stream().allMatch(StoreBatchResult::isSuccessStatusCode);
+    }
+
+    /**
+     * The number of resources in the batches that were stored.
+     */
+    public int getStoredCount() {
+        return batches.stream().filter(StoreBatchResult::isSuccessStatusCode).mapToInt(StoreBatchResult::getSize)
+                .sum();
+    }
+
+    /**
+     * The batches that could not be stored.
+     */
+    public List<StoreBatchResult> getFailedBatches() {
+        return batches.stream().filter(batch -> !batch.isSuccessStatusCode()).collect(Collectors.toList());
+    }
+
+}
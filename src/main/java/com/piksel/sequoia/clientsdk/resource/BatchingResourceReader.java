@@ -0,0 +1,321 @@
+package com.piksel.sequoia.clientsdk.resource;
+
+/*-
+ * #%L
+ * Sequoia Java Client SDK
+ * %%
+ * Copyright (C) 2018 Piksel
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+import com.google.api.client.http.HttpStatusCodes;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.piksel.sequoia.annotations.PublicEvolving;
+import com.piksel.sequoia.clientsdk.DefaultResourceResponse;
+import com.piksel.sequoia.clientsdk.ResourceResponse;
+import com.piksel.sequoia.clientsdk.configuration.DefaultClientConfiguration;
+
+import lombok.Builder;
+import lombok.NonNull;
+
+/**
+ * Collects the single reference reads made by many threads on an endpoint and
+ * sends them as multi reference reads. A batch is sent once it holds
+ * {@code maxBatchSize} distinct references, or {@code maxDelay} after its
+ * first read, whichever comes first. Each caller receives a response holding
+ * its own resource, or a {@code 404} response if the resource was not found.
+ *
+ * <p>Reads made with different headers are batched separately. When a multi
+ * reference read is unsuccessful, the references of the batch are read one by
+ * one so that each caller receives the outcome of its own reference.
+ *
+ * <p>Callers reading the same reference in one batch each receive their own
+ * response and their own copy of the resource, decoded with {@code gson}
+ * from the json of the resource read.
+ */
+@PublicEvolving
+public class BatchingResourceReader<T extends Resource> implements AutoCloseable {
+
+    private final ResourcefulEndpoint<T> endpoint;
+    private final Gson gson;
+    private final int maxBatchSize;
+    private final long maxDelayMillis;
+    private final ScheduledExecutorService scheduler;
+    private final Lock lock = new ReentrantLock();
+    private final Map<Map<String, Object>, Batch> batches = new HashMap<>();
+    private boolean closed;
+
+    @Builder
+    private BatchingResourceReader(@NonNull ResourcefulEndpoint<T> endpoint, @NonNull Gson gson, int maxBatchSize,
+            @NonNull Duration maxDelay) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("The maximum batch size must be at least 1");
+        }
+        this.endpoint = endpoint;
+        this.gson = gson;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayMillis = maxDelay.toMillis();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("sequoia-batching-reader-%d").setDaemon(true).build());
+    }
+
+    /**
+     * Provides a builder with default values configured ready to be overridden if needed.
+     */
+    public static <T extends Resource> BatchingResourceReaderBuilder<T> builder() {
+        return new BatchingResourceReaderBuilder<T>()
+            .gson(DefaultClientConfiguration.getDefaultGson())
+            .maxBatchSize(50)
+            .maxDelay(Duration.ofMillis(5));
+    }
+
+    /**
+     * Reads the resource with the given reference as part of a batch,
+     * blocking until the batch has been read.
+     */
+    public ResourceResponse<T> read(Reference reference) {
+        return read(reference, Collections.emptyMap());
+    }
+
+    /**
+     * Reads the resource with the given reference and headers as part of a
+     * batch, blocking until the batch has been read.
+     */
+    public ResourceResponse<T> read(Reference reference, Map<? extends String, ?> headers) {
+        try {
+            return readAsync(reference, headers).join();
+        } catch (CompletionException completionException) {
+            throw unwrap(completionException);
+        }
+    }
+
+    /**
+     * Reads the resource with the given reference as part of a batch.
+     */
+    public CompletableFuture<ResourceResponse<T>> readAsync(Reference reference) {
+        return readAsync(reference, Collections.emptyMap());
+    }
+
+    /**
+     * Reads the resource with the given reference and headers as part of a
+     * batch.
+     *
+     * @throws IllegalStateException if the reader is closed
+     */
+    public CompletableFuture<ResourceResponse<T>> readAsync(Reference reference,
+            Map<? extends String, ?> headers) {
+        CompletableFuture<ResourceResponse<T>> response = new CompletableFuture<>();
+        if (!reference.isValid().isEmpty()) {
+            response.completeExceptionally(ReferenceValidationException.thrown(reference.isValid()));
+            return response;
+        }
+        Map<String, Object> key = new HashMap<>(headers);
+        Batch full = null;
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("The batching reader is closed");
+            }
+            Batch batch = batches.computeIfAbsent(key, Batch::new);
+            batch.add(reference, response);
+            if (batch.size() >= maxBatchSize) {
+                batches.remove(key);
+                full = batch;
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (Objects.nonNull(full)) {
+            full.dispatch();
+        }
+        return response;
+    }
+
+    /**
+     * Sends the pending batches and stops the timer of the reader. Reads made
+     * after the reader is closed are rejected.
+     */
+    @Override
+    public void close() {
+        List<Batch> pending;
+        lock.lock();
+        try {
+            closed = true;
+            pending = new ArrayList<>(batches.values());
+            batches.clear();
+        } finally {
+            lock.unlock();
+        }
+        pending.forEach(Batch::dispatch);
+        scheduler.shutdown();
+    }
+
+    private void flush(Batch batch) {
+        lock.lock();
+        try {
+            if (!batches.remove(batch.headers, batch)) {
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        batch.dispatch();
+    }
+
+    private static RuntimeException unwrap(CompletionException completionException) {
+        return completionException.getCause() instanceof RuntimeException
+                ? (RuntimeException) completionException.getCause() : completionException;
+    }
+
+    private ResourceResponse<T> singleResourceResponse(int statusCode, Optional<T> resource) {
+        return DefaultResourceResponse.<T>builder()
+                .statusCode(resource.isPresent() ? statusCode : HttpStatusCodes.STATUS_CODE_NOT_FOUND)
+                .successStatusCode(resource.isPresent())
+                .payload(resource.map(found -> new ResolvedResourceIterable<>(Collections.singletonList(found))))
+                .build();
+    }
+
+    private final class Batch {
+
+        private final Map<String, Object> headers;
+        private final Map<Reference, List<CompletableFuture<ResourceResponse<T>>>> callers =
+                new LinkedHashMap<>();
+        private final ScheduledFuture<?> timer;
+
+        Batch(Map<String, Object> headers) {
+            this.headers = headers;
+            this.timer = scheduler.schedule(() -> flush(this), maxDelayMillis, TimeUnit.MILLISECONDS);
+        }
+
+        void add(Reference reference, CompletableFuture<ResourceResponse<T>> response) {
+            callers.computeIfAbsent(Reference.fromOwnerAndName(reference.getOwner(), reference.getName()),
+                    ref -> new ArrayList<>()).add(response);
+        }
+
+        int size() {
+            return callers.size();
+        }
+
+        void dispatch() {
+            timer.cancel(false);
+            List<Reference> references = new ArrayList<>(callers.keySet());
+            CompletableFuture<ResourceResponse<T>> read;
+            try {
+                read = endpoint.readAsync(references, headers);
+            } catch (RuntimeException failure) {
+                callers.values().forEach(responses -> fail(responses, failure));
+                return;
+            }
+            read.whenComplete((response, failure) -> {
+                if (Objects.nonNull(failure)) {
+                    callers.values().forEach(responses -> fail(responses, failure));
+                } else if (!response.isSuccessStatusCode() && references.size() > 1) {
+                    callers.forEach(this::readAlone);
+                } else {
+                    List<T> payload = resourcesOf(response);
+                    Map<Reference, T> resources = byReference(payload);
+                    callers.forEach((reference, responses) -> complete(responses, response, payload,
+                            resources.get(reference)));
+                }
+            });
+        }
+
+        private void readAlone(Reference reference, List<CompletableFuture<ResourceResponse<T>>> responses) {
+            endpoint.readAsync(reference, headers).whenComplete((response, failure) -> {
+                if (Objects.nonNull(failure)) {
+                    fail(responses, failure);
+                } else {
+                    List<T> payload = resourcesOf(response);
+                    complete(responses, response, payload, byReference(payload).get(reference));
+                }
+            });
+        }
+
+        /**
+         * Completes each caller with a response of its own, since the
+         * resources of a response can only be iterated once, and with
+         * resources of its own, since they are mutable: the first caller
+         * receives the resources read and the others copies of them.
+         */
+        private void complete(List<CompletableFuture<ResourceResponse<T>>> responses,
+                ResourceResponse<T> response, List<T> payload, T resource) {
+            JsonElement json = responses.size() > 1 && Objects.nonNull(resource) ? gson.toJsonTree(resource) : null;
+            for (int index = 0; index < responses.size(); index++) {
+                boolean first = index == 0;
+                responses.get(index).complete(response.isSuccessStatusCode()
+                        ? singleResourceResponse(response.getStatusCode(),
+                                Optional.ofNullable(resource).map(found -> first ? found : copyOf(json, found)))
+                        : unsuccessfulResponse(response,
+                                first ? payload : payload.stream().map(found -> copyOf(gson.toJsonTree(found), found))
+                                        .collect(Collectors.toList())));
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private T copyOf(JsonElement json, T resource) {
+            return (T) gson.fromJson(json, resource.getClass());
+        }
+
+        private ResourceResponse<T> unsuccessfulResponse(ResourceResponse<T> response, List<T> payload) {
+            return DefaultResourceResponse.<T>builder()
+                    .statusCode(response.getStatusCode())
+                    .successStatusCode(false)
+                    .payload(response.getPayload().map(read -> new ResolvedResourceIterable<>(payload)))
+                    .build();
+        }
+
+        private List<T> resourcesOf(ResourceResponse<T> response) {
+            List<T> resources = new ArrayList<>();
+            response.getPayload().ifPresent(payload -> payload.forEachRemaining(resources::add));
+            return resources;
+        }
+
+        private Map<Reference, T> byReference(List<T> payload) {
+            Map<Reference, T> resources = new HashMap<>();
+            payload.forEach(resource -> ResourceEndpointHandler.referenceOf(resource)
+                    .ifPresent(ref -> resources.put(ref, resource)));
+            return resources;
+        }
+
+        private void fail(List<CompletableFuture<ResourceResponse<T>>> responses, Throwable failure) {
+            Throwable cause = failure instanceof CompletionException && Objects.nonNull(failure.getCause())
+                    ? failure.getCause() : failure;
+            responses.forEach(caller -> caller.completeExceptionally(cause));
+        }
+
+    }
+
+}
@@ -0,0 +1,336 @@
+package com.piksel.sequoia.clientsdk.resource;
+
+/*-
+ * #%L
+ * Sequoia Java Client SDK
+ * %%
+ * Copyright (C) 2018 Piksel
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.piksel.sequoia.annotations.PublicEvolving;
+import com.piksel.sequoia.clientsdk.ClientException;
+import com.piksel.sequoia.clientsdk.ResourceResponse;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Accepts stores, updates and deletes from many producer threads and sends
+ * them to an endpoint in batches. Consecutive stores, and consecutive
+ * deletes, are sent together once {@code maxBatchSize} of them are waiting or
+ * {@code maxDelay} after the first of them; updates are sent one by one.
+ *
+ * <p>At most {@code maxConcurrentRequests} requests are in flight, run on the
+ * client's async request executor. When the service slows down, operations
+ * wait in a queue of {@code queueCapacity}, and producers block once it is
+ * full.
+ *
+ * <p>Batches of the same kind may be written in any order, but a batch of
+ * another kind is only sent once the requests in flight complete, so that a
+ * delete is not overtaken by an earlier store of the same resource.
+ *
+ * <p>A writer is obtained with {@link ResourcefulEndpoint#bulkWriter} and
+ * must be closed to send its last operations.
+ */
+@Slf4j
+@PublicEvolving
+public class BulkWriter<T extends Resource> implements AutoCloseable {
+
+    private static final long OFFER_TIMEOUT_MILLIS = 10;
+
+    private final ResourcefulEndpoint<T> endpoint;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final BlockingQueue<Operation> queue;
+    private final int maxConcurrentRequests;
+    private final Semaphore requestPermits;
+    private final Executor requestExecutor;
+    private final Thread dispatcher;
+    private final long createdAt = System.nanoTime();
+    private final ReadWriteLock submissions = new ReentrantReadWriteLock();
+    private volatile boolean closed;
+    private volatile boolean sealed;
+
+    private final LongAdder submittedOperations = new LongAdder();
+    private final LongAdder writtenOperations = new LongAdder();
+    private final LongAdder failedOperations = new LongAdder();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder failedRequests = new LongAdder();
+    private final LongAdder totalLatencyNanos = new LongAdder();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+    BulkWriter(ResourcefulEndpoint<T> endpoint, BulkWriterConfiguration configuration, Executor requestExecutor) {
+        if (configuration.getMaxBatchSize() < 1 || configuration.getQueueCapacity() < 1
+                || configuration.getMaxConcurrentRequests() < 1) {
+            throw new IllegalArgumentException(
+                    "The batch size, queue capacity and concurrent requests must be at least 1");
+        }
+        if (configuration.getMaxDelay().isNegative() || configuration.getMaxDelay().isZero()) {
+            throw new IllegalArgumentException("The max delay must be positive");
+        }
+        this.endpoint = endpoint;
+        this.maxBatchSize = configuration.getMaxBatchSize();
+        this.maxDelayNanos = configuration.getMaxDelay().toNanos();
+        this.queue = new ArrayBlockingQueue<>(configuration.getQueueCapacity());
+        this.maxConcurrentRequests = configuration.getMaxConcurrentRequests();
+        this.requestPermits = new Semaphore(maxConcurrentRequests);
+        this.requestExecutor = requestExecutor;
+        this.dispatcher = new ThreadFactoryBuilder().setNameFormat("sequoia-bulk-dispatcher-%d").setDaemon(true)
+                .build().newThread(this::dispatch);
+        this.dispatcher.start();
+    }
+
+    /**
+     * Stores the given resource as part of a batch, blocking while the queue
+     * is full. The returned future completes once the batch is written.
+     */
+    public CompletableFuture<Void> store(T resource) {
+        return submit(new Operation(Kind.STORE, resource, null));
+    }
+
+    /**
+     * Updates the resource with the given reference, blocking while the queue
+     * is full. The returned future completes once the resource is updated.
+     */
+    public CompletableFuture<Void> update(T resource, Reference reference) {
+        return submit(new Operation(Kind.UPDATE, resource, reference));
+    }
+
+    /**
+     * Deletes the resource with the given reference as part of a batch,
+     * blocking while the queue is full. The returned future completes once the
+     * batch is deleted.
+     */
+    public CompletableFuture<Void> delete(Reference reference) {
+        return submit(new Operation(Kind.DELETE, null, reference));
+    }
+
+    /**
+     * Provides the current counters of the writer.
+     */
+    public BulkWriterStats getStats() {
+        long requestCount = requests.sum();
+        long written = writtenOperations.sum();
+        double elapsedSeconds = Math.max(System.nanoTime() - createdAt, 1) / 1e9;
+        return new BulkWriterStats(queue.size(), submittedOperations.sum(), written, failedOperations.sum(),
+                requestCount, failedRequests.sum(),
+                requestCount == 0 ? 0 : totalLatencyNanos.sum() / 1e6 / requestCount,
+                TimeUnit.NANOSECONDS.toMillis(maxLatencyNanos.get()), written / elapsedSeconds);
+    }
+
+    /**
+     * Sends the waiting operations and blocks until every request completes.
+     * Operations submitted after closing, including those of producers still
+     * blocked on a full queue, are rejected.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        submissions.writeLock().lock();
+        try {
+            sealed = true;
+        } finally {
+            submissions.writeLock().unlock();
+        }
+        try {
+            dispatcher.join();
+        } catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+            throw new ClientException("Interrupted while closing the bulk writer", interruptedException);
+        } finally {
+            List<Operation> rejected = new ArrayList<>();
+            queue.drainTo(rejected);
+            failedOperations.add(rejected.size());
+            rejected.forEach(operation -> operation.written
+                    .completeExceptionally(new IllegalStateException("The bulk writer is closed")));
+        }
+        awaitRequests();
+    }
+
+    /**
+     * Queues the operation, waiting while the queue is full unless the writer
+     * is closed meanwhile. Submissions hold the read lock so that closing
+     * waits for those under way before the dispatcher takes the last
+     * operations.
+     */
+    private CompletableFuture<Void> submit(Operation operation) {
+        submissions.readLock().lock();
+        try {
+            do {
+                if (closed) {
+                    throw new IllegalStateException("The bulk writer is closed");
+                }
+            } while (!queue.offer(operation, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+        } catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+            throw new ClientException("Interrupted while waiting for the bulk writer", interruptedException);
+        } finally {
+            submissions.readLock().unlock();
+        }
+        submittedOperations.increment();
+        return operation.written;
+    }
+
+    /**
+     * Takes the operations from the queue into a batch until it is full, it
+     * is due or the next operation is of another kind.
+     */
+    private void dispatch() {
+        Kind sent = null;
+        List<Operation> batch = new ArrayList<>();
+        long dueAt = 0;
+        while (!sealed || !queue.isEmpty()) {
+            Operation operation;
+            try {
+                operation = queue.poll(batch.isEmpty() ? maxDelayNanos : Math.max(dueAt - System.nanoTime(), 0),
+                        TimeUnit.NANOSECONDS);
+            } catch (InterruptedException interruptedException) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (Objects.nonNull(operation)) {
+                if (!batch.isEmpty() && batch.get(0).kind != operation.kind) {
+                    sent = send(batch, sent);
+                    batch = new ArrayList<>();
+                }
+                if (batch.isEmpty()) {
+                    dueAt = System.nanoTime() + maxDelayNanos;
+                }
+                batch.add(operation);
+            }
+            if (!batch.isEmpty() && (batch.size() >= maxBatchSize || batch.get(0).kind == Kind.UPDATE
+                    || System.nanoTime() - dueAt >= 0)) {
+                sent = send(batch, sent);
+                batch = new ArrayList<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            send(batch, sent);
+        }
+    }
+
+    /**
+     * Sends the batch once a request permit is free, so that the queue fills
+     * up and blocks the producers while the service is slow. A batch of
+     * another kind than the previous one waits for the requests in flight.
+     * Returns the kind of the batch.
+     */
+    private Kind send(List<Operation> batch, Kind previous) {
+        Kind kind = batch.get(0).kind;
+        if (Objects.nonNull(previous) && previous != kind) {
+            awaitRequests();
+        }
+        requestPermits.acquireUninterruptibly();
+        try {
+            requestExecutor.execute(() -> {
+                try {
+                    write(batch);
+                } finally {
+                    requestPermits.release();
+                }
+            });
+        } catch (RejectedExecutionException rejectedException) {
+            requestPermits.release();
+            failedOperations.add(batch.size());
+            batch.forEach(operation -> operation.written.completeExceptionally(rejectedException));
+        }
+        return kind;
+    }
+
+    /**
+     * Blocks until every request in flight completes.
+     */
+    private void awaitRequests() {
+        requestPermits.acquireUninterruptibly(maxConcurrentRequests);
+        requestPermits.release(maxConcurrentRequests);
+    }
+
+    private void write(List<Operation> batch) {
+        Kind kind = batch.get(0).kind;
+        Supplier<ResourceResponse<T>> request;
+        if (kind == Kind.STORE) {
+            request = () -> endpoint.store(batch.stream().map(operation -> operation.resource)
+                    .collect(Collectors.toList()));
+        } else if (kind == Kind.DELETE) {
+            request = () -> endpoint.delete(batch.stream().map(operation -> operation.reference)
+                    .collect(Collectors.toList()));
+        } else {
+            request = () -> endpoint.update(batch.get(0).resource, batch.get(0).reference);
+        }
+        long start = System.nanoTime();
+        RuntimeException failure = null;
+        try {
+            ResourceResponse<T> response = request.get();
+            if (!response.isSuccessStatusCode()) {
+                failure = new ClientException("Unable to " + kind.name().toLowerCase() + " " + batch.size()
+                        + " resources - status code [" + response.getStatusCode() + "]");
+            }
+        } catch (RuntimeException requestException) {
+            failure = requestException;
+        }
+        long latency = System.nanoTime() - start;
+        requests.increment();
+        totalLatencyNanos.add(latency);
+        maxLatencyNanos.accumulateAndGet(latency, Math::max);
+        if (Objects.isNull(failure)) {
+            writtenOperations.add(batch.size());
+            batch.forEach(operation -> operation.written.complete(null));
+        } else {
+            log.debug("Bulk {} of [{}] resources failed", kind, batch.size(), failure);
+            failedRequests.increment();
+            failedOperations.add(batch.size());
+            RuntimeException batchFailure = failure;
+            batch.forEach(operation -> operation.written.completeExceptionally(batchFailure));
+        }
+    }
+
+    private enum Kind {
+        STORE, UPDATE, DELETE
+    }
+
+    private final class Operation {
+
+        private final Kind kind;
+        private final T resource;
+        private final Reference reference;
+        private final CompletableFuture<Void> written = new CompletableFuture<>();
+
+        Operation(Kind kind, T resource, Reference reference) {
+            this.kind = kind;
+            this.resource = resource;
+            this.reference = reference;
+        }
+
+    }
+
+}
@@ -0,0 +1,73 @@
+package com.piksel.sequoia.clientsdk.resource;
+
+/*-
+ * #%L
+ * Sequoia Java Client SDK
+ * %%
+ * Copyright (C) 2018 Piksel
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.time.Duration;
+
+import com.piksel.sequoia.annotations.PublicEvolving;
+
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+
+/**
+ * Controls how a {@link BulkWriter} groups and sends its operations.
+ */
+@Value
+@Builder
+@PublicEvolving
+public class BulkWriterConfiguration {
+
+    /**
+     * The maximum number of stores or deletes sent in a single request.
+     */
+    private int maxBatchSize;
+
+    /**
+     * The longest time an operation waits for its batch to fill before the
+     * batch is sent. Must be positive.
+     */
+    @NonNull
+    private Duration maxDelay;
+
+    /**
+     * The number of operations that can wait to be sent. Producers block when
+     * the queue is full.
+     */
+    private int queueCapacity;
+
+    /**
+     * The number of requests sent concurrently.
+     */
+    private int maxConcurrentRequests;
+
+    /**
+     * Provides a builder with default values configured ready to be overridden if needed.
+     */
+    public static BulkWriterConfigurationBuilder builder() {
+        return new BulkWriterConfigurationBuilder()
+            .maxBatchSize(100)
+            .maxDelay(Duration.ofMillis(50))
+            .queueCapacity(10_000)
+            .maxConcurrentRequests(4);
+    }
+
+}
@@ -0,0 +1,80 @@
+package com.piksel.sequoia.clientsdk.resource;
+
+/*-
+ * #%L
+ * Sequoia Java Client SDK
+ * %%
+ * Copyright (C) 2018 Piksel
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.piksel.sequoia.annotations.PublicEvolving;
+
+import lombok.Value;
+
+/**
+ * A snapshot of the counters of a {@link BulkWriter}.
+ */
+@Value
+@PublicEvolving
+public class BulkWriterStats {
+
+    /**
+     * The number of operations waiting to be sent.
+     */
+    private int queuedOperations;
+
+    /**
+     * The number of operations accepted by the writer.
+     */
+    private long submittedOperations;
+
+    /**
+     * The number of operations written successfully.
+     */
+    private long writtenOperations;
+
+    /**
+     * The number of operations whose request failed or was unsuccessful.
+     */
+    private long failedOperations;
+
+    /**
+     * The number of requests sent.
+     */
+    private long requests;
+
+    /**
+     * The number of requests that failed or were unsuccessful.
+     */
+    private long failedRequests;
+
+    /**
+     * The mean time taken by a request, in milliseconds.
+     */
+    private double averageLatencyMillis;
+
+    /**
+     * The longest time taken by a request, in milliseconds.
+     */
+    private long maxLatencyMillis;
+
+    /**
+     * The number of operations written successfully per second since the
+     * writer was created.
+     */
+    private double operationsPerSecond;
+
+}
@@ -0,0 +1,57 @@
+package com.piksel.sequoia.clientsdk.resource;
+
+/*-
+ * #%L
+ * Sequoia Java Client SDK
+ * %%
+ * Copyright (C) 2018 Piksel
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.List;
+import java.util.Optional;
+
+import com.piksel.sequoia.annotations.PublicEvolving;
+import com.piksel.sequoia.clientsdk.RequestExecutionException;
+
+import lombok.Value;
+
+/**
+ * The outcome of the request made for one chunk of the references of a
+ * {@link ChunkedResourceResponse}.
+ */
+@Value
+@PublicEvolving
+public class ChunkResult {
+
+    /**
+     * The references requested by the chunk.
+     */
+    private List<Reference> references;
+
+    /**
+     * The status code of the response to the chunk, or of the failure if it
+     * has one.
+     */
+    private int statusCode;
+
+    private boolean successStatusCode;
+
+    /**
+     * The failure of the request, if it could not be completed.
+     */
+    private Optional<RequestExecutionException> failure;
+
+}
@@ -0,0 +1,54 @@
+package com.piksel.sequoia.clientsdk.resource;
+
+/*-
+ * #%L
+ * Sequoia Java Client SDK
+ * %%
+ * Copyright (C) 2018 Piksel
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.List;
+import java.util.Optional;
+
+import com.piksel.sequoia.annotations.PublicEvolving;
+import com.piksel.sequoia.clientsdk.ResourceResponse;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The response to a multi reference read or delete that was split into
+ * chunks of references because of its url length. The payload holds the
+ * resources of the successful chunks in the order of the references, and the
+ * response is successful only if every chunk was.
+ */
+@Getter
+@AllArgsConstructor
+@PublicEvolving
+public class ChunkedResourceResponse<T extends Resource> implements ResourceResponse<T> {
+
+    private final Optional<ResourceIterable<T>> payload;
+
+    private final int statusCode;
+
+    private final boolean successStatusCode;
+
+    /**
+     * The outcome of each chunk, in the order of the references.
+     */
+    private final List<ChunkResult> chunks;
+
+}
@@ -31,7 +31,14 @@ public class DynamicResourceEndpointHandler<T extends Resource> extends Resource
     public DynamicResourceEndpointHandler(RequestClient requestClient,
             String owner, String resourceKey, String endpointLocation,
             Class<T> resourceClass, Gson gson) {
-        super(requestClient, resourceKey, resourceClass, gson);
+        this(requestClient, owner, resourceKey, endpointLocation, resourceClass, gson,
+                ResourceEndpointConfiguration.builder().build());
+    }
+
+    public DynamicResourceEndpointHandler(RequestClient requestClient,
+            String owner, String resourceKey, String endpointLocation,
+            Class<T> resourceClass, Gson gson, ResourceEndpointConfiguration configuration) {
+        super(requestClient, resourceKey, resourceClass, gson, configuration);
         this.endpointUrl = new GenericUrl(endpointLocation);
         endpointUrl.set("owner", owner);
     }
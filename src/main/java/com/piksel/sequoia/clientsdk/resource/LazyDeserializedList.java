@@ -0,0 +1,79 @@
+package com.piksel.sequoia.clientsdk.resource;
+
+/*-
+ * #%L
+ * Sequoia Java Client SDK
+ * %%
+ * Copyright (C) 2018 Piksel
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+import java.util.function.Function;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+
+/**
+ * Read-only list over the raw json elements of a page that decodes each
+ * resource the first time it is accessed. The raw element is released once
+ * decoded, so consumers that stop early only pay for the resources they
+ * actually read.
+ */
+final class LazyDeserializedList<T> extends AbstractList<T> implements RandomAccess {
+
+    private final JsonElement[] elements;
+    private final Object[] decoded;
+    private final Function<JsonElement, T> decoder;
+
+    LazyDeserializedList(JsonArray jsonArray, Function<JsonElement, T> decoder) {
+        this.elements = new JsonElement[jsonArray.size()];
+        for (int i = 0; i < elements.length; i++) {
+            elements[i] = jsonArray.get(i);
+        }
+        this.decoded = new Object[elements.length];
+        this.decoder = decoder;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public synchronized T get(int index) {
+        if (index < 0 || index >= elements.length) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + elements.length);
+        }
+        if (elements[index] != null) {
+            decoded[index] = decoder.apply(elements[index]);
+            elements[index] = null;
+        }
+        return (T) decoded[index];
+    }
+
+    @Override
+    public int size() {
+        return elements.length;
+    }
+
+    synchronized int decodedCount() {
+        int count = 0;
+        for (JsonElement element : elements) {
+            if (element == null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+}
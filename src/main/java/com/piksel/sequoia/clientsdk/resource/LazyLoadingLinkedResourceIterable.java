@@ -23,10 +23,13 @@ package com.piksel.sequoia.clientsdk.resource;
 import static com.piksel.sequoia.clientsdk.resource.LinkedDeserializer.getRelationShip;
 import static com.piksel.sequoia.clientsdk.resource.LinkedIndirectRelationshipDeserializer.linkedIndirectDeserializer;
 import static com.piksel.sequoia.clientsdk.resource.ResourceDeserializerConstants.LINKED;
+import static java.util.Objects.nonNull;
 
 import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.Optional;
+import java.util.Set;
 
 import com.google.gson.Gson;
 import com.google.gson.JsonElement;
@@ -41,14 +44,24 @@ public final class LazyLoadingLinkedResourceIterable<T extends Resource> extends
     private final Field field;
     private final T resource;
     private final ResourceDeserializer<T> linkedDeserializer;
+    private final LinkedPages linkedPages;
+    private final Set<String> deliveredRefs = new HashSet<>();
+    private boolean followingIncludedPage = true;
     private int numItemsPage = 0;
 
     public LazyLoadingLinkedResourceIterable(JsonElement payload, PageableResourceEndpoint<T> endpoint, PageableResourceEndpoint<T> linkedEndpoint,
             Gson gson, Field field, T resource) {
+        this(payload, endpoint, linkedEndpoint, gson, field, resource,
+                new LinkedPages(new LinkedMetaIndex(payload, gson), new LinkedResourceIndex(payload.getAsJsonObject().get(LINKED), gson)));
+    }
+
+    LazyLoadingLinkedResourceIterable(JsonElement payload, PageableResourceEndpoint<T> endpoint, PageableResourceEndpoint<T> linkedEndpoint,
+            Gson gson, Field field, T resource, LinkedPages linkedPages) {
         super(payload, endpoint, gson);
         this.field = field;
         this.resource = resource;
         this.linkedDeserializer = new ResourceDeserializer<>(linkedEndpoint, gson);
+        this.linkedPages = linkedPages;
         this.pageIndex = addLinkedPage(payload);
     }
 
@@ -57,16 +70,32 @@ public final class LazyLoadingLinkedResourceIterable<T extends Resource> extends
         return true;
     }
 
+    /**
+     * Loads the next linked page. When the included page was requested for
+     * several resources at once, the following pages are requested for this
+     * resource only, starting from the first one and skipping the linked
+     * resources already included; otherwise the next page is fetched once for
+     * all the resources of the page and filtered on its json.
+     */
     @Override
     protected void loadNextAndUpdateIndexes() {
-        Optional<JsonElement> payload = endpoint.getPagedLinkedResource(currentPage().getMeta().getNext());
+        String next = currentPage().getMeta().getNext();
+        if (followingIncludedPage) {
+            followingIncludedPage = false;
+            Optional<String> restricted = LinkedMetaIndex.restrictedTo(next, LinkedMetaIndex.encode(resource.getRef()));
+            if (!restricted.isPresent()) {
+                deliveredRefs.clear();
+            }
+            next = restricted.orElse(next);
+        }
+        JsonElement payload = linkedPages.fetch(next, endpoint::getPagedLinkedResource).orElseThrow(noSuchElementException());
         deserializer = linkedDeserializer;
-        Optional<JsonElement> filteredPayload = deserializer.includeJustLinkedItems(payload.orElseThrow(noSuchElementException()),
-                field.getAnnotation(IndirectRelationship.class).ref(), resource.getRef().toString());
-        pageIndex = addPage(filteredPayload.orElseThrow(noSuchElementException()));
+        Meta meta = getMeta(payload);
+        putPage(meta.getPage(), Page.from(meta, deserializer.linkedItemsFor(payload,
+                field.getAnnotation(IndirectRelationship.class).ref(), resource.getRef().toString(), deliveredRefs)));
+        pageIndex = meta.getPage();
         resourceIndex = 0;
-        numItemsPage = deserializer.numLinkedItemsInPayload(payload.orElseThrow(noSuchElementException()),
-                field.getAnnotation(IndirectRelationship.class).ref(), resource.getRef().toString());
+        numItemsPage = currentPage().items();
     }
 
     @Override
@@ -85,10 +114,13 @@ public final class LazyLoadingLinkedResourceIterable<T extends Resource> extends
     
     private int addLinkedPage(JsonElement payload) {
         long startTime = System.nanoTime();
-        LinkedMeta meta = deserializer.linkedMetaFrom(payload, getRelationShip(field), resource.getRef()).orElse(deserializer.emptyLinkedMeta());
+        LinkedMeta meta = linkedPages.getMetaIndex().lookup(getRelationShip(field), resource.getRef()).orElse(deserializer.emptyLinkedMeta());
         ArrayList<T> linkedResources = new ArrayList<>(
-                linkedIndirectDeserializer(endpoint, gson, payload).getLinkedResources(resource, field, getLinked(payload)));
-        pages.put(meta.getPage(), Page.from(meta, linkedResources));
+                linkedIndirectDeserializer(endpoint, gson, payload).getLinkedResources(resource,
+                        RelationshipBindingPlan.forType(field.getDeclaringClass()).bindingFor(field), linkedPages.getResourceIndex()));
+        linkedResources.stream().filter(linkedResource -> nonNull(linkedResource) && nonNull(linkedResource.getRef()))
+                .forEach(linkedResource -> deliveredRefs.add(linkedResource.getRef().toString()));
+        putPage(meta.getPage(), Page.from(meta, linkedResources));
         numItemsPage = linkedResources.size();
         long endTime = System.nanoTime();
         log.debug("time to add linked page - {} seconds", (double) (endTime - startTime) / 1000000000.0);
@@ -103,8 +135,4 @@ public final class LazyLoadingLinkedResourceIterable<T extends Resource> extends
         return numItemsPage == 0;
     }
 
-    private JsonElement getLinked(JsonElement payload) {
-        return payload.getAsJsonObject().get(LINKED);
-    }
-
 }
@@ -20,17 +20,39 @@ package com.piksel.sequoia.clientsdk.resource;
  * #L%
  */
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 import com.piksel.sequoia.annotations.PublicEvolving;
 
+/**
+ * Iterates over the pages of a browse result, loading each page once the
+ * previous one has been iterated. With a prefetch depth, that many pages are
+ * requested in the background ahead of the page being iterated, each one as
+ * soon as the url of the page before it is known.
+ */
 @PublicEvolving
 public final class LazyLoadingResourceIterable<T extends Resource>
         extends AbstractLazyLoadingIterable<T> implements ResourceIterable<T> {
 
+    private static final Pattern PAGE_PARAMETER = Pattern.compile("[?&]page=(\\d+)");
+
+    private final Deque<CompletableFuture<Optional<JsonElement>>> prefetchedPages = new ArrayDeque<>();
+    private int prefetchDepth;
+
     public LazyLoadingResourceIterable(JsonElement payload, PageableResourceEndpoint<T> endpoint,
             Gson gson) {
         super(payload, endpoint, gson);
@@ -39,8 +61,21 @@ public final class LazyLoadingResourceIterable<T extends Resource>
 
     public LazyLoadingResourceIterable(JsonElement payload, PageableResourceEndpoint<T> endpoint,
             Gson gson, Map<? extends String,?> headers) {
+        this(payload, endpoint, gson, headers, 0);
+    }
+
+    public LazyLoadingResourceIterable(JsonElement payload, PageableResourceEndpoint<T> endpoint,
+            Gson gson, Map<? extends String,?> headers, int prefetchDepth) {
+        this(payload, endpoint, gson, headers, prefetchDepth, false);
+    }
+
+    public LazyLoadingResourceIterable(JsonElement payload, PageableResourceEndpoint<T> endpoint,
+            Gson gson, Map<? extends String,?> headers, int prefetchDepth, boolean shareLinkedResourcesAcrossPages) {
         super(payload, endpoint, gson, headers);
+        this.deserializer = new ResourceDeserializer<>(endpoint, gson, shareLinkedResourcesAcrossPages);
+        this.prefetchDepth = prefetchDepth;
         init(payload);
+        prefetch();
     }
 
     @Override
@@ -60,11 +95,96 @@ public final class LazyLoadingResourceIterable<T extends Resource>
         this.pageIndex = addPage(payload);
     }
 
+    /**
+     * Performs the given action on the remaining resources of each page in
+     * turn. Only the page being processed, and the pages requested ahead of
+     * it, are held in memory.
+     */
+    @Override
+    public void forEachPage(Consumer<? super List<T>> action) {
+        while (hasNext()) {
+            List<T> page = new ArrayList<>();
+            do {
+                page.add(next());
+            } while (currentPage().containsIndex(resourceIndex));
+            action.accept(page);
+        }
+    }
+
+    /**
+     * Provides a spliterator splitting the remaining pages by number when the
+     * total count of resources is known and the pages are not linked by
+     * continuation, or iterating the pages in turn otherwise.
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        AbstractMeta meta = currentPage().getMeta();
+        Matcher pageParameter = Optional.ofNullable(meta.getNext()).map(PAGE_PARAMETER::matcher).orElse(null);
+        if (Objects.isNull(totalCount) || meta.getPerPage() < 1 || Objects.nonNull(meta.getContinuesPage())
+                || Objects.isNull(pageParameter) || !pageParameter.find()) {
+            return ResourceIterable.super.spliterator();
+        }
+        close();
+        List<T> current = new ArrayList<>();
+        while (currentPage().containsIndex(resourceIndex)) {
+            current.add(currentPage().at(resourceIndex++));
+        }
+        String urlBeforePage = meta.getNext().substring(0, pageParameter.start(1));
+        String urlAfterPage = meta.getNext().substring(pageParameter.end(1));
+        Map<? extends String, ?> pageHeaders = headers;
+        return new PagedSpliterator<>(current, pageIndex + 1, meta.getPerPage(), totalCount, page -> {
+            String url = urlBeforePage + page + urlAfterPage;
+            JsonElement payload = endpoint.getPagedResource(url, pageHeaders).orElseThrow(noSuchElementException());
+            return deserializer.contentsFrom(payload);
+        });
+    }
+
+    /**
+     * Cancels the pages requested ahead of time.
+     */
+    @Override
+    public void close() {
+        prefetchDepth = 0;
+        prefetchedPages.forEach(page -> page.cancel(false));
+        prefetchedPages.clear();
+    }
+
     @Override
     protected void loadNextAndUpdateIndexes() {
-        Optional<JsonElement> payload = endpoint.getPagedResource(getNextPage(), headers);
+        Optional<JsonElement> payload = prefetchedPages.isEmpty()
+                ? endpoint.getPagedResource(getNextPage(), headers)
+                : await(prefetchedPages.removeFirst());
         this.pageIndex = addPage(payload.orElseThrow(noSuchElementException()));
         resourceIndex = 0;
+        prefetch();
+    }
+
+    /**
+     * Requests the pages following the last page requested until the prefetch
+     * depth is reached. The url of each page is taken from the one before it
+     * once it arrives.
+     */
+    private void prefetch() {
+        while (prefetchedPages.size() < prefetchDepth) {
+            CompletableFuture<Optional<JsonElement>> previous = prefetchedPages.peekLast();
+            prefetchedPages.addLast(Objects.isNull(previous)
+                    ? fetch(metaHasNext() ? Optional.of(getNextPage()) : Optional.empty())
+                    : previous.thenCompose(payload -> fetch(payload.map(this::getNextUrl))));
+        }
+    }
+
+    private CompletableFuture<Optional<JsonElement>> fetch(Optional<String> url) {
+        return url.map(next -> endpoint.getPagedResourceAsync(next, headers))
+                .orElseGet(() -> CompletableFuture.completedFuture(Optional.empty()));
+    }
+
+    private static Optional<JsonElement> await(CompletableFuture<Optional<JsonElement>> page) {
+        try {
+            return page.join();
+        } catch (CompletionException completionException) {
+            throw completionException.getCause() instanceof RuntimeException
+                    ? (RuntimeException) completionException.getCause() : completionException;
+        }
     }
 
     @Override
@@ -25,21 +25,16 @@ import static com.piksel.sequoia.clientsdk.resource.LinkedIndirectRelationshipDe
 import static com.piksel.sequoia.clientsdk.resource.ResourceDeserializerConstants.LINKED;
 import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
-import static org.reflections.ReflectionUtils.getAllFields;
-import static org.reflections.ReflectionUtils.withAnnotation;
-import static org.reflections.ReflectionUtils.withName;
 
 import java.lang.reflect.Field;
-import java.lang.reflect.ParameterizedType;
-import java.security.AccessController;
-import java.security.PrivilegedAction;
 import java.util.*;
+import java.util.function.UnaryOperator;
 
 import com.google.gson.Gson;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
-import com.piksel.sequoia.clientsdk.resource.ResourceDeserializer.DeserializationException;
+import com.piksel.sequoia.clientsdk.resource.RelationshipBindingPlan.RelationshipBinding;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -63,10 +58,24 @@ class LinkedDeserializer<T extends Resource> {
         return new LinkedDeserializer<>(endpoint, gson, payload);
     }
 
-    protected List<T> addLinkedToResources(ResourcesWithLinkedResources<T> resourcesWithLinkedResources) {
-        checkErrorsInMeta(resourcesWithLinkedResources.getMeta());
-        Set<Field> linkedFields = extractRelationshipFields();
-        return includeLinkedResourcesIntoResources(resourcesWithLinkedResources, linkedFields);
+    protected UnaryOperator<T> linkedResourceBinder(ResourcesWithLinkedResources<T> resourcesWithLinkedResources,
+            LinkedResourceIdentityMap identityMap) {
+        List<RelationshipBinding> bindings = RelationshipBindingPlan.forType(endpoint.getEndpointType()).getBindings();
+        checkErrorsInMeta(bindings, resourcesWithLinkedResources.getMeta());
+        LinkedResourceIndex linkedResources = new LinkedResourceIndex(resourcesWithLinkedResources.getLinkedResources(), gson,
+                identityMap);
+        LinkedDirectRelationshipDeserializer<T> directDeserializer = linkedDirectDeserializer(endpoint, gson, payload);
+        LinkedIndirectRelationshipDeserializer<T> indirectDeserializer = linkedIndirectDeserializer(endpoint, gson, payload);
+        return (resource) -> {
+            bindings.forEach((binding) -> {
+                if (binding.isDirect()) {
+                    directDeserializer.includeLinkedFieldDirectRelationship(resource, binding, linkedResources);
+                } else {
+                    indirectDeserializer.includeLinkedFieldIndirectRelationship(resource, binding, linkedResources);
+                }
+            });
+            return resource;
+        };
     }
 
     protected static String getRelationShip(Field field) {
@@ -81,101 +90,18 @@ class LinkedDeserializer<T extends Resource> {
         return null;
     }
 
-    protected String getRef(T resource, Field field) {
-        try {
-            Optional<Field> refField = getRefField(field, resource);
-            if (refField.isPresent()) {
-                return (String) getField(refField.get(), resource);
-            } else {
-                return null;
-            }
-        } catch (IllegalArgumentException | IllegalAccessException ex) {
-            throw new DeserializationException("Error deserializing " + resource, ex);
-        }
-    }
-
-    @SuppressWarnings({ "unchecked", "rawtypes" })
-    protected Object getField(Field refField, T resource) throws IllegalAccessException, IllegalArgumentException {
-        AccessController.doPrivileged((PrivilegedAction) () -> {
-            refField.setAccessible(true);
-            return null;
-        });
-        return refField.get(resource);
-    }
-
-    @SuppressWarnings("unchecked")
-    protected Optional<Field> getRefField(Field field, T resource) {
-        try {
-            String refFieldName = field.getAnnotation(DirectRelationship.class).ref();
-            Field refField = getAllFields(resource.getClass(), withName(refFieldName)).stream().findFirst().get();
-            return Optional.of(refField);
-        } catch (java.util.NoSuchElementException exception) {
-            log.warn("Field declared in ref in field '" + field.getName() + "' does not exist");
-            return Optional.empty();
-        }
-    }
-
-    protected boolean isOptional(Field field) {
-        return field.getType().equals(Optional.class);
-    }
-
-    protected boolean isCollectionOfOptionals(Field field) {
-        if (field.getGenericType() instanceof ParameterizedType) {
-            ParameterizedType pType = (ParameterizedType) field.getGenericType();
-            if (pType.getActualTypeArguments()[0] instanceof ParameterizedType) {
-                ParameterizedType type = (ParameterizedType) pType.getActualTypeArguments()[0];
-                return type.getRawType().equals(Optional.class);
-            }
-            return false;
-        }
-        return false;
-    }
-
-    @SuppressWarnings({ "unchecked", "rawtypes" })
-    protected void setField(Field field, T resource, Object linkedResources) throws IllegalArgumentException, IllegalAccessException {
-        AccessController.doPrivileged((PrivilegedAction) () -> {
-            field.setAccessible(true);
-            return null;
-        });
-
-        field.set(resource, linkedResources);
-
-    }
-
-    protected Object getRelatedResource(Field field, Collection<T> linkedResources) {
+    protected Object getRelatedResource(RelationshipBinding binding, Collection<T> linkedResources) {
         try {
-            return getRelatedResourceForCollectionOrSingle(field, linkedResources);
+            return getRelatedResourceForCollectionOrSingle(binding, linkedResources);
         } catch (RuntimeException ex) {
-            log.info(String.format("Can not populate field %s with payload %s", field.getName(), payload), ex);
+            log.info(String.format("Can not populate field %s with payload %s", binding.getField().getName(), payload), ex);
             return null;
         }
     }
 
-    protected boolean isCollection(Field field) {
-        return Collection.class.isAssignableFrom(field.getType());
-    }
-
-    protected boolean isLazyLoading(Field field) {
-        return LinkedResourceIterable.class.isAssignableFrom(field.getType());
-    }
-
-    protected Class<?> getType(Field field) {
-        if (nonNull(field.getGenericType())) {
-            if (field.getGenericType() instanceof Class) {
-                return (Class<?>) field.getGenericType();
-            }
-            ParameterizedType genericType = (ParameterizedType) field.getGenericType();
-            if (genericType.getActualTypeArguments()[0] instanceof Class) {
-                return (Class<?>) genericType.getActualTypeArguments()[0];
-            }
-            return (Class<?>) ((ParameterizedType) genericType.getActualTypeArguments()[0]).getActualTypeArguments()[0];
-        }
-        return field.getType();
-    }
-
-    private Object getRelatedResourceForCollectionOrSingle(Field field, Collection<T> linkedResources) {
+    private Object getRelatedResourceForCollectionOrSingle(RelationshipBinding binding, Collection<T> linkedResources) {
         if (linkedResources != null) {
-            if (isCollection(field) || isLazyLoading(field)) {
+            if (binding.isCollection() || binding.isLazyLoading()) {
                 return linkedResources;
             } else {
                 if (linkedResources.isEmpty()) {
@@ -188,16 +114,12 @@ class LinkedDeserializer<T extends Resource> {
         }
     }
 
-    private void checkError(Field field, JsonElement meta) {
-        checkErrorStr(field, meta);
-    }
-
-    private void checkErrorStr(Field field, JsonElement meta) {
-        if (metaHasNotInfo(field, meta)) {
+    private void checkError(String relationship, JsonElement meta) {
+        if (metaHasNotInfo(relationship, meta)) {
             return;
         }
 
-        JsonArray linkedResourceInfo = getLinkedRequestInfo(field, meta);
+        JsonArray linkedResourceInfo = getLinkedRequestInfo(relationship, meta);
         if (notContainsStatusCode(linkedResourceInfo)) {
             return;
         }
@@ -222,58 +144,28 @@ class LinkedDeserializer<T extends Resource> {
         return hasStatusCode(linkedResource) ? linkedResource.get(STATUS_CODE).getAsInt() : 0;
     }
 
-    private boolean isDirectRelationship(Field field) {
-        return field.getAnnotation(DirectRelationship.class) != null;
-    }
-
     private boolean notContainsStatusCode(JsonArray linkedResourceInfo) {
         return linkedResourceInfo.size() <= 0 || !linkedResourceInfo.toString().contains(STATUS_CODE);
     }
 
-    private JsonArray getLinkedRequestInfo(Field field, JsonElement meta) {
-        return meta.getAsJsonObject().get(LINKED).getAsJsonObject().get(getRelationShip(field)).getAsJsonArray();
+    private JsonArray getLinkedRequestInfo(String relationship, JsonElement meta) {
+        return meta.getAsJsonObject().get(LINKED).getAsJsonObject().get(relationship).getAsJsonArray();
     }
 
-    private boolean metaHasNotInfo(Field field, JsonElement meta) {
-        return meta.isJsonNull() || !linkedExists(meta) || fieldDoesNotExist(field, meta);
+    private boolean metaHasNotInfo(String relationship, JsonElement meta) {
+        return meta.isJsonNull() || !linkedExists(meta) || relationshipDoesNotExist(relationship, meta);
     }
 
     private boolean linkedExists(JsonElement meta) {
         return nonNull(meta.getAsJsonObject().get(LINKED));
     }
 
-    private boolean fieldDoesNotExist(Field field, JsonElement meta) {
-        return isNull(meta.getAsJsonObject().get(LINKED).getAsJsonObject().get(getRelationShip(field)));
-    }
-
-    private void checkErrorsInMeta(JsonElement meta) {
-        Set<Field> relationshipFields = extractRelationshipFields();
-        relationshipFields.forEach((field) -> checkError(field, meta));
-    }
-
-    @SuppressWarnings("unchecked")
-    private Set<Field> extractRelationshipFields() {
-        Set<Field> fields = getAllFields(endpoint.getEndpointType(), withAnnotation(DirectRelationship.class));
-        fields.addAll(getAllFields(endpoint.getEndpointType(), withAnnotation(IndirectRelationship.class)));
-        return fields;
+    private boolean relationshipDoesNotExist(String relationship, JsonElement meta) {
+        return isNull(meta.getAsJsonObject().get(LINKED).getAsJsonObject().get(relationship));
     }
 
-    private List<T> includeLinkedResourcesIntoResources(ResourcesWithLinkedResources<T> resourcesWithLinkedResources, Set<Field> linkedFields) {
-        resourcesWithLinkedResources.getResources()
-                .forEach((resource) -> includeLinkedResourcesIntoResource(resource, linkedFields, resourcesWithLinkedResources.getLinkedResources()));
-        return resourcesWithLinkedResources.getResources();
-    }
-
-    private void includeLinkedResourcesIntoResource(T resource, Set<Field> linkedFields, JsonElement linkedResources) {
-        linkedFields.forEach((field) -> includeLinkedField(resource, field, linkedResources));
-    }
-
-    private void includeLinkedField(T resource, Field field, JsonElement linkedResources) {
-        if (isDirectRelationship(field)) {
-            linkedDirectDeserializer(endpoint, gson, payload).includeLinkedFieldDirectRelationship(resource, field, linkedResources);
-        } else {
-            linkedIndirectDeserializer(endpoint, gson, payload).includeLinkedFieldIndirectRelationship(resource, field, linkedResources);
-        }
+    private void checkErrorsInMeta(List<RelationshipBinding> bindings, JsonElement meta) {
+        bindings.forEach((binding) -> checkError(binding.getRelationship(), meta));
     }
 
 }
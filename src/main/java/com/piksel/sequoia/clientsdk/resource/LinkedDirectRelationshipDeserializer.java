@@ -20,7 +20,6 @@ package com.piksel.sequoia.clientsdk.resource;
  * #L%
  */
 
-import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -29,12 +28,13 @@ import java.util.Objects;
 import java.util.Optional;
 
 import com.google.gson.Gson;
-import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
-import com.piksel.sequoia.clientsdk.resource.ResourceDeserializer.DeserializationException;
+import com.piksel.sequoia.clientsdk.resource.RelationshipBindingPlan.RelationshipBinding;
 
 class LinkedDirectRelationshipDeserializer<T extends Resource> extends LinkedDeserializer<T> {
 
+    private static final String REF = "ref";
+
     private LinkedDirectRelationshipDeserializer(PageableResourceEndpoint<T> endpoint, Gson gson, JsonElement payload) {
         super(endpoint, gson, payload);
     }
@@ -44,102 +44,83 @@ class LinkedDirectRelationshipDeserializer<T extends Resource> extends LinkedDes
         return new LinkedDirectRelationshipDeserializer<>(endpoint, gson, payload);
     }
 
-    protected void includeLinkedFieldDirectRelationship(T resource, Field field, JsonElement linkedResources) {
-        if (isCollection(field)) {
-            List<String> refs = getDirectRefs(resource, field);
-            populateCollectionFieldWithDirectRefs(resource, field, linkedResources, refs);
+    protected void includeLinkedFieldDirectRelationship(T resource, RelationshipBinding binding, LinkedResourceIndex linkedResources) {
+        if (binding.isCollection()) {
+            List<String> refs = getDirectRefs(resource, binding);
+            populateCollectionFieldWithDirectRefs(resource, binding, linkedResources, refs);
         } else {
-            String ref = getRef(resource, field);
-            populateSingleFieldWithDirectRef(resource, field, linkedResources, ref);
+            String ref = (String) binding.refOf(resource);
+            populateSingleFieldWithDirectRef(resource, binding, linkedResources, ref);
         }
     }
 
-    private List<String> getDirectRefs(T resource, Field field) {
-        try {
-            Optional<Field> refField = getRefField(field, resource);
-            if (refField.isPresent()) {
-                @SuppressWarnings("unchecked")
-                List<String> refs = (List<String>) getField(refField.get(), resource);
-                return refs;
-            } else {
-                return Collections.emptyList();
-            }
-        } catch (IllegalArgumentException | IllegalAccessException ex) {
-            throw new DeserializationException("Error deserializing " + resource, ex);
+    @SuppressWarnings("unchecked")
+    private List<String> getDirectRefs(T resource, RelationshipBinding binding) {
+        if (Objects.isNull(binding.getRefGetter())) {
+            return Collections.emptyList();
         }
+        return (List<String>) binding.refOf(resource);
     }
 
-    private void populateSingleFieldWithDirectRef(T resource, Field field, JsonElement linkedResources, String ref) {
-        if (isOptional(field)) {
-            buildOptionalDirectRelationship(resource, field, linkedResources, ref);
+    private void populateSingleFieldWithDirectRef(T resource, RelationshipBinding binding, LinkedResourceIndex linkedResources, String ref) {
+        if (binding.isOptional()) {
+            buildOptionalDirectRelationship(resource, binding, linkedResources, ref);
         } else {
-            buildNonOptionalDirectRelationship(resource, field, linkedResources, ref);
+            buildNonOptionalDirectRelationship(resource, binding, linkedResources, ref);
         }
     }
 
-    private void buildOptionalDirectRelationship(T resource, Field field, JsonElement linkedResources, String ref) {
-        try {
-            if (ref != null) {
-                Collection<T> directLinkedResources = getLinkedResourcesByRef(linkedResources, field, ref);
-                @SuppressWarnings("unchecked")
-                T linkedResource = (T) getRelatedResource(field, directLinkedResources);
-                if (linkedResource != null) {
-                    setField(field, resource, Optional.of(linkedResource));
-                } else {
-                    setField(field, resource, Optional.empty());
-                }
+    private void buildOptionalDirectRelationship(T resource, RelationshipBinding binding, LinkedResourceIndex linkedResources, String ref) {
+        if (ref != null) {
+            Collection<T> directLinkedResources = getLinkedResourcesByRef(linkedResources, binding, ref);
+            @SuppressWarnings("unchecked")
+            T linkedResource = (T) getRelatedResource(binding, directLinkedResources);
+            if (linkedResource != null) {
+                binding.set(resource, Optional.of(linkedResource));
             } else {
-                setField(field, resource, Optional.empty());
+                binding.set(resource, Optional.empty());
             }
-        } catch (IllegalArgumentException | IllegalAccessException ex) {
-            throw new DeserializationException("Error deserializing " + resource, ex);
+        } else {
+            binding.set(resource, Optional.empty());
         }
     }
 
-    private void populateCollectionFieldWithDirectRefs(T resource, Field field, JsonElement linkedResources, List<String> refs) {
-        if (isCollectionOfOptionals(field)) {
-            buildOptionalsDirectRelationships(resource, field, linkedResources, refs);
+    private void populateCollectionFieldWithDirectRefs(T resource, RelationshipBinding binding, LinkedResourceIndex linkedResources, List<String> refs) {
+        if (binding.isCollectionOfOptionals()) {
+            buildOptionalsDirectRelationships(resource, binding, linkedResources, refs);
         } else {
-            buildNonOptionalsDirectRelationships(resource, field, linkedResources, refs);
+            buildNonOptionalsDirectRelationships(resource, binding, linkedResources, refs);
         }
     }
 
-    private void buildOptionalsDirectRelationships(T resource, Field field, JsonElement linkedResources, List<String> refs) {
-        try {
-            List<Optional<T>> listOptionalLinked = new ArrayList<>();
-            if (refs != null) {
-                for (String ref : refs) {
-                    Collection<T> directLinkedResources = getLinkedResourcesByRef(linkedResources, field, ref);
-                    @SuppressWarnings("unchecked")
-                    Collection<T> linkedResource = (Collection<T>) getRelatedResource(field, directLinkedResources);
-                    if (linkedResource != null && linkedResource.size() == 1) {
-                        listOptionalLinked.add(Optional.of(linkedResource.iterator().next()));
-                    } else {
-                        listOptionalLinked.add(Optional.empty());
-                    }
+    private void buildOptionalsDirectRelationships(T resource, RelationshipBinding binding, LinkedResourceIndex linkedResources, List<String> refs) {
+        List<Optional<T>> listOptionalLinked = new ArrayList<>();
+        if (refs != null) {
+            for (String ref : refs) {
+                Collection<T> directLinkedResources = getLinkedResourcesByRef(linkedResources, binding, ref);
+                @SuppressWarnings("unchecked")
+                Collection<T> linkedResource = (Collection<T>) getRelatedResource(binding, directLinkedResources);
+                if (linkedResource != null && linkedResource.size() == 1) {
+                    listOptionalLinked.add(Optional.of(linkedResource.iterator().next()));
+                } else {
+                    listOptionalLinked.add(Optional.empty());
                 }
             }
-            setField(field, resource, listOptionalLinked);
-        } catch (IllegalArgumentException | IllegalAccessException ex) {
-            throw new DeserializationException("Error deserializing " + resource, ex);
         }
+        binding.set(resource, listOptionalLinked);
     }
 
-    private void buildNonOptionalsDirectRelationships(T resource, Field field, JsonElement linkedResources, List<String> refs) {
-        try {
-            setField(field, resource, getLinkedResources(field, linkedResources, refs));
-        } catch (IllegalArgumentException | IllegalAccessException ex) {
-            throw new DeserializationException("Error deserializing " + resource, ex);
-        }
+    private void buildNonOptionalsDirectRelationships(T resource, RelationshipBinding binding, LinkedResourceIndex linkedResources, List<String> refs) {
+        binding.set(resource, getLinkedResources(binding, linkedResources, refs));
     }
 
-    Collection<T> getLinkedResources(Field field, JsonElement linkedResources, List<String> refs) {
+    Collection<T> getLinkedResources(RelationshipBinding binding, LinkedResourceIndex linkedResources, List<String> refs) {
         Collection<T> collectionLinked = new ArrayList<>();
         if (refs != null) {
             for (String ref : refs) {
-                Collection<T> directLinkedResource = getLinkedResourcesByRef(linkedResources, field, ref);
+                Collection<T> directLinkedResource = getLinkedResourcesByRef(linkedResources, binding, ref);
                 @SuppressWarnings("unchecked")
-                Collection<T> linkedResource = (Collection<T>) getRelatedResource(field, directLinkedResource);
+                Collection<T> linkedResource = (Collection<T>) getRelatedResource(binding, directLinkedResource);
                 if (linkedResource != null && linkedResource.size() == 1) {
                     collectionLinked.add(linkedResource.iterator().next());
                 }
@@ -148,40 +129,23 @@ class LinkedDirectRelationshipDeserializer<T extends Resource> extends LinkedDes
         return collectionLinked;
     }
 
-    private void buildNonOptionalDirectRelationship(T resource, Field field, JsonElement linkedResources, String ref) {
-        try {
-            if (ref != null) {
-                Collection<T> directLinkedResource = getLinkedResourcesByRef(linkedResources, field, ref);
-                @SuppressWarnings("unchecked")
-                T linkedResource = (T) getRelatedResource(field, directLinkedResource);
-                if (linkedResource != null) {
-                    setField(field, resource, linkedResource);
-                } else {
-                    setField(field, resource, null);
-                }
-            } else {
-                setField(field, resource, null);
-            }
-        } catch (IllegalArgumentException | IllegalAccessException ex) {
-            throw new DeserializationException("Error deserializing " + resource, ex);
+    private void buildNonOptionalDirectRelationship(T resource, RelationshipBinding binding, LinkedResourceIndex linkedResources, String ref) {
+        if (ref != null) {
+            Collection<T> directLinkedResource = getLinkedResourcesByRef(linkedResources, binding, ref);
+            @SuppressWarnings("unchecked")
+            T linkedResource = (T) getRelatedResource(binding, directLinkedResource);
+            binding.set(resource, linkedResource);
+        } else {
+            binding.set(resource, null);
         }
-
     }
 
     @SuppressWarnings("unchecked")
-    private Collection<T> getLinkedResourcesByRef(JsonElement linkedResources, Field field, String ref) {
-        JsonElement jsonElement = linkedResources.getAsJsonObject().get(field.getAnnotation(DirectRelationship.class).relationship());
+    private Collection<T> getLinkedResourcesByRef(LinkedResourceIndex linkedResources, RelationshipBinding binding, String ref) {
         Collection<T> resourcesLinked = new ArrayList<>();
-        if (Objects.nonNull(jsonElement)) {
-            JsonArray arrayResources = jsonElement.getAsJsonArray();
-            for (int i = 0; i < arrayResources.size(); i++) {
-                Object value = arrayResources.get(i).getAsJsonObject().get("ref").getAsString();
-                if (Objects.nonNull(value) && ref.equals(value.toString())) {
-                    resourcesLinked.add((T) gson.fromJson(arrayResources.get(i), getType(field)));
-                    return resourcesLinked;
-                }
-            }
-
+        List<Object> matches = linkedResources.resolve(binding.getRelationship(), REF, ref, binding.getTargetType());
+        if (!matches.isEmpty()) {
+            resourcesLinked.add((T) matches.get(0));
         }
         return resourcesLinked;
     }
@@ -20,30 +20,24 @@ package com.piksel.sequoia.clientsdk.resource;
  * #L%
  */
 
-import static java.util.Objects.isNull;
-
-import java.lang.reflect.Field;
-import java.lang.reflect.ParameterizedType;
-import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
-import java.util.Objects;
 import java.util.Optional;
 
 import com.google.common.collect.Lists;
 import com.google.gson.Gson;
-import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
-import com.piksel.sequoia.clientsdk.resource.ResourceDeserializer.DeserializationException;
-
-import lombok.extern.slf4j.Slf4j;
+import com.piksel.sequoia.clientsdk.resource.RelationshipBindingPlan.RelationshipBinding;
 
-@Slf4j
 class LinkedIndirectRelationshipDeserializer<T extends Resource> extends LinkedDeserializer<T> {
 
+    private final LinkedMetaIndex linkedMetaIndex;
+    private LinkedPages linkedPages;
+
     private LinkedIndirectRelationshipDeserializer(PageableResourceEndpoint<T> endpoint, Gson gson, JsonElement payload) {
         super(endpoint, gson, payload);
+        this.linkedMetaIndex = new LinkedMetaIndex(payload, gson);
     }
 
     protected static <T extends Resource> LinkedIndirectRelationshipDeserializer<T> linkedIndirectDeserializer(PageableResourceEndpoint<T> endpoint,
@@ -51,68 +45,56 @@ class LinkedIndirectRelationshipDeserializer<T extends Resource> extends LinkedD
         return new LinkedIndirectRelationshipDeserializer<>(endpoint, gson, payload);
     }
 
-    protected void includeLinkedFieldIndirectRelationship(T resource, Field field, JsonElement linkedResources) {
-        if (isCollection(field) || isLazyLoading(field)) {
-            populateCollectionFieldWithIndirectRefs(resource, field, linkedResources);
+    protected void includeLinkedFieldIndirectRelationship(T resource, RelationshipBinding binding, LinkedResourceIndex linkedResources) {
+        if (binding.isCollection() || binding.isLazyLoading()) {
+            populateCollectionFieldWithIndirectRefs(resource, binding, linkedResources);
         } else {
-            populateSingleFieldWithIndirectRef(resource, field, linkedResources);
+            populateSingleFieldWithIndirectRef(resource, binding, linkedResources);
         }
     }
 
-    private void populateSingleFieldWithIndirectRef(T resource, Field field, JsonElement linkedResources) {
-        try {
-            Collection<T> indirectLinkedArray = getIndirectLinked(field, resource, linkedResources);
-            @SuppressWarnings("unchecked")
-            Collection<T> linkedResource = (Collection<T>) getRelatedResource(field, indirectLinkedArray);
-            if (linkedResource != null && !linkedResource.isEmpty()) {
-                setField(field, resource, Optional.of(linkedResource.iterator().next()));
-            } else {
-                setField(field, resource, Optional.empty());
-            }
-        } catch (IllegalArgumentException | IllegalAccessException ex) {
-            throw new DeserializationException("Error deserializing " + resource, ex);
+    private void populateSingleFieldWithIndirectRef(T resource, RelationshipBinding binding, LinkedResourceIndex linkedResources) {
+        Collection<T> indirectLinkedArray = getIndirectLinked(binding, resource, linkedResources);
+        @SuppressWarnings("unchecked")
+        Collection<T> linkedResource = (Collection<T>) getRelatedResource(binding, indirectLinkedArray);
+        if (linkedResource != null && !linkedResource.isEmpty()) {
+            binding.set(resource, Optional.of(linkedResource.iterator().next()));
+        } else {
+            binding.set(resource, Optional.empty());
         }
     }
 
-    private void populateCollectionFieldWithIndirectRefs(T resource, Field field, JsonElement linkedResources) {
-        if (isCollectionOfOptionals(field)) {
-            buildOptionalsIndirectRelationships(resource, field, linkedResources);
-        } else if (isCollection(field)) {
-            buildCollectionIndirectRelationships(resource, field, linkedResources);
+    private void populateCollectionFieldWithIndirectRefs(T resource, RelationshipBinding binding, LinkedResourceIndex linkedResources) {
+        if (binding.isCollectionOfOptionals()) {
+            buildOptionalsIndirectRelationships(resource, binding, linkedResources);
+        } else if (binding.isCollection()) {
+            buildCollectionIndirectRelationships(resource, binding, linkedResources);
         } else {
-            buildLazyLoadingIndirectRelationships(resource, field);
+            buildLazyLoadingIndirectRelationships(resource, binding, linkedResources);
         }
     }
 
-    private void buildOptionalsIndirectRelationships(T resource, Field field, JsonElement linkedResources) {
-        try {
-            List<Optional<T>> linkedResourcesResult = new ArrayList<>();
-            Collection<T> indirectLinkedArray = getIndirectLinked(field, resource, linkedResources);
-            @SuppressWarnings("unchecked")
-            Collection<T> linkedResourcesCollection = (Collection<T>) getRelatedResource(field, indirectLinkedArray);
-            if (linkedResourcesCollection != null) {
-                if (!linkedResourcesCollection.isEmpty()) {
-                    linkedResourcesCollection.forEach((linkedResource) -> linkedResourcesResult.add(Optional.of(linkedResource)));
-                }
+    private void buildOptionalsIndirectRelationships(T resource, RelationshipBinding binding, LinkedResourceIndex linkedResources) {
+        List<Optional<T>> linkedResourcesResult = new ArrayList<>();
+        Collection<T> indirectLinkedArray = getIndirectLinked(binding, resource, linkedResources);
+        @SuppressWarnings("unchecked")
+        Collection<T> linkedResourcesCollection = (Collection<T>) getRelatedResource(binding, indirectLinkedArray);
+        if (linkedResourcesCollection != null) {
+            if (!linkedResourcesCollection.isEmpty()) {
+                linkedResourcesCollection.forEach((linkedResource) -> linkedResourcesResult.add(Optional.of(linkedResource)));
             }
-            setField(field, resource, linkedResourcesResult);
-        } catch (IllegalArgumentException | IllegalAccessException ex) {
-            throw new DeserializationException("Error deserializing " + resource, ex);
         }
+        binding.set(resource, linkedResourcesResult);
     }
 
-    private void buildCollectionIndirectRelationships(T resource, Field field, JsonElement linkedResources) {
-        try {
-            setField(field, resource, getLinkedResources(resource, field, linkedResources));
-        } catch (IllegalArgumentException | IllegalAccessException ex) {
-            throw new DeserializationException("Error deserializing " + resource, ex);
-        }
+    private void buildCollectionIndirectRelationships(T resource, RelationshipBinding binding, LinkedResourceIndex linkedResources) {
+        binding.set(resource, getLinkedResources(resource, binding, linkedResources));
     }
 
     @SuppressWarnings("unchecked")
-    Collection<T> getLinkedResources(T resource, Field field, JsonElement linkedResources) {
-        Collection<T> linkedResourceCollection = getIndirectLinked(field, resource, linkedResources);
-        Object relatedResource = getRelatedResource(field, linkedResourceCollection);
+    Collection<T> getLinkedResources(T resource, RelationshipBinding binding, LinkedResourceIndex linkedResources) {
+        Collection<T> linkedResourceCollection = getIndirectLinked(binding, resource, linkedResources);
+        Object relatedResource = getRelatedResource(binding, linkedResourceCollection);
         if (relatedResource instanceof Collection) {
             return (Collection<T>) relatedResource;
         }
@@ -121,65 +103,31 @@ class LinkedIndirectRelationshipDeserializer<T extends Resource> extends LinkedD
         return collectionWithSingle;
     }
 
-    private void buildLazyLoadingIndirectRelationships(T resource, Field field) {
-        try {
-            if (resource.getRef() != null) {
-                ParameterizedType pType = (ParameterizedType) field.getGenericType();
-                Type type = pType.getActualTypeArguments()[0];
-                @SuppressWarnings("unchecked")
-                LazyLoadingLinkedResourceIterable<T> linkedResources = new LazyLoadingLinkedResourceIterable<>(payload, endpoint,
-                        endpoint.getLinkedPages(getRelationShip(field), getRelationShip(field), (Class<T>) type), gson, field, resource);
-                setField(field, resource, linkedResources);
-            }
-        } catch (IllegalArgumentException | IllegalAccessException ex) {
-            throw new DeserializationException("Error deserializing " + resource, ex);
-        }
-    }
-
-    private Collection<T> getIndirectLinked(Field field, T resource, JsonElement linkedResources) {
-        JsonElement jsonElement = linkedResources.getAsJsonObject().get(field.getAnnotation(IndirectRelationship.class).relationship());
-        Collection<T> resourcesLinked = new ArrayList<>();
-        if (Objects.nonNull(jsonElement)) {
-            JsonArray arrayResources = jsonElement.getAsJsonArray();
-            for (int i = 0; i < arrayResources.size(); i++) {
-                addLinkedResources(field, resource, resourcesLinked, arrayResources.get(i),
-                        arrayResources.get(i).getAsJsonObject().get(field.getAnnotation(IndirectRelationship.class).ref()));
-            }
-        }
-        return resourcesLinked;
-    }
-
-    private void addLinkedResources(Field field, T resource, Collection<T> resourcesLinked, JsonElement jsonElement, JsonElement value) {
-        if (isNull(value)) {
-            log.warn(
-                    "Unable to locate linking field [{}] in linked resource. Please check your model object and query to ensure the correct linked fields are selected",
-                    field.getAnnotation(IndirectRelationship.class).ref());
-            return;
-        }
-        if (value.isJsonArray()) {
-            addLinkedResourceIfReferenceIsInArray(field, resource, resourcesLinked, jsonElement, value);
-        } else {
-            addLinkedResourceIfReferenceIsEqual(field, resource, resourcesLinked, jsonElement, value);
+    @SuppressWarnings("unchecked")
+    private void buildLazyLoadingIndirectRelationships(T resource, RelationshipBinding binding, LinkedResourceIndex linkedResources) {
+        if (resource.getRef() != null) {
+            LazyLoadingLinkedResourceIterable<T> lazyLinkedResources = new LazyLoadingLinkedResourceIterable<>(payload, endpoint,
+                    endpoint.getLinkedPages(binding.getRelationship(), binding.getRelationship(), (Class<T>) binding.getElementType()), gson,
+                    binding.getField(), resource, linkedPagesFor(linkedResources));
+            binding.set(resource, lazyLinkedResources);
         }
     }
 
-    @SuppressWarnings({ "unchecked" })
-    private void addLinkedResourceIfReferenceIsEqual(Field field, T resource, Collection<T> resourcesLinked, JsonElement jsonElement,
-            JsonElement value) {
-        if (resource.getRef() != null && value.getAsString().equals(resource.getRef().toString())) {
-            resourcesLinked.add((T) gson.fromJson(jsonElement, getType(field)));
+    private synchronized LinkedPages linkedPagesFor(LinkedResourceIndex linkedResources) {
+        if (linkedPages == null) {
+            linkedPages = new LinkedPages(linkedMetaIndex, linkedResources);
         }
+        return linkedPages;
     }
 
-    @SuppressWarnings({ "unchecked" })
-    private void addLinkedResourceIfReferenceIsInArray(Field field, T resource, Collection<T> resourcesLinked, JsonElement jsonElement,
-            JsonElement value) {
-        JsonArray array = value.getAsJsonArray();
-        for (int i = 0; i < array.size(); i++) {
-            if (array.get(i).getAsString().equals(resource.getRef().toString())) {
-                resourcesLinked.add((T) gson.fromJson(jsonElement, getType(field)));
-            }
+    @SuppressWarnings("unchecked")
+    private Collection<T> getIndirectLinked(RelationshipBinding binding, T resource, LinkedResourceIndex linkedResources) {
+        Collection<T> resourcesLinked = new ArrayList<>();
+        if (resource.getRef() != null) {
+            linkedResources.resolve(binding.getRelationship(), binding.getIndirectRef(), resource.getRef().toString(), binding.getTargetType())
+                    .forEach((linkedResource) -> resourcesLinked.add((T) linkedResource));
         }
+        return resourcesLinked;
     }
 
 }
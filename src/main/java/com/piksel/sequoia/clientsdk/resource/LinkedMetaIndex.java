@@ -0,0 +1,189 @@
+package com.piksel.sequoia.clientsdk.resource;
+
+/*-
+ * #%L
+ * Sequoia Java Client SDK
+ * %%
+ * Copyright (C) 2018 Piksel
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static com.piksel.sequoia.clientsdk.resource.ResourceDeserializerConstants.COLON;
+import static com.piksel.sequoia.clientsdk.resource.ResourceDeserializerConstants.ENCODED_COLON;
+import static com.piksel.sequoia.clientsdk.resource.ResourceDeserializerConstants.LINKED;
+import static com.piksel.sequoia.clientsdk.resource.ResourceDeserializerConstants.META;
+import static com.piksel.sequoia.clientsdk.resource.ResourceDeserializerConstants.OR_ENCODED;
+import static java.util.Objects.isNull;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+/**
+ * The linked meta of the relationships of a payload indexed by the references
+ * in the query string of each linked request. The meta of a relationship is
+ * parsed once, the first time it is looked up, so every resource of the page
+ * finds its own linked meta without scanning the requests again.
+ */
+final class LinkedMetaIndex {
+
+    private static final String REQUEST = "request";
+    private static final char QUERY = '?';
+    private static final String PARAMETER_SEPARATOR = "&";
+    private static final char VALUE_SEPARATOR = '=';
+    private static final String PAGE = "page";
+
+    private final JsonElement payload;
+    private final Gson gson;
+    private final ConcurrentMap<String, Map<String, LinkedMeta>> indexes = new ConcurrentHashMap<>();
+
+    LinkedMetaIndex(JsonElement payload, Gson gson) {
+        this.payload = payload;
+        this.gson = gson;
+    }
+
+    /**
+     * The linked meta of the relationship for the resource with the given
+     * reference: the meta of its last requested page, with the number of items
+     * per page summed over every request for the reference.
+     */
+    Optional<LinkedMeta> lookup(String relationship, Reference ref) {
+        if (isNull(ref)) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(indexes.computeIfAbsent(relationship, this::indexOf).get(encode(ref)));
+    }
+
+    private Map<String, LinkedMeta> indexOf(String relationship) {
+        JsonArray linkedMeta = linkedMetaOf(relationship);
+        if (isNull(linkedMeta)) {
+            return Collections.emptyMap();
+        }
+        Map<String, Integer> lastPages = new HashMap<>();
+        Map<String, Integer> perPages = new HashMap<>();
+        LinkedMeta[] candidates = new LinkedMeta[linkedMeta.size()];
+        for (int i = 0; i < linkedMeta.size(); i++) {
+            candidates[i] = gson.fromJson(linkedMeta.get(i), LinkedMeta.class);
+            for (String encodedRef : refsOf(candidates[i].getRequest())) {
+                perPages.merge(encodedRef, candidates[i].getPerPage(), Integer::sum);
+                Integer last = lastPages.get(encodedRef);
+                if (isNull(last) || candidates[i].getPage() > candidates[last].getPage()) {
+                    lastPages.put(encodedRef, i);
+                }
+            }
+        }
+        Map<String, LinkedMeta> index = new HashMap<>();
+        lastPages.forEach((encodedRef, last) -> index.put(encodedRef,
+                withPerPage(candidates[last], linkedMeta.get(last), perPages.get(encodedRef))));
+        return index;
+    }
+
+    /**
+     * The meta of the last page, copied when the items per page summed over
+     * the requests for a reference differ from its own, since it may be the
+     * last page of other references too.
+     */
+    private LinkedMeta withPerPage(LinkedMeta meta, JsonElement json, int perPage) {
+        if (meta.getPerPage() == perPage) {
+            return meta;
+        }
+        LinkedMeta copy = gson.fromJson(json, LinkedMeta.class);
+        copy.setPerPage(perPage);
+        return copy;
+    }
+
+    private JsonArray linkedMetaOf(String relationship) {
+        JsonElement meta = payload.getAsJsonObject().get(META);
+        if (isNull(meta) || !meta.isJsonObject()) {
+            return null;
+        }
+        JsonElement linked = meta.getAsJsonObject().get(LINKED);
+        if (isNull(linked) || !linked.isJsonObject()) {
+            return null;
+        }
+        JsonElement relationshipMeta = ((JsonObject) linked).get(relationship);
+        return isNull(relationshipMeta) || !relationshipMeta.isJsonArray() ? null : relationshipMeta.getAsJsonArray();
+    }
+
+    /**
+     * The encoded references in the parameter values of a request, which hold
+     * one reference or several separated by an encoded {@code ||}.
+     */
+    static Set<String> refsOf(String request) {
+        Set<String> refs = new LinkedHashSet<>();
+        if (isNull(request) || request.indexOf(QUERY) < 0) {
+            return refs;
+        }
+        for (String parameter : request.substring(request.indexOf(QUERY) + 1).split(PARAMETER_SEPARATOR)) {
+            int valueStart = parameter.indexOf(VALUE_SEPARATOR);
+            if (valueStart < 0) {
+                continue;
+            }
+            for (String value : parameter.substring(valueStart + 1).split(OR_ENCODED)) {
+                if (!value.isEmpty()) {
+                    refs.add(value);
+                }
+            }
+        }
+        return refs;
+    }
+
+    /**
+     * The url of the first page of a linked request restricted to the given
+     * reference, when one of its parameters lists several references including
+     * it, so that the server only returns the resources linked to it.
+     */
+    static Optional<String> restrictedTo(String url, String encodedRef) {
+        if (isNull(url) || url.indexOf(QUERY) < 0) {
+            return Optional.empty();
+        }
+        boolean restricted = false;
+        StringBuilder restrictedUrl = new StringBuilder(url.substring(0, url.indexOf(QUERY) + 1));
+        for (String parameter : url.substring(url.indexOf(QUERY) + 1).split(PARAMETER_SEPARATOR)) {
+            int valueStart = parameter.indexOf(VALUE_SEPARATOR);
+            String name = valueStart < 0 ? parameter : parameter.substring(0, valueStart);
+            if (PAGE.equals(name)) {
+                continue;
+            }
+            if (valueStart >= 0 && isManyRefsIncluding(parameter.substring(valueStart + 1), encodedRef)) {
+                parameter = name + VALUE_SEPARATOR + encodedRef;
+                restricted = true;
+            }
+            restrictedUrl.append(parameter).append(PARAMETER_SEPARATOR);
+        }
+        return restricted ? Optional.of(restrictedUrl.append(PAGE).append(VALUE_SEPARATOR).append(1).toString()) : Optional.empty();
+    }
+
+    private static boolean isManyRefsIncluding(String value, String encodedRef) {
+        String[] refs = value.split(OR_ENCODED);
+        return refs.length > 1 && Arrays.asList(refs).contains(encodedRef);
+    }
+
+    static String encode(Reference ref) {
+        return ref.toString().replace(COLON, ENCODED_COLON);
+    }
+
+}
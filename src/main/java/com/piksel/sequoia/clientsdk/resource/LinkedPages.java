@@ -0,0 +1,94 @@
+package com.piksel.sequoia.clientsdk.resource;
+
+/*-
+ * #%L
+ * Sequoia Java Client SDK
+ * %%
+ * Copyright (C) 2018 Piksel
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.gson.JsonElement;
+
+import lombok.Getter;
+
+/**
+ * What the lazily loaded relationships of the resources of one page share:
+ * the indexes of the linked resources and linked meta of the page, and the
+ * follow-up linked pages last fetched, so that sibling iterables requesting
+ * the same page url fetch it once.
+ *
+ * <p>Only the {@value #MAX_FETCHED_PAGES} most recently fetched pages are
+ * kept, so that the resources of a long relationship are not all held until
+ * every sibling is done; a sibling falling further behind fetches the page
+ * again.
+ */
+final class LinkedPages {
+
+    static final int MAX_FETCHED_PAGES = 16;
+
+    @Getter
+    private final LinkedMetaIndex metaIndex;
+    @Getter
+    private final LinkedResourceIndex resourceIndex;
+    private final ConcurrentMap<String, CompletableFuture<Optional<JsonElement>>> fetchedPages = CacheBuilder
+            .newBuilder().concurrencyLevel(1).maximumSize(MAX_FETCHED_PAGES)
+            .<String, CompletableFuture<Optional<JsonElement>>> build().asMap();
+
+    LinkedPages(LinkedMetaIndex metaIndex, LinkedResourceIndex resourceIndex) {
+        this.metaIndex = metaIndex;
+        this.resourceIndex = resourceIndex;
+    }
+
+    /**
+     * Provides the linked page with the given url, fetching it with the loader
+     * only if no sibling has fetched it, or is fetching it, yet. The loader
+     * runs outside of the map, and siblings requesting the page meanwhile wait
+     * for it. The page is shared and must not be modified.
+     */
+    Optional<JsonElement> fetch(String url, Function<String, Optional<JsonElement>> loader) {
+        CompletableFuture<Optional<JsonElement>> fetching = new CompletableFuture<>();
+        CompletableFuture<Optional<JsonElement>> fetched = fetchedPages.putIfAbsent(url, fetching);
+        if (Objects.nonNull(fetched)) {
+            return join(fetched);
+        }
+        try {
+            fetching.complete(loader.apply(url));
+        } catch (RuntimeException | Error failure) {
+            fetchedPages.remove(url, fetching);
+            fetching.completeExceptionally(failure);
+            throw failure;
+        }
+        return fetching.join();
+    }
+
+    private static Optional<JsonElement> join(CompletableFuture<Optional<JsonElement>> page) {
+        try {
+            return page.join();
+        } catch (CompletionException completionException) {
+            throw completionException.getCause() instanceof RuntimeException
+                    ? (RuntimeException) completionException.getCause() : completionException;
+        }
+    }
+
+}
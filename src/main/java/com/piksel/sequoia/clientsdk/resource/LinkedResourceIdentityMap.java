@@ -0,0 +1,57 @@
+package com.piksel.sequoia.clientsdk.resource;
+
+/*-
+ * #%L
+ * Sequoia Java Client SDK
+ * %%
+ * Copyright (C) 2018 Piksel
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static java.util.Objects.isNull;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+
+/**
+ * Decoded linked resources keyed by relationship, type and ref, so that a
+ * linked resource included for many resources is decoded into a single
+ * instance shared by all of them. Linked resources without a ref are decoded
+ * each time they are resolved.
+ */
+final class LinkedResourceIdentityMap {
+
+    private static final String REF = "ref";
+    private static final char SEPARATOR = '\u0000';
+
+    private final ConcurrentMap<String, Object> resources = new ConcurrentHashMap<>();
+
+    Object resolve(String relationship, JsonElement linkedResource, Class<?> type, Gson gson) {
+        JsonElement ref = linkedResource.isJsonObject() ? linkedResource.getAsJsonObject().get(REF) : null;
+        if (isNull(ref) || !ref.isJsonPrimitive()) {
+            return gson.fromJson(linkedResource, type);
+        }
+        String key = relationship + SEPARATOR + type.getName() + SEPARATOR + ref.getAsString();
+        return resources.computeIfAbsent(key, k -> gson.fromJson(linkedResource, type));
+    }
+
+    int size() {
+        return resources.size();
+    }
+
+}
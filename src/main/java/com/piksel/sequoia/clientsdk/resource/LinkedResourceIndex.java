@@ -0,0 +1,115 @@
+package com.piksel.sequoia.clientsdk.resource;
+
+/*-
+ * #%L
+ * Sequoia Java Client SDK
+ * %%
+ * Copyright (C) 2018 Piksel
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static java.util.Objects.isNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Index of the linked section of a payload. The linked resources of a
+ * relationship are indexed by the value of one of their fields the first time
+ * they are looked up, so resolving the resources linked to each resource of a
+ * page does not scan the linked resources again. Decoded linked resources are
+ * shared through a {@link LinkedResourceIdentityMap}.
+ */
+@Slf4j
+final class LinkedResourceIndex {
+
+    private final JsonElement linkedResources;
+    private final Gson gson;
+    private final LinkedResourceIdentityMap identityMap;
+    private final ConcurrentMap<String, Map<String, List<JsonElement>>> indexes = new ConcurrentHashMap<>();
+
+    LinkedResourceIndex(JsonElement linkedResources, Gson gson) {
+        this(linkedResources, gson, new LinkedResourceIdentityMap());
+    }
+
+    LinkedResourceIndex(JsonElement linkedResources, Gson gson, LinkedResourceIdentityMap identityMap) {
+        this.linkedResources = linkedResources;
+        this.gson = gson;
+        this.identityMap = identityMap;
+    }
+
+    /**
+     * The decoded linked resources found by {@link #lookup}, each one decoded
+     * once and shared through the identity map.
+     */
+    List<Object> resolve(String relationship, String refField, String ref, Class<?> type) {
+        List<Object> resolved = new ArrayList<>();
+        lookup(relationship, refField, ref)
+                .forEach(linkedResource -> resolved.add(identityMap.resolve(relationship, linkedResource, type, gson)));
+        return resolved;
+    }
+
+    /**
+     * The linked resources of the relationship whose {@code refField} is, or
+     * for array values contains, the given ref, in the order they appear in the
+     * payload.
+     */
+    List<JsonElement> lookup(String relationship, String refField, String ref) {
+        if (isNull(ref)) {
+            return Collections.emptyList();
+        }
+        Map<String, List<JsonElement>> index = indexes.computeIfAbsent(relationship + '\u0000' + refField,
+                key -> indexOf(relationship, refField));
+        return index.getOrDefault(ref, Collections.emptyList());
+    }
+
+    private Map<String, List<JsonElement>> indexOf(String relationship, String refField) {
+        Map<String, List<JsonElement>> index = new HashMap<>();
+        JsonElement jsonElement = linkedResources.getAsJsonObject().get(relationship);
+        if (isNull(jsonElement)) {
+            return index;
+        }
+        JsonArray arrayResources = jsonElement.getAsJsonArray();
+        for (int i = 0; i < arrayResources.size(); i++) {
+            JsonElement linkedResource = arrayResources.get(i);
+            JsonElement value = linkedResource.getAsJsonObject().get(refField);
+            if (isNull(value) || value.isJsonNull()) {
+                log.warn(
+                        "Unable to locate linking field [{}] in linked resource. Please check your model object and query to ensure the correct linked fields are selected",
+                        refField);
+            } else if (value.isJsonArray()) {
+                JsonArray values = value.getAsJsonArray();
+                for (int j = 0; j < values.size(); j++) {
+                    index.computeIfAbsent(values.get(j).getAsString(), key -> new ArrayList<>()).add(linkedResource);
+                }
+            } else {
+                index.computeIfAbsent(value.getAsString(), key -> new ArrayList<>()).add(linkedResource);
+            }
+        }
+        return index;
+    }
+
+}
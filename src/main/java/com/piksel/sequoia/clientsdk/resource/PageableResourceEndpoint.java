@@ -22,10 +22,13 @@ import java.util.Map;
  * #L%
  */
 
+import java.util.HashMap;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import com.google.gson.JsonElement;
 import com.piksel.sequoia.annotations.PublicEvolving;
+import com.piksel.sequoia.clientsdk.configuration.DefaultClientConfiguration;
 import com.piksel.sequoia.clientsdk.exception.NotImplementedException;
 
 /**
@@ -42,12 +45,51 @@ public interface PageableResourceEndpoint<T extends Resource> extends Resourcefu
         return getPagedResource(url);
     }
 
+    /**
+     * Requests the page at the given url without blocking.
+     */
+    default CompletableFuture<Optional<JsonElement>> getPagedResourceAsync(String url,
+            Map<? extends String, ?> headers) {
+        return CompletableFuture.supplyAsync(() -> getPagedResource(url, headers),
+                DefaultClientConfiguration.getDefaultAsyncExecutor());
+    }
+
     Optional<JsonElement> getPagedLinkedResource(String next);
 
     default Optional<JsonElement> getPagedLinkedResource(String next, Map<? extends String, ?> headers) {
         return getPagedLinkedResource(next);
     }
 
+    /**
+     * Browses the resources matching the criteria by requesting the pages of
+     * the result by number, {@code parallelism} of them at a time, and
+     * provides their resources in page order.
+     *
+     * @see #scanParallel(ResourceCriteria, int, ScanOrder, Map)
+     */
+    default ResourceIterable<T> scanParallel(ResourceCriteria criteria, int parallelism) {
+        return scanParallel(criteria, parallelism, ScanOrder.PAGE_ORDER, new HashMap<>());
+    }
+
+    /**
+     * Browses the resources matching the criteria by requesting the pages of
+     * the result by number, {@code parallelism} of them at a time, adding the
+     * headers parameters to every request. The first page is requested with
+     * the total count to know the number of pages, and the following pages
+     * are kept requested ahead of the iteration. If the service does not
+     * provide the total count, the pages are iterated in turn.
+     *
+     * <p>The criteria are not changed: the total count and the page number
+     * are set on the url of each request, replacing any page of the criteria.
+     * The pages after the first are requested from the criteria as they are
+     * when the page is requested, so the criteria must not be changed while
+     * the scan is iterated.
+     */
+    default ResourceIterable<T> scanParallel(ResourceCriteria criteria, int parallelism, ScanOrder order,
+            Map<? extends String, ?> headers) {
+        throw new NotImplementedException();
+    }
+
     default PageableResourceEndpoint<T> getLinkedPages(String resourceKey, String endpointLocation,
             Class<T> resourceClass) {
         throw new NotImplementedException();
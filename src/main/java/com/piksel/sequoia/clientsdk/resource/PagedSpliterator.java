@@ -0,0 +1,120 @@
+package com.piksel.sequoia.clientsdk.resource;
+
+/*-
+ * #%L
+ * Sequoia Java Client SDK
+ * %%
+ * Copyright (C) 2018 Piksel
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+/**
+ * Splits the pages of a browse result whose number of pages is known, so that
+ * each split requests and decodes its own range of pages. The resources of
+ * the page being iterated when the spliterator is created come first.
+ */
+class PagedSpliterator<T extends Resource> implements Spliterator<T> {
+
+    private final IntFunction<List<T>> pageLoader;
+    private final int perPage;
+    private final int totalCount;
+    private final int endPage;
+    private Iterator<T> current;
+    private int currentRemaining;
+    private int nextPage;
+
+    /**
+     * Creates a spliterator over the given resources followed by the pages
+     * from {@code nextPage} to the last page of a result of
+     * {@code totalCount} resources.
+     */
+    PagedSpliterator(List<T> current, int nextPage, int perPage, int totalCount,
+            IntFunction<List<T>> pageLoader) {
+        this(current.iterator(), current.size(), nextPage, pageCount(perPage, totalCount), perPage, totalCount,
+                pageLoader);
+    }
+
+    private PagedSpliterator(Iterator<T> current, int currentRemaining, int nextPage, int endPage,
+            int perPage, int totalCount, IntFunction<List<T>> pageLoader) {
+        this.current = current;
+        this.currentRemaining = currentRemaining;
+        this.nextPage = nextPage;
+        this.endPage = endPage;
+        this.perPage = perPage;
+        this.totalCount = totalCount;
+        this.pageLoader = pageLoader;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        while (!current.hasNext()) {
+            if (nextPage > endPage) {
+                return false;
+            }
+            List<T> page = pageLoader.apply(nextPage++);
+            current = page.iterator();
+            currentRemaining = page.size();
+        }
+        currentRemaining--;
+        action.accept(current.next());
+        return true;
+    }
+
+    /**
+     * Hands the resources already loaded and the first half of the remaining
+     * pages to a new spliterator, keeping the second half of the pages.
+     */
+    @Override
+    public Spliterator<T> trySplit() {
+        int pages = endPage - nextPage + 1;
+        if (pages < 1 || (pages < 2 && currentRemaining == 0)) {
+            return null;
+        }
+        int middle = nextPage + pages / 2;
+        PagedSpliterator<T> prefix = new PagedSpliterator<>(current, currentRemaining, nextPage, middle - 1,
+                perPage, totalCount, pageLoader);
+        current = Collections.emptyIterator();
+        currentRemaining = 0;
+        nextPage = middle;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        long pages = Math.max(endPage - nextPage + 1, 0);
+        long size = currentRemaining + pages * perPage;
+        if (pages > 0 && endPage == pageCount(perPage, totalCount)) {
+            size -= (long) endPage * perPage - totalCount;
+        }
+        return size;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL;
+    }
+
+    private static int pageCount(int perPage, int totalCount) {
+        return (totalCount + perPage - 1) / perPage;
+    }
+
+}
@@ -0,0 +1,173 @@
+package com.piksel.sequoia.clientsdk.resource;
+
+/*-
+ * #%L
+ * Sequoia Java Client SDK
+ * %%
+ * Copyright (C) 2018 Piksel
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+import com.piksel.sequoia.clientsdk.ClientException;
+
+/**
+ * Iterates over the pages of a browse result whose number of pages is known,
+ * keeping up to {@code parallelism} of the following pages requested while
+ * the resources already received are iterated. A new page is requested each
+ * time a page is taken, so that no more than {@code parallelism} pages are
+ * held ahead of the consumer.
+ */
+class ParallelScanIterable<T extends Resource> implements ResourceIterable<T> {
+
+    private final IntFunction<CompletableFuture<List<T>>> pageLoader;
+    private final int pageCount;
+    private final int parallelism;
+    private final ScanOrder order;
+    private final Integer totalCount;
+    private final Map<String, Map<String, Integer>> facetCount;
+    private final Deque<CompletableFuture<List<T>>> requestedPages = new ArrayDeque<>();
+    private final BlockingQueue<CompletableFuture<List<T>>> arrivedPages = new LinkedBlockingQueue<>();
+    private Iterator<T> current;
+    private int nextPage;
+
+    ParallelScanIterable(List<T> firstPage, Integer totalCount, Map<String, Map<String, Integer>> facetCount,
+            int pageCount, int parallelism, ScanOrder order, IntFunction<CompletableFuture<List<T>>> pageLoader) {
+        this.current = firstPage.iterator();
+        this.totalCount = totalCount;
+        this.facetCount = facetCount;
+        this.pageCount = pageCount;
+        this.parallelism = parallelism;
+        this.order = order;
+        this.pageLoader = pageLoader;
+        this.nextPage = 2;
+        requestPages();
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!current.hasNext()) {
+            if (requestedPages.isEmpty()) {
+                return false;
+            }
+            current = takePage().iterator();
+        }
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return current.next();
+    }
+
+    /**
+     * Performs the given action on the resources of each page as it is taken.
+     */
+    @Override
+    public void forEachPage(Consumer<? super List<T>> action) {
+        while (hasNext()) {
+            List<T> page = new ArrayList<>();
+            current.forEachRemaining(page::add);
+            action.accept(page);
+        }
+    }
+
+    @Override
+    public T single() {
+        List<T> resources = new ArrayList<>();
+        while (hasNext() && resources.size() < 2) {
+            resources.add(next());
+        }
+        if (resources.size() != 1) {
+            throw new NotSingularException();
+        }
+        return resources.get(0);
+    }
+
+    @Override
+    public Optional<Integer> totalCount() {
+        return Optional.ofNullable(totalCount);
+    }
+
+    @Override
+    public Optional<Map<String, Map<String, Integer>>> facetCount() {
+        return Optional.ofNullable(facetCount);
+    }
+
+    /**
+     * Cancels the pages requested and not yet iterated.
+     */
+    @Override
+    public void close() {
+        nextPage = pageCount + 1;
+        requestedPages.forEach(page -> page.cancel(false));
+        requestedPages.clear();
+        arrivedPages.clear();
+    }
+
+    private void requestPages() {
+        while (requestedPages.size() < parallelism && nextPage <= pageCount) {
+            CompletableFuture<List<T>> page = pageLoader.apply(nextPage++);
+            requestedPages.addLast(page);
+            if (order == ScanOrder.COMPLETION_ORDER) {
+                page.whenComplete((resources, failure) -> arrivedPages.add(page));
+            }
+        }
+    }
+
+    /**
+     * Takes the next page in the configured order and requests another page
+     * in its place before waiting for it.
+     */
+    private List<T> takePage() {
+        CompletableFuture<List<T>> page;
+        if (order == ScanOrder.PAGE_ORDER) {
+            page = requestedPages.removeFirst();
+        } else {
+            try {
+                page = arrivedPages.take();
+            } catch (InterruptedException interruptedException) {
+                Thread.currentThread().interrupt();
+                throw new ClientException("Interrupted while waiting for a page", interruptedException);
+            }
+            requestedPages.remove(page);
+        }
+        requestPages();
+        try {
+            return page.join();
+        } catch (CompletionException completionException) {
+            throw completionException.getCause() instanceof RuntimeException
+                    ? (RuntimeException) completionException.getCause() : completionException;
+        }
+    }
+
+}
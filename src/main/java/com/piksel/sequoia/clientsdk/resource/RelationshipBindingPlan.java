@@ -0,0 +1,208 @@
+package com.piksel.sequoia.clientsdk.resource;
+
+/*-
+ * #%L
+ * Sequoia Java Client SDK
+ * %%
+ * Copyright (C) 2018 Piksel
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.reflections.ReflectionUtils.getAllFields;
+import static org.reflections.ReflectionUtils.withAnnotation;
+import static org.reflections.ReflectionUtils.withName;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+import com.piksel.sequoia.clientsdk.resource.ResourceDeserializer.DeserializationException;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The relationship fields of a resource type and how to bind linked resources
+ * into them, resolved once per type. Field shapes, target types and ref fields
+ * are worked out when the plan is built, and the fields are accessed through
+ * method handles so binding a page does no reflective lookups.
+ */
+@Slf4j
+final class RelationshipBindingPlan {
+
+    private static final ClassValue<RelationshipBindingPlan> PLANS = new ClassValue<RelationshipBindingPlan>() {
+        @Override
+        protected RelationshipBindingPlan computeValue(Class<?> type) {
+            return new RelationshipBindingPlan(type);
+        }
+    };
+
+    @Getter
+    private final List<RelationshipBinding> bindings;
+
+    private RelationshipBindingPlan(Class<?> type) {
+        List<RelationshipBinding> resolved = new ArrayList<>();
+        relationshipFields(type).forEach(field -> resolved.add(new RelationshipBinding(type, field)));
+        this.bindings = Collections.unmodifiableList(resolved);
+    }
+
+    static RelationshipBindingPlan forType(Class<?> type) {
+        return PLANS.get(type);
+    }
+
+    RelationshipBinding bindingFor(Field field) {
+        return bindings.stream().filter(binding -> binding.getField().equals(field)).findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Not a relationship field: " + field));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Set<Field> relationshipFields(Class<?> type) {
+        Set<Field> fields = getAllFields(type, withAnnotation(DirectRelationship.class));
+        fields.addAll(getAllFields(type, withAnnotation(IndirectRelationship.class)));
+        return fields;
+    }
+
+    @Getter
+    static final class RelationshipBinding {
+
+        private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+        private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+        private final Field field;
+        private final boolean direct;
+        private final String relationship;
+        private final String indirectRef;
+        private final boolean collection;
+        private final boolean optional;
+        private final boolean collectionOfOptionals;
+        private final boolean lazyLoading;
+        private final Class<?> targetType;
+        private final Type elementType;
+        private final MethodHandle setter;
+        private final MethodHandle refGetter;
+
+        private RelationshipBinding(Class<?> type, Field field) {
+            this.field = field;
+            this.direct = field.getAnnotation(DirectRelationship.class) != null;
+            this.relationship = LinkedDeserializer.getRelationShip(field);
+            this.indirectRef = direct ? null : field.getAnnotation(IndirectRelationship.class).ref();
+            this.collection = Collection.class.isAssignableFrom(field.getType());
+            this.optional = field.getType().equals(Optional.class);
+            this.collectionOfOptionals = isCollectionOfOptionals(field);
+            this.lazyLoading = LinkedResourceIterable.class.isAssignableFrom(field.getType());
+            this.targetType = targetTypeOf(field);
+            this.elementType = field.getGenericType() instanceof ParameterizedType
+                    ? ((ParameterizedType) field.getGenericType()).getActualTypeArguments()[0]
+                    : null;
+            this.setter = setterFor(field);
+            this.refGetter = direct ? refGetterFor(type, field) : null;
+        }
+
+        /**
+         * The value of the ref field of a direct relationship, or {@code null}
+         * if the ref field does not exist.
+         */
+        Object refOf(Object resource) {
+            if (Objects.isNull(refGetter)) {
+                return null;
+            }
+            try {
+                return (Object) refGetter.invokeExact(resource);
+            } catch (Throwable ex) {
+                throw new DeserializationException("Error deserializing " + resource, ex);
+            }
+        }
+
+        void set(Object resource, Object value) {
+            try {
+                setter.invokeExact(resource, value);
+            } catch (Throwable ex) {
+                throw new DeserializationException("Error deserializing " + resource, ex);
+            }
+        }
+
+        private static MethodHandle setterFor(Field field) {
+            try {
+                return MethodHandles.lookup().unreflectSetter(accessible(field)).asType(SETTER_TYPE);
+            } catch (IllegalAccessException ex) {
+                throw new DeserializationException("Error accessing field " + field, ex);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private static MethodHandle refGetterFor(Class<?> type, Field field) {
+            String refFieldName = field.getAnnotation(DirectRelationship.class).ref();
+            Optional<Field> refField = getAllFields(type, withName(refFieldName)).stream().findFirst();
+            if (!refField.isPresent()) {
+                log.warn("Field declared in ref in field '" + field.getName() + "' does not exist");
+                return null;
+            }
+            try {
+                return MethodHandles.lookup().unreflectGetter(accessible(refField.get())).asType(GETTER_TYPE);
+            } catch (IllegalAccessException ex) {
+                throw new DeserializationException("Error accessing field " + refField.get(), ex);
+            }
+        }
+
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        private static Field accessible(Field field) {
+            AccessController.doPrivileged((PrivilegedAction) () -> {
+                field.setAccessible(true);
+                return null;
+            });
+            return field;
+        }
+
+        private static boolean isCollectionOfOptionals(Field field) {
+            if (field.getGenericType() instanceof ParameterizedType) {
+                ParameterizedType pType = (ParameterizedType) field.getGenericType();
+                if (pType.getActualTypeArguments()[0] instanceof ParameterizedType) {
+                    ParameterizedType type = (ParameterizedType) pType.getActualTypeArguments()[0];
+                    return type.getRawType().equals(Optional.class);
+                }
+                return false;
+            }
+            return false;
+        }
+
+        private static Class<?> targetTypeOf(Field field) {
+            if (Objects.nonNull(field.getGenericType())) {
+                if (field.getGenericType() instanceof Class) {
+                    return (Class<?>) field.getGenericType();
+                }
+                ParameterizedType genericType = (ParameterizedType) field.getGenericType();
+                if (genericType.getActualTypeArguments()[0] instanceof Class) {
+                    return (Class<?>) genericType.getActualTypeArguments()[0];
+                }
+                return (Class<?>) ((ParameterizedType) genericType.getActualTypeArguments()[0]).getActualTypeArguments()[0];
+            }
+            return field.getType();
+        }
+
+    }
+
+}
@@ -0,0 +1,70 @@
+package com.piksel.sequoia.clientsdk.resource;
+
+/*-
+ * #%L
+ * Sequoia Java Client SDK
+ * %%
+ * Copyright (C) 2018 Piksel
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Iterates over resources already held in memory, such as those served from a
+ * {@link ResourceCache}.
+ */
+class ResolvedResourceIterable<T extends Resource> implements ResourceIterable<T> {
+
+    private final List<T> resources;
+    private final Iterator<T> iterator;
+
+    ResolvedResourceIterable(List<T> resources) {
+        this.resources = resources;
+        this.iterator = resources.iterator();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return iterator.hasNext();
+    }
+
+    @Override
+    public T next() {
+        return iterator.next();
+    }
+
+    @Override
+    public T single() {
+        if (resources.size() != 1) {
+            throw new NotSingularException();
+        }
+        return next();
+    }
+
+    @Override
+    public Optional<Integer> totalCount() {
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<Map<String, Map<String, Integer>>> facetCount() {
+        return Optional.empty();
+    }
+
+}
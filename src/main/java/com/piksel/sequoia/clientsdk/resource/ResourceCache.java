@@ -0,0 +1,178 @@
+package com.piksel.sequoia.clientsdk.resource;
+
+/*-
+ * #%L
+ * Sequoia Java Client SDK
+ * %%
+ * Copyright (C) 2018 Piksel
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.gson.JsonElement;
+import com.piksel.sequoia.annotations.PublicEvolving;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * A size-bounded cache of resources, keyed by endpoint, {@link Reference} and
+ * request headers, which serves {@link ResourcefulEndpoint#read(Reference)}
+ * and {@link ResourcefulEndpoint#read(Collection)} without a request for the
+ * references it holds. Resources expire a fixed time after they were read and
+ * are invalidated by the stores, updates and deletes made through the
+ * endpoints of the client.
+ *
+ * <p>Resources are kept as json and every read is given its own instance, so
+ * callers are free to modify the resources they read.
+ */
+@PublicEvolving
+public class ResourceCache {
+
+    /**
+     * The number of generation counters the references are spread over. A
+     * write to a reference discards the concurrent reads of the references
+     * sharing its counter, which are then just not cached.
+     */
+    private static final int GENERATIONS = 64;
+
+    private final Cache<Key, Map<Map<String, Object>, JsonElement>> resources;
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATIONS);
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+
+    @Builder
+    private ResourceCache(long maximumSize, Duration expireAfterWrite) {
+        this.resources = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite.toMillis(), TimeUnit.MILLISECONDS)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Provides a builder with default values configured ready to be overridden if needed.
+     */
+    public static ResourceCacheBuilder builder() {
+        return new ResourceCacheBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(Duration.ofMinutes(1));
+    }
+
+    /**
+     * Provides the hit, miss and eviction counts of the cache.
+     */
+    public ResourceCacheStats getStats() {
+        return ResourceCacheStats.from(hitCount.sum(), missCount.sum(), resources.stats().evictionCount(),
+                resources.size());
+    }
+
+    /**
+     * Discards every cached resource.
+     */
+    public void invalidateAll() {
+        for (int i = 0; i < GENERATIONS; i++) {
+            generations.incrementAndGet(i);
+        }
+        resources.invalidateAll();
+    }
+
+    /**
+     * Provides the json of the given reference read with the given headers,
+     * or null if it is not cached.
+     */
+    JsonElement get(String endpoint, Map<? extends String, ?> headers, Reference reference) {
+        Map<Map<String, Object>, JsonElement> variants = resources.getIfPresent(new Key(endpoint,
+                copyOf(reference)));
+        JsonElement resource = Objects.isNull(variants) ? null : variants.get(copyOf(headers));
+        (Objects.isNull(resource) ? missCount : hitCount).increment();
+        return resource;
+    }
+
+    /**
+     * Provides the current generation of the given reference, to be taken
+     * before it is read and passed to {@link #put}.
+     */
+    long generation(String endpoint, Reference reference) {
+        return generations.get(generationOf(new Key(endpoint, copyOf(reference))));
+    }
+
+    /**
+     * Caches the json of the given reference unless it was invalidated since
+     * the given generation was taken, so that a read overtaken by a write
+     * does not cache the resource as it was before the write.
+     */
+    void put(String endpoint, Map<? extends String, ?> headers, Reference reference,
+            JsonElement resource, long generation) {
+        Key key = new Key(endpoint, copyOf(reference));
+        int generationIndex = generationOf(key);
+        if (generations.get(generationIndex) != generation) {
+            return;
+        }
+        Map<String, Object> variant = copyOf(headers);
+        resources.asMap().compute(key, (cached, variants) -> {
+            Map<Map<String, Object>, JsonElement> updated = Objects.isNull(variants) ? new HashMap<>()
+                    : new HashMap<>(variants);
+            updated.put(variant, resource);
+            return updated;
+        });
+        if (generations.get(generationIndex) != generation) {
+            resources.invalidate(key);
+        }
+    }
+
+    /**
+     * Discards the given references of the endpoint, whatever the headers
+     * they were read with.
+     */
+    void invalidate(String endpoint, Collection<Reference> references) {
+        for (Reference reference : references) {
+            Key key = new Key(endpoint, copyOf(reference));
+            generations.incrementAndGet(generationOf(key));
+            resources.invalidate(key);
+        }
+    }
+
+    private static int generationOf(Key key) {
+        return Math.floorMod(key.hashCode(), GENERATIONS);
+    }
+
+    private static Map<String, Object> copyOf(Map<? extends String, ?> headers) {
+        return Objects.isNull(headers) ? new HashMap<>() : new HashMap<>(headers);
+    }
+
+    private static Reference copyOf(Reference reference) {
+        return Reference.fromOwnerAndName(reference.getOwner(), reference.getName());
+    }
+
+    @Value
+    private static class Key {
+
+        private final String endpoint;
+        private final Reference reference;
+
+    }
+
+}
@@ -0,0 +1,58 @@
+package com.piksel.sequoia.clientsdk.resource;
+
+/*-
+ * #%L
+ * Sequoia Java Client SDK
+ * %%
+ * Copyright (C) 2018 Piksel
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.piksel.sequoia.annotations.PublicEvolving;
+
+import lombok.Value;
+
+/**
+ * A snapshot of the activity of a {@link ResourceCache}.
+ */
+@Value
+@PublicEvolving
+public class ResourceCacheStats {
+
+    /**
+     * The number of references served from the cache.
+     */
+    private long hitCount;
+
+    /**
+     * The number of references that had to be read from the service.
+     */
+    private long missCount;
+
+    /**
+     * The number of resources evicted because of the size bound or expiry.
+     */
+    private long evictionCount;
+
+    /**
+     * The number of resources currently cached.
+     */
+    private long size;
+
+    static ResourceCacheStats from(long hitCount, long missCount, long evictionCount, long size) {
+        return new ResourceCacheStats(hitCount, missCount, evictionCount, size);
+    }
+
+}
@@ -21,30 +21,22 @@ package com.piksel.sequoia.clientsdk.resource;
  */
 
 import static com.piksel.sequoia.clientsdk.resource.LinkedDeserializer.createLinkedDeserializer;
-import static com.piksel.sequoia.clientsdk.resource.ResourceDeserializerConstants.AND_ENCODED;
-import static com.piksel.sequoia.clientsdk.resource.ResourceDeserializerConstants.COLON;
-import static com.piksel.sequoia.clientsdk.resource.ResourceDeserializerConstants.ENCODED_COLON;
-import static com.piksel.sequoia.clientsdk.resource.ResourceDeserializerConstants.EQUAL;
 import static com.piksel.sequoia.clientsdk.resource.ResourceDeserializerConstants.LINKED;
 import static com.piksel.sequoia.clientsdk.resource.ResourceDeserializerConstants.META;
-import static com.piksel.sequoia.clientsdk.resource.ResourceDeserializerConstants.OR_ENCODED;
 import static java.util.Objects.isNull;
 import static java.util.Optional.ofNullable;
-import java.lang.reflect.Field;
 import java.lang.reflect.Type;
-import java.security.AccessController;
-import java.security.PrivilegedAction;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.List;
-import java.util.Objects;
 import java.util.Optional;
-import java.util.function.BiPredicate;
+import java.util.Set;
+import java.util.function.UnaryOperator;
 import com.google.common.reflect.TypeParameter;
 import com.google.common.reflect.TypeToken;
 import com.google.gson.Gson;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -53,24 +45,38 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 class ResourceDeserializer<T extends Resource> {
 
-    private static final String REQUEST = "request";
+    private static final String REF = "ref";
+
     private final PageableResourceEndpoint<T> endpoint;
     private final Gson gson;
+    private final LinkedResourceIdentityMap sharedLinkedResources;
 
     public ResourceDeserializer(PageableResourceEndpoint<T> endpoint, Gson gson) {
+        this(endpoint, gson, false);
+    }
+
+    /**
+     * @param shareLinkedResourcesAcrossPages whether a linked resource included
+     *        in several pages is decoded once and shared by all of them,
+     *        rather than once per page
+     */
+    public ResourceDeserializer(PageableResourceEndpoint<T> endpoint, Gson gson, boolean shareLinkedResourcesAcrossPages) {
         this.endpoint = endpoint;
         this.gson = gson;
+        this.sharedLinkedResources = shareLinkedResourcesAcrossPages ? new LinkedResourceIdentityMap() : null;
     }
 
     List<T> contentsFrom(JsonElement payload) {
         JsonElement resourceList = payload.getAsJsonObject().get(endpoint.getResourceKey());
-        ResourcesWithLinkedResources<T> resourcesWithLinkedResources = ResourcesWithLinkedResources.<T> builder()
-                .resources(deserialisedResources(resourceList.getAsJsonArray())).linkedResources(getLinkedFromPayload(payload))
-                .meta(getMetaFromPayload(payload)).build();
-        if (resourcesWithLinkedResources.getLinkedResources() != null) {
-            return createLinkedDeserializer(endpoint, gson, payload).addLinkedToResources(resourcesWithLinkedResources);
+        JsonElement linkedResources = getLinkedFromPayload(payload);
+        if (linkedResources != null) {
+            ResourcesWithLinkedResources<T> resourcesWithLinkedResources = ResourcesWithLinkedResources.<T> builder()
+                    .linkedResources(linkedResources).meta(getMetaFromPayload(payload)).build();
+            UnaryOperator<T> binder = createLinkedDeserializer(endpoint, gson, payload).linkedResourceBinder(resourcesWithLinkedResources,
+                    isNull(sharedLinkedResources) ? new LinkedResourceIdentityMap() : sharedLinkedResources);
+            return new LazyDeserializedList<>(resourceList.getAsJsonArray(), element -> binder.apply(deserialisedResource(element)));
         } else {
-            return new ArrayList<>(resourcesWithLinkedResources.getResources());
+            return new LazyDeserializedList<>(resourceList.getAsJsonArray(), this::deserialisedResource);
         }
     }
 
@@ -80,13 +86,6 @@ class ResourceDeserializer<T extends Resource> {
         return new ArrayList<>(deserialisedResourcesWithoutLinked);
     }
 
-    Optional<LinkedMeta> linkedMetaFrom(JsonElement jsonElement, String relationship, Reference ref) {
-        if (validate(jsonElement, relationship, ref)) {
-            return Optional.empty();
-        }
-        return getMeta(getRelationshipFromMetaAsArray(jsonElement, relationship), relationship, encodeRef(ref));
-    }
-
     Optional<Meta> metaFrom(JsonElement payload) {
         return ofNullable(gson.fromJson(getMetaFromPayload(payload), Meta.class));
     }
@@ -99,14 +98,22 @@ class ResourceDeserializer<T extends Resource> {
         return new LinkedMeta();
     }
 
-    Optional<JsonElement> includeJustLinkedItems(JsonElement payload, String fieldRefName, String refValue) {
-        final List<? extends T> justRelatedItems = getLinkedItemsByFieldValue(payload, fieldRefName, refValue);
-        payload.getAsJsonObject().add(endpoint.getResourceKey(), gson.toJsonTree(justRelatedItems));
-        return Optional.of(payload);
-    }
-
-    int numLinkedItemsInPayload(JsonElement payload, String fieldRefName, String value) {
-        return getLinkedItemsByFieldValue(payload, fieldRefName, value).size();
+    /**
+     * The resources of a linked page whose {@code refFieldName} field is, or
+     * for array values contains, the given ref, leaving out those with an
+     * excluded ref. The page is filtered on its json in a single pass and only
+     * the matching resources are decoded, once each, as they are accessed.
+     */
+    List<T> linkedItemsFor(JsonElement payload, String refFieldName, String refValue, Set<String> excludedRefs) {
+        JsonArray resourceList = payload.getAsJsonObject().get(endpoint.getResourceKey()).getAsJsonArray();
+        JsonArray linkedItems = new JsonArray();
+        for (int i = 0; i < resourceList.size(); i++) {
+            JsonObject resource = resourceList.get(i).getAsJsonObject();
+            if (references(resource.get(refFieldName), refValue) && !isExcluded(resource.get(REF), excludedRefs)) {
+                linkedItems.add(resource);
+            }
+        }
+        return new LazyDeserializedList<>(linkedItems, this::deserialisedResource);
     }
 
     JsonElement getMetaFromPayload(JsonElement jsonElement) {
@@ -117,117 +124,24 @@ class ResourceDeserializer<T extends Resource> {
         return payload.getAsJsonObject().get(LINKED);
     }
 
-    private Optional<LinkedMeta> getMeta(JsonArray array, String relationship, String encodedRef) {
-        LinkedMeta linkedMeta;
-        JsonArray filteredArray = filter(array, encodedRef);
-        linkedMeta = getMeta(filteredArray);
-        linkedMeta.setPerPage(getPerPages(filteredArray));
-        
-        return Optional.of(linkedMeta);
-    }
-
-    private JsonArray filter(JsonArray array, String encodedRef) {
-        JsonArray filteredArray = new JsonArray();
-        for (int i = 0; i < array.size(); i++) {
-            if (containsEncodeRef(encodedRef, array.get(i).getAsJsonObject().get(REQUEST).getAsString())) {
-                filteredArray.add(array.get(i));
-            }
-        }
-        return filteredArray;
-    }
-
-    private int getPerPages(JsonArray metaArray) {
-        int perPages = 0;
-        for (int i = 0; i < metaArray.size(); i++) {
-            perPages += gson.fromJson(metaArray.get(i), LinkedMeta.class).getPerPage();
+    private static boolean references(JsonElement value, String refValue) {
+        if (isNull(value) || value.isJsonNull()) {
+            return false;
         }
-        return perPages;
-    }
-
-    private LinkedMeta getMeta(JsonArray metaArray) {
-
-        LinkedMeta linkedMeta = null;
-        for (int i = 0; i < metaArray.size(); i++) {
-            LinkedMeta linkedMetaCandidate = gson.fromJson(metaArray.get(i), LinkedMeta.class);
-            if (Objects.isNull(linkedMeta) || linkedMetaCandidate.getPage() > linkedMeta.getPage()) {
-                linkedMeta = linkedMetaCandidate;
+        if (value.isJsonArray()) {
+            JsonArray values = value.getAsJsonArray();
+            for (int i = 0; i < values.size(); i++) {
+                if (refValue.equals(values.get(i).getAsString())) {
+                    return true;
+                }
             }
+            return false;
         }
-        return linkedMeta;
-    }
-
-    private boolean containsEncodeRef(String encodedRef, String request) {
-        return request.endsWith(EQUAL + encodedRef)
-                || request.endsWith(OR_ENCODED + encodedRef)
-                || request.contains(OR_ENCODED + encodedRef + AND_ENCODED)
-                || request.contains(OR_ENCODED + encodedRef + OR_ENCODED)
-                || request.contains(OR_ENCODED + encodedRef + OR_ENCODED)
-                || request.contains(EQUAL + encodedRef + OR_ENCODED);
-    }
-
-    private List<? extends T> getLinkedItemsByFieldValue(JsonElement payload, String fieldRefName, String refValue) {
-        JsonElement resourceList = payload.getAsJsonObject().get(endpoint.getResourceKey());
-        final List<? extends T> deserialisedResources = deserialisedResources(resourceList.getAsJsonArray());
-        final List<? extends T> justRelatedItems = new ArrayList<>(deserialisedResources);
-        for (T resource : deserialisedResources) {
-            removeNotLinkedItems(fieldRefName, refValue, justRelatedItems, resource);
-        }
-        return justRelatedItems;
+        return refValue.equals(value.getAsString());
     }
 
-    @SuppressWarnings({ "unchecked", "rawtypes" })
-    private void removeNotLinkedItems(String fieldName, String value, final List<? extends T> justRelatedItems, T resource) {
-        try {
-            Field field = endpoint.getEndpointType().getDeclaredField(fieldName);
-            AccessController.doPrivileged((PrivilegedAction) () -> {
-                field.setAccessible(true);
-                return null;
-            });
-            evaluateFieldToRemoveValue(value, justRelatedItems, resource, field, field.get(resource));
-        } catch (NoSuchFieldException | SecurityException | IllegalArgumentException | IllegalAccessException e) {
-            throw new ErrorGettingRelatedItemsException(e);
-        }
-    }
-
-    private void evaluateFieldToRemoveValue(String value, final List<? extends T> justRelatedItems, T resource, Field field, Object fieldValue) {
-        if (isNull(fieldValue)) {
-            justRelatedItems.clear();
-        } else {
-            removeValue(value, justRelatedItems, resource, field, fieldValue);
-        }
-    }
-
-    @SuppressWarnings("unchecked")
-    private void removeValue(String value, final List<? extends T> justRelatedItems, T resource, Field field, Object fieldValue) {
-        if (Collection.class.isAssignableFrom(field.getType())) {
-            removeItems((x, y) -> ((Collection<String>) x).contains(y), fieldValue, value, resource, justRelatedItems);
-        } else {
-            removeItems((x, y) -> x.equals(y), fieldValue, value, resource, justRelatedItems);
-        }
-    }
-
-    private void removeItems(BiPredicate<Object, String> p, Object fieldValue, String value, T resource, final List<? extends T> justRelatedItems) {
-        if (p.negate().test(fieldValue, value)) {
-            justRelatedItems.remove(resource);
-        }
-    }
-
-    private boolean validate(JsonElement jsonElement, String relationship, Reference ref) {
-        return isNull(ref) || isNull(getMetaFromPayload(jsonElement)) || isNull(getLinked(jsonElement))
-                || isNull(getRelationshipElementFromMeta(jsonElement, relationship))
-                || isNull(getRelationshipFromMetaAsArray(jsonElement, relationship));
-    }
-
-    private JsonElement getRelationshipElementFromMeta(JsonElement jsonElement, String relationship) {
-        return getLinked(jsonElement).getAsJsonObject().get(relationship);
-    }
-
-    private JsonArray getRelationshipFromMetaAsArray(JsonElement jsonElement, String relationship) {
-        return getRelationshipElementFromMeta(jsonElement, relationship).getAsJsonArray();
-    }
-
-    private JsonElement getLinked(JsonElement jsonElement) {
-        return getMetaFromPayload(jsonElement).getAsJsonObject().get(LINKED);
+    private static boolean isExcluded(JsonElement ref, Set<String> excludedRefs) {
+        return !excludedRefs.isEmpty() && !isNull(ref) && ref.isJsonPrimitive() && excludedRefs.contains(ref.getAsString());
     }
 
     private List<T> deserialisedResources(JsonArray jsonArray) {
@@ -236,6 +150,12 @@ class ResourceDeserializer<T extends Resource> {
         return instancesWithoutLinked;
     }
 
+    private T deserialisedResource(JsonElement jsonElement) {
+        T instanceWithoutLinked = gson.fromJson(jsonElement, endpoint.getEndpointType());
+        log.debug("Deserialised resource [{}]", instanceWithoutLinked);
+        return instanceWithoutLinked;
+    }
+
     private Type theResponseType(ResourcefulEndpoint<T> endpoint) {
         return resourceTypeToken(endpoint).getType();
     }
@@ -247,10 +167,6 @@ class ResourceDeserializer<T extends Resource> {
         }, endpoint.getEndpointType());
     }
 
-    private String encodeRef(Reference ref) {
-        return ref.toString().replace(COLON, ENCODED_COLON);
-    }
-
     @SuppressWarnings("serial")
     static class DeserializationException extends RuntimeException {
 
@@ -260,15 +176,6 @@ class ResourceDeserializer<T extends Resource> {
 
     }
 
-    @SuppressWarnings("serial")
-    static class ErrorGettingRelatedItemsException extends RuntimeException {
-
-        public ErrorGettingRelatedItemsException(Exception e) {
-            super(e);
-        }
-
-    }
-
     static class ErrorGettingLinkedFromCacheException extends RuntimeException {
 
         private static final long serialVersionUID = -4120949797236942838L;
@@ -0,0 +1,99 @@
+package com.piksel.sequoia.clientsdk.resource;
+
+/*-
+ * #%L
+ * Sequoia Java Client SDK
+ * %%
+ * Copyright (C) 2018 Piksel
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.concurrent.Executor;
+
+import com.piksel.sequoia.annotations.Internal;
+import com.piksel.sequoia.clientsdk.configuration.ClientConfiguration;
+import com.piksel.sequoia.clientsdk.configuration.DefaultClientConfiguration;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Settings shared by the resourceful endpoints of a client.
+ */
+@Value
+@Builder
+@Internal
+public class ResourceEndpointConfiguration {
+
+    /**
+     * The cache that reads by reference go through, or null for none.
+     */
+    private ResourceCache resourceCache;
+
+    /**
+     * The maximum length of the url of a multi reference read or delete.
+     * Longer requests are split into chunks of references.
+     */
+    private int maxUrlLength;
+
+    /**
+     * The number of chunks of references requested concurrently.
+     */
+    private int chunkParallelism;
+
+    /**
+     * The number of pages requested ahead of the page being iterated.
+     */
+    private int pagePrefetchDepth;
+
+    /**
+     * Whether linked resources are shared by all the pages of a browse
+     * result instead of by the resources of a single page.
+     */
+    private boolean shareLinkedResourcesAcrossPages;
+
+    /**
+     * The executor on which chunks of references and batches of resources
+     * are requested concurrently.
+     */
+    private Executor asyncExecutor;
+
+    /**
+     * Provides a builder with default values configured ready to be overridden if needed.
+     */
+    public static ResourceEndpointConfigurationBuilder builder() {
+        return new ResourceEndpointConfigurationBuilder()
+            .maxUrlLength(4000)
+            .chunkParallelism(4)
+            .pagePrefetchDepth(0)
+            .asyncExecutor(DefaultClientConfiguration.getDefaultAsyncExecutor());
+    }
+
+    /**
+     * Provides the settings of the endpoints of a client with the given
+     * configuration.
+     */
+    public static ResourceEndpointConfiguration from(ClientConfiguration configuration) {
+        return builder()
+            .resourceCache(configuration.getResourceCache())
+            .maxUrlLength(configuration.getMaxUrlLength())
+            .chunkParallelism(configuration.getChunkParallelism())
+            .pagePrefetchDepth(configuration.getPagePrefetchDepth())
+            .shareLinkedResourcesAcrossPages(configuration.isShareLinkedResourcesAcrossPages())
+            .asyncExecutor(configuration.getAsyncRequestExecutor())
+            .build();
+    }
+
+}
@@ -22,23 +22,40 @@ package com.piksel.sequoia.clientsdk.resource;
 
 import static com.piksel.sequoia.clientsdk.resource.UrlQueryStringParser.urlParser;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
 
 import com.google.api.client.http.GenericUrl;
+import com.google.api.client.http.HttpStatusCodes;
 import com.google.common.base.CaseFormat;
 import com.google.gson.Gson;
 import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
 import com.piksel.sequoia.annotations.Internal;
 import com.piksel.sequoia.clientsdk.DefaultResourceResponse;
 import com.piksel.sequoia.clientsdk.DefaultResourceResponse.DefaultResourceResponseBuilder;
+import com.piksel.sequoia.clientsdk.RequestExecutionException;
 import com.piksel.sequoia.clientsdk.ResourceResponse;
 import com.piksel.sequoia.clientsdk.Response;
 import com.piksel.sequoia.clientsdk.criteria.CriteriaUrlApplier;
 import com.piksel.sequoia.clientsdk.request.RequestClient;
+import com.piksel.sequoia.clientsdk.resource.json.EncodedJson;
 import com.piksel.sequoia.clientsdk.validation.PutValidation;
 
 @Internal
@@ -49,23 +66,37 @@ public class ResourceEndpointHandler<T extends Resource> implements PageableReso
     private final RequestClient requestClient;
     private final String resourceKey;
     private final Gson gson;
+    private final ResourceEndpointConfiguration configuration;
+    private final ResourceCache resourceCache;
 
     public ResourceEndpointHandler(RequestClient requestClient,
             String resourceKey, String endpointLocation, Class<T> resourceClass,
             Gson gson) {
-        this.requestClient = requestClient;
+        this(requestClient, resourceKey, endpointLocation, resourceClass, gson,
+                ResourceEndpointConfiguration.builder().build());
+    }
+
+    public ResourceEndpointHandler(RequestClient requestClient,
+            String resourceKey, String endpointLocation, Class<T> resourceClass,
+            Gson gson, ResourceEndpointConfiguration configuration) {
+        this(requestClient, resourceKey, resourceClass, gson, configuration);
         this.endpointUrl = new GenericUrl(endpointLocation);
-        this.payloadClass = resourceClass;
-        this.resourceKey = applyCamelCaseConvention(resourceKey);
-        this.gson = gson;
     }
 
     protected ResourceEndpointHandler(RequestClient requestClient,
             String resourceKey, Class<T> resourceClass, Gson gson) {
+        this(requestClient, resourceKey, resourceClass, gson, ResourceEndpointConfiguration.builder().build());
+    }
+
+    protected ResourceEndpointHandler(RequestClient requestClient,
+            String resourceKey, Class<T> resourceClass, Gson gson,
+            ResourceEndpointConfiguration configuration) {
         this.requestClient = requestClient;
         this.payloadClass = resourceClass;
         this.resourceKey = applyCamelCaseConvention(resourceKey);
         this.gson = gson;
+        this.configuration = configuration;
+        this.resourceCache = configuration.getResourceCache();
     }
 
     @Override
@@ -76,8 +107,12 @@ public class ResourceEndpointHandler<T extends Resource> implements PageableReso
     @Override
     public ResourceResponse<T> store(T resource, Map<? extends String, ?> headers) {
         validate(resource, 0);
-        return toResourceResponse(requestClient.executePostRequest(endpointUrl, headers, resourceKey, resource),
-                headers);
+        try {
+            return toResourceResponse(requestClient.executePostRequest(endpointUrl, headers, resourceKey, resource),
+                    headers);
+        } finally {
+            invalidate(referencesOf(resource));
+        }
     }
 
     @Override
@@ -89,8 +124,40 @@ public class ResourceEndpointHandler<T extends Resource> implements PageableReso
     public ResourceResponse<T> store(Collection<T> resources, Map<? extends String, ?> headers) {
         T[] resourcesArray = collectionToArray(resources);
         validate(resourcesArray);
-        return toResourceResponse(requestClient.executePostRequest(endpointUrl, headers, resourceKey, resourcesArray),
-                headers);
+        try {
+            return toResourceResponse(requestClient.executePostRequest(endpointUrl, headers, resourceKey,
+                    resourcesArray), headers);
+        } finally {
+            invalidate(referencesOf(resourcesArray));
+        }
+    }
+
+    @Override
+    public BatchedStoreResult storeInBatches(Collection<T> resources, BatchedStoreConfiguration batchConfiguration) {
+        return storeInBatches(resources, batchConfiguration, new HashMap<>());
+    }
+
+    @Override
+    public BatchedStoreResult storeInBatches(Collection<T> resources, BatchedStoreConfiguration batchConfiguration,
+            Map<? extends String, ?> headers) {
+        T[] resourcesArray = collectionToArray(resources);
+        validate(resourcesArray);
+        return new BatchedStore<T>(batchConfiguration, configuration.getAsyncExecutor(),
+                resource -> gson.toJson(resource).getBytes(StandardCharsets.UTF_8),
+                EncodedJson.collectionEnvelopeSize(resourceKey),
+                (batch, encoded) -> {
+                    try {
+                        return requestClient.executePostRequest(endpointUrl.clone(), headers,
+                                EncodedJson.collection(resourceKey, encoded));
+                    } finally {
+                        invalidate(referencesOf(batch));
+                    }
+                }).store(resourcesArray);
+    }
+
+    @Override
+    public BulkWriter<T> bulkWriter(BulkWriterConfiguration writerConfiguration) {
+        return new BulkWriter<>(this, writerConfiguration, configuration.getAsyncExecutor());
     }
 
     @Override
@@ -102,8 +169,12 @@ public class ResourceEndpointHandler<T extends Resource> implements PageableReso
     public ResourceResponse<T> delete(Reference reference, Map<? extends String, ?> headers) {
         validate(reference);
         GenericUrl urlToDelete = endpointUrl.clone();
-        return toResourceResponse(
-                requestClient.executeDeleteRequest(urlToDelete, headers, reference), headers);
+        try {
+            return toResourceResponse(
+                    requestClient.executeDeleteRequest(urlToDelete, headers, reference), headers);
+        } finally {
+            invalidate(reference);
+        }
     }
 
     @Override
@@ -117,9 +188,11 @@ public class ResourceEndpointHandler<T extends Resource> implements PageableReso
                 .toArray((Reference[]) java.lang.reflect.Array
                         .newInstance(Reference.class, references.size()));
         validate(referencesArray);
-        GenericUrl urlToDelete = endpointUrl.clone();
-        return toResourceResponse(requestClient
-                .executeDeleteRequest(urlToDelete, headers, referencesArray), headers);
+        try {
+            return join(deleteReferences(referencesArray, headers, true));
+        } finally {
+            invalidate(referencesArray);
+        }
     }
 
     @Override
@@ -134,8 +207,12 @@ public class ResourceEndpointHandler<T extends Resource> implements PageableReso
         validate(resource, PutValidation.class);
         validateReferenceToUpdateWithResourceReference(resource, reference);
         GenericUrl urlToUpdate = endpointUrl.clone();
-        return toResourceResponse(requestClient.executePutRequest(urlToUpdate, headers, resourceKey, resource,
-                reference), headers);
+        try {
+            return toResourceResponse(requestClient.executePutRequest(urlToUpdate, headers, resourceKey, resource,
+                    reference), headers);
+        } finally {
+            invalidate(reference);
+        }
     }
 
     @Override
@@ -146,6 +223,9 @@ public class ResourceEndpointHandler<T extends Resource> implements PageableReso
     @Override
     public ResourceResponse<T> read(Reference reference, Map<? extends String, ?> headers) {
         validate(reference);
+        if (Objects.nonNull(resourceCache)) {
+            return join(readThroughCache(new Reference[] { reference }, headers, true));
+        }
         GenericUrl urlToRead = endpointUrl.clone();
         return toResourceResponse(
                 requestClient.executeGetRequest(urlToRead, headers, reference), headers);
@@ -162,9 +242,10 @@ public class ResourceEndpointHandler<T extends Resource> implements PageableReso
                 .toArray((Reference[]) java.lang.reflect.Array
                         .newInstance(Reference.class, references.size()));
         validate(referencesArray);
-        GenericUrl urlToRead = endpointUrl.clone();
-        return toResourceResponse(
-                requestClient.executeGetRequest(urlToRead, headers, referencesArray), headers);
+        if (Objects.nonNull(resourceCache)) {
+            return join(readThroughCache(referencesArray, headers, true));
+        }
+        return join(readReferences(referencesArray, headers, true, UnaryOperator.identity()));
     }
 
     @Override
@@ -180,6 +261,159 @@ public class ResourceEndpointHandler<T extends Resource> implements PageableReso
                         .applyCriteria(urlToApplyCriteria, criteria), headers), headers);
     }
 
+    @Override
+    public ResourceIterable<T> scanParallel(ResourceCriteria criteria, int parallelism, ScanOrder order,
+            Map<? extends String, ?> headers) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("The parallelism must be at least 1");
+        }
+        CriteriaUrlApplier urlApplier = new CriteriaUrlApplier();
+        Response<JsonElement> firstPage = requestClient.executeGetRequest(
+                urlApplier.applyCriteria(endpointUrl.clone(), criteria, 1), headers);
+        if (!firstPage.getPayload().isPresent() || firstPage.getPayload().get().isJsonNull()) {
+            return new ResolvedResourceIterable<>(Collections.emptyList());
+        }
+        JsonElement payload = firstPage.getPayload().get();
+        ResourceDeserializer<T> deserializer = new ResourceDeserializer<>(this, gson,
+                configuration.isShareLinkedResourcesAcrossPages());
+        Meta meta = deserializer.metaFrom(payload).orElse(deserializer.emptyMeta());
+        if (Objects.isNull(meta.getTotalCount()) || meta.getPerPage() < 1) {
+            return new LazyLoadingResourceIterable<>(payload, this, gson, headers,
+                    configuration.getPagePrefetchDepth(), configuration.isShareLinkedResourcesAcrossPages());
+        }
+        int pageCount = (meta.getTotalCount() + meta.getPerPage() - 1) / meta.getPerPage();
+        return new ParallelScanIterable<>(deserializer.contentsFrom(payload), meta.getTotalCount(),
+                meta.getFacetCount(), pageCount, parallelism, order, page -> {
+                    GenericUrl pageUrl = urlApplier.applyCriteria(endpointUrl.clone(), criteria, page);
+                    return requestClient.async().executeGetRequestAsync(pageUrl, headers)
+                            .thenApply(response -> response.getPayload().filter(json -> !json.isJsonNull())
+                                    .map(deserializer::contentsFrom)
+                                    .orElseGet(Collections::emptyList));
+                });
+    }
+
+    @Override
+    public CompletableFuture<ResourceResponse<T>> readAsync(Reference reference) {
+        return readAsync(reference, new HashMap<>());
+    }
+
+    @Override
+    public CompletableFuture<ResourceResponse<T>> readAsync(Reference reference, Map<? extends String, ?> headers) {
+        if (Objects.nonNull(resourceCache)) {
+            return validatedAsync(() -> {
+                validate(reference);
+                return readThroughCache(new Reference[] { reference }, headers, false);
+            });
+        }
+        return toResourceResponseAsync(() -> {
+            validate(reference);
+            return requestClient.async().executeGetRequestAsync(endpointUrl.clone(), headers, reference);
+        }, headers);
+    }
+
+    @Override
+    public CompletableFuture<ResourceResponse<T>> readAsync(Collection<Reference> references) {
+        return readAsync(references, new HashMap<>());
+    }
+
+    @Override
+    public CompletableFuture<ResourceResponse<T>> readAsync(Collection<Reference> references,
+            Map<? extends String, ?> headers) {
+        return validatedAsync(() -> {
+            Reference[] referencesArray = references.toArray(new Reference[references.size()]);
+            validate(referencesArray);
+            return Objects.nonNull(resourceCache) ? readThroughCache(referencesArray, headers, false)
+                    : readReferences(referencesArray, headers, false, UnaryOperator.identity());
+        });
+    }
+
+    @Override
+    public CompletableFuture<ResourceResponse<T>> browseAsync(ResourceCriteria criteria) {
+        return browseAsync(criteria, new HashMap<>());
+    }
+
+    @Override
+    public CompletableFuture<ResourceResponse<T>> browseAsync(ResourceCriteria criteria,
+            Map<? extends String, ?> headers) {
+        return toResourceResponseAsync(() -> requestClient.async().executeGetRequestAsync(
+                new CriteriaUrlApplier().applyCriteria(endpointUrl.clone(), criteria), headers), headers);
+    }
+
+    @Override
+    public CompletableFuture<ResourceResponse<T>> storeAsync(T resource) {
+        return storeAsync(resource, new HashMap<>());
+    }
+
+    @Override
+    public CompletableFuture<ResourceResponse<T>> storeAsync(T resource, Map<? extends String, ?> headers) {
+        return toResourceResponseAsync(() -> {
+            validate(resource, 0);
+            return requestClient.async().executePostRequestAsync(endpointUrl, headers, resourceKey, resource);
+        }, headers).whenComplete((response, failure) -> invalidate(referencesOf(resource)));
+    }
+
+    @Override
+    public CompletableFuture<ResourceResponse<T>> storeAsync(Collection<T> resources) {
+        return storeAsync(resources, new HashMap<>());
+    }
+
+    @Override
+    public CompletableFuture<ResourceResponse<T>> storeAsync(Collection<T> resources,
+            Map<? extends String, ?> headers) {
+        return toResourceResponseAsync(() -> {
+            T[] resourcesArray = collectionToArray(resources);
+            validate(resourcesArray);
+            return requestClient.async().executePostRequestAsync(endpointUrl, headers, resourceKey, resourcesArray);
+        }, headers).whenComplete((response, failure) -> invalidate(referencesOf(collectionToArray(resources))));
+    }
+
+    @Override
+    public CompletableFuture<ResourceResponse<T>> updateAsync(T resource, Reference reference) {
+        return updateAsync(resource, reference, new HashMap<>());
+    }
+
+    @Override
+    public CompletableFuture<ResourceResponse<T>> updateAsync(T resource, Reference reference,
+            Map<? extends String, ?> headers) {
+        return toResourceResponseAsync(() -> {
+            validate(reference);
+            validate(resource, 0);
+            validate(resource, PutValidation.class);
+            validateReferenceToUpdateWithResourceReference(resource, reference);
+            return requestClient.async().executePutRequestAsync(endpointUrl.clone(), headers, resourceKey, resource,
+                    reference);
+        }, headers).whenComplete((response, failure) -> invalidate(reference));
+    }
+
+    @Override
+    public CompletableFuture<ResourceResponse<T>> deleteAsync(Reference reference) {
+        return deleteAsync(reference, new HashMap<>());
+    }
+
+    @Override
+    public CompletableFuture<ResourceResponse<T>> deleteAsync(Reference reference,
+            Map<? extends String, ?> headers) {
+        return toResourceResponseAsync(() -> {
+            validate(reference);
+            return requestClient.async().executeDeleteRequestAsync(endpointUrl.clone(), headers, reference);
+        }, headers).whenComplete((response, failure) -> invalidate(reference));
+    }
+
+    @Override
+    public CompletableFuture<ResourceResponse<T>> deleteAsync(Collection<Reference> references) {
+        return deleteAsync(references, new HashMap<>());
+    }
+
+    @Override
+    public CompletableFuture<ResourceResponse<T>> deleteAsync(Collection<Reference> references,
+            Map<? extends String, ?> headers) {
+        return validatedAsync(() -> {
+            Reference[] referencesArray = references.toArray(new Reference[references.size()]);
+            validate(referencesArray);
+            return deleteReferences(referencesArray, headers, false);
+        }).whenComplete((response, failure) -> invalidate(references.toArray(new Reference[0])));
+    }
+
     @Override
     public String getResourceKey() {
         return resourceKey;
@@ -202,6 +436,14 @@ public class ResourceEndpointHandler<T extends Resource> implements PageableReso
         return requestClient.executeGetRequest(urlToCall, headers).getPayload();
     }
 
+    @Override
+    public CompletableFuture<Optional<JsonElement>> getPagedResourceAsync(String url,
+            Map<? extends String, ?> headers) {
+        GenericUrl urlToCall = endpointUrl.clone();
+        urlToCall.putAll(urlParser(url).queryString());
+        return requestClient.async().executeGetRequestAsync(urlToCall, headers).thenApply(Response::getPayload);
+    }
+
     @Override
     public Optional<JsonElement> getPagedLinkedResource(String url) {
         return getPagedLinkedResource(url, new HashMap<>());
@@ -226,6 +468,256 @@ public class ResourceEndpointHandler<T extends Resource> implements PageableReso
         return newRes;
     }
 
+    /**
+     * Serves the references held by the cache and reads the others, caching
+     * the json of the resources as received. The resources are provided in
+     * the order of the references, and an unsuccessful read is returned as is
+     * unless it was made in chunks, in which case the cached resources are
+     * added to it.
+     */
+    private CompletableFuture<ResourceResponse<T>> readThroughCache(Reference[] references,
+            Map<? extends String, ?> headers, boolean callerWaits) {
+        String endpoint = endpointUrl.build();
+        Map<Reference, T> resolved = new HashMap<>();
+        Map<Reference, Long> generations = new HashMap<>();
+        List<Reference> missing = new ArrayList<>();
+        for (Reference reference : references) {
+            generations.put(reference, resourceCache.generation(endpoint, reference));
+            JsonElement resource = resourceCache.get(endpoint, headers, reference);
+            if (Objects.nonNull(resource)) {
+                resolved.put(reference, gson.fromJson(resource, payloadClass));
+            } else {
+                missing.add(reference);
+            }
+        }
+        if (missing.isEmpty()) {
+            return CompletableFuture.completedFuture(resolvedResponse(references, resolved, null));
+        }
+        UnaryOperator<Response<JsonElement>> caching = response -> {
+            cache(endpoint, headers, response, generations);
+            return response;
+        };
+        CompletableFuture<ResourceResponse<T>> read = missing.size() == 1
+                ? execute(() -> caching.apply(requestClient.executeGetRequest(endpointUrl.clone(), headers,
+                        missing.get(0))), () -> requestClient.async().executeGetRequestAsync(endpointUrl.clone(),
+                                headers, missing.get(0)).thenApply(caching), headers, callerWaits)
+                : readReferences(missing.toArray(new Reference[missing.size()]), headers, callerWaits, caching);
+        return read.thenApply(fetched -> {
+            if (!fetched.isSuccessStatusCode() && !(fetched instanceof ChunkedResourceResponse)) {
+                return fetched;
+            }
+            fetched.getPayload().ifPresent(resources -> resources
+                    .forEachRemaining(resource -> referenceOf(resource)
+                            .ifPresent(reference -> resolved.put(reference, resource))));
+            return resolvedResponse(references, resolved, fetched);
+        });
+    }
+
+    /**
+     * Caches the json of each resource of a successful response, as found in
+     * its payload, so that the resources are neither encoded to be cached nor
+     * shared with the caller that read them.
+     */
+    private void cache(String endpoint, Map<? extends String, ?> headers, Response<JsonElement> response,
+            Map<Reference, Long> generations) {
+        if (!response.isSuccessStatusCode() || !response.getPayload().isPresent()
+                || !response.getPayload().get().isJsonObject()) {
+            return;
+        }
+        JsonElement resources = response.getPayload().get().getAsJsonObject().get(resourceKey);
+        if (Objects.isNull(resources) || !resources.isJsonArray()) {
+            return;
+        }
+        for (JsonElement resource : resources.getAsJsonArray()) {
+            referenceOf(resource).ifPresent(reference -> resourceCache.put(endpoint, headers, reference, resource,
+                    generations.getOrDefault(reference, -1L)));
+        }
+    }
+
+    private ResourceResponse<T> resolvedResponse(Reference[] references, Map<Reference, T> resolved,
+            ResourceResponse<T> fetched) {
+        Optional<ResourceIterable<T>> payload = Optional.of(new ResolvedResourceIterable<>(Arrays
+                .stream(references).map(resolved::get).filter(Objects::nonNull).collect(Collectors.toList())));
+        if (fetched instanceof ChunkedResourceResponse) {
+            return new ChunkedResourceResponse<>(payload, fetched.getStatusCode(), fetched.isSuccessStatusCode(),
+                    ((ChunkedResourceResponse<T>) fetched).getChunks());
+        }
+        return DefaultResourceResponse.<T>builder()
+                .statusCode(Objects.isNull(fetched) ? HttpStatusCodes.STATUS_CODE_OK : fetched.getStatusCode())
+                .successStatusCode(true)
+                .payload(payload)
+                .build();
+    }
+
+    /**
+     * Reads the given references in a single request, or in chunks if they do
+     * not fit in a single url, passing each response received through the
+     * given operator before it is decoded.
+     */
+    private CompletableFuture<ResourceResponse<T>> readReferences(Reference[] references,
+            Map<? extends String, ?> headers, boolean callerWaits, UnaryOperator<Response<JsonElement>> received) {
+        List<Reference[]> chunks = chunksOf(references);
+        if (chunks.size() > 1) {
+            return executeChunks(references, chunks,
+                    chunk -> received.apply(requestClient.executeGetRequest(endpointUrl.clone(), headers, chunk)),
+                    headers, callerWaits);
+        }
+        return execute(() -> received.apply(requestClient.executeGetRequest(endpointUrl.clone(), headers,
+                references)), () -> requestClient.async().executeGetRequestAsync(endpointUrl.clone(), headers,
+                        references).thenApply(received), headers, callerWaits);
+    }
+
+    /**
+     * Deletes the given references in a single request, or in chunks if they
+     * do not fit in a single url.
+     */
+    private CompletableFuture<ResourceResponse<T>> deleteReferences(Reference[] references,
+            Map<? extends String, ?> headers, boolean callerWaits) {
+        List<Reference[]> chunks = chunksOf(references);
+        if (chunks.size() > 1) {
+            return executeChunks(references, chunks,
+                    chunk -> requestClient.executeDeleteRequest(endpointUrl.clone(), headers, chunk), headers,
+                    callerWaits);
+        }
+        return execute(() -> requestClient.executeDeleteRequest(endpointUrl.clone(), headers, references),
+                () -> requestClient.async().executeDeleteRequestAsync(endpointUrl.clone(), headers, references),
+                headers, callerWaits);
+    }
+
+    /**
+     * Makes the given request on the calling thread when the caller waits for
+     * its response, or makes the asynchronous request otherwise.
+     */
+    private CompletableFuture<ResourceResponse<T>> execute(Supplier<Response<JsonElement>> request,
+            Supplier<CompletableFuture<Response<JsonElement>>> asyncRequest, Map<? extends String, ?> headers,
+            boolean callerWaits) {
+        if (callerWaits) {
+            return CompletableFuture.completedFuture(toResourceResponse(request.get(), headers));
+        }
+        return asyncRequest.get().thenApply(response -> toResourceResponse(response, headers));
+    }
+
+    /**
+     * Splits the given references into chunks whose comma separated list fits
+     * in the url of the endpoint within the configured maximum url length. A
+     * reference longer than that on its own makes a chunk by itself.
+     */
+    private List<Reference[]> chunksOf(Reference[] references) {
+        int available = configuration.getMaxUrlLength() - endpointUrl.build().length() - 1;
+        List<Reference[]> chunks = new ArrayList<>();
+        List<Reference> chunk = new ArrayList<>();
+        int length = 0;
+        for (Reference reference : references) {
+            int referenceLength = reference.toString().length();
+            if (!chunk.isEmpty() && length + 1 + referenceLength > available) {
+                chunks.add(chunk.toArray(new Reference[chunk.size()]));
+                chunk = new ArrayList<>();
+            }
+            length = chunk.isEmpty() ? referenceLength : length + 1 + referenceLength;
+            chunk.add(reference);
+        }
+        if (!chunk.isEmpty()) {
+            chunks.add(chunk.toArray(new Reference[chunk.size()]));
+        }
+        return chunks;
+    }
+
+    /**
+     * Requests the chunks with the configured parallelism and merges their
+     * resources in the order of the references. The outcome of each chunk is
+     * reported in the merged response, and the failure of the first chunk is
+     * thrown only if every chunk failed.
+     *
+     * <p>Each worker takes the next chunk only once it runs, and a caller
+     * waiting for the response works through the chunks as well, so that the
+     * chunks are all requested even when no thread of the executor is free.
+     */
+    private CompletableFuture<ResourceResponse<T>> executeChunks(Reference[] references,
+            List<Reference[]> chunks, Function<Reference[], Response<JsonElement>> request,
+            Map<? extends String, ?> headers, boolean callerWaits) {
+        ChunkedRequest chunkedRequest = new ChunkedRequest(chunks, request, headers);
+        int workers = Math.min(chunks.size(), Math.max(1, configuration.getChunkParallelism()));
+        try {
+            for (int worker = callerWaits ? 1 : 0; worker < workers; worker++) {
+                configuration.getAsyncExecutor().execute(chunkedRequest::work);
+            }
+        } catch (RuntimeException rejected) {
+            if (!callerWaits) {
+                chunkedRequest.done.completeExceptionally(rejected);
+            }
+        }
+        if (callerWaits) {
+            chunkedRequest.work();
+        }
+        return chunkedRequest.done.thenApply(done -> chunkedRequest.merge(references));
+    }
+
+    private List<T> inReferenceOrder(Reference[] references, List<List<T>> chunkResources) {
+        Map<Reference, List<T>> byReference = new LinkedHashMap<>();
+        List<T> withoutReference = new ArrayList<>();
+        chunkResources.stream().flatMap(List::stream).forEach(resource -> {
+            Optional<Reference> reference = referenceOf(resource);
+            if (reference.isPresent()) {
+                byReference.computeIfAbsent(reference.get(), ref -> new ArrayList<>()).add(resource);
+            } else {
+                withoutReference.add(resource);
+            }
+        });
+        List<T> ordered = new ArrayList<>();
+        for (Reference reference : references) {
+            ordered.addAll(byReference.getOrDefault(reference, Collections.emptyList()));
+            byReference.remove(reference);
+        }
+        byReference.values().forEach(ordered::addAll);
+        ordered.addAll(withoutReference);
+        return ordered;
+    }
+
+    private void invalidate(Reference... references) {
+        if (Objects.nonNull(resourceCache)) {
+            resourceCache.invalidate(endpointUrl.build(), Arrays.asList(references));
+        }
+    }
+
+    @SafeVarargs
+    private final Reference[] referencesOf(T... resources) {
+        return Arrays.stream(resources).map(ResourceEndpointHandler::referenceOf).filter(Optional::isPresent)
+                .map(Optional::get).toArray(Reference[]::new);
+    }
+
+    /**
+     * Provides the reference of the given resource, from its owner and name if
+     * it has no reference set.
+     */
+    private static Optional<Reference> referenceOf(JsonElement resource) {
+        if (!resource.isJsonObject()) {
+            return Optional.empty();
+        }
+        JsonObject fields = resource.getAsJsonObject();
+        if (isString(fields.get("ref"))) {
+            return Optional.of(Reference.fromReference(fields.get("ref").getAsString()));
+        }
+        if (isString(fields.get("owner")) && isString(fields.get("name"))) {
+            return Optional.of(Reference.fromOwnerAndName(fields.get("owner").getAsString(),
+                    fields.get("name").getAsString()));
+        }
+        return Optional.empty();
+    }
+
+    private static boolean isString(JsonElement value) {
+        return Objects.nonNull(value) && value.isJsonPrimitive() && value.getAsJsonPrimitive().isString();
+    }
+
+    static Optional<Reference> referenceOf(Resource resource) {
+        if (Objects.nonNull(resource.getRef())) {
+            return Optional.of(resource.getRef());
+        }
+        if (Objects.nonNull(resource.getOwner()) && Objects.nonNull(resource.getName())) {
+            return Optional.of(Reference.fromOwnerAndName(resource.getOwner(), resource.getName()));
+        }
+        return Optional.empty();
+    }
+
     private void validateReferenceToUpdateWithResourceReference(T resource,
             Reference reference) {
         if (Objects.nonNull(resource.getRef())
@@ -285,11 +777,44 @@ public class ResourceEndpointHandler<T extends Resource> implements PageableReso
         return builder.build();
     }
     
+    private CompletableFuture<ResourceResponse<T>> validatedAsync(
+            Supplier<CompletableFuture<ResourceResponse<T>>> request) {
+        try {
+            return request.get();
+        } catch (RuntimeException validationException) {
+            CompletableFuture<ResourceResponse<T>> response = new CompletableFuture<>();
+            response.completeExceptionally(validationException);
+            return response;
+        }
+    }
+
+    private static <R> R join(CompletableFuture<R> response) {
+        try {
+            return response.join();
+        } catch (CompletionException completionException) {
+            throw completionException.getCause() instanceof RuntimeException
+                    ? (RuntimeException) completionException.getCause() : completionException;
+        }
+    }
+
+    private CompletableFuture<ResourceResponse<T>> toResourceResponseAsync(
+            Supplier<CompletableFuture<Response<JsonElement>>> request, Map<? extends String, ?> headers) {
+        CompletableFuture<Response<JsonElement>> jsonResponse;
+        try {
+            jsonResponse = request.get();
+        } catch (RuntimeException validationException) {
+            jsonResponse = new CompletableFuture<>();
+            jsonResponse.completeExceptionally(validationException);
+        }
+        return jsonResponse.thenApply(response -> toResourceResponse(response, headers));
+    }
+
     private Optional<ResourceIterable<T>> getLoadingResourceIterable(
             Response<JsonElement> jsonResponse, Map<? extends String,?> headers) {
         if (jsonResponse.getPayload().isPresent()
                 && !jsonResponse.getPayload().get().isJsonNull()) {
-            return Optional.of(new LazyLoadingResourceIterable<>(jsonResponse.getPayload().get(), this, gson, headers));
+            return Optional.of(new LazyLoadingResourceIterable<>(jsonResponse.getPayload().get(), this, gson, headers,
+                    configuration.getPagePrefetchDepth(), configuration.isShareLinkedResourcesAcrossPages()));
         } else {
             return Optional.empty();
         }
@@ -306,4 +831,68 @@ public class ResourceEndpointHandler<T extends Resource> implements PageableReso
         return CaseFormat.LOWER_HYPHEN.to(CaseFormat.LOWER_CAMEL, resourceKey);
     }
 
+    /**
+     * The state of a request split into chunks of references, shared by the
+     * workers requesting them.
+     */
+    private final class ChunkedRequest {
+
+        private final List<Reference[]> chunks;
+        private final Function<Reference[], Response<JsonElement>> request;
+        private final Map<? extends String, ?> headers;
+        private final ChunkResult[] results;
+        private final List<List<T>> resources;
+        private final AtomicInteger nextChunk = new AtomicInteger();
+        private final AtomicInteger pendingChunks;
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        ChunkedRequest(List<Reference[]> chunks, Function<Reference[], Response<JsonElement>> request,
+                Map<? extends String, ?> headers) {
+            this.chunks = chunks;
+            this.request = request;
+            this.headers = headers;
+            this.results = new ChunkResult[chunks.size()];
+            this.resources = new ArrayList<>(Collections.nCopies(chunks.size(), Collections.emptyList()));
+            this.pendingChunks = new AtomicInteger(chunks.size());
+        }
+
+        void work() {
+            int index;
+            while (!done.isDone() && (index = nextChunk.getAndIncrement()) < chunks.size()) {
+                List<Reference> chunk = Arrays.asList(chunks.get(index));
+                try {
+                    ResourceResponse<T> chunkResponse = toResourceResponse(request.apply(chunks.get(index)),
+                            headers);
+                    List<T> chunkResources = new ArrayList<>();
+                    chunkResponse.getPayload().ifPresent(payload -> payload.forEachRemaining(chunkResources::add));
+                    resources.set(index, chunkResources);
+                    results[index] = new ChunkResult(chunk, chunkResponse.getStatusCode(),
+                            chunkResponse.isSuccessStatusCode(), Optional.empty());
+                } catch (RequestExecutionException requestException) {
+                    results[index] = new ChunkResult(chunk, requestException.getStatusCode(), false,
+                            Optional.of(requestException));
+                } catch (RuntimeException unexpected) {
+                    done.completeExceptionally(unexpected);
+                    return;
+                }
+                if (pendingChunks.decrementAndGet() == 0) {
+                    done.complete(null);
+                }
+            }
+        }
+
+        ResourceResponse<T> merge(Reference[] references) {
+            if (Arrays.stream(results).allMatch(result -> result.getFailure().isPresent())) {
+                throw results[0].getFailure().get();
+            }
+            Optional<ChunkResult> unsuccessful = Arrays.stream(results)
+                    .filter(result -> !result.isSuccessStatusCode()).findFirst();
+            return new ChunkedResourceResponse<>(Optional.of(new ResolvedResourceIterable<>(
+                    inReferenceOrder(references, resources))),
+                    unsuccessful.orElse(results[0]).getStatusCode(), !unsuccessful.isPresent(),
+                    Arrays.asList(results));
+        }
+
+    }
+
 }
@@ -20,9 +20,16 @@ package com.piksel.sequoia.clientsdk.resource;
  * #L%
  */
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import com.piksel.sequoia.annotations.PublicEvolving;
 
@@ -30,7 +37,7 @@ import com.piksel.sequoia.annotations.PublicEvolving;
  * Provides iterable access over a collection of resources.
  */
 @PublicEvolving
-public interface ResourceIterable<T extends Resource> extends Iterator<T> {
+public interface ResourceIterable<T extends Resource> extends Iterator<T>, AutoCloseable {
 
     /**
      * Used to retrieve the single instance that this collection contains.
@@ -49,6 +56,52 @@ public interface ResourceIterable<T extends Resource> extends Iterator<T> {
      * Used to retrieve the facetCount presents on the query's result.
      */
     Optional<Map<String, Map<String, Integer>>> facetCount();
-    
+
+    /**
+     * Performs the given action on the remaining resources a page at a time,
+     * so that each page can be processed and released before the next one is
+     * loaded. Resources that are not paged are provided as a single page.
+     */
+    default void forEachPage(Consumer<? super List<T>> action) {
+        List<T> resources = new ArrayList<>();
+        forEachRemaining(resources::add);
+        if (!resources.isEmpty()) {
+            action.accept(resources);
+        }
+    }
+
+    /**
+     * Provides a spliterator over the remaining resources. Once it is used,
+     * the resources should no longer be iterated directly.
+     */
+    default Spliterator<T> spliterator() {
+        return Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL);
+    }
+
+    /**
+     * Provides a sequential stream over the remaining resources.
+     */
+    default Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Provides a parallel stream over the remaining resources. When the pages
+     * of a browse result can be requested by number, the stream is split by
+     * pages that are requested and decoded concurrently; otherwise batches of
+     * resources are handed to the workers as they are iterated.
+     */
+    default Stream<T> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    /**
+     * Releases the resources held to iterate further, such as pages requested
+     * ahead of time. Iterating after closing requests the remaining pages one
+     * at a time.
+     */
+    @Override
+    default void close() {
+    }
 
 }
@@ -21,11 +21,15 @@ package com.piksel.sequoia.clientsdk.resource;
  */
 
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import com.piksel.sequoia.annotations.PublicEvolving;
 import com.piksel.sequoia.clientsdk.RequestExecutionException;
 import com.piksel.sequoia.clientsdk.ResourceResponse;
+import com.piksel.sequoia.clientsdk.configuration.DefaultClientConfiguration;
+import com.piksel.sequoia.clientsdk.exception.NotImplementedException;
 
 /**
  * Set of methods to interact with the resourceful endpoint.
@@ -137,6 +141,43 @@ public interface ResourcefulEndpoint<T extends Resource> {
         return store(resources);
     }
 
+    /**
+     * Creates a large collection of resources in batches bounded by the number of resources and their serialized
+     * size, storing {@link BatchedStoreConfiguration#getParallelism() parallelism} batches at a time and retrying a
+     * failed batch on its own. Returns the {@link BatchedStoreResult result} of every batch.
+     *
+     * <p>
+     * This operation will replace or create the resources, without checking if there is a version conflict with an
+     * already stored resource.
+     *
+     * @throws ResourceValidationException if any of the resources to be created is not valid, before any batch is
+     *         stored.
+     */
+    default BatchedStoreResult storeInBatches(Collection<T> resources, BatchedStoreConfiguration configuration) {
+        return storeInBatches(resources, configuration, new HashMap<>());
+    }
+
+    /**
+     * Creates a large collection of resources in batches, adding the headers parameters to every request, and returns
+     * the {@link BatchedStoreResult result} of every batch.
+     *
+     * @see #storeInBatches(Collection, BatchedStoreConfiguration)
+     * @throws ResourceValidationException if any of the resources to be created is not valid, before any batch is
+     *         stored.
+     */
+    default BatchedStoreResult storeInBatches(Collection<T> resources, BatchedStoreConfiguration configuration,
+            Map<? extends String, ?> headers) {
+        throw new NotImplementedException();
+    }
+
+    /**
+     * Provides a {@link BulkWriter} sending the stores, updates and deletes of many producers to this endpoint in
+     * batches. The writer must be closed once the producers are done.
+     */
+    default BulkWriter<T> bulkWriter(BulkWriterConfiguration configuration) {
+        return new BulkWriter<>(this, configuration, DefaultClientConfiguration.getDefaultAsyncExecutor());
+    }
+
     /**
      * Updates one resource given its reference and returns the response {@link ResourceResponse} retrieved.
      *
@@ -216,4 +257,142 @@ public interface ResourcefulEndpoint<T extends Resource> {
      */
     String getResourceKey();
 
+    /**
+     * Asynchronously retrieves one resource given its reference. The returned future completes with the
+     * {@link ResourceResponse response}, or exceptionally with the exception that {@link #read(Reference)} would
+     * have thrown.
+     */
+    default CompletableFuture<ResourceResponse<T>> readAsync(Reference ref) {
+        return CompletableFuture.supplyAsync(() -> read(ref),
+                DefaultClientConfiguration.getDefaultAsyncExecutor());
+    }
+
+    /**
+     * Asynchronously retrieves one resource given its reference, adding the headers parameters to the request.
+     */
+    default CompletableFuture<ResourceResponse<T>> readAsync(Reference ref, Map<? extends String, ?> headers) {
+        return CompletableFuture.supplyAsync(() -> read(ref, headers),
+                DefaultClientConfiguration.getDefaultAsyncExecutor());
+    }
+
+    /**
+     * Asynchronously retrieves a batch of resources given their references.
+     */
+    default CompletableFuture<ResourceResponse<T>> readAsync(Collection<Reference> ref) {
+        return CompletableFuture.supplyAsync(() -> read(ref),
+                DefaultClientConfiguration.getDefaultAsyncExecutor());
+    }
+
+    /**
+     * Asynchronously retrieves a batch of resources given their references, adding the headers parameters to the
+     * request.
+     */
+    default CompletableFuture<ResourceResponse<T>> readAsync(Collection<Reference> ref,
+            Map<? extends String, ?> headers) {
+        return CompletableFuture.supplyAsync(() -> read(ref, headers),
+                DefaultClientConfiguration.getDefaultAsyncExecutor());
+    }
+
+    /**
+     * Asynchronously retrieves the list of resources that matches with the criteria.
+     */
+    default CompletableFuture<ResourceResponse<T>> browseAsync(ResourceCriteria criteria) {
+        return CompletableFuture.supplyAsync(() -> browse(criteria),
+                DefaultClientConfiguration.getDefaultAsyncExecutor());
+    }
+
+    /**
+     * Asynchronously retrieves the list of resources that matches with the criteria, adding the headers parameters
+     * to the request.
+     */
+    default CompletableFuture<ResourceResponse<T>> browseAsync(ResourceCriteria criteria,
+            Map<? extends String, ?> headers) {
+        return CompletableFuture.supplyAsync(() -> browse(criteria, headers),
+                DefaultClientConfiguration.getDefaultAsyncExecutor());
+    }
+
+    /**
+     * Asynchronously creates one resource.
+     */
+    default CompletableFuture<ResourceResponse<T>> storeAsync(T resource) {
+        return CompletableFuture.supplyAsync(() -> store(resource),
+                DefaultClientConfiguration.getDefaultAsyncExecutor());
+    }
+
+    /**
+     * Asynchronously creates one resource, adding the headers parameters to the request.
+     */
+    default CompletableFuture<ResourceResponse<T>> storeAsync(T resource, Map<? extends String, ?> headers) {
+        return CompletableFuture.supplyAsync(() -> store(resource, headers),
+                DefaultClientConfiguration.getDefaultAsyncExecutor());
+    }
+
+    /**
+     * Asynchronously creates a batch of resources.
+     */
+    default CompletableFuture<ResourceResponse<T>> storeAsync(Collection<T> resources) {
+        return CompletableFuture.supplyAsync(() -> store(resources),
+                DefaultClientConfiguration.getDefaultAsyncExecutor());
+    }
+
+    /**
+     * Asynchronously creates a batch of resources, adding the headers parameters to the request.
+     */
+    default CompletableFuture<ResourceResponse<T>> storeAsync(Collection<T> resources,
+            Map<? extends String, ?> headers) {
+        return CompletableFuture.supplyAsync(() -> store(resources, headers),
+                DefaultClientConfiguration.getDefaultAsyncExecutor());
+    }
+
+    /**
+     * Asynchronously updates one resource given its reference.
+     */
+    default CompletableFuture<ResourceResponse<T>> updateAsync(T resource, Reference reference) {
+        return CompletableFuture.supplyAsync(() -> update(resource, reference),
+                DefaultClientConfiguration.getDefaultAsyncExecutor());
+    }
+
+    /**
+     * Asynchronously updates one resource given its reference, adding the headers parameters to the request.
+     */
+    default CompletableFuture<ResourceResponse<T>> updateAsync(T resource, Reference reference,
+            Map<? extends String, ?> headers) {
+        return CompletableFuture.supplyAsync(() -> update(resource, reference, headers),
+                DefaultClientConfiguration.getDefaultAsyncExecutor());
+    }
+
+    /**
+     * Asynchronously deletes one resource given its reference.
+     */
+    default CompletableFuture<ResourceResponse<T>> deleteAsync(Reference reference) {
+        return CompletableFuture.supplyAsync(() -> delete(reference),
+                DefaultClientConfiguration.getDefaultAsyncExecutor());
+    }
+
+    /**
+     * Asynchronously deletes one resource given its reference, adding the headers parameters to the request.
+     */
+    default CompletableFuture<ResourceResponse<T>> deleteAsync(Reference reference,
+            Map<? extends String, ?> headers) {
+        return CompletableFuture.supplyAsync(() -> delete(reference, headers),
+                DefaultClientConfiguration.getDefaultAsyncExecutor());
+    }
+
+    /**
+     * Asynchronously deletes a batch of resources.
+     */
+    default CompletableFuture<ResourceResponse<T>> deleteAsync(Collection<Reference> references) {
+        return CompletableFuture.supplyAsync(() -> delete(references),
+                DefaultClientConfiguration.getDefaultAsyncExecutor());
+    }
+
+    /**
+     * Asynchronously deletes a batch of resources, adding the headers parameters to the request.
+     */
+    default CompletableFuture<ResourceResponse<T>> deleteAsync(Collection<Reference> references,
+            Map<? extends String, ?> headers) {
+        return CompletableFuture.supplyAsync(() -> delete(references, headers),
+                DefaultClientConfiguration.getDefaultAsyncExecutor());
+    }
+
 }
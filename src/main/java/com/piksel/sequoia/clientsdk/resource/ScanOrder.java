@@ -0,0 +1,42 @@
+package com.piksel.sequoia.clientsdk.resource;
+
+/*-
+ * #%L
+ * Sequoia Java Client SDK
+ * %%
+ * Copyright (C) 2018 Piksel
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.piksel.sequoia.annotations.PublicEvolving;
+
+/**
+ * The order in which a parallel scan provides the resources of its pages.
+ */
+@PublicEvolving
+public enum ScanOrder {
+
+    /**
+     * The resources are provided in page order, waiting for an earlier page
+     * even if later pages have already arrived.
+     */
+    PAGE_ORDER,
+
+    /**
+     * The resources of each page are provided as soon as the page arrives.
+     */
+    COMPLETION_ORDER
+
+}
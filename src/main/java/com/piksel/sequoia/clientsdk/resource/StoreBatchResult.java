@@ -0,0 +1,66 @@
+package com.piksel.sequoia.clientsdk.resource;
+
+/*-
+ * #%L
+ * Sequoia Java Client SDK
+ * %%
+ * Copyright (C) 2018 Piksel
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Optional;
+
+import com.piksel.sequoia.annotations.PublicEvolving;
+import com.piksel.sequoia.clientsdk.RequestExecutionException;
+
+import lombok.Value;
+
+/**
+ * The outcome of one batch of a {@link BatchedStoreResult}.
+ */
+@Value
+@PublicEvolving
+public class StoreBatchResult {
+
+    /**
+     * The position in the stored collection of the first resource of the
+     * batch.
+     */
+    private int offset;
+
+    /**
+     * The number of resources in the batch.
+     */
+    private int size;
+
+    /**
+     * The status code of the last response to the batch, or of its failure if
+     * it has one.
+     */
+    private int statusCode;
+
+    private boolean successStatusCode;
+
+    /**
+     * The number of times the batch was sent.
+     */
+    private int attempts;
+
+    /**
+     * The failure of the last request, if it could not be completed.
+     */
+    private Optional<RequestExecutionException> failure;
+
+}
@@ -0,0 +1,85 @@
+package com.piksel.sequoia.clientsdk.resource.json;
+
+/*-
+ * #%L
+ * Sequoia Java Client SDK
+ * %%
+ * Copyright (C) 2018 Piksel
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+
+import com.google.api.client.util.Preconditions;
+import com.google.gson.JsonPrimitive;
+import com.piksel.sequoia.annotations.Internal;
+
+/**
+ * A request body already encoded as JSON, which {@link JsonHttpContent} sends
+ * as is instead of serializing it.
+ */
+
+@Internal
+public final class EncodedJson {
+
+    private final byte[] bytes;
+
+    public EncodedJson(byte[] bytes) {
+        this.bytes = Preconditions.checkNotNull(bytes);
+    }
+
+    /**
+     * Provides the body of a collection of resources under the given key,
+     * {@code {"key":[...]}}, from the resources encoded one by one.
+     */
+    public static EncodedJson collection(String key, List<byte[]> resources) {
+        byte[] prefix = collectionPrefix(key);
+        int length = prefix.length + resources.size() + 2;
+        for (byte[] resource : resources) {
+            length += resource.length;
+        }
+        ByteArrayOutputStream body = new ByteArrayOutputStream(length);
+        body.write(prefix, 0, prefix.length);
+        for (int index = 0; index < resources.size(); index++) {
+            if (index > 0) {
+                body.write(',');
+            }
+            body.write(resources.get(index), 0, resources.get(index).length);
+        }
+        body.write(']');
+        body.write('}');
+        return new EncodedJson(body.toByteArray());
+    }
+
+    /**
+     * Provides the number of bytes of the body of a collection under the
+     * given key around its resources and their separators.
+     */
+    public static int collectionEnvelopeSize(String key) {
+        return collectionPrefix(key).length + 2;
+    }
+
+    private static byte[] collectionPrefix(String key) {
+        return ("{" + new JsonPrimitive(key) + ":[").getBytes(UTF_8);
+    }
+
+    public byte[] getBytes() {
+        return bytes;
+    }
+
+}
@@ -22,19 +22,33 @@ package com.piksel.sequoia.clientsdk.resource.json;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 
-import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.zip.GZIPOutputStream;
 
 import com.google.api.client.http.AbstractHttpContent;
 import com.google.api.client.http.HttpMediaType;
 import com.google.api.client.json.Json;
 import com.google.api.client.util.Preconditions;
+import com.google.common.io.CountingOutputStream;
 import com.google.gson.Gson;
+import com.google.gson.JsonIOException;
 import com.piksel.sequoia.annotations.Internal;
+import com.piksel.sequoia.clientsdk.configuration.RequestContentConfiguration;
 
 /**
  * This class has been designed in order to use Gson rather than JsonFactory.
+ *
+ * <p>The data is serialized to JSON once and the encoded bytes, gzipped when
+ * large enough, are reused for the content length, every write (retries
+ * included) and logging. A {@link RequestContentConfiguration#isStreamed()
+ * streamed} content is instead serialized straight to the output stream on
+ * each write and has an unknown length, so it is sent chunked without holding
+ * a copy of the body. Data already encoded, given as {@link EncodedJson}, is
+ * sent as is.
  */
 @Internal
 public class JsonHttpContent extends AbstractHttpContent {
@@ -43,16 +57,103 @@ public class JsonHttpContent extends AbstractHttpContent {
 
     private final Gson gson;
 
+    private final RequestContentConfiguration configuration;
+
+    private byte[] encoded;
+
+    private byte[] body;
+
     public JsonHttpContent(Gson gson, Object data) {
+        this(gson, data, RequestContentConfiguration.builder().build());
+    }
+
+    public JsonHttpContent(Gson gson, Object data, RequestContentConfiguration configuration) {
         super(Json.MEDIA_TYPE);
         this.gson = Preconditions.checkNotNull(gson);
         this.data = Preconditions.checkNotNull(data);
+        this.configuration = Preconditions.checkNotNull(configuration);
     }
 
     public void writeTo(OutputStream out) throws IOException {
-        BufferedOutputStream bf = new BufferedOutputStream(out);
-        bf.write(gson.toJson(data).getBytes(UTF_8));
-        bf.flush();
+        if (isStreamed()) {
+            writeStreamed(out);
+        } else {
+            out.write(getBody());
+            configuration.getStatistics().recordRequest(getEncoded().length, getBody().length);
+        }
+        out.flush();
+    }
+
+    private void writeStreamed(OutputStream out) throws IOException {
+        CountingOutputStream sent = new CountingOutputStream(out);
+        GZIPOutputStream gzip = isGzipped() ? new GZIPOutputStream(sent) : null;
+        CountingOutputStream json = new CountingOutputStream(gzip == null ? sent : gzip);
+        serializeTo(json);
+        if (gzip != null) {
+            gzip.finish();
+        }
+        configuration.getStatistics().recordRequest(json.getCount(), sent.getCount());
+    }
+
+    @Override
+    protected long computeLength() throws IOException {
+        return isStreamed() ? -1 : getBody().length;
+    }
+
+    /**
+     * Whether the content is sent gzip-compressed, in which case the request
+     * must carry a {@code Content-Encoding: gzip} header.
+     */
+    public boolean isGzipped() throws IOException {
+        return configuration.isGzipped(isStreamed() ? -1 : getEncoded().length);
+    }
+
+    private byte[] getBody() throws IOException {
+        if (body == null) {
+            body = isGzipped() ? gzip(getEncoded()) : getEncoded();
+        }
+        return body;
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(bytes.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+            gzip.write(bytes);
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * Provides the data encoded as JSON, serializing it on first use.
+     */
+    public byte[] getEncoded() throws IOException {
+        if (encoded == null && data instanceof EncodedJson) {
+            encoded = ((EncodedJson) data).getBytes();
+        }
+        if (encoded == null) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            serializeTo(buffer);
+            encoded = buffer.toByteArray();
+        }
+        return encoded;
+    }
+
+    private void serializeTo(OutputStream out) throws IOException {
+        if (data instanceof EncodedJson) {
+            out.write(((EncodedJson) data).getBytes());
+            return;
+        }
+        Writer writer = new OutputStreamWriter(out, UTF_8);
+        try {
+            gson.toJson(data, data.getClass(), writer);
+        } catch (JsonIOException writeException) {
+            throw new IOException(writeException.getMessage(), writeException.getCause());
+        }
+        writer.flush();
+    }
+
+    public boolean isStreamed() {
+        return configuration.isStreamed();
     }
 
     @Override
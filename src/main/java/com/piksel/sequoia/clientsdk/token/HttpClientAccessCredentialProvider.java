@@ -57,6 +57,8 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import static com.google.api.client.auth.oauth2.BearerToken.authorizationHeaderAccessMethod;
 
@@ -82,8 +84,18 @@ public class HttpClientAccessCredentialProvider
     private final ClientGrantCredentialUnsuccessfulResponseHandler unsuccessfulResponseHandler;
     private final RegistryClient registryClient;
 
-    private ClientGrantCredential credential;
-    private boolean allowCredentialRefresh = true;
+    private volatile ClientGrantCredential credential;
+    private volatile boolean allowCredentialRefresh = true;
+
+    /**
+     * Guards token acquisition so that concurrent requests share a single
+     * token request. Locks are used rather than {@code synchronized} so that
+     * virtual threads blocked on the token request do not pin their carrier,
+     * and there is one per owner so that the first tokens of different owners
+     * are requested concurrently.
+     */
+    private final Lock credentialLock = new ReentrantLock();
+    private final Map<String, Lock> ownerCredentialLocks = Maps.newConcurrentMap();
 
     private Map<String, ClientGrantCredential> credentialsMap = Maps.newConcurrentMap();
     private LoadingCache<String, HostConfiguration> identityHostsCache;
@@ -107,10 +119,17 @@ public class HttpClientAccessCredentialProvider
     @Override
     public Credential getCredential() {
         if (credential == null && allowCredentialRefresh) {
-            log.debug("No client credential stored - requesting a new one");
-            TokenResponse response = executeTokenRequest();
-            GenericUrl url = buildIdentityAccessTokenUrl();
-            credential = buildClientGrantCredential(response, url);
+            credentialLock.lock();
+            try {
+                if (credential == null && allowCredentialRefresh) {
+                    log.debug("No client credential stored - requesting a new one");
+                    TokenResponse response = executeTokenRequest();
+                    GenericUrl url = buildIdentityAccessTokenUrl();
+                    credential = buildClientGrantCredential(response, url);
+                }
+            } finally {
+                credentialLock.unlock();
+            }
         }
         return credential;
     }
@@ -119,11 +138,20 @@ public class HttpClientAccessCredentialProvider
     public Credential getCredential(String owner) {
         ClientGrantCredential credential = credentialsMap.get(owner);
         if (credential == null && allowCredentialRefresh) {
-            log.debug("No client credential stored - requesting a new one");
-            TokenResponse response = executeTokenRequestForOwner(owner);
-            GenericUrl url = buildIdentityAccessTokenUrlForOwner(owner);
-            credential = buildClientGrantCredential(response, url);
-            credentialsMap.put(owner, credential);
+            Lock ownerCredentialLock = ownerCredentialLocks.computeIfAbsent(owner, key -> new ReentrantLock());
+            ownerCredentialLock.lock();
+            try {
+                credential = credentialsMap.get(owner);
+                if (credential == null && allowCredentialRefresh) {
+                    log.debug("No client credential stored - requesting a new one");
+                    TokenResponse response = executeTokenRequestForOwner(owner);
+                    GenericUrl url = buildIdentityAccessTokenUrlForOwner(owner);
+                    credential = buildClientGrantCredential(response, url);
+                    credentialsMap.put(owner, credential);
+                }
+            } finally {
+                ownerCredentialLock.unlock();
+            }
         }
         return credential;
     }
@@ -0,0 +1,95 @@
+package com.piksel.sequoia.clientsdk.transport;
+
+/*-
+ * #%L
+ * Sequoia Java Client SDK
+ * %%
+ * Copyright (C) 2018 Piksel
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Map;
+
+import com.piksel.sequoia.annotations.PublicEvolving;
+
+import lombok.Builder;
+import lombok.Singular;
+import lombok.Value;
+
+/**
+ * Configures the connection pool of a {@link PooledHttpTransport}.
+ */
+@Value
+@Builder
+@PublicEvolving
+public class ConnectionPoolConfiguration {
+
+    /**
+     * The maximum number of connections open across every host.
+     */
+    private int maxConnectionsTotal;
+
+    /**
+     * The maximum number of connections open to a single host, unless
+     * overridden for that host.
+     */
+    private int maxConnectionsPerHost;
+
+    /**
+     * Overrides {@link #maxConnectionsPerHost} for the given hosts, keyed by
+     * base url (for example {@code https://identity.example.com}).
+     */
+    @Singular("maxConnectionsForHost")
+    private Map<String, Integer> hostMaxConnections;
+
+    /**
+     * Pooled connections idle for longer than this are checked before being
+     * reused, so that connections closed by the server are not handed out.
+     */
+    private int validateAfterInactivityMillis;
+
+    /**
+     * Connections idle in the pool for longer than this are closed by a
+     * background reaper. Zero disables the reaper.
+     */
+    private int idleConnectionTimeoutSeconds;
+
+    /**
+     * The maximum time a connection is kept alive, regardless of the
+     * keep-alive advertised by the server. Zero or less keeps connections for
+     * as long as the server allows.
+     */
+    private int connectionTimeToLiveSeconds;
+
+    /**
+     * How long a request waits for a connection to be leased from the pool
+     * when all the connections to its host are in use.
+     */
+    private int connectionRequestTimeoutMillis;
+
+    /**
+     * Provides a builder with default values configured ready to be overridden if needed.
+     */
+    public static ConnectionPoolConfigurationBuilder builder() {
+        return new ConnectionPoolConfigurationBuilder()
+            .maxConnectionsTotal(200)
+            .maxConnectionsPerHost(20)
+            .validateAfterInactivityMillis(2000)
+            .idleConnectionTimeoutSeconds(30)
+            .connectionTimeToLiveSeconds(0)
+            .connectionRequestTimeoutMillis(20000);
+    }
+
+}
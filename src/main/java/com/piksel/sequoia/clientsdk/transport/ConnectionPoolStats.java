@@ -0,0 +1,62 @@
+package com.piksel.sequoia.clientsdk.transport;
+
+/*-
+ * #%L
+ * Sequoia Java Client SDK
+ * %%
+ * Copyright (C) 2018 Piksel
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.apache.http.pool.PoolStats;
+
+import com.piksel.sequoia.annotations.PublicEvolving;
+
+import lombok.Value;
+
+/**
+ * A snapshot of the connections held by a {@link PooledHttpTransport}, either
+ * in total or for a single host.
+ */
+@Value
+@PublicEvolving
+public class ConnectionPoolStats {
+
+    /**
+     * The number of connections currently serving a request.
+     */
+    private int leased;
+
+    /**
+     * The number of requests waiting for a connection.
+     */
+    private int pending;
+
+    /**
+     * The number of idle connections ready to be reused.
+     */
+    private int available;
+
+    /**
+     * The maximum number of connections allowed.
+     */
+    private int max;
+
+    static ConnectionPoolStats from(PoolStats stats) {
+        return new ConnectionPoolStats(stats.getLeased(), stats.getPending(),
+                stats.getAvailable(), stats.getMax());
+    }
+
+}
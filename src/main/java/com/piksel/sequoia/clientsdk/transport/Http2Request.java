@@ -0,0 +1,99 @@
+package com.piksel.sequoia.clientsdk.transport;
+
+/*-
+ * #%L
+ * Sequoia Java Client SDK
+ * %%
+ * Copyright (C) 2018 Piksel
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.google.api.client.http.LowLevelHttpRequest;
+import com.google.api.client.http.LowLevelHttpResponse;
+import com.google.api.client.util.StreamingContent;
+
+/**
+ * A request sent through an {@link Http2Transport}.
+ */
+class Http2Request extends LowLevelHttpRequest {
+
+    /**
+     * Headers managed by {@code java.net.http.HttpClient} itself, which
+     * rejects requests setting them.
+     */
+    private static final Set<String> RESTRICTED_HEADERS = new HashSet<>(
+            Arrays.asList("connection", "content-length", "expect", "host", "upgrade"));
+
+    private final Http2Transport transport;
+    private final String method;
+    private final URI uri;
+    private final List<String[]> headers = new ArrayList<>();
+    private int connectTimeout;
+    private int readTimeout;
+
+    Http2Request(Http2Transport transport, String method, String url) {
+        this.transport = transport;
+        this.method = method;
+        this.uri = URI.create(url);
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        if (!RESTRICTED_HEADERS.contains(name.toLowerCase())) {
+            headers.add(new String[] { name, value });
+        }
+    }
+
+    @Override
+    public void setTimeout(int connectTimeout, int readTimeout) {
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+    }
+
+    /**
+     * Sends the request. A content of known length is sent from a buffer, and
+     * a content of unknown length, such as a streamed one, is sent as it is
+     * written.
+     */
+    @Override
+    public LowLevelHttpResponse execute() throws IOException {
+        StreamingContent content = getStreamingContent();
+        if (content != null) {
+            addHeader("Content-Type", getContentType());
+            addHeader("Content-Encoding", getContentEncoding());
+        }
+        headers.removeIf(header -> header[1] == null);
+        if (content != null && getContentLength() < 0) {
+            return transport.client(connectTimeout).send(method, uri, headers, content, readTimeout);
+        }
+        byte[] buffered = null;
+        if (content != null) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            content.writeTo(buffer);
+            buffered = buffer.toByteArray();
+        }
+        return transport.client(connectTimeout).send(method, uri, headers, buffered, readTimeout);
+    }
+
+}
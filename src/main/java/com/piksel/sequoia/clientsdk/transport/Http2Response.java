@@ -0,0 +1,114 @@
+package com.piksel.sequoia.clientsdk.transport;
+
+/*-
+ * #%L
+ * Sequoia Java Client SDK
+ * %%
+ * Copyright (C) 2018 Piksel
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import com.google.api.client.http.LowLevelHttpResponse;
+
+/**
+ * A response received through an {@link Http2Transport}.
+ */
+class Http2Response extends LowLevelHttpResponse {
+
+    private final int statusCode;
+    private final List<String[]> headers = new ArrayList<>();
+    private final InputStream content;
+
+    Http2Response(int statusCode, Map<String, List<String>> headers, InputStream content) {
+        this.statusCode = statusCode;
+        this.content = content;
+        headers.forEach((name, values) -> {
+            if (!name.startsWith(":")) {
+                values.forEach(value -> this.headers.add(new String[] { name, value }));
+            }
+        });
+    }
+
+    @Override
+    public InputStream getContent() {
+        return content;
+    }
+
+    @Override
+    public String getContentEncoding() {
+        return header("Content-Encoding");
+    }
+
+    @Override
+    public long getContentLength() {
+        String contentLength = header("Content-Length");
+        return contentLength == null ? -1 : Long.parseLong(contentLength);
+    }
+
+    @Override
+    public String getContentType() {
+        return header("Content-Type");
+    }
+
+    @Override
+    public String getStatusLine() {
+        return null;
+    }
+
+    @Override
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    @Override
+    public String getReasonPhrase() {
+        return null;
+    }
+
+    @Override
+    public int getHeaderCount() {
+        return headers.size();
+    }
+
+    @Override
+    public String getHeaderName(int index) {
+        return headers.get(index)[0];
+    }
+
+    @Override
+    public String getHeaderValue(int index) {
+        return headers.get(index)[1];
+    }
+
+    @Override
+    public void disconnect() throws IOException {
+        content.close();
+    }
+
+    private String header(String name) {
+        return headers.stream()
+                .filter(header -> header[0].equalsIgnoreCase(name))
+                .map(header -> header[1])
+                .findFirst()
+                .orElse(null);
+    }
+
+}
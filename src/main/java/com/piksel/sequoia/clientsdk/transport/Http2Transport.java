@@ -0,0 +1,73 @@
+package com.piksel.sequoia.clientsdk.transport;
+
+/*-
+ * #%L
+ * Sequoia Java Client SDK
+ * %%
+ * Copyright (C) 2018 Piksel
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.google.api.client.http.HttpTransport;
+import com.piksel.sequoia.annotations.PublicEvolving;
+
+/**
+ * An {@link HttpTransport} backed by {@code java.net.http.HttpClient} with
+ * HTTP/2 enabled, so concurrent requests to the same service host are
+ * multiplexed over a few connections instead of holding a socket each. Hosts
+ * that do not support HTTP/2 are spoken to over HTTP/1.1.
+ *
+ * <p>Requires a Java 11 or later runtime; check {@link #isSupported()} before
+ * creating the transport. The connect and read timeouts set on each request,
+ * such as those from {@code ClientConfiguration}, are honoured: a client is
+ * kept per connect timeout and the read timeout bounds the wait for the
+ * response headers.
+ */
+@PublicEvolving
+public class Http2Transport extends HttpTransport {
+
+    private final ConcurrentMap<Integer, JdkHttpClient> clients = new ConcurrentHashMap<>();
+
+    /**
+     * @throws UnsupportedOperationException if the runtime is older than
+     *         Java 11
+     */
+    public Http2Transport() {
+        if (!isSupported()) {
+            throw new UnsupportedOperationException(
+                    "java.net.http.HttpClient requires Java 11 or later");
+        }
+    }
+
+    /**
+     * Whether the running JVM provides {@code java.net.http.HttpClient}.
+     */
+    public static boolean isSupported() {
+        return JdkHttpClient.isSupported();
+    }
+
+    @Override
+    protected Http2Request buildRequest(String method, String url) {
+        return new Http2Request(this, method, url);
+    }
+
+    JdkHttpClient client(int connectTimeout) {
+        return clients.computeIfAbsent(connectTimeout, JdkHttpClient::new);
+    }
+
+}
@@ -0,0 +1,247 @@
+package com.piksel.sequoia.clientsdk.transport;
+
+/*-
+ * #%L
+ * Sequoia Java Client SDK
+ * %%
+ * Copyright (C) 2018 Piksel
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+import com.google.api.client.util.StreamingContent;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sends requests through a {@code java.net.http.HttpClient} negotiating
+ * HTTP/2. The client is compiled for Java 8, so the Java 11 API is looked up
+ * reflectively once and {@link #isSupported()} tells whether it is available.
+ */
+@Slf4j
+class JdkHttpClient {
+
+    /**
+     * The size of the pipe a streamed request body is written through.
+     */
+    private static final int PIPE_SIZE = 64 * 1024;
+
+    private static final Api API = Api.load();
+
+    private final Object httpClient;
+
+    JdkHttpClient(int connectTimeout) {
+        try {
+            Object builder = API.newClientBuilder.invoke(null);
+            API.version.invoke(builder, API.http2);
+            if (connectTimeout > 0) {
+                API.connectTimeout.invoke(builder, Duration.ofMillis(connectTimeout));
+            }
+            this.httpClient = API.buildClient.invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Unable to create the HTTP/2 client", e);
+        }
+    }
+
+    static boolean isSupported() {
+        return API != null;
+    }
+
+    Http2Response send(String method, URI uri, List<String[]> headers, byte[] content,
+            int readTimeout) throws IOException {
+        try {
+            Object body = content == null ? API.noBody.invoke(null) : API.ofByteArray.invoke(null, (Object) content);
+            return responseOf(API.send.invoke(httpClient, request(method, uri, headers, body, readTimeout),
+                    API.ofInputStream.invoke(null)));
+        } catch (InvocationTargetException e) {
+            throw unwrap(e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Sends a request whose body is written by the given content while it is
+     * sent. The content is written on the calling thread into a pipe that the
+     * client reads from as it sends the request, so the body is never held as
+     * a whole. A response received before the body is fully written, such as
+     * an early rejection, ends the write and is returned.
+     */
+    Http2Response send(String method, URI uri, List<String[]> headers, StreamingContent content,
+            int readTimeout) throws IOException {
+        PipedInputStream body = new PipedInputStream(PIPE_SIZE);
+        PipedOutputStream out = new PipedOutputStream(body);
+        Supplier<InputStream> bodySupplier = () -> body;
+        CompletableFuture<?> sent;
+        try {
+            sent = (CompletableFuture<?>) API.sendAsync.invoke(httpClient, request(method, uri, headers,
+                    API.ofInputStreamBody.invoke(null, bodySupplier), readTimeout), API.ofInputStream.invoke(null));
+        } catch (InvocationTargetException e) {
+            throw unwrap(e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+        sent.whenComplete((response, failure) -> closeQuietly(body));
+        try {
+            content.writeTo(out);
+            out.close();
+        } catch (IOException e) {
+            if (!sent.isDone()) {
+                closeQuietly(body);
+                throw e;
+            }
+        }
+        try {
+            return responseOf(sent.get());
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(e.getMessage());
+        } catch (InvocationTargetException e) {
+            throw unwrap(e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Object request(String method, URI uri, List<String[]> headers, Object body,
+            int readTimeout) throws InvocationTargetException, IllegalAccessException {
+        Object builder = API.newRequestBuilder.invoke(null, uri);
+        for (String[] header : headers) {
+            API.header.invoke(builder, header[0], header[1]);
+        }
+        API.method.invoke(builder, method, body);
+        if (readTimeout > 0) {
+            API.timeout.invoke(builder, Duration.ofMillis(readTimeout));
+        }
+        return API.buildRequest.invoke(builder);
+    }
+
+    private static Http2Response responseOf(Object response) throws InvocationTargetException,
+            IllegalAccessException {
+        @SuppressWarnings("unchecked")
+        Map<String, List<String>> responseHeaders = (Map<String, List<String>>) API.headersMap
+                .invoke(API.headers.invoke(response));
+        return new Http2Response((Integer) API.statusCode.invoke(response), responseHeaders,
+                (InputStream) API.body.invoke(response));
+    }
+
+    private static void closeQuietly(InputStream in) {
+        try {
+            in.close();
+        } catch (IOException e) {
+            log.debug("Unable to close the request body: {}", e.toString());
+        }
+    }
+
+    private static IOException unwrap(Throwable cause) {
+        if (cause instanceof IOException) {
+            return (IOException) cause;
+        }
+        if (cause instanceof InterruptedException) {
+            Thread.currentThread().interrupt();
+            return new InterruptedIOException(cause.getMessage());
+        }
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        return new IOException(cause);
+    }
+
+    /**
+     * The methods of the {@code java.net.http} API used by the client.
+     */
+    private static final class Api {
+
+        private Method newClientBuilder;
+        private Method version;
+        private Method connectTimeout;
+        private Method buildClient;
+        private Object http2;
+        private Method newRequestBuilder;
+        private Method header;
+        private Method method;
+        private Method timeout;
+        private Method buildRequest;
+        private Method noBody;
+        private Method ofByteArray;
+        private Method ofInputStreamBody;
+        private Method ofInputStream;
+        private Method send;
+        private Method sendAsync;
+        private Method statusCode;
+        private Method headers;
+        private Method headersMap;
+        private Method body;
+
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        static Api load() {
+            try {
+                Class<?> client = Class.forName("java.net.http.HttpClient");
+                Class<?> clientBuilder = Class.forName("java.net.http.HttpClient$Builder");
+                Class versionType = Class.forName("java.net.http.HttpClient$Version");
+                Class<?> request = Class.forName("java.net.http.HttpRequest");
+                Class<?> requestBuilder = Class.forName("java.net.http.HttpRequest$Builder");
+                Class<?> bodyPublisher = Class.forName("java.net.http.HttpRequest$BodyPublisher");
+                Class<?> bodyPublishers = Class.forName("java.net.http.HttpRequest$BodyPublishers");
+                Class<?> bodyHandler = Class.forName("java.net.http.HttpResponse$BodyHandler");
+                Class<?> response = Class.forName("java.net.http.HttpResponse");
+                Api api = new Api();
+                api.newClientBuilder = client.getMethod("newBuilder");
+                api.version = clientBuilder.getMethod("version", versionType);
+                api.connectTimeout = clientBuilder.getMethod("connectTimeout", Duration.class);
+                api.buildClient = clientBuilder.getMethod("build");
+                api.http2 = Enum.valueOf(versionType, "HTTP_2");
+                api.newRequestBuilder = request.getMethod("newBuilder", URI.class);
+                api.header = requestBuilder.getMethod("header", String.class, String.class);
+                api.method = requestBuilder.getMethod("method", String.class, bodyPublisher);
+                api.timeout = requestBuilder.getMethod("timeout", Duration.class);
+                api.buildRequest = requestBuilder.getMethod("build");
+                api.noBody = bodyPublishers.getMethod("noBody");
+                api.ofByteArray = bodyPublishers.getMethod("ofByteArray", byte[].class);
+                api.ofInputStreamBody = bodyPublishers.getMethod("ofInputStream", Supplier.class);
+                api.ofInputStream = Class.forName("java.net.http.HttpResponse$BodyHandlers")
+                        .getMethod("ofInputStream");
+                api.send = client.getMethod("send", request, bodyHandler);
+                api.sendAsync = client.getMethod("sendAsync", request, bodyHandler);
+                api.statusCode = response.getMethod("statusCode");
+                api.headers = response.getMethod("headers");
+                api.headersMap = Class.forName("java.net.http.HttpHeaders").getMethod("map");
+                api.body = response.getMethod("body");
+                return api;
+            } catch (ReflectiveOperationException e) {
+                log.debug("java.net.http.HttpClient is not available: {}", e.toString());
+                return null;
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,163 @@
+package com.piksel.sequoia.clientsdk.transport;
+
+/*-
+ * #%L
+ * Sequoia Java Client SDK
+ * %%
+ * Copyright (C) 2018 Piksel
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.http.Header;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpEntityEnclosingRequestBase;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.message.BasicHeader;
+
+import com.google.api.client.http.LowLevelHttpRequest;
+import com.google.api.client.http.LowLevelHttpResponse;
+import com.google.api.client.util.StreamingContent;
+
+/**
+ * A request executed through the pooled client of a
+ * {@link PooledHttpTransport}.
+ */
+class PooledHttpRequest extends LowLevelHttpRequest {
+
+    private final CloseableHttpClient httpClient;
+    private final String method;
+    private final URI uri;
+    private final List<Header> headers = new ArrayList<>();
+    private final RequestConfig.Builder requestConfig;
+
+    PooledHttpRequest(CloseableHttpClient httpClient, RequestConfig defaultRequestConfig,
+            String method, String url) {
+        this.httpClient = httpClient;
+        this.method = method;
+        this.uri = URI.create(url);
+        this.requestConfig = RequestConfig.copy(defaultRequestConfig);
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        headers.add(new BasicHeader(name, value));
+    }
+
+    @Override
+    public void setTimeout(int connectTimeout, int readTimeout) {
+        requestConfig.setConnectTimeout(connectTimeout).setSocketTimeout(readTimeout);
+    }
+
+    @Override
+    public LowLevelHttpResponse execute() throws IOException {
+        HttpRequestBase request = getStreamingContent() == null ? new Method(method)
+                : withContent(new EntityEnclosingMethod(method));
+        request.setURI(uri);
+        headers.forEach(request::addHeader);
+        request.setConfig(requestConfig.build());
+        return new PooledHttpResponse(httpClient.execute(request));
+    }
+
+    private HttpRequestBase withContent(EntityEnclosingMethod request) {
+        ContentEntity entity = new ContentEntity(getContentLength(), getStreamingContent());
+        entity.setContentType(getContentType());
+        entity.setContentEncoding(getContentEncoding());
+        request.setEntity(entity);
+        return request;
+    }
+
+    private static final class Method extends HttpRequestBase {
+
+        private final String method;
+
+        Method(String method) {
+            this.method = method;
+        }
+
+        @Override
+        public String getMethod() {
+            return method;
+        }
+
+    }
+
+    private static final class EntityEnclosingMethod extends HttpEntityEnclosingRequestBase {
+
+        private final String method;
+
+        EntityEnclosingMethod(String method) {
+            this.method = method;
+        }
+
+        @Override
+        public String getMethod() {
+            return method;
+        }
+
+    }
+
+    /**
+     * Writes the request content straight to the connection.
+     */
+    private static final class ContentEntity extends AbstractHttpEntity {
+
+        private final long length;
+        private final StreamingContent content;
+
+        ContentEntity(long length, StreamingContent content) {
+            this.length = length;
+            this.content = content;
+            setChunked(length < 0);
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return false;
+        }
+
+        @Override
+        public long getContentLength() {
+            return length;
+        }
+
+        @Override
+        public InputStream getContent() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void writeTo(OutputStream outputStream) throws IOException {
+            if (length != 0) {
+                content.writeTo(outputStream);
+            }
+        }
+
+        @Override
+        public boolean isStreaming() {
+            return false;
+        }
+
+    }
+
+}
@@ -0,0 +1,108 @@
+package com.piksel.sequoia.clientsdk.transport;
+
+/*-
+ * #%L
+ * Sequoia Java Client SDK
+ * %%
+ * Copyright (C) 2018 Piksel
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.methods.CloseableHttpResponse;
+
+import com.google.api.client.http.LowLevelHttpResponse;
+
+/**
+ * A response received through the pooled client of a
+ * {@link PooledHttpTransport}. The connection returns to the pool once the
+ * content is consumed and closed, or on {@link #disconnect()}.
+ */
+class PooledHttpResponse extends LowLevelHttpResponse {
+
+    private final CloseableHttpResponse response;
+    private final Header[] headers;
+
+    PooledHttpResponse(CloseableHttpResponse response) {
+        this.response = response;
+        this.headers = response.getAllHeaders();
+    }
+
+    @Override
+    public InputStream getContent() throws IOException {
+        HttpEntity entity = response.getEntity();
+        return entity == null ? null : entity.getContent();
+    }
+
+    @Override
+    public String getContentEncoding() {
+        HttpEntity entity = response.getEntity();
+        return entity == null || entity.getContentEncoding() == null ? null
+                : entity.getContentEncoding().getValue();
+    }
+
+    @Override
+    public long getContentLength() {
+        HttpEntity entity = response.getEntity();
+        return entity == null ? -1 : entity.getContentLength();
+    }
+
+    @Override
+    public String getContentType() {
+        HttpEntity entity = response.getEntity();
+        return entity == null || entity.getContentType() == null ? null
+                : entity.getContentType().getValue();
+    }
+
+    @Override
+    public String getStatusLine() {
+        return response.getStatusLine().toString();
+    }
+
+    @Override
+    public int getStatusCode() {
+        return response.getStatusLine().getStatusCode();
+    }
+
+    @Override
+    public String getReasonPhrase() {
+        return response.getStatusLine().getReasonPhrase();
+    }
+
+    @Override
+    public int getHeaderCount() {
+        return headers.length;
+    }
+
+    @Override
+    public String getHeaderName(int index) {
+        return headers[index].getName();
+    }
+
+    @Override
+    public String getHeaderValue(int index) {
+        return headers[index].getValue();
+    }
+
+    @Override
+    public void disconnect() throws IOException {
+        response.close();
+    }
+
+}
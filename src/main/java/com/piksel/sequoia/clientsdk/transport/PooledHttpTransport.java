@@ -0,0 +1,149 @@
+package com.piksel.sequoia.clientsdk.transport;
+
+/*-
+ * #%L
+ * Sequoia Java Client SDK
+ * %%
+ * Copyright (C) 2018 Piksel
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.apache.http.HttpHost;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.UnsupportedSchemeException;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.DefaultSchemePortResolver;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+
+import com.google.api.client.http.HttpTransport;
+import com.piksel.sequoia.annotations.PublicEvolving;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * An {@link HttpTransport} backed by the Apache HttpClient, which keeps
+ * connections to the data services alive in a pool bounded per host instead
+ * of opening a connection per request.
+ *
+ * <p>Redirects, retries and response decompression are left to the request
+ * layer, as with the default transport. The transport should be
+ * {@link #shutdown() shut down} once it is no longer used to release its
+ * connections.
+ */
+@Slf4j
+@PublicEvolving
+public class PooledHttpTransport extends HttpTransport {
+
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final CloseableHttpClient httpClient;
+    private final RequestConfig defaultRequestConfig;
+
+    public PooledHttpTransport() {
+        this(ConnectionPoolConfiguration.builder().build());
+    }
+
+    public PooledHttpTransport(ConnectionPoolConfiguration configuration) {
+        this.connectionManager = connectionManager(configuration);
+        this.defaultRequestConfig = RequestConfig.custom()
+                .setConnectionRequestTimeout(configuration.getConnectionRequestTimeoutMillis())
+                .build();
+        HttpClientBuilder builder = HttpClientBuilder.create()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(defaultRequestConfig)
+                .disableRedirectHandling()
+                .disableAutomaticRetries()
+                .disableContentCompression()
+                .disableCookieManagement();
+        if (configuration.getIdleConnectionTimeoutSeconds() > 0) {
+            builder.evictExpiredConnections()
+                    .evictIdleConnections(configuration.getIdleConnectionTimeoutSeconds(), TimeUnit.SECONDS);
+        }
+        this.httpClient = builder.build();
+        log.debug("Created pooled http transport with configuration [{}]", configuration);
+    }
+
+    private static PoolingHttpClientConnectionManager connectionManager(
+            ConnectionPoolConfiguration configuration) {
+        PoolingHttpClientConnectionManager manager = new PoolingHttpClientConnectionManager(
+                configuration.getConnectionTimeToLiveSeconds(), TimeUnit.SECONDS);
+        manager.setMaxTotal(configuration.getMaxConnectionsTotal());
+        manager.setDefaultMaxPerRoute(configuration.getMaxConnectionsPerHost());
+        manager.setValidateAfterInactivity(configuration.getValidateAfterInactivityMillis());
+        configuration.getHostMaxConnections()
+                .forEach((host, max) -> manager.setMaxPerRoute(routeTo(host), max));
+        return manager;
+    }
+
+    static HttpRoute routeTo(String baseUrl) {
+        HttpHost host = HttpHost.create(baseUrl);
+        try {
+            HttpHost target = new HttpHost(host.getHostName(),
+                    DefaultSchemePortResolver.INSTANCE.resolve(host), host.getSchemeName());
+            return new HttpRoute(target, null, "https".equalsIgnoreCase(target.getSchemeName()));
+        } catch (UnsupportedSchemeException e) {
+            throw new IllegalArgumentException("Unsupported scheme for host " + baseUrl, e);
+        }
+    }
+
+    @Override
+    protected PooledHttpRequest buildRequest(String method, String url) {
+        return new PooledHttpRequest(httpClient, defaultRequestConfig, method, url);
+    }
+
+    /**
+     * Provides the statistics of the connections held across every host.
+     */
+    public ConnectionPoolStats getPoolStats() {
+        return ConnectionPoolStats.from(connectionManager.getTotalStats());
+    }
+
+    /**
+     * Provides the statistics of the connections held to the host with the
+     * given base url, if any connection to it has been requested.
+     */
+    public Optional<ConnectionPoolStats> getPoolStats(String baseUrl) {
+        HttpRoute route = routeTo(baseUrl);
+        return connectionManager.getRoutes().contains(route)
+                ? Optional.of(ConnectionPoolStats.from(connectionManager.getStats(route)))
+                : Optional.empty();
+    }
+
+    /**
+     * Provides the statistics of the connections held to each host, keyed by
+     * base url.
+     */
+    public Map<String, ConnectionPoolStats> getPoolStatsByHost() {
+        return connectionManager.getRoutes().stream()
+                .collect(Collectors.toMap(route -> route.getTargetHost().toURI(),
+                        route -> ConnectionPoolStats.from(connectionManager.getStats(route))));
+    }
+
+    /**
+     * Closes the pooled connections and stops the idle connection reaper.
+     */
+    @Override
+    public void shutdown() throws IOException {
+        httpClient.close();
+    }
+
+}
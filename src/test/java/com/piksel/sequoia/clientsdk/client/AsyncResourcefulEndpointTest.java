@@ -0,0 +1,220 @@
+package com.piksel.sequoia.clientsdk.client;
+
+/*-
+ * #%L
+ * Sequoia Java Client SDK
+ * %%
+ * Copyright (C) 2018 Piksel
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static com.github.tomakehurst.wiremock.client.WireMock.deleteRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.putRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.piksel.sequoia.clientsdk.client.integration.MockResponses.stubForServiceRegistryDelete;
+import static com.piksel.sequoia.clientsdk.client.integration.MockResponses.stubForServiceRegistryGet;
+import static com.piksel.sequoia.clientsdk.client.integration.MockResponses.stubForServiceRegistryGetNotFoundResponse;
+import static com.piksel.sequoia.clientsdk.client.integration.MockResponses.stubForServiceRegistryGetQueryParams;
+import static com.piksel.sequoia.clientsdk.client.integration.MockResponses.stubForServiceRegistryGetWithFault;
+import static com.piksel.sequoia.clientsdk.client.integration.MockResponses.stubForServiceRegistryPost;
+import static com.piksel.sequoia.clientsdk.client.integration.MockResponses.stubForServiceRegistryUpdate;
+import static com.piksel.sequoia.clientsdk.criteria.StringExpressionFactory.field;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.piksel.sequoia.clientsdk.RequestExecutionException;
+import com.piksel.sequoia.clientsdk.ResourceResponse;
+import com.piksel.sequoia.clientsdk.client.integration.ClientIntegrationTestBase;
+import com.piksel.sequoia.clientsdk.client.integration.MockResponses;
+import com.piksel.sequoia.clientsdk.configuration.DefaultClientConfiguration;
+import com.piksel.sequoia.clientsdk.registry.RegisteredService;
+import com.piksel.sequoia.clientsdk.resource.DefaultResourceCriteria;
+import com.piksel.sequoia.clientsdk.resource.Reference;
+import com.piksel.sequoia.clientsdk.resource.ReferenceValidationException;
+import com.piksel.sequoia.clientsdk.resource.ResourceValidationException;
+import com.piksel.sequoia.clientsdk.resource.ResourcefulEndpoint;
+import com.piksel.sequoia.clientsdk.utils.TestResource;
+import com.piksel.sequoia.clientsdk.utils.TestResourceRule;
+
+public class AsyncResourcefulEndpointTest extends ClientIntegrationTestBase {
+
+    private static final Reference REFERENCE = Reference.fromOwnerAndName("owner", "registry");
+
+    @Rule
+    public TestResourceRule testResourceRule = new TestResourceRule(this);
+
+    @TestResource("registry-response-one.json")
+    private String responseOneResource;
+
+    @TestResource("registry-get-response-multi.json")
+    private String getResponseMultiResource;
+
+    @TestResource("registry-post-response-batch.json")
+    private String postResponseBatchResource;
+
+    @TestResource("service-to-update.json")
+    private String serviceToUpdate;
+
+    @Test
+    public void whenReadingAsync_futureCompletesWithTheResource() throws Exception {
+        stubForServiceRegistryGet(scenarioMappings, responseOneResource, 200, "owner:registry");
+
+        ResourceResponse<RegisteredService> response = services().readAsync(REFERENCE).get();
+
+        scenarioMappings.verify("registry", getRequestedFor(urlEqualTo("/data/services/owner:registry")));
+        assertEquals(200, response.getStatusCode());
+        assertEquals("356b54eb90cd04566159dfb9c95a0426998a2f7b", response.getPayload().get().single().getVersion());
+    }
+
+    @Test
+    public void whenReadingAsyncWithMultipleReferences_addReferencesToUrl() throws Exception {
+        stubForServiceRegistryGet(scenarioMappings, getResponseMultiResource, 200, "test:registry,test:services");
+
+        ResourceResponse<RegisteredService> response = services().readAsync(Arrays.asList(
+                Reference.fromOwnerAndName("test", "registry"), Reference.fromOwnerAndName("test", "services"))).get();
+
+        scenarioMappings.verify("registry", getRequestedFor(urlEqualTo("/data/services/test:registry,test:services")));
+        assertTrue(response.isSuccessStatusCode());
+        assertTrue(response.getPayload().get().hasNext());
+    }
+
+    @Test
+    public void whenReadingAsyncNonExistentResource_futureCompletesWith404() throws Exception {
+        stubForServiceRegistryGetNotFoundResponse(scenarioMappings, "owner:registry");
+
+        ResourceResponse<RegisteredService> response = services().readAsync(REFERENCE).get();
+
+        assertFalse(response.isSuccessStatusCode());
+        assertEquals(404, response.getStatusCode());
+        assertThat(response.getPayload(), is(Optional.empty()));
+    }
+
+    @Test
+    public void whenReadingAsyncWithGettingFault_futureCompletesExceptionally() throws Exception {
+        stubForServiceRegistryGetWithFault(scenarioMappings, null, "owner:registry");
+
+        assertThat(causeOf(() -> services().readAsync(REFERENCE).get()), instanceOf(RequestExecutionException.class));
+    }
+
+    @Test
+    public void whenReadingAsyncWithInvalidReference_futureCompletesExceptionally() throws Exception {
+        assertThat(causeOf(() -> services().readAsync(Reference.fromReference("owner: name with spaces")).get()),
+                instanceOf(ReferenceValidationException.class));
+    }
+
+    @Test
+    public void whenBrowsingAsync_addCriteriaToUrl() throws Exception {
+        stubForServiceRegistryGetQueryParams(scenarioMappings, getResponseMultiResource, 200, "withFieldName=value");
+        DefaultResourceCriteria criteria = new DefaultResourceCriteria();
+        criteria.add(field("fieldName").equalTo("value"));
+
+        ResourceResponse<RegisteredService> response = services().browseAsync(criteria).get();
+
+        scenarioMappings.verify("registry", getRequestedFor(urlEqualTo("/data/services?withFieldName=value")));
+        assertTrue(response.getPayload().get().hasNext());
+    }
+
+    @Test
+    public void whenStoringAsync_shouldPostToDataServicesEndpoint() throws Exception {
+        stubForServiceRegistryPost(scenarioMappings, responseOneResource, 201);
+
+        ResourceResponse<RegisteredService> response = services().storeAsync(serviceToCreate()).get();
+
+        scenarioMappings.verify("registry", postRequestedFor(urlEqualTo("/data/services")));
+        assertEquals(201, response.getStatusCode());
+    }
+
+    @Test
+    public void whenStoringAsyncCollection_shouldPostToDataServicesEndpoint() throws Exception {
+        stubForServiceRegistryPost(scenarioMappings, postResponseBatchResource, 201);
+
+        ResourceResponse<RegisteredService> response = services()
+                .storeAsync(Arrays.asList(serviceToCreate(), serviceToCreate())).get();
+
+        scenarioMappings.verify("registry", postRequestedFor(urlEqualTo("/data/services")));
+        assertTrue(response.getPayload().get().hasNext());
+    }
+
+    @Test
+    public void whenStoringAsyncInvalidResource_futureCompletesExceptionally() throws Exception {
+        RegisteredService invalid = serviceToCreate();
+        invalid.setOwner(null);
+
+        assertThat(causeOf(() -> services().storeAsync(invalid).get()), instanceOf(ResourceValidationException.class));
+    }
+
+    @Test
+    public void whenUpdatingAsync_performPut() throws Exception {
+        stubForServiceRegistryUpdate(scenarioMappings, responseOneResource, 200, "owner:services");
+
+        ResourceResponse<RegisteredService> response = services().updateAsync(
+                DefaultClientConfiguration.getDefaultGson().fromJson(serviceToUpdate, RegisteredService.class),
+                Reference.fromOwnerAndName("owner", "services")).get();
+
+        scenarioMappings.verify("registry", putRequestedFor(urlEqualTo("/data/services/owner:services")));
+        assertEquals(200, response.getStatusCode());
+    }
+
+    @Test
+    public void whenDeletingAsync_addReferencesToTheUrl() throws Exception {
+        stubForServiceRegistryDelete(scenarioMappings, null, 204, "test:one");
+        stubForServiceRegistryDelete(scenarioMappings, null, 204, "test:one,test:two");
+
+        assertEquals(204, services().deleteAsync(Reference.fromReference("test:one")).get().getStatusCode());
+        assertEquals(204, services().deleteAsync(Arrays.asList(Reference.fromReference("test:one"),
+                Reference.fromReference("test:two"))).get().getStatusCode());
+
+        scenarioMappings.verify("registry", deleteRequestedFor(urlEqualTo("/data/services/test:one")));
+        scenarioMappings.verify("registry", deleteRequestedFor(urlEqualTo("/data/services/test:one,test:two")));
+    }
+
+    private ResourcefulEndpoint<RegisteredService> services() {
+        return client.service("registry").resourcefulEndpoint("services", RegisteredService.class);
+    }
+
+    private static RegisteredService serviceToCreate() {
+        RegisteredService registeredService = MockResponses.newService("services", "services", 1111);
+        registeredService.setOwner("owner");
+        return registeredService;
+    }
+
+    private static Throwable causeOf(AsyncCall call) throws InterruptedException {
+        try {
+            call.get();
+        } catch (ExecutionException e) {
+            return e.getCause();
+        }
+        throw new AssertionError("The future was expected to complete exceptionally");
+    }
+
+    @FunctionalInterface
+    private interface AsyncCall {
+        Object get() throws InterruptedException, ExecutionException;
+    }
+
+}
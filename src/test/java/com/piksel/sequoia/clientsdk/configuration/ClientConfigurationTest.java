@@ -0,0 +1,68 @@
+package com.piksel.sequoia.clientsdk.configuration;
+
+/*-
+ * #%L
+ * Sequoia Java Client SDK
+ * %%
+ * Copyright (C) 2018 Piksel
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assume.assumeFalse;
+import static org.junit.Assume.assumeTrue;
+
+import org.junit.Test;
+
+import com.piksel.sequoia.clientsdk.MessageConfiguration;
+import com.piksel.sequoia.clientsdk.transport.Http2Transport;
+
+import nl.jqno.equalsverifier.EqualsVerifier;
+import nl.jqno.equalsverifier.Warning;
+
+public class ClientConfigurationTest {
+
+    @Test
+    public void shouldUseAnHttp2TransportWhenSupported() {
+        assumeTrue(Http2Transport.isSupported());
+
+        ClientConfiguration configuration = aClientConfiguration().http2Transport().build();
+
+        assertThat(configuration.getHttpTransport(), instanceOf(Http2Transport.class));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void shouldRejectAnHttp2TransportWhenUnsupported() {
+        assumeFalse(Http2Transport.isSupported());
+
+        aClientConfiguration().http2Transport();
+    }
+
+    @Test
+    public void equalsContract() {
+        EqualsVerifier.forClass(ClientConfiguration.class)
+                .suppress(Warning.ALL_FIELDS_SHOULD_BE_USED, Warning.NULL_FIELDS).verify();
+        EqualsVerifier.forClass(MessageConfiguration.class).verify();
+    }
+
+    private ClientConfiguration.ClientConfigurationBuilder aClientConfiguration() {
+        return ClientConfiguration.builder()
+                .identityHostConfiguration(new HostConfiguration("http://identity"))
+                .registryHostConfiguration(new HostConfiguration("http://registry"))
+                .registryServiceOwner("owner");
+    }
+
+}
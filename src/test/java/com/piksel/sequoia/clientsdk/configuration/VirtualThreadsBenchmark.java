@@ -0,0 +1,131 @@
+package com.piksel.sequoia.clientsdk.configuration;
+
+
+/*-
+ * #%L
+ * Sequoia Java Client SDK
+ * %%
+ * Copyright (C) 2018 Piksel
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import com.google.api.client.http.GenericUrl;
+import com.google.api.client.http.HttpRequestFactory;
+import com.google.api.client.http.LowLevelHttpRequest;
+import com.google.api.client.http.LowLevelHttpResponse;
+import com.google.api.client.testing.http.MockHttpTransport;
+import com.google.api.client.testing.http.MockLowLevelHttpRequest;
+import com.google.api.client.testing.http.MockLowLevelHttpResponse;
+import com.google.gson.JsonElement;
+import com.piksel.sequoia.clientsdk.Response;
+import com.piksel.sequoia.clientsdk.request.DefaultRequestClient;
+
+/**
+ * Compares asynchronous reads on a bounded pool of platform threads with
+ * reads on virtual threads, against a mock transport that answers every
+ * request after a fixed latency. Not run as part of the test suite; run the
+ * main method on a Java 21 or later JVM, optionally passing the number of
+ * concurrent reads, the latency in milliseconds and the size of the platform
+ * pool:
+ *
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=cp.txt
+ * java -cp target/test-classes:target/classes:$(cat cp.txt) \
+ *     com.piksel.sequoia.clientsdk.configuration.VirtualThreadsBenchmark 1000 50 200
+ * </pre>
+ *
+ * On older JVMs {@link VirtualThreads} falls back to platform threads, so both
+ * runs measure platform threads.
+ */
+public class VirtualThreadsBenchmark {
+
+    private static final String URL = "http://localhost/data/contents/test:1";
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) throws Exception {
+        int reads = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        long latencyMillis = args.length > 1 ? Long.parseLong(args[1]) : 50;
+        int platformThreads = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+        System.out.printf("%d concurrent reads, %d ms latency, virtual threads supported: %s%n", reads,
+                latencyMillis, VirtualThreads.isSupported());
+
+        ExecutorService platform = Executors.newFixedThreadPool(platformThreads);
+        try {
+            run("platform (" + platformThreads + " threads)", platform, reads, latencyMillis);
+        } finally {
+            platform.shutdown();
+        }
+        run("virtual", VirtualThreads.executor(), reads, latencyMillis);
+    }
+
+    private static void run(String name, Executor executor, int reads, long latencyMillis) {
+        DefaultRequestClient requestClient = new DefaultRequestClient(() -> requestFactory(latencyMillis),
+                request -> { }, DefaultClientConfiguration.getDefaultGson(), executor);
+        readAll(requestClient, reads);
+        List<Long> timings = new ArrayList<>();
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            readAll(requestClient, reads);
+            timings.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+        Collections.sort(timings);
+        System.out.printf("%-26s median %5d ms, best %5d ms, %6.0f reads/s, peak platform threads %d%n", name,
+                timings.get(ROUNDS / 2), timings.get(0), reads * 1000.0 / timings.get(ROUNDS / 2),
+                threads.getPeakThreadCount());
+    }
+
+    private static void readAll(DefaultRequestClient requestClient, int reads) {
+        List<CompletableFuture<Response<JsonElement>>> responses = new ArrayList<>(reads);
+        for (int i = 0; i < reads; i++) {
+            responses.add(requestClient.async().executeGetRequestAsync(new GenericUrl(URL),
+                    Collections.emptyMap()));
+        }
+        CompletableFuture.allOf(responses.toArray(new CompletableFuture<?>[0])).join();
+    }
+
+    private static HttpRequestFactory requestFactory(long latencyMillis) {
+        return new MockHttpTransport() {
+            @Override
+            public LowLevelHttpRequest buildRequest(String method, String url) {
+                return new MockLowLevelHttpRequest(url) {
+                    @Override
+                    public LowLevelHttpResponse execute() throws IOException {
+                        try {
+                            Thread.sleep(latencyMillis);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return new MockLowLevelHttpResponse().setContentType("application/json")
+                                .setContent("{\"name\":\"1\"}");
+                    }
+                };
+            }
+        }.createRequestFactory();
+    }
+
+}
@@ -0,0 +1,75 @@
+package com.piksel.sequoia.clientsdk.configuration;
+
+/*-
+ * #%L
+ * Sequoia Java Client SDK
+ * %%
+ * Copyright (C) 2018 Piksel
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class VirtualThreadsTest {
+
+    @Test
+    public void shouldRunTasksOnTheVirtualThreadExecutor() throws Exception {
+        String threadName = CompletableFuture
+                .supplyAsync(() -> Thread.currentThread().getName(), VirtualThreads.executor())
+                .get(5, TimeUnit.SECONDS);
+
+        assertThat(threadName.equals(Thread.currentThread().getName()), is(false));
+    }
+
+    @Test
+    public void shouldFallBackToTheDefaultAsyncExecutorWhenUnsupported() {
+        if (!VirtualThreads.isSupported()) {
+            assertThat(VirtualThreads.executor(),
+                    sameInstance(DefaultClientConfiguration.getDefaultAsyncExecutor()));
+        }
+    }
+
+    @Test
+    public void shouldCreateThreadsWithTheGivenNamePrefix() throws Exception {
+        Thread thread = VirtualThreads.threadFactory("sequoia-test-").newThread(() -> { });
+        thread.start();
+        thread.join();
+
+        assertThat(thread.getName(), is("sequoia-test-0"));
+    }
+
+    @Test
+    public void shouldUseTheConfiguredExecutorUnlessVirtualThreadsAreEnabled() {
+        Executor executor = command -> command.run();
+        ClientConfiguration.ClientConfigurationBuilder builder = ClientConfiguration.builder()
+                .identityHostConfiguration(new HostConfiguration("http://identity"))
+                .registryHostConfiguration(new HostConfiguration("http://registry"))
+                .registryServiceOwner("owner")
+                .asyncExecutor(executor);
+
+        assertThat(builder.build().getAsyncRequestExecutor(), sameInstance(executor));
+        assertThat(builder.virtualThreads(true).build().getAsyncRequestExecutor(),
+                sameInstance(VirtualThreads.executor()));
+    }
+
+}
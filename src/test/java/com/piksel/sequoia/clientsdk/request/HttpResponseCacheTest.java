@@ -0,0 +1,242 @@
+package com.piksel.sequoia.clientsdk.request;
+
+/*-
+ * #%L
+ * Sequoia Java Client SDK
+ * %%
+ * Copyright (C) 2018 Piksel
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.spy;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.api.client.http.GenericUrl;
+import com.google.api.client.http.HttpRequest;
+import com.google.api.client.http.HttpRequestFactory;
+import com.google.api.client.http.HttpStatusCodes;
+import com.google.api.client.http.LowLevelHttpRequest;
+import com.google.api.client.http.LowLevelHttpResponse;
+import com.google.api.client.testing.http.MockHttpTransport;
+import com.google.api.client.testing.http.MockLowLevelHttpRequest;
+import com.google.api.client.testing.http.MockLowLevelHttpResponse;
+import com.google.common.base.Strings;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.piksel.sequoia.clientsdk.Response;
+import com.piksel.sequoia.clientsdk.configuration.HttpCacheConfiguration;
+import com.piksel.sequoia.clientsdk.configuration.RequestContentConfiguration;
+
+public class HttpResponseCacheTest {
+
+    private static final String URL = "http://localhost/data/contents/test:1";
+
+    private final Deque<MockLowLevelHttpResponse> responses = new ArrayDeque<>();
+    private final List<MockLowLevelHttpRequest> requests = new ArrayList<>();
+    private final AtomicLong now = new AtomicLong(1000);
+
+    private HttpRequestFactory requestFactory;
+    private HttpResponseCache cache;
+    private DefaultRequestClient requestClient;
+
+    @Before
+    public void setUp() throws IOException {
+        requestFactory = new MockHttpTransport() {
+            @Override
+            public LowLevelHttpRequest buildRequest(String method, String url) {
+                MockLowLevelHttpRequest request = new MockLowLevelHttpRequest(url) {
+                    @Override
+                    public LowLevelHttpResponse execute() {
+                        return responses.remove();
+                    }
+                };
+                requests.add(request);
+                return request;
+            }
+        }.createRequestFactory();
+        cache = new HttpResponseCache(HttpCacheConfiguration.builder().enabled(true).build(), now::get);
+        requestClient = spy(new DefaultRequestClient(null, null, new Gson(), Runnable::run,
+                RequestContentConfiguration.builder().build(), cache, null));
+        doNothing().when(requestClient).initializeRequest(any(HttpRequest.class));
+    }
+
+    @Test
+    public void notModifiedResponse_servesCachedPayload() throws IOException {
+        responses.add(json("{\"name\":\"1\"}").addHeader("ETag", "\"v1\""));
+        responses.add(new MockLowLevelHttpResponse().setStatusCode(HttpStatusCodes.STATUS_CODE_NOT_MODIFIED));
+
+        Response<JsonElement> first = get(URL);
+        Response<JsonElement> second = get(URL);
+
+        assertThat(second, is(not(sameInstance(first))));
+        assertThat(second.getPayload().get().getAsJsonObject().get("name").getAsString(), is("1"));
+        assertThat(requests.get(0).getHeaderValues("If-None-Match").isEmpty(), is(true));
+        assertThat(requests.get(1).getHeaderValues("If-None-Match"), contains("\"v1\""));
+    }
+
+    @Test
+    public void lastModified_sentAsIfModifiedSince() throws IOException {
+        String lastModified = "Wed, 21 Oct 2015 07:28:00 GMT";
+        responses.add(json("{}").addHeader("Last-Modified", lastModified));
+        responses.add(json("{\"name\":\"2\"}").addHeader("Last-Modified", lastModified));
+
+        get(URL);
+        Response<JsonElement> second = get(URL);
+
+        assertThat(requests.get(1).getHeaderValues("If-Modified-Since"), contains(lastModified));
+        assertThat(second.getPayload().get().getAsJsonObject().get("name").getAsString(), is("2"));
+    }
+
+    @Test
+    public void freshResponse_servedWithoutRequest() throws IOException {
+        responses.add(json("{}").addHeader("Cache-Control", "private, max-age=60"));
+        responses.add(json("{}"));
+
+        Response<JsonElement> first = get(URL);
+        now.addAndGet(59_000);
+        Response<JsonElement> second = get(URL);
+        now.addAndGet(1_000);
+        get(URL);
+
+        assertThat(second.getPayload(), is(equalTo(first.getPayload())));
+        assertThat(requests.size(), is(2));
+        assertThat(cache.size(), is(0L));
+    }
+
+    @Test
+    public void cachedResponse_notSharedBetweenCallers() throws IOException {
+        responses.add(json("{\"children\":[1,2]}").addHeader("Cache-Control", "max-age=60"));
+
+        Response<JsonElement> first = get(URL);
+        first.getPayload().get().getAsJsonObject().remove("children");
+        Response<JsonElement> second = get(URL);
+
+        assertThat(second.getPayload().get().getAsJsonObject().get("children").getAsJsonArray().size(), is(2));
+        assertThat(requests.size(), is(1));
+    }
+
+    @Test
+    public void notModifiedResponse_refreshesFreshness() throws IOException {
+        responses.add(json("{}").addHeader("ETag", "\"v1\""));
+        responses.add(new MockLowLevelHttpResponse().setStatusCode(HttpStatusCodes.STATUS_CODE_NOT_MODIFIED)
+                .addHeader("Cache-Control", "max-age=10"));
+
+        get(URL);
+        get(URL);
+        get(URL);
+
+        assertThat(requests.size(), is(2));
+    }
+
+    @Test
+    public void noStoreOrNoCache_notServedFromCache() throws IOException {
+        responses.add(json("{}").addHeader("ETag", "\"v1\"").addHeader("Cache-Control", "no-store"));
+        responses.add(json("{}").addHeader("ETag", "\"v2\"").addHeader("Cache-Control", "no-cache, max-age=60"));
+        responses.add(json("{}"));
+
+        get(URL);
+        get(URL);
+        get(URL);
+
+        assertThat(requests.get(1).getHeaderValues("If-None-Match").isEmpty(), is(true));
+        assertThat(requests.get(2).getHeaderValues("If-None-Match"), contains("\"v2\""));
+    }
+
+    @Test
+    public void modifyingRequest_invalidatesCollection() throws IOException {
+        responses.add(json("{}").addHeader("Cache-Control", "max-age=60"));
+        responses.add(json("{}").addHeader("Cache-Control", "max-age=60"));
+        responses.add(json("{}"));
+
+        get(URL);
+        get("http://localhost/data/other/test:1");
+        requestClient.executeRequest(requestFactory.buildDeleteRequest(new GenericUrl(URL)));
+
+        assertThat(cache.get(HttpResponseCache.keyOf(requestFactory.buildGetRequest(new GenericUrl(URL)))),
+                is(nullValue()));
+        assertThat(cache.size(), is(1L));
+    }
+
+    @Test
+    public void updateThenBrowse_browseRequestedAgain() throws IOException {
+        String browse = "http://localhost/data/contents?owner=test";
+        responses.add(json("{\"contents\":[{\"title\":\"old\"}]}").addHeader("Cache-Control", "max-age=60"));
+        responses.add(json("{}"));
+        responses.add(json("{\"contents\":[{\"title\":\"new\"}]}").addHeader("Cache-Control", "max-age=60"));
+
+        get(browse);
+        requestClient.executeRequest(requestFactory.buildPutRequest(new GenericUrl(URL), null));
+        Response<JsonElement> browsed = get(browse);
+
+        assertThat(requests.size(), is(3));
+        assertThat(browsed.getPayload().get().getAsJsonObject().get("contents").getAsJsonArray().get(0)
+                .getAsJsonObject().get("title").getAsString(), is("new"));
+    }
+
+    @Test
+    public void requestHeaders_partOfKey() throws IOException {
+        HttpRequest request = requestFactory.buildGetRequest(new GenericUrl(URL));
+        HttpRequest ownerRequest = requestFactory.buildGetRequest(new GenericUrl(URL));
+        ownerRequest.getHeaders().set("owner", "other");
+
+        assertThat(HttpResponseCache.keyOf(request), is(equalTo(HttpResponseCache.keyOf(
+                requestFactory.buildGetRequest(new GenericUrl(URL))))));
+        assertThat(HttpResponseCache.keyOf(request).equals(HttpResponseCache.keyOf(ownerRequest)), is(false));
+    }
+
+    @Test
+    public void leastRecentlyUsedResponses_evictedAboveBound() throws IOException {
+        cache = new HttpResponseCache(HttpCacheConfiguration.builder().enabled(true)
+                .maximumSizeBytes(2000).build(), now::get);
+        requestClient = spy(new DefaultRequestClient(null, null, new Gson(), Runnable::run,
+                RequestContentConfiguration.builder().build(), cache, null));
+        doNothing().when(requestClient).initializeRequest(any(HttpRequest.class));
+        for (int i = 0; i < 20; i++) {
+            responses.add(json("{\"name\":\"" + Strings.repeat("a", 200) + "\"}").addHeader("ETag", "\"v\""));
+            get(URL + i);
+        }
+
+        assertThat(cache.size() < 20, is(true));
+        assertThat(cache.get(HttpResponseCache.keyOf(requestFactory.buildGetRequest(new GenericUrl(URL + 19))))
+                .getETag(), is("\"v\""));
+    }
+
+    private Response<JsonElement> get(String url) throws IOException {
+        return requestClient.executeRequest(requestFactory.buildGetRequest(new GenericUrl(url)));
+    }
+
+    private static MockLowLevelHttpResponse json(String body) {
+        return new MockLowLevelHttpResponse().setContentType("application/json").setContent(body);
+    }
+
+}
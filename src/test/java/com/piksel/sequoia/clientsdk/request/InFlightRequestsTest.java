@@ -0,0 +1,206 @@
+package com.piksel.sequoia.clientsdk.request;
+
+/*-
+ * #%L
+ * Sequoia Java Client SDK
+ * %%
+ * Copyright (C) 2018 Piksel
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.spy;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.api.client.http.GenericUrl;
+import com.google.api.client.http.HttpRequest;
+import com.google.api.client.http.HttpRequestFactory;
+import com.google.api.client.http.LowLevelHttpRequest;
+import com.google.api.client.http.LowLevelHttpResponse;
+import com.google.api.client.testing.http.MockHttpTransport;
+import com.google.api.client.testing.http.MockLowLevelHttpRequest;
+import com.google.api.client.testing.http.MockLowLevelHttpResponse;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.piksel.sequoia.clientsdk.RequestExecutionException;
+import com.piksel.sequoia.clientsdk.Response;
+import com.piksel.sequoia.clientsdk.configuration.RequestContentConfiguration;
+
+public class InFlightRequestsTest {
+
+    private static final String URL = "http://localhost/data/contents/test:1";
+
+    private final AtomicInteger exchanges = new AtomicInteger();
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private ExecutorService executor;
+    private InFlightRequests inFlightRequests;
+    private HttpRequestFactory requestFactory;
+    private DefaultRequestClient requestClient;
+
+    @Before
+    public void setUp() throws IOException {
+        executor = Executors.newFixedThreadPool(5);
+        inFlightRequests = new InFlightRequests();
+        requestFactory = new MockHttpTransport() {
+            @Override
+            public LowLevelHttpRequest buildRequest(String method, String url) {
+                return new MockLowLevelHttpRequest(url) {
+                    @Override
+                    public LowLevelHttpResponse execute() throws IOException {
+                        exchanges.incrementAndGet();
+                        started.countDown();
+                        awaitRelease();
+                        return new MockLowLevelHttpResponse().setContentType("application/json")
+                                .setContent("{\"name\":\"1\"}");
+                    }
+                };
+            }
+        }.createRequestFactory();
+        requestClient = spy(new DefaultRequestClient(null, null, new Gson(), Runnable::run,
+                RequestContentConfiguration.builder().build(), null, inFlightRequests));
+        doNothing().when(requestClient).initializeRequest(any(HttpRequest.class));
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void concurrentIdenticalGets_shareOneExchange() throws Exception {
+        List<Future<Response<JsonElement>>> responses = new ArrayList<>();
+        responses.add(executor.submit(() -> get(URL)));
+        started.await(5, TimeUnit.SECONDS);
+        for (int i = 0; i < 4; i++) {
+            responses.add(executor.submit(() -> get(URL)));
+        }
+        awaitWaitingThreads(4);
+        release.countDown();
+
+        Response<JsonElement> first = responses.get(0).get(5, TimeUnit.SECONDS);
+        for (Future<Response<JsonElement>> response : responses.subList(1, responses.size())) {
+            assertThat(response.get(5, TimeUnit.SECONDS), is(not(sameInstance(first))));
+            assertThat(response.get().getPayload(), is(equalTo(first.getPayload())));
+            assertThat(response.get().getPayload().get(), is(not(sameInstance(first.getPayload().get()))));
+        }
+        assertThat(exchanges.get(), is(1));
+        assertThat(inFlightRequests.size(), is(0));
+    }
+
+    @Test
+    public void sequentialGets_notCoalesced() throws Exception {
+        release.countDown();
+
+        get(URL);
+        get(URL);
+        get(URL + "?page=2");
+
+        assertThat(exchanges.get(), is(3));
+    }
+
+    @Test
+    public void failure_sharedWithWaitingCallers() throws Exception {
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        RequestExecutionException failure = new RequestExecutionException(new IOException("failed"));
+        Supplier<Response<JsonElement>> failingRequest = () -> {
+            leaderStarted.countDown();
+            awaitRelease();
+            throw failure;
+        };
+        Future<?> leader = executor.submit(() -> inFlightRequests.execute("key", failingRequest));
+        leaderStarted.await(5, TimeUnit.SECONDS);
+        Future<?> follower = executor.submit(() -> inFlightRequests.execute("key", () -> null));
+        awaitWaitingThreads(1);
+        release.countDown();
+
+        assertThat(causeOf(leader), is(sameInstance(failure)));
+        assertThat(causeOf(follower), is(sameInstance(failure)));
+        assertThat(inFlightRequests.size(), is(0));
+    }
+
+    private Response<JsonElement> get(String url) throws IOException {
+        return requestClient.executeRequest(requestFactory.buildGetRequest(new GenericUrl(url)));
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Waits until the given number of pool threads are parked awaiting an
+     * in-flight request, besides the one blocked in the exchange.
+     */
+    private void awaitWaitingThreads(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            long waiting = Thread.getAllStackTraces().entrySet().stream()
+                    .filter(thread -> thread.getKey().getState() == Thread.State.WAITING)
+                    .filter(thread -> isAwaitingInFlightRequest(thread.getValue()))
+                    .count();
+            if (waiting >= count) {
+                return;
+            }
+            Thread.sleep(5);
+        }
+        fail("Callers did not wait for the in-flight request");
+    }
+
+    private static boolean isAwaitingInFlightRequest(StackTraceElement[] stackTrace) {
+        for (StackTraceElement element : stackTrace) {
+            if (element.getClassName().equals(InFlightRequests.class.getName())
+                    && element.getMethodName().equals("await")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Throwable causeOf(Future<?> future) throws InterruptedException {
+        try {
+            future.get(5, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            return e.getCause();
+        }
+        throw new AssertionError("The request was expected to fail");
+    }
+
+}
@@ -25,15 +25,18 @@ import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.doNothing;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.spy;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.net.SocketTimeoutException;
+import java.util.Collections;
+import java.util.zip.GZIPOutputStream;
 
 import org.junit.Before;
 import org.junit.Test;
-import org.mockito.Mock;
-import org.mockito.MockitoAnnotations;
 
 import com.google.api.client.http.HttpHeaders;
 import com.google.api.client.http.HttpRequest;
@@ -45,18 +48,96 @@ import com.google.api.client.http.LowLevelHttpResponse;
 import com.google.api.client.testing.http.HttpTesting;
 import com.google.api.client.testing.http.MockHttpTransport;
 import com.google.api.client.testing.http.MockLowLevelHttpRequest;
+import com.google.api.client.testing.http.MockLowLevelHttpResponse;
+import com.google.common.base.Strings;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
 import com.piksel.sequoia.clientsdk.RequestExecutionException;
+import com.piksel.sequoia.clientsdk.Response;
+import com.piksel.sequoia.clientsdk.configuration.RequestContentConfiguration;
+import com.piksel.sequoia.clientsdk.resource.json.JsonHttpContent;
 
 public class RequestClientTest {
-    @Mock
+
     DefaultRequestClient requestClient;
 
+    RequestContentConfiguration contentConfiguration;
+
     @Before
     public void initMocks() throws IOException {
-        MockitoAnnotations.initMocks(this);
+        contentConfiguration = RequestContentConfiguration.builder().gzipThresholdBytes(1024).build();
+        requestClient = spy(new DefaultRequestClient(null, null, new Gson(), Runnable::run,
+                contentConfiguration));
 
         doNothing().when(requestClient).initializeRequest(any(HttpRequest.class));
-        when(requestClient.executeRequest(any(HttpRequest.class))).thenCallRealMethod();
+    }
+
+    @Test
+    public void executeRequest_jsonBodyWithoutCharset_streamedAsUtf8() throws IOException {
+        HttpRequest request = transportRespondingWith("{\"title\":\"Avrupa Haber T\u00fcrk\u00e7e\"}")
+                .createRequestFactory().buildGetRequest(HttpTesting.SIMPLE_GENERIC_URL);
+
+        Response<JsonElement> response = requestClient.executeRequest(request);
+
+        assertThat(response.getPayload().get().getAsJsonObject().get("title").getAsString(),
+                is(equalTo("Avrupa Haber T\u00fcrk\u00e7e")));
+        assertThat(response.isSuccessStatusCode(), is(true));
+    }
+
+    @Test
+    public void executeRequest_emptyBody_jsonNullPayload() throws IOException {
+        HttpRequest request = transportRespondingWith("")
+                .createRequestFactory().buildDeleteRequest(HttpTesting.SIMPLE_GENERIC_URL);
+
+        Response<JsonElement> response = requestClient.executeRequest(request);
+
+        assertThat(response.getPayload().get().isJsonNull(), is(true));
+    }
+
+    @Test
+    public void executeRequest_gzippedResponse_decompressedAndCounted() throws IOException {
+        String body = "{\"title\":\"" + Strings.repeat("a", 1000) + "\"}";
+        byte[] gzipped = gzip(body);
+        HttpRequest request = transportResponding(new MockLowLevelHttpResponse()
+                .setContentType("application/json")
+                .setContentEncoding("gzip")
+                .addHeader("Content-Length", String.valueOf(gzipped.length))
+                .setContent(gzipped))
+                .createRequestFactory().buildGetRequest(HttpTesting.SIMPLE_GENERIC_URL);
+
+        Response<JsonElement> response = requestClient.executeRequest(request);
+
+        assertThat(response.getPayload().get().getAsJsonObject().get("title").getAsString().length(), is(1000));
+        assertThat(request.getHeaders().getAcceptEncoding(), is("gzip"));
+        assertThat(contentConfiguration.getStatistics().getResponseBytes(), is((long) body.length()));
+        assertThat(contentConfiguration.getStatistics().getResponseBytesReceived(), is((long) gzipped.length));
+    }
+
+    @Test
+    public void executeRequest_gzipResponsesDisabled_noAcceptEncoding() throws IOException {
+        requestClient = spy(new DefaultRequestClient(null, null, new Gson(), Runnable::run,
+                RequestContentConfiguration.builder().gzipResponses(false).build()));
+        doNothing().when(requestClient).initializeRequest(any(HttpRequest.class));
+        HttpRequest request = transportRespondingWith("{}")
+                .createRequestFactory().buildGetRequest(HttpTesting.SIMPLE_GENERIC_URL);
+
+        requestClient.executeRequest(request);
+
+        assertThat(request.getHeaders().getAcceptEncoding(), is((String) null));
+    }
+
+    @Test
+    public void executeRequest_bodyAboveGzipThreshold_sentGzipped() throws IOException {
+        JsonHttpContent content = new JsonHttpContent(new Gson(),
+                Collections.singletonMap("title", Strings.repeat("a", 2000)), contentConfiguration);
+        HttpRequest request = transportResponding(new MockLowLevelHttpResponse().setContent("{}"))
+                .createRequestFactory().buildPostRequest(HttpTesting.SIMPLE_GENERIC_URL, content);
+
+        requestClient.executeRequest(request);
+
+        assertThat(request.getHeaders().getContentEncoding(), is("gzip"));
+        assertThat(contentConfiguration.getStatistics().getRequestBytes(), is(2012L));
+        assertThat(contentConfiguration.getStatistics().getRequestBytesSent() < 100, is(true));
     }
 
     @Test
@@ -106,4 +187,45 @@ public class RequestClientTest {
             assertThat(reEx.getStatusCode(), is(equalTo(HttpStatusCodes.STATUS_CODE_SERVER_ERROR)));
         }
     }
+
+    private byte[] gzip(String body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body.getBytes(UTF_8));
+        }
+        return out.toByteArray();
+    }
+
+    private HttpTransport transportResponding(MockLowLevelHttpResponse response) {
+        return new MockHttpTransport() {
+            @Override
+            public LowLevelHttpRequest buildRequest(String method, String url) {
+                return new MockLowLevelHttpRequest() {
+                    @Override
+                    public LowLevelHttpResponse execute() throws IOException {
+                        if (getStreamingContent() != null) {
+                            getStreamingContent().writeTo(new ByteArrayOutputStream());
+                        }
+                        return response;
+                    }
+                };
+            }
+        };
+    }
+
+    private HttpTransport transportRespondingWith(String body) {
+        return new MockHttpTransport() {
+            @Override
+            public LowLevelHttpRequest buildRequest(String method, String url) {
+                return new MockLowLevelHttpRequest() {
+                    @Override
+                    public LowLevelHttpResponse execute() {
+                        return new MockLowLevelHttpResponse()
+                                .setContentType("application/json")
+                                .setContent(body.getBytes(UTF_8));
+                    }
+                };
+            }
+        };
+    }
 }
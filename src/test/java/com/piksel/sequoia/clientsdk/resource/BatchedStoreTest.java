@@ -0,0 +1,240 @@
+package com.piksel.sequoia.clientsdk.resource;
+
+/*-
+ * #%L
+ * Sequoia Java Client SDK
+ * %%
+ * Copyright (C) 2018 Piksel
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.stubbing.Answer;
+
+import com.google.api.client.http.GenericUrl;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.piksel.sequoia.clientsdk.DefaultJsonElementResponse;
+import com.piksel.sequoia.clientsdk.RequestExecutionException;
+import com.piksel.sequoia.clientsdk.Response;
+import com.piksel.sequoia.clientsdk.configuration.DefaultClientConfiguration;
+import com.piksel.sequoia.clientsdk.request.RequestClient;
+import com.piksel.sequoia.clientsdk.resource.json.EncodedJson;
+
+public class BatchedStoreTest {
+
+    private RequestClient requestClient;
+    private ResourceEndpointHandler<Resource> endpoint;
+    private List<Integer> batchSizes;
+
+    @Before
+    public void setUp() {
+        requestClient = mock(RequestClient.class);
+        endpoint = new ResourceEndpointHandler<>(requestClient, "contents", "http://localhost/data/contents",
+                Resource.class, DefaultClientConfiguration.getDefaultGson());
+        batchSizes = Collections.synchronizedList(new ArrayList<>());
+    }
+
+    @Test
+    public void storeInBatches_splitsByCount() {
+        respondWith(invocation -> response(200));
+
+        BatchedStoreResult result = endpoint.storeInBatches(resources(10),
+                configuration().maxBatchSize(4).build());
+
+        assertThat(result.isSuccessful(), is(true));
+        assertThat(result.getStoredCount(), is(10));
+        assertThat(result.getBatches().stream().map(StoreBatchResult::getOffset).collect(Collectors.toList()),
+                contains(0, 4, 8));
+        assertThat(result.getBatches().stream().map(StoreBatchResult::getSize).collect(Collectors.toList()),
+                contains(4, 4, 2));
+    }
+
+    @Test
+    public void storeInBatches_splitsBySerializedSize() {
+        List<Integer> bodySizes = Collections.synchronizedList(new ArrayList<>());
+        respondWith(invocation -> {
+            bodySizes.add(((EncodedJson) invocation.getArguments()[2]).getBytes().length);
+            return response(200);
+        });
+        int resourceBytes = DefaultClientConfiguration.getDefaultGson().toJson(resource(0)).length();
+        int maxBatchBytes = EncodedJson.collectionEnvelopeSize("contents") + resourceBytes * 2 + 1;
+
+        BatchedStoreResult result = endpoint.storeInBatches(resources(6),
+                configuration().maxBatchBytes(maxBatchBytes).build());
+
+        assertThat(result.getBatches().size(), is(3));
+        assertThat(batchSizes, contains(2, 2, 2));
+        assertThat(bodySizes, everyItem(is(maxBatchBytes)));
+    }
+
+    @Test
+    public void storeInBatches_sendsEachBatchAsACollection() {
+        List<String> names = Collections.synchronizedList(new ArrayList<>());
+        respondWith(invocation -> {
+            storedIn((EncodedJson) invocation.getArguments()[2])
+                    .forEach(resource -> names.add(resource.getAsJsonObject().get("name").getAsString()));
+            return response(200);
+        });
+
+        endpoint.storeInBatches(resources(3), configuration().maxBatchSize(2).parallelism(1).build());
+
+        assertThat(names, contains("resourcea", "resourceb", "resourcec"));
+    }
+
+    @Test
+    public void storeInBatches_manyResources_storesAllInOrderOfOffset() {
+        respondWith(invocation -> response(200));
+
+        BatchedStoreResult result = endpoint.storeInBatches(resources(26),
+                configuration().maxBatchSize(3).parallelism(4).build());
+
+        assertThat(result.getStoredCount(), is(26));
+        assertThat(result.getBatches().stream().map(StoreBatchResult::getOffset).collect(Collectors.toList()),
+                contains(0, 3, 6, 9, 12, 15, 18, 21, 24));
+    }
+
+    @Test
+    public void storeInBatches_retriesFailedBatchOnItsOwn() {
+        AtomicInteger calls = new AtomicInteger();
+        respondWith(invocation -> calls.incrementAndGet() == 1 ? response(503) : response(200));
+
+        BatchedStoreResult result = endpoint.storeInBatches(resources(1), configuration().build());
+
+        assertThat(result.isSuccessful(), is(true));
+        assertThat(result.getBatches().get(0).getAttempts(), is(2));
+    }
+
+    @Test
+    public void storeInBatches_clientErrorNotRetried() {
+        respondWith(invocation -> response(400));
+
+        BatchedStoreResult result = endpoint.storeInBatches(resources(3),
+                configuration().maxBatchSize(2).build());
+
+        assertThat(result.isSuccessful(), is(false));
+        assertThat(result.getStoredCount(), is(0));
+        assertThat(result.getFailedBatches().size(), is(2));
+        assertThat(result.getBatches().get(0).getAttempts(), is(1));
+        assertThat(result.getBatches().get(0).getStatusCode(), is(400));
+    }
+
+    @Test
+    public void storeInBatches_failureReportedAfterMaxAttempts() {
+        RequestExecutionException failure = new RequestExecutionException(new IOException("failed"));
+        respondWith(invocation -> {
+            throw failure;
+        });
+
+        BatchedStoreResult result = endpoint.storeInBatches(resources(1), configuration().maxAttempts(3).build());
+
+        StoreBatchResult batch = result.getFailedBatches().get(0);
+        assertThat(batch.getAttempts(), is(3));
+        assertThat(batch.getFailure().get(), is(sameInstance(failure)));
+    }
+
+    @Test
+    public void storeInBatches_boundsConcurrentBatches() {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        respondWith(invocation -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            inFlight.decrementAndGet();
+            return response(200);
+        });
+
+        BatchedStoreResult result = endpoint.storeInBatches(resources(20),
+                configuration().maxBatchSize(2).parallelism(3).build());
+
+        assertThat(result.getStoredCount(), is(20));
+        assertThat(maxInFlight.get(), is(lessThanOrEqualTo(3)));
+    }
+
+    @Test(expected = ResourceValidationException.class)
+    public void storeInBatches_invalidResource_nothingStored() {
+        List<Resource> resources = resources(2);
+        resources.add(new Resource());
+        try {
+            endpoint.storeInBatches(resources, configuration().build());
+        } finally {
+            verify(requestClient, never()).executePostRequest(any(GenericUrl.class), anyMap(),
+                    any(EncodedJson.class));
+        }
+    }
+
+    private BatchedStoreConfiguration.BatchedStoreConfigurationBuilder configuration() {
+        return BatchedStoreConfiguration.builder().retryDelay(Duration.ofMillis(1));
+    }
+
+    private void respondWith(Answer<Response<JsonElement>> answer) {
+        when(requestClient.executePostRequest(any(GenericUrl.class), anyMap(), any(EncodedJson.class)))
+                .thenAnswer(invocation -> {
+                    batchSizes.add(storedIn((EncodedJson) invocation.getArguments()[2]).size());
+                    return answer.answer(invocation);
+                });
+    }
+
+    private static JsonArray storedIn(EncodedJson body) {
+        return new JsonParser().parse(new String(body.getBytes(), StandardCharsets.UTF_8)).getAsJsonObject()
+                .getAsJsonArray("contents");
+    }
+
+    private static Response<JsonElement> response(int status) {
+        return DefaultJsonElementResponse.builder().payload(Optional.empty()).statusCode(status)
+                .successStatusCode(status < 300).build();
+    }
+
+    private static List<Resource> resources(int count) {
+        List<Resource> resources = new ArrayList<>();
+        for (int index = 0; index < count; index++) {
+            resources.add(resource(index));
+        }
+        return resources;
+    }
+
+    private static Resource resource(int index) {
+        Resource resource = new Resource();
+        resource.setOwner("test");
+        resource.setName("resource" + (char) ('a' + index));
+        return resource;
+    }
+
+}
@@ -0,0 +1,258 @@
+package com.piksel.sequoia.clientsdk.resource;
+
+/*-
+ * #%L
+ * Sequoia Java Client SDK
+ * %%
+ * Copyright (C) 2018 Piksel
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Matchers.anyMap;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.piksel.sequoia.clientsdk.DefaultResourceResponse;
+import com.piksel.sequoia.clientsdk.RequestExecutionException;
+import com.piksel.sequoia.clientsdk.ResourceResponse;
+
+public class BatchingResourceReaderTest {
+
+    private static final Reference ONE = Reference.fromOwnerAndName("test", "one");
+    private static final Reference TWO = Reference.fromOwnerAndName("test", "two");
+    private static final Reference THREE = Reference.fromOwnerAndName("test", "three");
+
+    private ResourcefulEndpoint<Resource> endpoint;
+    private BatchingResourceReader<Resource> reader;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        endpoint = mock(ResourcefulEndpoint.class);
+    }
+
+    @After
+    public void tearDown() {
+        if (reader != null) {
+            reader.close();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void readsWithinTheDelay_sentAsOneMultiReferenceRead() throws Exception {
+        reader = BatchingResourceReader.<Resource>builder().endpoint(endpoint).maxDelay(Duration.ofMillis(50)).build();
+        when(endpoint.readAsync(anyCollectionOf(Reference.class), anyMap()))
+                .thenReturn(CompletableFuture.completedFuture(response(200, TWO, ONE)));
+
+        CompletableFuture<ResourceResponse<Resource>> one = reader.readAsync(ONE);
+        CompletableFuture<ResourceResponse<Resource>> two = reader.readAsync(TWO);
+        CompletableFuture<ResourceResponse<Resource>> otherOne = reader.readAsync(ONE);
+        CompletableFuture<ResourceResponse<Resource>> three = reader.readAsync(THREE);
+
+        assertThat(one.get(1, TimeUnit.SECONDS).getPayload().get().single().getRef(), is(ONE));
+        assertThat(otherOne.get(1, TimeUnit.SECONDS).getPayload().get().single().getRef(), is(ONE));
+        assertThat(two.get(1, TimeUnit.SECONDS).getPayload().get().single().getRef(), is(TWO));
+        assertThat(three.get(1, TimeUnit.SECONDS).getStatusCode(), is(404));
+        assertThat(three.get().getPayload().isPresent(), is(false));
+        ArgumentCaptor<Collection> references = ArgumentCaptor.forClass(Collection.class);
+        verify(endpoint).readAsync(references.capture(), eq(Collections.emptyMap()));
+        assertThat((Collection<Reference>) references.getValue(), contains(ONE, TWO, THREE));
+    }
+
+    @Test
+    public void concurrentReadsOfTheSameReference_eachReceiveTheirOwnResource() throws Exception {
+        reader = BatchingResourceReader.<Resource>builder().endpoint(endpoint).maxDelay(Duration.ofMinutes(1)).build();
+        when(endpoint.readAsync(anyCollectionOf(Reference.class), anyMap()))
+                .thenReturn(CompletableFuture.completedFuture(response(200, ONE)));
+        CompletableFuture<CompletableFuture<ResourceResponse<Resource>>> firstRead = CompletableFuture
+                .supplyAsync(() -> reader.readAsync(ONE));
+        CompletableFuture<CompletableFuture<ResourceResponse<Resource>>> secondRead = CompletableFuture
+                .supplyAsync(() -> reader.readAsync(ONE));
+        CompletableFuture<ResourceResponse<Resource>> first = firstRead.get(1, TimeUnit.SECONDS);
+        CompletableFuture<ResourceResponse<Resource>> second = secondRead.get(1, TimeUnit.SECONDS);
+
+        reader.close();
+
+        Resource one = first.get(1, TimeUnit.SECONDS).getPayload().get().single();
+        Resource otherOne = second.get(1, TimeUnit.SECONDS).getPayload().get().single();
+        assertThat(otherOne, is(not(sameInstance(one))));
+        assertThat(otherOne.getRef(), is(ONE));
+        assertThat(one.getRef(), is(ONE));
+    }
+
+    @Test
+    public void unsuccessfulReadOfTheSameReference_eachReceiveTheirOwnResponse() throws Exception {
+        reader = BatchingResourceReader.<Resource>builder().endpoint(endpoint).maxDelay(Duration.ofMinutes(1)).build();
+        when(endpoint.readAsync(anyCollectionOf(Reference.class), anyMap()))
+                .thenReturn(CompletableFuture.completedFuture(notFound()));
+        CompletableFuture<ResourceResponse<Resource>> first = reader.readAsync(ONE);
+        CompletableFuture<ResourceResponse<Resource>> second = reader.readAsync(ONE);
+
+        reader.close();
+
+        assertThat(second.get(1, TimeUnit.SECONDS), is(not(sameInstance(first.get(1, TimeUnit.SECONDS)))));
+        assertThat(second.get().getStatusCode(), is(404));
+        assertThat(first.get().getStatusCode(), is(404));
+    }
+
+    @Test
+    public void fullBatch_sentWithoutWaitingForTheDelay() {
+        reader = BatchingResourceReader.<Resource>builder().endpoint(endpoint).maxBatchSize(2)
+                .maxDelay(Duration.ofMinutes(1)).build();
+        when(endpoint.readAsync(anyCollectionOf(Reference.class), anyMap()))
+                .thenReturn(CompletableFuture.completedFuture(response(200, ONE, TWO)));
+
+        reader.readAsync(ONE);
+        ResourceResponse<Resource> response = reader.read(TWO);
+
+        assertThat(response.getPayload().get().single().getRef(), is(TWO));
+    }
+
+    @Test
+    public void differentHeaders_batchedSeparately() throws Exception {
+        reader = BatchingResourceReader.<Resource>builder().endpoint(endpoint).maxBatchSize(1).build();
+        when(endpoint.readAsync(anyCollectionOf(Reference.class), anyMap()))
+                .thenReturn(CompletableFuture.completedFuture(response(200, ONE)));
+
+        reader.read(ONE);
+        reader.read(ONE, Collections.singletonMap("x-test", "a"));
+
+        verify(endpoint).readAsync(Arrays.asList(ONE), Collections.emptyMap());
+        verify(endpoint).readAsync(Arrays.asList(ONE), Collections.singletonMap("x-test", "a"));
+    }
+
+    @Test
+    public void failedRead_failsEveryCaller() throws Exception {
+        reader = BatchingResourceReader.<Resource>builder().endpoint(endpoint).maxBatchSize(2)
+                .maxDelay(Duration.ofMinutes(1)).build();
+        RequestExecutionException failure = new RequestExecutionException(new java.io.IOException("failed"));
+        CompletableFuture<ResourceResponse<Resource>> failed = new CompletableFuture<>();
+        failed.completeExceptionally(failure);
+        when(endpoint.readAsync(anyCollectionOf(Reference.class), anyMap())).thenReturn(failed);
+
+        CompletableFuture<ResourceResponse<Resource>> one = reader.readAsync(ONE);
+        try {
+            reader.read(TWO);
+            fail("The read was expected to fail");
+        } catch (RequestExecutionException e) {
+            assertThat(e, is(sameInstance(failure)));
+        }
+        assertThat(one.isCompletedExceptionally(), is(true));
+    }
+
+    @Test
+    public void unsuccessfulMultiReferenceRead_readsEachReferenceAlone() {
+        reader = BatchingResourceReader.<Resource>builder().endpoint(endpoint).maxBatchSize(2)
+                .maxDelay(Duration.ofMinutes(1)).build();
+        when(endpoint.readAsync(anyCollectionOf(Reference.class), anyMap()))
+                .thenReturn(CompletableFuture.completedFuture(notFound()));
+        when(endpoint.readAsync(eq(ONE), anyMap()))
+                .thenReturn(CompletableFuture.completedFuture(response(200, ONE)));
+        when(endpoint.readAsync(eq(TWO), anyMap()))
+                .thenReturn(CompletableFuture.completedFuture(notFound()));
+
+        CompletableFuture<ResourceResponse<Resource>> one = reader.readAsync(ONE);
+        ResourceResponse<Resource> two = reader.read(TWO);
+
+        assertThat(one.join().getPayload().get().single().getRef(), is(ONE));
+        assertThat(two.getStatusCode(), is(404));
+    }
+
+    @Test
+    public void invalidReference_failsWithoutBatching() {
+        reader = BatchingResourceReader.<Resource>builder().endpoint(endpoint).build();
+
+        CompletableFuture<ResourceResponse<Resource>> response = reader
+                .readAsync(Reference.fromReference("owner: name with spaces"));
+
+        assertThat(response.isCompletedExceptionally(), is(true));
+        try {
+            response.join();
+        } catch (Exception e) {
+            assertThat(e.getCause(), instanceOf(ReferenceValidationException.class));
+        }
+        verify(endpoint, never()).readAsync(anyCollectionOf(Reference.class), anyMap());
+    }
+
+    @Test
+    public void close_sendsPendingBatches() {
+        reader = BatchingResourceReader.<Resource>builder().endpoint(endpoint).maxDelay(Duration.ofMinutes(1)).build();
+        when(endpoint.readAsync(anyCollectionOf(Reference.class), anyMap()))
+                .thenReturn(CompletableFuture.completedFuture(response(200, ONE)));
+        CompletableFuture<ResourceResponse<Resource>> one = reader.readAsync(ONE);
+
+        reader.close();
+
+        assertThat(one.join().getPayload().get().single().getRef(), is(ONE));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void readAfterClose_rejected() {
+        reader = BatchingResourceReader.<Resource>builder().endpoint(endpoint).build();
+        reader.close();
+
+        reader.readAsync(ONE);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void maxBatchSizeBelowOne_rejected() {
+        BatchingResourceReader.<Resource>builder().endpoint(endpoint).maxBatchSize(0).build();
+    }
+
+    private static ResourceResponse<Resource> response(int status, Reference... references) {
+        List<Resource> resources = new ArrayList<>();
+        for (Reference reference : references) {
+            Resource resource = new Resource();
+            resource.setOwner(reference.getOwner());
+            resource.setName(reference.getName());
+            resources.add(resource);
+        }
+        return DefaultResourceResponse.<Resource>builder().statusCode(status).successStatusCode(true)
+                .payload(Optional.of(new ResolvedResourceIterable<>(resources))).build();
+    }
+
+    private static ResourceResponse<Resource> notFound() {
+        return DefaultResourceResponse.<Resource>builder().statusCode(404).successStatusCode(false)
+                .payload(Optional.empty()).build();
+    }
+
+}
@@ -0,0 +1,280 @@
+package com.piksel.sequoia.clientsdk.resource;
+
+/*-
+ * #%L
+ * Sequoia Java Client SDK
+ * %%
+ * Copyright (C) 2018 Piksel
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+
+import com.piksel.sequoia.clientsdk.ClientException;
+import com.piksel.sequoia.clientsdk.DefaultResourceResponse;
+import com.piksel.sequoia.clientsdk.ResourceResponse;
+
+public class BulkWriterTest {
+
+    private static final Reference ONE = Reference.fromOwnerAndName("test", "one");
+    private static final Reference TWO = Reference.fromOwnerAndName("test", "two");
+
+    private ResourcefulEndpoint<Resource> endpoint;
+    private List<List<String>> storedBatches;
+    private ExecutorService executor;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        endpoint = mock(ResourcefulEndpoint.class);
+        storedBatches = Collections.synchronizedList(new ArrayList<>());
+        executor = Executors.newCachedThreadPool();
+        when(endpoint.store(anyCollectionOf(Resource.class))).thenAnswer(invocation -> {
+            storedBatches.add(((Collection<Resource>) invocation.getArguments()[0]).stream()
+                    .map(Resource::getName).collect(Collectors.toList()));
+            return response(200);
+        });
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void stores_sentInBatchesOfMaxBatchSize() throws Exception {
+        BulkWriter<Resource> writer = writer(BulkWriterConfiguration.builder().maxBatchSize(2)
+                .maxDelay(Duration.ofSeconds(10)).maxConcurrentRequests(1));
+        List<CompletableFuture<Void>> written = new ArrayList<>();
+        for (String name : Arrays.asList("a", "b", "c", "d", "e")) {
+            written.add(writer.store(resource(name)));
+        }
+
+        writer.close();
+
+        assertThat(storedBatches, contains(Arrays.asList("a", "b"), Arrays.asList("c", "d"),
+                Collections.singletonList("e")));
+        assertThat(written.stream().allMatch(future -> future.isDone() && !future.isCompletedExceptionally()),
+                is(true));
+        assertThat(writer.getStats().getWrittenOperations(), is(5L));
+        assertThat(writer.getStats().getRequests(), is(3L));
+    }
+
+    @Test
+    public void store_sentAfterMaxDelay() throws Exception {
+        BulkWriter<Resource> writer = writer(BulkWriterConfiguration.builder().maxDelay(Duration.ofMillis(10)));
+
+        writer.store(resource("a")).get(5, TimeUnit.SECONDS);
+
+        assertThat(storedBatches, contains(Collections.singletonList("a")));
+        writer.close();
+    }
+
+    @Test
+    public void operationsOfDifferentKinds_sentSeparately() throws Exception {
+        when(endpoint.delete(anyCollectionOf(Reference.class))).thenReturn(response(200));
+        when(endpoint.update(any(Resource.class), eq(TWO)))
+                .thenReturn(response(200));
+        BulkWriter<Resource> writer = writer(BulkWriterConfiguration.builder().maxDelay(Duration.ofSeconds(10))
+                .maxConcurrentRequests(1));
+
+        writer.store(resource("a"));
+        writer.delete(ONE);
+        writer.update(resource("two"), TWO);
+        writer.close();
+
+        assertThat(storedBatches, contains(Collections.singletonList("a")));
+        verify(endpoint).delete(Collections.singletonList(ONE));
+        assertThat(writer.getStats().getRequests(), is(3L));
+    }
+
+    @Test
+    public void operationOfAnotherKind_waitsForTheRequestsInFlight() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(endpoint.store(anyCollectionOf(Resource.class))).thenAnswer(invocation -> {
+            release.await();
+            return response(200);
+        });
+        when(endpoint.delete(anyCollectionOf(Reference.class))).thenReturn(response(200));
+        BulkWriter<Resource> writer = writer(BulkWriterConfiguration.builder().maxBatchSize(1)
+                .maxConcurrentRequests(4));
+
+        writer.store(resource("one"));
+        CompletableFuture<Void> deleted = writer.delete(ONE);
+        Thread.sleep(100);
+
+        verify(endpoint, never()).delete(anyCollectionOf(Reference.class));
+        release.countDown();
+        deleted.get(5, TimeUnit.SECONDS);
+        writer.close();
+        InOrder inOrder = inOrder(endpoint);
+        inOrder.verify(endpoint).store(anyCollectionOf(Resource.class));
+        inOrder.verify(endpoint).delete(Collections.singletonList(ONE));
+    }
+
+    @Test
+    public void unsuccessfulBatch_failsItsOperations() throws Exception {
+        when(endpoint.delete(anyCollectionOf(Reference.class))).thenReturn(response(500));
+        BulkWriter<Resource> writer = writer(BulkWriterConfiguration.builder());
+
+        CompletableFuture<Void> first = writer.delete(ONE);
+        CompletableFuture<Void> second = writer.delete(TWO);
+        writer.close();
+
+        assertFailed(first);
+        assertFailed(second);
+        assertThat(writer.getStats().getFailedOperations(), is(2L));
+        assertThat(writer.getStats().getFailedRequests(), is(1L));
+    }
+
+    @Test
+    public void fullQueue_blocksProducers() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(endpoint.store(anyCollectionOf(Resource.class))).thenAnswer(invocation -> {
+            release.await();
+            return response(200);
+        });
+        BulkWriter<Resource> writer = writer(BulkWriterConfiguration.builder().maxBatchSize(1).queueCapacity(1)
+                .maxConcurrentRequests(1));
+
+        Thread producer = new Thread(() -> {
+            for (int index = 0; index < 4; index++) {
+                writer.store(resource("r" + index));
+            }
+        });
+        producer.start();
+        producer.join(200);
+
+        assertThat(producer.isAlive(), is(true));
+        release.countDown();
+        producer.join(5000);
+        assertThat(producer.isAlive(), is(false));
+        writer.close();
+        assertThat(writer.getStats().getWrittenOperations(), is(4L));
+    }
+
+    @Test
+    public void close_rejectsProducersBlockedOnAFullQueue() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(endpoint.store(anyCollectionOf(Resource.class))).thenAnswer(invocation -> {
+            release.await();
+            return response(200);
+        });
+        BulkWriter<Resource> writer = writer(BulkWriterConfiguration.builder().maxBatchSize(1).queueCapacity(1)
+                .maxConcurrentRequests(1));
+        List<CompletableFuture<Void>> accepted = Collections.synchronizedList(new ArrayList<>());
+        List<Exception> rejected = Collections.synchronizedList(new ArrayList<>());
+        Thread producer = new Thread(() -> {
+            for (int index = 0; index < 5; index++) {
+                try {
+                    accepted.add(writer.store(resource("r" + index)));
+                } catch (IllegalStateException closed) {
+                    rejected.add(closed);
+                }
+            }
+        });
+        producer.start();
+        producer.join(200);
+        assertThat(producer.isAlive(), is(true));
+
+        Thread closing = new Thread(writer::close);
+        closing.start();
+        producer.join(5000);
+
+        assertThat(producer.isAlive(), is(false));
+        assertThat(rejected.isEmpty(), is(false));
+        release.countDown();
+        closing.join(5000);
+        assertThat(closing.isAlive(), is(false));
+        assertThat(accepted.stream().allMatch(CompletableFuture::isDone), is(true));
+        assertThat(writer.getStats().getWrittenOperations(), is((long) accepted.size()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void zeroMaxDelay_rejected() {
+        writer(BulkWriterConfiguration.builder().maxDelay(Duration.ZERO));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeMaxDelay_rejected() {
+        writer(BulkWriterConfiguration.builder().maxDelay(Duration.ofMillis(-1)));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void closedWriter_rejectsOperations() {
+        BulkWriter<Resource> writer = writer(BulkWriterConfiguration.builder());
+        writer.close();
+
+        writer.store(resource("a"));
+    }
+
+    private BulkWriter<Resource> writer(BulkWriterConfiguration.BulkWriterConfigurationBuilder configuration) {
+        return new BulkWriter<>(endpoint, configuration.build(), executor);
+    }
+
+    private static void assertFailed(CompletableFuture<Void> written) throws InterruptedException {
+        try {
+            written.get();
+            fail("expected the operation to fail");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), is(instanceOf(ClientException.class)));
+        }
+    }
+
+    private static ResourceResponse<Resource> response(int status) {
+        return DefaultResourceResponse.<Resource>builder().statusCode(status).successStatusCode(status < 300)
+                .payload(Optional.empty()).build();
+    }
+
+    private static Resource resource(String name) {
+        Resource resource = new Resource();
+        resource.setOwner("test");
+        resource.setName(name);
+        return resource;
+    }
+
+}
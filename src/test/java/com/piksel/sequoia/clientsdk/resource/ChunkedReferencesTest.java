@@ -0,0 +1,257 @@
+package com.piksel.sequoia.clientsdk.resource;
+
+/*-
+ * #%L
+ * Sequoia Java Client SDK
+ * %%
+ * Copyright (C) 2018 Piksel
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static com.piksel.sequoia.clientsdk.resource.ResourceFixtures.refsOf;
+import static com.piksel.sequoia.clientsdk.resource.ResourceFixtures.response;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyMap;
+import static org.mockito.Matchers.anyVararg;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.stubbing.OngoingStubbing;
+
+import com.google.api.client.http.GenericUrl;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.piksel.sequoia.clientsdk.DefaultResourceResponse;
+import com.piksel.sequoia.clientsdk.RequestExecutionException;
+import com.piksel.sequoia.clientsdk.ResourceResponse;
+import com.piksel.sequoia.clientsdk.Response;
+import com.piksel.sequoia.clientsdk.configuration.DefaultClientConfiguration;
+import com.piksel.sequoia.clientsdk.request.RequestClient;
+
+public class ChunkedReferencesTest {
+
+    private static final Reference R1 = Reference.fromOwnerAndName("test", "r1");
+    private static final Reference R2 = Reference.fromOwnerAndName("test", "r2");
+    private static final Reference R3 = Reference.fromOwnerAndName("test", "r3");
+    private static final Reference R4 = Reference.fromOwnerAndName("test", "r4");
+    private static final Reference R5 = Reference.fromOwnerAndName("test", "r5");
+    private static final Reference R6 = Reference.fromOwnerAndName("test", "r6");
+
+    private final Gson gson = DefaultClientConfiguration.getDefaultGson();
+
+    private RequestClient requestClient;
+    private ExecutorService executor;
+    private ResourceEndpointHandler<Resource> endpoint;
+
+    @Before
+    public void setUp() {
+        requestClient = mock(RequestClient.class);
+        executor = Executors.newCachedThreadPool();
+        endpoint = endpoint(4);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void read_fitsInUrl_singleRequest() {
+        when(requestClient.executeGetRequest(any(GenericUrl.class), anyMap(), (Reference[]) anyVararg()))
+                .thenReturn(response(200, R1, R2));
+
+        ResourceResponse<Resource> response = endpoint.read(Arrays.asList(R1, R2));
+
+        assertThat(response, is(instanceOf(DefaultResourceResponse.class)));
+        verify(requestClient).executeGetRequest(any(GenericUrl.class), anyMap(), eq(R1), eq(R2));
+        verify(requestClient, never()).async();
+    }
+
+    @Test
+    public void read_tooLongForUrl_chunksAndKeepsOrder() {
+        whenReading(R1, R2).thenReturn(response(200, R2, R1));
+        whenReading(R3, R4).thenReturn(response(200, R4, R3));
+        whenReading(R5, R6).thenReturn(response(200, R6, R5));
+
+        ResourceResponse<Resource> response = endpoint.read(Arrays.asList(R1, R2, R3, R4, R5, R6));
+
+        assertThat(response.isSuccessStatusCode(), is(true));
+        assertThat(response.getStatusCode(), is(200));
+        assertThat(refsOf(response), contains(R1, R2, R3, R4, R5, R6));
+        List<ChunkResult> chunks = ((ChunkedResourceResponse<Resource>) response).getChunks();
+        assertThat(chunks.size(), is(3));
+        assertThat(chunks.get(2).getReferences(), contains(R5, R6));
+    }
+
+    @Test
+    public void read_chunksRequestedWithConfiguredParallelism() throws Exception {
+        endpoint = endpoint(2);
+        CountDownLatch release = new CountDownLatch(1);
+        whenReading(R1, R2).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return response(200, R1, R2);
+        });
+        whenReading(R3, R4).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return response(200, R3, R4);
+        });
+        whenReading(R5, R6).thenReturn(response(200, R6, R5));
+
+        CompletableFuture<ResourceResponse<Resource>> read = CompletableFuture
+                .supplyAsync(() -> endpoint.read(Arrays.asList(R1, R2, R3, R4, R5, R6)));
+
+        verify(requestClient, timeout(1000)).executeGetRequest(any(GenericUrl.class), anyMap(), eq(R1), eq(R2));
+        verify(requestClient, timeout(1000)).executeGetRequest(any(GenericUrl.class), anyMap(), eq(R3), eq(R4));
+        verify(requestClient, never()).executeGetRequest(any(GenericUrl.class), anyMap(), eq(R5), eq(R6));
+        release.countDown();
+
+        assertThat(refsOf(read.get(5, TimeUnit.SECONDS)), contains(R1, R2, R3, R4, R5, R6));
+    }
+
+    @Test
+    public void read_fromTheOnlyThreadOfTheExecutor_chunksReadByTheCaller() throws Exception {
+        ExecutorService singleThread = Executors.newSingleThreadExecutor();
+        try {
+            endpoint = endpoint(4, singleThread);
+            whenReading(R1, R2).thenReturn(response(200, R1, R2));
+            whenReading(R3, R4).thenReturn(response(200, R3, R4));
+            whenReading(R5, R6).thenReturn(response(200, R5, R6));
+
+            Future<ResourceResponse<Resource>> read = singleThread
+                    .submit(() -> endpoint.read(Arrays.asList(R1, R2, R3, R4, R5, R6)));
+
+            assertThat(refsOf(read.get(5, TimeUnit.SECONDS)), contains(R1, R2, R3, R4, R5, R6));
+        } finally {
+            singleThread.shutdownNow();
+        }
+    }
+
+    @Test
+    public void read_partialFailure_reportedPerChunk() {
+        RequestExecutionException failure = new RequestExecutionException(new IOException("failed"));
+        whenReading(R1, R2).thenReturn(response(200, R1, R2));
+        whenReading(R3, R4).thenThrow(failure);
+        whenReading(R5, R6).thenReturn(response(404));
+
+        ChunkedResourceResponse<Resource> response = (ChunkedResourceResponse<Resource>) endpoint
+                .read(Arrays.asList(R1, R2, R3, R4, R5, R6));
+
+        assertThat(response.isSuccessStatusCode(), is(false));
+        assertThat(refsOf(response), contains(R1, R2));
+        assertThat(response.getChunks().get(0).isSuccessStatusCode(), is(true));
+        assertThat(response.getChunks().get(1).getFailure().get(), is(sameInstance(failure)));
+        assertThat(response.getChunks().get(2).getStatusCode(), is(404));
+        assertThat(response.getChunks().get(2).getFailure().isPresent(), is(false));
+    }
+
+    @Test
+    public void read_allChunksFail_firstFailureThrown() {
+        RequestExecutionException failure = new RequestExecutionException(new IOException("failed"));
+        when(requestClient.executeGetRequest(any(GenericUrl.class), anyMap(), (Reference[]) anyVararg()))
+                .thenThrow(failure);
+
+        try {
+            endpoint.read(Arrays.asList(R1, R2, R3));
+            fail("expected the failure of the chunks to be thrown");
+        } catch (RequestExecutionException e) {
+            assertThat(e, is(sameInstance(failure)));
+        }
+    }
+
+    @Test
+    public void readAsync_tooLongForUrl_chunksAndKeepsOrder() throws Exception {
+        whenReading(R1, R2).thenReturn(response(200, R2, R1));
+        whenReading(R3, R4).thenReturn(response(200, R3, R4));
+
+        ResourceResponse<Resource> response = endpoint.readAsync(Arrays.asList(R1, R2, R3, R4))
+                .get(5, TimeUnit.SECONDS);
+
+        assertThat(refsOf(response), contains(R1, R2, R3, R4));
+        assertThat(((ChunkedResourceResponse<Resource>) response).getChunks().size(), is(2));
+        verify(requestClient, never()).async();
+    }
+
+    @Test
+    public void delete_tooLongForUrl_chunks() {
+        when(requestClient.executeDeleteRequest(any(GenericUrl.class), anyMap(), (Reference[]) anyVararg()))
+                .thenReturn(response(204));
+
+        ResourceResponse<Resource> response = endpoint.delete(Arrays.asList(R1, R2, R3));
+
+        assertThat(response.isSuccessStatusCode(), is(true));
+        assertThat(response.getStatusCode(), is(204));
+        verify(requestClient).executeDeleteRequest(any(GenericUrl.class), anyMap(), eq(R1), eq(R2));
+        verify(requestClient).executeDeleteRequest(any(GenericUrl.class), anyMap(), eq(R3));
+    }
+
+    @Test
+    public void deleteAsync_tooLongForUrl_chunks() throws Exception {
+        when(requestClient.executeDeleteRequest(any(GenericUrl.class), anyMap(), (Reference[]) anyVararg()))
+                .thenReturn(response(204));
+
+        ResourceResponse<Resource> response = endpoint.deleteAsync(Arrays.asList(R1, R2, R3))
+                .get(5, TimeUnit.SECONDS);
+
+        assertThat(response.getStatusCode(), is(204));
+        verify(requestClient).executeDeleteRequest(any(GenericUrl.class), anyMap(), eq(R1), eq(R2));
+        verify(requestClient).executeDeleteRequest(any(GenericUrl.class), anyMap(), eq(R3));
+        verify(requestClient, never()).async();
+    }
+
+    private OngoingStubbing<Response<JsonElement>> whenReading(Reference first, Reference second) {
+        return when(requestClient.executeGetRequest(any(GenericUrl.class), anyMap(), eq(first), eq(second)));
+    }
+
+    private ResourceEndpointHandler<Resource> endpoint(int chunkParallelism) {
+        return endpoint(chunkParallelism, executor);
+    }
+
+    /**
+     * An endpoint whose urls hold at most two of the test references.
+     */
+    private ResourceEndpointHandler<Resource> endpoint(int chunkParallelism, ExecutorService asyncExecutor) {
+        String location = "http://localhost/data/contents";
+        return new ResourceEndpointHandler<>(requestClient, "contents", location, Resource.class, gson,
+                ResourceEndpointConfiguration.builder()
+                        .maxUrlLength(location.length() + 1 + R1.toString().length() * 2 + 1)
+                        .chunkParallelism(chunkParallelism)
+                        .asyncExecutor(asyncExecutor)
+                        .build());
+    }
+
+}
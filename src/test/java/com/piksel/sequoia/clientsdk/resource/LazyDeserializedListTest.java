@@ -0,0 +1,105 @@
+package com.piksel.sequoia.clientsdk.resource;
+
+/*-
+ * #%L
+ * Sequoia Java Client SDK
+ * %%
+ * Copyright (C) 2018 Piksel
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.gson.JsonParser;
+import com.piksel.sequoia.clientsdk.configuration.DefaultClientConfiguration;
+
+public class LazyDeserializedListTest {
+
+    private static final JsonParser JSON_PARSER = new JsonParser();
+
+    private ResourceDeserializer<Resource> deserializer;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        PageableResourceEndpoint<Resource> endpoint = mock(PageableResourceEndpoint.class);
+        when(endpoint.getResourceKey()).thenReturn("someResources");
+        when(endpoint.getEndpointType()).thenReturn(Resource.class);
+        deserializer = new ResourceDeserializer<>(endpoint, DefaultClientConfiguration.getDefaultGson());
+    }
+
+    @Test
+    public void givenAPage_shouldNotDecodeAnyResourceUntilAccessed() {
+        List<Resource> contents = deserializer.contentsFrom(JSON_PARSER.parse(payloadWith(5)));
+
+        assertEquals(5, contents.size());
+        assertEquals(0, decodedCount(contents));
+    }
+
+    @Test
+    public void givenAnAccessedResource_shouldDecodeOnlyThatResource() {
+        List<Resource> contents = deserializer.contentsFrom(JSON_PARSER.parse(payloadWith(5)));
+
+        assertEquals("r2", contents.get(2).getName());
+        assertEquals(1, decodedCount(contents));
+    }
+
+    @Test
+    public void givenARepeatedAccess_shouldReturnTheSameInstance() {
+        List<Resource> contents = deserializer.contentsFrom(JSON_PARSER.parse(payloadWith(3)));
+
+        assertSame(contents.get(1), contents.get(1));
+    }
+
+    @Test
+    public void givenAPageIteratedEntirely_shouldDecodeEveryResourceInOrder() {
+        Page<Resource> page = Page.from(new Meta(), deserializer.contentsFrom(JSON_PARSER.parse(payloadWith(3))));
+
+        for (int i = 0; i < page.items(); i++) {
+            assertEquals("r" + i, page.at(i).getName());
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void givenAnIndexOutOfRange_shouldThrowIndexOutOfBounds() {
+        deserializer.contentsFrom(JSON_PARSER.parse(payloadWith(1))).get(1);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void givenAModification_shouldRejectIt() {
+        deserializer.contentsFrom(JSON_PARSER.parse(payloadWith(1))).add(new Resource());
+    }
+
+    private static int decodedCount(List<Resource> contents) {
+        return ((LazyDeserializedList<Resource>) contents).decodedCount();
+    }
+
+    private static String payloadWith(int resources) {
+        StringBuilder json = new StringBuilder("{\"meta\":{\"page\":1},\"someResources\":[");
+        for (int i = 0; i < resources; i++) {
+            json.append(i == 0 ? "" : ",").append("{\"owner\":\"test\",\"name\":\"r").append(i).append("\"}");
+        }
+        return json.append("]}").toString();
+    }
+
+}
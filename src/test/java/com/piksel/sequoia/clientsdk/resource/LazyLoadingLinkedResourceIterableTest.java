@@ -0,0 +1,242 @@
+package com.piksel.sequoia.clientsdk.resource;
+
+/*-
+ * #%L
+ * Sequoia Java Client SDK
+ * %%
+ * Copyright (C) 2018 Piksel
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singleton;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.piksel.sequoia.clientsdk.configuration.DefaultClientConfiguration;
+
+public class LazyLoadingLinkedResourceIterableTest {
+
+    private static final JsonParser JSON_PARSER = new JsonParser();
+    private static final String COMBINED_NEXT = "/data/children?withParentRef=test%3Ap1%7C%7Ctest%3Ap2&page=2&perPage=2";
+
+    private final Gson gson = DefaultClientConfiguration.getDefaultGson();
+
+    private PageableResourceEndpoint<Parent> endpoint;
+    private PageableResourceEndpoint<Child> linkedEndpoint;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        endpoint = mock(PageableResourceEndpoint.class);
+        when(endpoint.getResourceKey()).thenReturn("parents");
+        when(endpoint.getEndpointType()).thenReturn(Parent.class);
+        linkedEndpoint = mock(PageableResourceEndpoint.class);
+        when(linkedEndpoint.getResourceKey()).thenReturn("children");
+        when(linkedEndpoint.getEndpointType()).thenReturn(Child.class);
+        when(endpoint.getLinkedPages(eq("children"), eq("children"), eq((Class<Parent>) (Class<?>) Child.class)))
+                .thenReturn((PageableResourceEndpoint<Parent>) (PageableResourceEndpoint<?>) linkedEndpoint);
+    }
+
+    @Test
+    public void givenARequestForManyParents_shouldRequestTheFollowingPagesForEachParentOnly() {
+        when(endpoint.getPagedLinkedResource("/data/children?withParentRef=test%3Ap1&perPage=2&page=1"))
+                .thenReturn(Optional.of(children("c1", "test:p1", "c3", "test:p1")));
+        when(endpoint.getPagedLinkedResource("/data/children?withParentRef=test%3Ap2&perPage=2&page=1"))
+                .thenReturn(Optional.of(children("c2", "test:p2")));
+
+        List<Parent> parents = new ResourceDeserializer<>(endpoint, gson).contentsFrom(JSON_PARSER.parse(page()));
+
+        assertThat(names(parents.get(0).children), contains("c1", "c3"));
+        assertThat(names(parents.get(1).children), contains("c2"));
+        verify(endpoint, never()).getPagedLinkedResource(COMBINED_NEXT);
+    }
+
+    @Test
+    public void givenSiblingsFollowingTheSameUrl_shouldFetchItOnce() {
+        LinkedPages linkedPages = new LinkedPages(null, null);
+        AtomicInteger fetches = new AtomicInteger();
+
+        linkedPages.fetch(COMBINED_NEXT, url -> Optional.of(children("c" + fetches.incrementAndGet(), "test:p1")));
+        Optional<JsonElement> page = linkedPages.fetch(COMBINED_NEXT, url -> Optional.of(children("c" + fetches.incrementAndGet(), "test:p1")));
+
+        assertThat(fetches.get(), is(1));
+        assertThat(page.get().getAsJsonObject().get("children").getAsJsonArray().size(), is(1));
+    }
+
+    @Test
+    public void givenASiblingFetchingTheSameUrl_shouldWaitForItsPage() throws Exception {
+        LinkedPages linkedPages = new LinkedPages(null, null);
+        AtomicInteger fetches = new AtomicInteger();
+        CountDownLatch fetching = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Optional<JsonElement>> first = CompletableFuture.supplyAsync(() -> linkedPages.fetch(COMBINED_NEXT, url -> {
+            fetches.incrementAndGet();
+            fetching.countDown();
+            await(release);
+            return Optional.of(children("c1", "test:p1"));
+        }));
+        fetching.await();
+
+        CompletableFuture<Optional<JsonElement>> second = CompletableFuture.supplyAsync(() -> linkedPages.fetch(COMBINED_NEXT, url -> {
+            fetches.incrementAndGet();
+            return Optional.empty();
+        }));
+        release.countDown();
+
+        assertThat(second.get(5, TimeUnit.SECONDS).get(), is(sameInstance(first.get(5, TimeUnit.SECONDS).get())));
+        assertThat(fetches.get(), is(1));
+    }
+
+    @Test
+    public void givenMorePagesThanKept_shouldFetchTheOldestAgain() {
+        LinkedPages linkedPages = new LinkedPages(null, null);
+        AtomicInteger fetches = new AtomicInteger();
+        for (int page = 0; page <= LinkedPages.MAX_FETCHED_PAGES; page++) {
+            linkedPages.fetch("/data/children?page=" + page, url -> Optional.of(children("c" + fetches.incrementAndGet(), "test:p1")));
+        }
+
+        linkedPages.fetch("/data/children?page=0", url -> Optional.of(children("c" + fetches.incrementAndGet(), "test:p1")));
+
+        assertThat(fetches.get(), is(LinkedPages.MAX_FETCHED_PAGES + 2));
+    }
+
+    @Test
+    public void givenAFailedFetch_shouldFetchItAgain() {
+        LinkedPages linkedPages = new LinkedPages(null, null);
+        try {
+            linkedPages.fetch(COMBINED_NEXT, url -> {
+                throw new IllegalStateException("failed");
+            });
+            fail("expected the fetch to fail");
+        } catch (IllegalStateException expected) {
+        }
+
+        Optional<JsonElement> page = linkedPages.fetch(COMBINED_NEXT, url -> Optional.of(children("c1", "test:p1")));
+
+        assertThat(page.isPresent(), is(true));
+    }
+
+    @Test
+    public void givenAFetchedPage_shouldNotModifyItWhenFilteringForAParent() {
+        JsonElement shared = children("c1", "test:p1", "c2", "test:p2");
+        when(endpoint.getPagedLinkedResource(anyString())).thenReturn(Optional.of(shared));
+
+        List<Parent> parents = new ResourceDeserializer<>(endpoint, gson).contentsFrom(JSON_PARSER.parse(page()));
+        names(parents.get(1).children);
+
+        assertThat(shared.getAsJsonObject().get("children").getAsJsonArray().size(), is(2));
+        verify(endpoint, times(1)).getPagedLinkedResource(anyString());
+    }
+
+    @Test
+    public void givenALinkedPage_shouldDecodeOnlyTheItemsReferencingTheParentAndNotDelivered() {
+        JsonElement page = JSON_PARSER.parse("{\"meta\":{\"page\":1},\"children\":["
+                + child("c1", "test:p1") + "," + child("c2", "test:p2") + "," + child("c3", "test:p1") + ","
+                + "{\"ref\":\"test:c4\",\"owner\":\"test\",\"name\":\"c4\",\"parentRef\":[\"test:p2\",\"test:p1\"]},"
+                + "{\"ref\":\"test:c5\",\"owner\":\"test\",\"name\":\"c5\"}]}");
+        ResourceDeserializer<Child> deserializer = new ResourceDeserializer<>(linkedEndpoint, gson);
+
+        List<Child> linkedItems = deserializer.linkedItemsFor(page, "parentRef", "test:p1", singleton("test:c1"));
+
+        assertThat(linkedItems.size(), is(2));
+        assertThat(((LazyDeserializedList<Child>) linkedItems).decodedCount(), is(0));
+        assertThat(linkedItems.get(0).getName(), is("c3"));
+        assertThat(((LazyDeserializedList<Child>) linkedItems).decodedCount(), is(1));
+        assertThat(page.getAsJsonObject().get("children").getAsJsonArray().size(), is(5));
+    }
+
+    @Test
+    public void givenNoItemReferencingTheParent_shouldReturnNoLinkedItems() {
+        ResourceDeserializer<Child> deserializer = new ResourceDeserializer<>(linkedEndpoint, gson);
+
+        List<Child> linkedItems = deserializer.linkedItemsFor(children("c1", "test:p1"), "parentRef", "test:p2", emptySet());
+
+        assertThat(linkedItems.isEmpty(), is(true));
+    }
+
+    private static List<String> names(LinkedResourceIterable<Child> children) {
+        List<String> names = new ArrayList<>();
+        children.forEachRemaining(child -> names.add(child.getName()));
+        return names;
+    }
+
+    private static JsonElement children(String... nameAndParentRefs) {
+        StringBuilder json = new StringBuilder("{\"meta\":{\"page\":1,\"perPage\":2},\"children\":[");
+        for (int i = 0; i < nameAndParentRefs.length; i += 2) {
+            json.append(i == 0 ? "" : ",").append(child(nameAndParentRefs[i], nameAndParentRefs[i + 1]));
+        }
+        return JSON_PARSER.parse(json.append("]}").toString());
+    }
+
+    private static String child(String name, String parentRef) {
+        return "{\"ref\":\"test:" + name + "\",\"owner\":\"test\",\"name\":\"" + name + "\",\"parentRef\":\"" + parentRef + "\"}";
+    }
+
+    private static String page() {
+        return "{\"meta\":{\"page\":1,\"linked\":{\"children\":[{\"page\":1,\"perPage\":2,"
+                + "\"request\":\"/data/children?withParentRef=test%3Ap1%7C%7Ctest%3Ap2\","
+                + "\"next\":\"" + COMBINED_NEXT + "\"}]}},"
+                + "\"parents\":[{\"ref\":\"test:p1\",\"owner\":\"test\",\"name\":\"p1\"},"
+                + "{\"ref\":\"test:p2\",\"owner\":\"test\",\"name\":\"p2\"}],"
+                + "\"linked\":{\"children\":[" + child("c1", "test:p1") + "]}}";
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public static class Parent extends Resource {
+
+        @IndirectRelationship(ref = "parentRef", relationship = "children")
+        private LinkedResourceIterable<Child> children;
+
+    }
+
+    public static class Child extends Resource {
+
+        private String parentRef;
+
+    }
+
+}
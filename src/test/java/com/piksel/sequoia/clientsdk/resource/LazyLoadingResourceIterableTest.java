@@ -20,6 +20,9 @@ package com.piksel.sequoia.clientsdk.resource;
  * #L%
  */
 
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
@@ -31,20 +34,30 @@ import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.anyMap;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 
 import com.google.api.client.util.Key;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonParser;
+import com.piksel.sequoia.clientsdk.RequestExecutionException;
 import com.piksel.sequoia.clientsdk.configuration.DefaultClientConfiguration;
 import com.piksel.sequoia.clientsdk.utils.TestResource;
 import com.piksel.sequoia.clientsdk.utils.TestResourceRule;
@@ -286,6 +299,133 @@ public class LazyLoadingResourceIterableTest {
         assertThat(iterable.hasNext(), is(false));
     }
 
+    @Test
+    public void givenPrefetchDepth_shouldRequestPagesAheadAndIterateInOrder() {
+        when(endpoint.getPagedResourceAsync(anyString(), anyMap())).thenAnswer(invocation -> {
+            String url = (String) invocation.getArguments()[0];
+            int page = Integer.parseInt(url.substring(url.indexOf("page=") + 5));
+            return CompletableFuture.completedFuture(Optional.of(JSON_PARSER.parse(page(page, 4))));
+        });
+
+        LazyLoadingResourceIterable<Resource> iterable = new LazyLoadingResourceIterable<>(
+                JSON_PARSER.parse(page(1, 4)), endpoint, DefaultClientConfiguration.getDefaultGson(),
+                new HashMap<>(), 2);
+
+        verify(endpoint).getPagedResourceAsync(eq("/data/someResources?perPage=1&page=2"), anyMap());
+        verify(endpoint).getPagedResourceAsync(eq("/data/someResources?perPage=1&page=3"), anyMap());
+        List<String> names = new ArrayList<>();
+        iterable.forEachRemaining(resource -> names.add(resource.getName()));
+        assertThat(names, contains("r1", "r2", "r3", "r4"));
+        verify(endpoint, never()).getPagedResource(anyString(), anyMap());
+    }
+
+    @Test
+    public void givenPrefetchDepth_whenClosed_shouldCancelPrefetchedPages() {
+        CompletableFuture<Optional<JsonElement>> nextPage = new CompletableFuture<>();
+        when(endpoint.getPagedResourceAsync(anyString(), anyMap())).thenReturn(nextPage);
+        LazyLoadingResourceIterable<Resource> iterable = new LazyLoadingResourceIterable<>(
+                JSON_PARSER.parse(page(1, 4)), endpoint, DefaultClientConfiguration.getDefaultGson(),
+                new HashMap<>(), 3);
+
+        iterable.close();
+
+        assertThat(nextPage.isCancelled(), is(true));
+        verify(endpoint).getPagedResourceAsync(anyString(), anyMap());
+    }
+
+    @Test(expected = RequestExecutionException.class)
+    public void givenPrefetchDepth_whenPrefetchFails_shouldThrowOnReachingThePage() {
+        CompletableFuture<Optional<JsonElement>> nextPage = new CompletableFuture<>();
+        nextPage.completeExceptionally(new RequestExecutionException(new IOException("failed")));
+        when(endpoint.getPagedResourceAsync(anyString(), anyMap())).thenReturn(nextPage);
+        LazyLoadingResourceIterable<Resource> iterable = new LazyLoadingResourceIterable<>(
+                JSON_PARSER.parse(page(1, 2)), endpoint, DefaultClientConfiguration.getDefaultGson(),
+                new HashMap<>(), 1);
+
+        assertThat(iterable.next().getName(), is("r1"));
+        iterable.hasNext();
+    }
+
+    @Test
+    public void givenTotalCount_parallelStreamShouldRequestEachPageOnceAndKeepOrder() {
+        when(endpoint.getPagedResource(anyString(), anyMap())).thenAnswer(invocation -> {
+            String url = (String) invocation.getArguments()[0];
+            int page = Integer.parseInt(url.substring(url.indexOf("page=") + 5, url.indexOf("&sort")));
+            return Optional.of(JSON_PARSER.parse(countedPage(page, 2, 9)));
+        });
+
+        List<String> names = iterableFor(countedPage(1, 2, 9)).parallelStream().map(Resource::getName)
+                .collect(Collectors.toList());
+
+        assertThat(names, contains("r1", "r2", "r3", "r4", "r5", "r6", "r7", "r8", "r9"));
+        for (int page = 2; page <= 5; page++) {
+            verify(endpoint).getPagedResource(eq("/data/someResources?perPage=2&page=" + page + "&sort=name"),
+                    anyMap());
+        }
+    }
+
+    @Test
+    public void givenTotalCount_spliteratorShouldSplitByPageWithoutRequestingPages() {
+        Spliterator<Resource> spliterator = iterableFor(countedPage(1, 2, 9)).spliterator();
+
+        assertThat(spliterator.estimateSize(), is(9L));
+        Spliterator<Resource> prefix = spliterator.trySplit();
+
+        assertThat(prefix.estimateSize() + spliterator.estimateSize(), is(9L));
+        assertThat(spliterator.estimateSize(), is(3L));
+        verify(endpoint, never()).getPagedResource(anyString(), anyMap());
+    }
+
+    @Test
+    public void givenNoTotalCount_streamShouldIteratePagesInTurn() {
+        when(endpoint.getPagedResource(anyString(), anyMap())).thenAnswer(invocation -> {
+            String url = (String) invocation.getArguments()[0];
+            int page = Integer.parseInt(url.substring(url.indexOf("page=") + 5));
+            return Optional.of(JSON_PARSER.parse(page(page, 3)));
+        });
+
+        List<String> names = iterableFor(page(1, 3)).stream().map(Resource::getName).collect(Collectors.toList());
+
+        assertThat(names, contains("r1", "r2", "r3"));
+    }
+
+    @Test
+    public void forEachPageShouldProvideTheRemainingResourcesOfEachPageAndReleaseIteratedPages() {
+        when(endpoint.getPagedResource(anyString(), anyMap())).thenAnswer(invocation -> {
+            String url = (String) invocation.getArguments()[0];
+            int page = Integer.parseInt(url.substring(url.indexOf("page=") + 5, url.indexOf("&sort")));
+            return Optional.of(JSON_PARSER.parse(countedPage(page, 2, 5)));
+        });
+        LazyLoadingResourceIterable<Resource> iterable = iterableFor(countedPage(1, 2, 5));
+        iterable.next();
+        List<List<String>> pages = new ArrayList<>();
+
+        iterable.forEachPage(page -> {
+            pages.add(page.stream().map(Resource::getName).collect(Collectors.toList()));
+            assertThat(iterable.pages.size(), is(1));
+        });
+
+        assertThat(pages, contains(singletonList("r2"), asList("r3", "r4"), singletonList("r5")));
+    }
+
+    private static String countedPage(int page, int perPage, int totalCount) {
+        List<String> resources = new ArrayList<>();
+        for (int index = (page - 1) * perPage + 1; index <= Math.min(page * perPage, totalCount); index++) {
+            resources.add("{\"owner\":\"test\",\"name\":\"r" + index + "\"}");
+        }
+        return "{\"meta\":{\"page\":" + page + ",\"perPage\":" + perPage + ",\"totalCount\":" + totalCount
+                + (page * perPage < totalCount
+                        ? ",\"next\":\"/data/someResources?perPage=" + perPage + "&page=" + (page + 1) + "&sort=name\""
+                        : "")
+                + "},\"someResources\":[" + String.join(",", resources) + "]}";
+    }
+
+    private static String page(int page, int lastPage) {
+        return "{\"meta\":{\"page\":" + page + ",\"perPage\":1"
+                + (page < lastPage ? ",\"next\":\"/data/someResources?perPage=1&page=" + (page + 1) + "\"" : "")
+                + "},\"someResources\":[{\"owner\":\"test\",\"name\":\"r" + page + "\"}]}";
+    }
+
     private LazyLoadingResourceIterable<Resource> iterableFor(String json) {
         return new LazyLoadingResourceIterable<>(JSON_PARSER.parse(json), endpoint,
                 DefaultClientConfiguration.getDefaultGson());
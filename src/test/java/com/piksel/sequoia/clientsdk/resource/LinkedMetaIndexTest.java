@@ -0,0 +1,107 @@
+package com.piksel.sequoia.clientsdk.resource;
+
+/*-
+ * #%L
+ * Sequoia Java Client SDK
+ * %%
+ * Copyright (C) 2018 Piksel
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+import com.google.gson.JsonParser;
+import com.piksel.sequoia.clientsdk.configuration.DefaultClientConfiguration;
+
+public class LinkedMetaIndexTest {
+
+    private static final JsonParser JSON_PARSER = new JsonParser();
+
+    private final LinkedMetaIndex index = new LinkedMetaIndex(JSON_PARSER.parse("{\"meta\":{\"linked\":{\"events\":["
+            + meta(1, 10, "/data/events?fields=ref%2Cname&withJobRef=test%3Aj1%7C%7Ctest%3Aj2")
+            + "," + meta(2, 10, "/data/events?fields=ref%2Cname&withJobRef=test%3Aj1%7C%7Ctest%3Aj2&page=2")
+            + "," + meta(1, 5, "/data/events?fields=ref%2Cname&withJobRef=test%3Aj3&page=1")
+            + "," + meta(1, 7, "/data/events?fields=ref%2Cname&withJobRef=test%3Aj1")
+            + "]}}}"), DefaultClientConfiguration.getDefaultGson());
+
+    @Test
+    public void givenARequestWithManyRefs_shouldExtractEveryRef() {
+        assertThat(LinkedMetaIndex.refsOf("/data/events?withJobRef=test%3Aj1%7C%7Ctest%3Aj2&page=2"),
+                contains("test%3Aj1", "test%3Aj2", "2"));
+    }
+
+    @Test
+    public void givenARequestWithoutQuery_shouldExtractNoRefs() {
+        assertThat(LinkedMetaIndex.refsOf("/data/events/test:e1"), is(empty()));
+    }
+
+    @Test
+    public void givenARequestForManyRefs_shouldRestrictItToTheRefFromTheFirstPage() {
+        assertThat(LinkedMetaIndex.restrictedTo("/data/events?fields=ref&withJobRef=test%3Aj1%7C%7Ctest%3Aj2&page=2&perPage=10",
+                "test%3Aj2").get(), is("/data/events?fields=ref&withJobRef=test%3Aj2&perPage=10&page=1"));
+    }
+
+    @Test
+    public void givenARequestForASingleOrAnotherRef_shouldNotRestrictIt() {
+        assertFalse(LinkedMetaIndex.restrictedTo("/data/events?withJobRef=test%3Aj1&page=2", "test%3Aj1").isPresent());
+        assertFalse(LinkedMetaIndex.restrictedTo("/data/events?withJobRef=test%3Aj1%7C%7Ctest%3Aj2&page=2", "test%3Aj3").isPresent());
+        assertFalse(LinkedMetaIndex.restrictedTo(null, "test%3Aj1").isPresent());
+    }
+
+    @Test
+    public void givenARefInManyRequests_shouldProvideTheLastPageWithTheItemsPerPageSummed() {
+        LinkedMeta meta = index.lookup("events", Reference.fromReference("test:j1")).get();
+
+        assertThat(meta.getPage(), is(2));
+        assertThat(meta.getPerPage(), is(27));
+    }
+
+    @Test
+    public void givenASharedLastPage_shouldNotSumTheItemsPerPageOfOtherRefs() {
+        assertThat(index.lookup("events", Reference.fromReference("test:j2")).get().getPerPage(), is(20));
+        assertThat(index.lookup("events", Reference.fromReference("test:j1")).get().getPerPage(), is(27));
+    }
+
+    @Test
+    public void givenARefFollowedByOtherParameters_shouldFindItsMeta() {
+        assertThat(index.lookup("events", Reference.fromReference("test:j3")).get().getPerPage(), is(5));
+    }
+
+    @Test
+    public void givenAnUnknownRefOrRelationship_shouldProvideNoMeta() {
+        assertFalse(index.lookup("events", Reference.fromReference("test:j4")).isPresent());
+        assertFalse(index.lookup("tasks", Reference.fromReference("test:j1")).isPresent());
+        assertFalse(index.lookup("events", null).isPresent());
+    }
+
+    @Test
+    public void givenAPayloadWithoutLinkedMeta_shouldProvideNoMeta() {
+        LinkedMetaIndex withoutMeta = new LinkedMetaIndex(JSON_PARSER.parse("{\"events\":[]}"),
+                DefaultClientConfiguration.getDefaultGson());
+
+        assertFalse(withoutMeta.lookup("events", Reference.fromReference("test:j1")).isPresent());
+    }
+
+    private static String meta(int page, int perPage, String request) {
+        return "{\"page\":" + page + ",\"perPage\":" + perPage + ",\"request\":\"" + request + "\"}";
+    }
+
+}
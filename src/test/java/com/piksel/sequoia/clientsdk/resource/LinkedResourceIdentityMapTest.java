@@ -0,0 +1,123 @@
+package com.piksel.sequoia.clientsdk.resource;
+
+/*-
+ * #%L
+ * Sequoia Java Client SDK
+ * %%
+ * Copyright (C) 2018 Piksel
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.api.client.util.Key;
+import com.google.gson.Gson;
+import com.google.gson.JsonParser;
+import com.piksel.sequoia.clientsdk.configuration.DefaultClientConfiguration;
+
+public class LinkedResourceIdentityMapTest {
+
+    private static final JsonParser JSON_PARSER = new JsonParser();
+
+    private final Gson gson = DefaultClientConfiguration.getDefaultGson();
+
+    private PageableResourceEndpoint<WithLinked> endpoint;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        endpoint = mock(PageableResourceEndpoint.class);
+        when(endpoint.getResourceKey()).thenReturn("someResources");
+        when(endpoint.getEndpointType()).thenReturn(WithLinked.class);
+    }
+
+    @Test
+    public void givenALinkedResourceIncludedByManyResources_shouldDecodeItOnce() {
+        List<WithLinked> contents = new ResourceDeserializer<>(endpoint, gson).contentsFrom(JSON_PARSER.parse(page()));
+
+        assertSame(linked(contents.get(0)), linked(contents.get(1)));
+    }
+
+    @Test
+    public void givenALinkedResourceIncludedInManyPages_shouldDecodeItOncePerPageByDefault() {
+        ResourceDeserializer<WithLinked> deserializer = new ResourceDeserializer<>(endpoint, gson);
+
+        assertNotSame(linked(deserializer.contentsFrom(JSON_PARSER.parse(page())).get(0)),
+                linked(deserializer.contentsFrom(JSON_PARSER.parse(page())).get(0)));
+    }
+
+    @Test
+    public void givenSharingAcrossPages_shouldDecodeALinkedResourceOnceForAllPages() {
+        ResourceDeserializer<WithLinked> deserializer = new ResourceDeserializer<>(endpoint, gson, true);
+
+        assertSame(linked(deserializer.contentsFrom(JSON_PARSER.parse(page())).get(0)),
+                linked(deserializer.contentsFrom(JSON_PARSER.parse(page())).get(1)));
+    }
+
+    @Test
+    public void givenTheSameRefInDifferentRelationships_shouldDecodeEachOnce() {
+        LinkedResourceIdentityMap identityMap = new LinkedResourceIdentityMap();
+        Object first = identityMap.resolve("one", JSON_PARSER.parse("{\"ref\":\"owner:l1\"}"), SomeLinkedType.class, gson);
+        Object second = identityMap.resolve("two", JSON_PARSER.parse("{\"ref\":\"owner:l1\"}"), SomeLinkedType.class, gson);
+
+        assertNotSame(first, second);
+        assertEquals(2, identityMap.size());
+    }
+
+    @Test
+    public void givenALinkedResourceWithoutRef_shouldNotKeepIt() {
+        LinkedResourceIdentityMap identityMap = new LinkedResourceIdentityMap();
+        Object first = identityMap.resolve("one", JSON_PARSER.parse("{\"name\":\"l1\"}"), SomeLinkedType.class, gson);
+        Object second = identityMap.resolve("one", JSON_PARSER.parse("{\"name\":\"l1\"}"), SomeLinkedType.class, gson);
+
+        assertNotSame(first, second);
+        assertEquals(0, identityMap.size());
+    }
+
+    private static SomeLinkedType linked(WithLinked resource) {
+        return resource.someLinkedType.get(0).get();
+    }
+
+    private static String page() {
+        return "{\"meta\":{\"page\":1},"
+                + "\"someResources\":[{\"owner\":\"test\",\"name\":\"r1\",\"someLinkedTypeRefs\":[\"test:l1\"]},"
+                + "{\"owner\":\"test\",\"name\":\"r2\",\"someLinkedTypeRefs\":[\"test:l1\"]}],"
+                + "\"linked\":{\"someLinkedType\":[{\"ref\":\"test:l1\",\"owner\":\"test\",\"name\":\"l1\"}]}}";
+    }
+
+    public static class WithLinked extends Resource {
+
+        @Key
+        private List<String> someLinkedTypeRefs;
+
+        @DirectRelationship(ref = "someLinkedTypeRefs", relationship = "someLinkedType")
+        private List<Optional<SomeLinkedType>> someLinkedType;
+
+    }
+
+    public static class SomeLinkedType extends Resource {
+    }
+
+}
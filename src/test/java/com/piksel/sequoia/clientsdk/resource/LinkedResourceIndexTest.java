@@ -0,0 +1,75 @@
+package com.piksel.sequoia.clientsdk.resource;
+
+/*-
+ * #%L
+ * Sequoia Java Client SDK
+ * %%
+ * Copyright (C) 2018 Piksel
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.Assert.assertThat;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.piksel.sequoia.clientsdk.configuration.DefaultClientConfiguration;
+
+public class LinkedResourceIndexTest {
+
+    private static final JsonParser JSON_PARSER = new JsonParser();
+
+    private final LinkedResourceIndex index = new LinkedResourceIndex(JSON_PARSER.parse("{"
+            + "\"contents\":[{\"ref\":\"owner:c1\",\"name\":\"c1\"},{\"ref\":\"owner:c2\",\"name\":\"c2\"}],"
+            + "\"assets\":[{\"name\":\"a1\",\"contentRef\":\"owner:c1\"},{\"name\":\"a2\",\"contentRef\":\"owner:c2\"},"
+            + "{\"name\":\"a3\",\"contentRef\":\"owner:c1\"},{\"name\":\"a4\"}],"
+            + "\"offers\":[{\"name\":\"o1\",\"contentRefs\":[\"owner:c1\",\"owner:c2\"]},{\"name\":\"o2\",\"contentRefs\":[\"owner:c2\"]}]"
+            + "}"), DefaultClientConfiguration.getDefaultGson());
+
+    @Test
+    public void givenARef_shouldFindTheLinkedResourceWithThatRef() {
+        assertThat(names(index.lookup("contents", "ref", "owner:c2")), contains("c2"));
+    }
+
+    @Test
+    public void givenAnIndirectRef_shouldFindEveryLinkedResourceInPayloadOrder() {
+        assertThat(names(index.lookup("assets", "contentRef", "owner:c1")), contains("a1", "a3"));
+    }
+
+    @Test
+    public void givenArrayValuedRefs_shouldFindEveryLinkedResourceContainingTheRef() {
+        assertThat(names(index.lookup("offers", "contentRefs", "owner:c2")), contains("o1", "o2"));
+        assertThat(names(index.lookup("offers", "contentRefs", "owner:c1")), contains("o1"));
+    }
+
+    @Test
+    public void givenAnUnknownRefOrRelationship_shouldFindNothing() {
+        assertThat(index.lookup("assets", "contentRef", "owner:c3"), empty());
+        assertThat(index.lookup("channels", "ref", "owner:c1"), empty());
+        assertThat(index.lookup("assets", "contentRef", null), empty());
+    }
+
+    private static List<String> names(List<JsonElement> linkedResources) {
+        return linkedResources.stream().map(element -> element.getAsJsonObject().get("name").getAsString())
+                .collect(Collectors.toList());
+    }
+
+}
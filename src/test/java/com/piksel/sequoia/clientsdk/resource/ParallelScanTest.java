@@ -0,0 +1,199 @@
+package com.piksel.sequoia.clientsdk.resource;
+
+/*-
+ * #%L
+ * Sequoia Java Client SDK
+ * %%
+ * Copyright (C) 2018 Piksel
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static com.piksel.sequoia.clientsdk.criteria.StringExpressionFactory.field;
+import static com.piksel.sequoia.clientsdk.resource.Resources.where;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.google.api.client.http.GenericUrl;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.piksel.sequoia.clientsdk.DefaultJsonElementResponse;
+import com.piksel.sequoia.clientsdk.RequestExecutionException;
+import com.piksel.sequoia.clientsdk.Response;
+import com.piksel.sequoia.clientsdk.configuration.DefaultClientConfiguration;
+import com.piksel.sequoia.clientsdk.request.AsyncRequestClient;
+import com.piksel.sequoia.clientsdk.request.RequestClient;
+
+public class ParallelScanTest {
+
+    private RequestClient requestClient;
+    private AsyncRequestClient asyncRequestClient;
+    private ResourceEndpointHandler<Resource> endpoint;
+    private Map<Integer, CompletableFuture<Response<JsonElement>>> pages;
+
+    @Before
+    public void setUp() {
+        requestClient = mock(RequestClient.class);
+        asyncRequestClient = mock(AsyncRequestClient.class);
+        when(requestClient.async()).thenReturn(asyncRequestClient);
+        endpoint = new ResourceEndpointHandler<>(requestClient, "contents", "http://localhost/data/contents",
+                Resource.class, DefaultClientConfiguration.getDefaultGson());
+        pages = new HashMap<>();
+        when(asyncRequestClient.executeGetRequestAsync(any(GenericUrl.class), anyMap())).thenAnswer(invocation -> {
+            GenericUrl url = (GenericUrl) invocation.getArguments()[0];
+            return pages.computeIfAbsent(Integer.parseInt((String) url.getFirst("page")),
+                    page -> new CompletableFuture<>());
+        });
+    }
+
+    @Test
+    public void scanParallel_requestsPagesByNumberAndKeepsPageOrder() {
+        firstPage(2, 7);
+        for (int page = 2; page <= 4; page++) {
+            pages.put(page, CompletableFuture.completedFuture(response(page(page, 2, 7))));
+        }
+
+        ResourceIterable<Resource> resources = endpoint.scanParallel(where(field("type").equalTo("movie")), 2);
+
+        assertThat(namesOf(resources), contains("r1", "r2", "r3", "r4", "r5", "r6", "r7"));
+        assertThat(resources.totalCount().get(), is(7));
+        ArgumentCaptor<GenericUrl> firstUrl = ArgumentCaptor.forClass(GenericUrl.class);
+        verify(requestClient).executeGetRequest(firstUrl.capture(), anyMap());
+        assertThat(firstUrl.getValue().getFirst("count"), is("true"));
+        assertThat(firstUrl.getValue().getFirst("page"), is("1"));
+    }
+
+    @Test
+    public void scanParallel_criteriaLeftUnchanged() {
+        firstPage(2, 4);
+        pages.put(2, CompletableFuture.completedFuture(response(page(2, 2, 4))));
+        ResourceCriteria criteria = where(field("type").equalTo("movie")).page(3);
+
+        namesOf(endpoint.scanParallel(criteria, 2));
+
+        assertThat(criteria.getPage().getPage(), is(3));
+        assertThat(criteria.getCount(), is(nullValue()));
+        ArgumentCaptor<GenericUrl> pageUrl = ArgumentCaptor.forClass(GenericUrl.class);
+        verify(asyncRequestClient).executeGetRequestAsync(pageUrl.capture(), anyMap());
+        assertThat(pageUrl.getValue().getFirst("count"), is("true"));
+        assertThat(pageUrl.getValue().getFirst("page"), is("2"));
+    }
+
+    @Test
+    public void scanParallel_boundsPagesInFlight() {
+        firstPage(2, 10);
+
+        endpoint.scanParallel(where(field("type").equalTo("movie")), 2);
+
+        assertThat(pages.keySet(), contains(2, 3));
+    }
+
+    @Test
+    public void scanParallel_completionOrder_providesPagesAsTheyArrive() {
+        firstPage(2, 6);
+        ResourceIterable<Resource> resources = endpoint.scanParallel(where(field("type").equalTo("movie")), 2,
+                ScanOrder.COMPLETION_ORDER, new HashMap<>());
+        assertThat(resources.next().getName(), is("r1"));
+        assertThat(resources.next().getName(), is("r2"));
+
+        pages.get(3).complete(response(page(3, 2, 6)));
+
+        assertThat(resources.next().getName(), is("r5"));
+        assertThat(resources.next().getName(), is("r6"));
+        pages.get(2).complete(response(page(2, 2, 6)));
+        assertThat(namesOf(resources), contains("r3", "r4"));
+    }
+
+    @Test
+    public void scanParallel_forEachPage_providesEachPage() {
+        firstPage(2, 5);
+        for (int page = 2; page <= 3; page++) {
+            pages.put(page, CompletableFuture.completedFuture(response(page(page, 2, 5))));
+        }
+        List<Integer> pageSizes = new ArrayList<>();
+
+        endpoint.scanParallel(where(field("type").equalTo("movie")), 2).forEachPage(page -> pageSizes.add(page.size()));
+
+        assertThat(pageSizes, contains(2, 2, 1));
+    }
+
+    @Test(expected = RequestExecutionException.class)
+    public void scanParallel_pageFailure_thrownWhenReached() {
+        firstPage(2, 4);
+        CompletableFuture<Response<JsonElement>> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new RequestExecutionException(new IOException("failed")));
+        pages.put(2, failed);
+
+        ResourceIterable<Resource> resources = endpoint.scanParallel(where(field("type").equalTo("movie")), 2);
+
+        namesOf(resources);
+    }
+
+    @Test
+    public void scanParallel_withoutTotalCount_iteratesPagesInTurn() {
+        when(requestClient.executeGetRequest(any(GenericUrl.class), anyMap()))
+                .thenReturn(response("{\"meta\":{\"page\":1,\"perPage\":2},\"contents\":[{\"owner\":\"test\",\"name\":\"r1\"}]}"));
+
+        ResourceIterable<Resource> resources = endpoint.scanParallel(where(field("type").equalTo("movie")), 2);
+
+        assertThat(namesOf(resources), contains("r1"));
+        verify(asyncRequestClient, never()).executeGetRequestAsync(any(GenericUrl.class), anyMap());
+    }
+
+    private void firstPage(int perPage, int totalCount) {
+        when(requestClient.executeGetRequest(any(GenericUrl.class), anyMap()))
+                .thenReturn(response(page(1, perPage, totalCount)));
+    }
+
+    private static String page(int page, int perPage, int totalCount) {
+        List<String> resources = new ArrayList<>();
+        for (int index = (page - 1) * perPage + 1; index <= Math.min(page * perPage, totalCount); index++) {
+            resources.add("{\"owner\":\"test\",\"name\":\"r" + index + "\"}");
+        }
+        return "{\"meta\":{\"page\":" + page + ",\"perPage\":" + perPage + ",\"totalCount\":" + totalCount
+                + "},\"contents\":[" + String.join(",", resources) + "]}";
+    }
+
+    private static Response<JsonElement> response(String json) {
+        return DefaultJsonElementResponse.builder().payload(Optional.of(new JsonParser().parse(json)))
+                .statusCode(200).successStatusCode(true).build();
+    }
+
+    private static List<String> namesOf(ResourceIterable<Resource> resources) {
+        List<String> names = new ArrayList<>();
+        resources.forEachRemaining(resource -> names.add(resource.getName()));
+        return names;
+    }
+
+}
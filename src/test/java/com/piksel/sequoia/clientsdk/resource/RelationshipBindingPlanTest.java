@@ -0,0 +1,118 @@
+package com.piksel.sequoia.clientsdk.resource;
+
+/*-
+ * #%L
+ * Sequoia Java Client SDK
+ * %%
+ * Copyright (C) 2018 Piksel
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.Test;
+
+import com.piksel.sequoia.clientsdk.resource.RelationshipBindingPlan.RelationshipBinding;
+
+public class RelationshipBindingPlanTest {
+
+    @Test
+    public void givenTheSameType_shouldReuseThePlan() {
+        assertSame(RelationshipBindingPlan.forType(WithRelationships.class), RelationshipBindingPlan.forType(WithRelationships.class));
+    }
+
+    @Test
+    public void givenAResourceType_shouldResolveEveryRelationshipField() {
+        assertEquals(4, RelationshipBindingPlan.forType(WithRelationships.class).getBindings().size());
+    }
+
+    @Test
+    public void givenADirectCollectionOfOptionals_shouldResolveItsShapeAndTargetType() {
+        RelationshipBinding binding = bindingFor("linkedItems");
+
+        assertTrue(binding.isDirect());
+        assertTrue(binding.isCollection());
+        assertTrue(binding.isCollectionOfOptionals());
+        assertEquals("items", binding.getRelationship());
+        assertEquals(Linked.class, binding.getTargetType());
+    }
+
+    @Test
+    public void givenAnIndirectLazyRelationship_shouldResolveItsShapeAndRef() {
+        RelationshipBinding binding = bindingFor("lazyItems");
+
+        assertFalse(binding.isDirect());
+        assertTrue(binding.isLazyLoading());
+        assertEquals("parentRef", binding.getIndirectRef());
+        assertEquals(Linked.class, binding.getElementType());
+    }
+
+    @Test
+    public void givenADirectRelationship_shouldReadTheRefAndSetTheField() {
+        WithRelationships resource = new WithRelationships();
+        resource.linkedItemRefs = Arrays.asList("owner:one");
+        RelationshipBinding binding = bindingFor("linkedItems");
+
+        binding.set(resource, Arrays.asList(Optional.of(new Linked())));
+
+        assertEquals(Arrays.asList("owner:one"), binding.refOf(resource));
+        assertEquals(1, resource.linkedItems.size());
+    }
+
+    @Test
+    public void givenAMissingRefField_shouldReadNoRef() {
+        assertNull(bindingFor("unresolvable").refOf(new WithRelationships()));
+    }
+
+    private static RelationshipBinding bindingFor(String fieldName) {
+        try {
+            Field field = WithRelationships.class.getDeclaredField(fieldName);
+            return RelationshipBindingPlan.forType(WithRelationships.class).bindingFor(field);
+        } catch (NoSuchFieldException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static class WithRelationships extends Resource {
+
+        private List<String> linkedItemRefs;
+
+        @DirectRelationship(ref = "linkedItemRefs", relationship = "items")
+        private List<Optional<Linked>> linkedItems;
+
+        @DirectRelationship(ref = "missingRef", relationship = "items")
+        private Linked unresolvable;
+
+        @IndirectRelationship(ref = "parentRef", relationship = "children")
+        private LinkedResourceIterable<Linked> lazyItems;
+
+        @IndirectRelationship(ref = "parentRef", relationship = "children")
+        private Optional<Linked> firstChild;
+
+    }
+
+    public static class Linked extends Resource {
+    }
+
+}
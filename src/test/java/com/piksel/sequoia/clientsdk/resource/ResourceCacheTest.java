@@ -0,0 +1,249 @@
+package com.piksel.sequoia.clientsdk.resource;
+
+/*-
+ * #%L
+ * Sequoia Java Client SDK
+ * %%
+ * Copyright (C) 2018 Piksel
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static com.piksel.sequoia.clientsdk.resource.ResourceFixtures.refsOf;
+import static com.piksel.sequoia.clientsdk.resource.ResourceFixtures.resource;
+import static com.piksel.sequoia.clientsdk.resource.ResourceFixtures.response;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyMap;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.anyVararg;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.api.client.http.GenericUrl;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.piksel.sequoia.clientsdk.DefaultJsonElementResponse;
+import com.piksel.sequoia.clientsdk.ResourceResponse;
+import com.piksel.sequoia.clientsdk.Response;
+import com.piksel.sequoia.clientsdk.configuration.DefaultClientConfiguration;
+import com.piksel.sequoia.clientsdk.request.RequestClient;
+
+public class ResourceCacheTest {
+
+    private static final Reference ONE = Reference.fromOwnerAndName("test", "one");
+    private static final Reference TWO = Reference.fromOwnerAndName("test", "two");
+    private static final Reference THREE = Reference.fromOwnerAndName("test", "three");
+
+    private final Gson gson = DefaultClientConfiguration.getDefaultGson();
+
+    private RequestClient requestClient;
+    private ResourceCache resourceCache;
+    private ResourceEndpointHandler<Resource> endpoint;
+
+    @Before
+    public void setUp() {
+        requestClient = mock(RequestClient.class);
+        resourceCache = ResourceCache.builder().build();
+        endpoint = new ResourceEndpointHandler<>(requestClient, "contents", "http://localhost/data/contents",
+                Resource.class, gson, ResourceEndpointConfiguration.builder().resourceCache(resourceCache).build());
+    }
+
+    @Test
+    public void read_secondReadServedFromCache() {
+        when(requestClient.executeGetRequest(any(GenericUrl.class), anyMap(), eq(ONE)))
+                .thenReturn(response(200, ONE));
+
+        Resource first = endpoint.read(ONE).getPayload().get().single();
+        first.setTitle("modified by the first reader");
+        ResourceResponse<Resource> response = endpoint.read(ONE);
+        Resource second = response.getPayload().get().single();
+
+        assertThat(response.getStatusCode(), is(200));
+        assertThat(second, is(not(sameInstance(first))));
+        assertThat(second.getRef(), is(ONE));
+        assertThat(second.getTitle(), is(nullValue()));
+        verify(requestClient, times(1)).executeGetRequest(any(GenericUrl.class), anyMap(), eq(ONE));
+        assertThat(resourceCache.getStats(), is(new ResourceCacheStats(1, 1, 0, 1)));
+    }
+
+    @Test
+    public void read_cachesTheJsonOfTheResponse() {
+        Response<JsonElement> fetched = response(200, ONE);
+        when(requestClient.executeGetRequest(any(GenericUrl.class), anyMap(), eq(ONE))).thenReturn(fetched);
+
+        endpoint.read(ONE);
+
+        JsonElement received = fetched.getPayload().get().getAsJsonObject().get("contents").getAsJsonArray().get(0);
+        assertThat(resourceCache.get("http://localhost/data/contents", Collections.emptyMap(), ONE),
+                is(sameInstance(received)));
+    }
+
+    @Test
+    public void readCollection_fetchesOnlyMissingReferencesAndKeepsOrder() {
+        when(requestClient.executeGetRequest(any(GenericUrl.class), anyMap(), eq(TWO)))
+                .thenReturn(response(200, TWO));
+        when(requestClient.executeGetRequest(any(GenericUrl.class), anyMap(), (Reference[]) anyVararg()))
+                .thenReturn(response(200, THREE, ONE));
+        endpoint.read(TWO);
+
+        ResourceResponse<Resource> response = endpoint.read(Arrays.asList(ONE, TWO, THREE));
+
+        assertThat(refsOf(response), contains(ONE, TWO, THREE));
+        verify(requestClient).executeGetRequest(any(GenericUrl.class), anyMap(), eq(ONE), eq(THREE));
+    }
+
+    @Test
+    public void readCollection_allCached_noRequest() {
+        when(requestClient.executeGetRequest(any(GenericUrl.class), anyMap(), (Reference[]) anyVararg()))
+                .thenReturn(response(200, ONE, TWO));
+        endpoint.read(Arrays.asList(ONE, TWO));
+
+        ResourceResponse<Resource> response = endpoint.read(Arrays.asList(TWO, ONE));
+
+        assertThat(refsOf(response), contains(TWO, ONE));
+        verify(requestClient, times(1)).executeGetRequest(any(GenericUrl.class), anyMap(),
+                (Reference[]) anyVararg());
+    }
+
+    @Test
+    public void read_unsuccessfulResponseReturnedAndNotCached() {
+        when(requestClient.executeGetRequest(any(GenericUrl.class), anyMap(), eq(ONE)))
+                .thenReturn(DefaultJsonElementResponse.builder().payload(Optional.empty())
+                        .statusCode(404).successStatusCode(false).build());
+
+        ResourceResponse<Resource> response = endpoint.read(ONE);
+        endpoint.read(ONE);
+
+        assertThat(response.getStatusCode(), is(404));
+        assertThat(response.getPayload().isPresent(), is(false));
+        verify(requestClient, times(2)).executeGetRequest(any(GenericUrl.class), anyMap(), eq(ONE));
+    }
+
+    @Test
+    public void updateAndDelete_invalidateTheirReferences() {
+        when(requestClient.executeGetRequest(any(GenericUrl.class), anyMap(), (Reference[]) anyVararg()))
+                .thenReturn(response(200, ONE, TWO, THREE));
+        when(requestClient.executePutRequest(any(GenericUrl.class), anyMap(), anyString(), any(Resource.class),
+                eq(ONE))).thenReturn(response(200, ONE));
+        when(requestClient.executeDeleteRequest(any(GenericUrl.class), anyMap(), (Reference[]) anyVararg()))
+                .thenReturn(response(204));
+        endpoint.read(Arrays.asList(ONE, TWO, THREE));
+
+        endpoint.update(resource(ONE), ONE);
+        endpoint.delete(TWO);
+
+        assertThat(resourceCache.getStats().getSize(), is(1L));
+        assertThat(gson.fromJson(resourceCache.get(endpoint.endpointUrl.build(), Collections.emptyMap(), THREE),
+                Resource.class).getRef(), is(THREE));
+    }
+
+    @Test
+    public void readOvertakenByAWrite_notCached() {
+        when(requestClient.executeGetRequest(any(GenericUrl.class), anyMap(), eq(ONE))).thenAnswer(invocation -> {
+            endpoint.delete(ONE);
+            return response(200, ONE);
+        });
+        when(requestClient.executeDeleteRequest(any(GenericUrl.class), anyMap(), (Reference[]) anyVararg()))
+                .thenReturn(response(204));
+
+        ResourceResponse<Resource> response = endpoint.read(ONE);
+
+        assertThat(response.getPayload().get().single().getRef(), is(ONE));
+        assertThat(resourceCache.getStats().getSize(), is(0L));
+    }
+
+    @Test
+    public void putAfterInvalidation_ignored() {
+        String endpointKey = endpoint.endpointUrl.build();
+        long generation = resourceCache.generation(endpointKey, ONE);
+        resourceCache.invalidate(endpointKey, Collections.singletonList(ONE));
+
+        resourceCache.put(endpointKey, Collections.emptyMap(), ONE, gson.toJsonTree(resource(ONE)), generation);
+
+        assertThat(resourceCache.get(endpointKey, Collections.emptyMap(), ONE), is(nullValue()));
+    }
+
+    @Test
+    public void store_invalidatesStoredReferences() {
+        when(requestClient.executeGetRequest(any(GenericUrl.class), anyMap(), (Reference[]) anyVararg()))
+                .thenReturn(response(200, ONE, TWO));
+        when(requestClient.executePostRequest(any(GenericUrl.class), anyMap(), anyString(),
+                (Resource[]) anyVararg())).thenReturn(response(201, ONE));
+        endpoint.read(Arrays.asList(ONE, TWO));
+
+        endpoint.store(resource(ONE));
+
+        assertThat(resourceCache.getStats().getSize(), is(1L));
+    }
+
+    @Test
+    public void headers_partOfTheKey() {
+        when(requestClient.executeGetRequest(any(GenericUrl.class), anyMap(), eq(ONE)))
+                .thenReturn(response(200, ONE));
+
+        endpoint.read(ONE);
+        endpoint.read(ONE, Collections.singletonMap("x-test", "a"));
+
+        verify(requestClient, times(2)).executeGetRequest(any(GenericUrl.class), anyMap(), eq(ONE));
+    }
+
+    @Test
+    public void expiredAndEvictedResources_readAgain() throws Exception {
+        resourceCache = ResourceCache.builder().maximumSize(1).expireAfterWrite(Duration.ofMillis(50)).build();
+        endpoint = new ResourceEndpointHandler<>(requestClient, "contents", "http://localhost/data/contents",
+                Resource.class, gson, ResourceEndpointConfiguration.builder().resourceCache(resourceCache).build());
+        when(requestClient.executeGetRequest(any(GenericUrl.class), anyMap(), eq(ONE)))
+                .thenReturn(response(200, ONE));
+        when(requestClient.executeGetRequest(any(GenericUrl.class), anyMap(), eq(TWO)))
+                .thenReturn(response(200, TWO));
+
+        endpoint.read(ONE);
+        endpoint.read(TWO);
+        endpoint.read(TWO);
+        Thread.sleep(100);
+        endpoint.read(TWO);
+
+        verify(requestClient, times(2)).executeGetRequest(any(GenericUrl.class), anyMap(), eq(TWO));
+        assertThat(resourceCache.getStats().getEvictionCount() >= 2, is(true));
+    }
+
+    @Test
+    public void invalidateAll_emptiesTheCache() {
+        when(requestClient.executeGetRequest(any(GenericUrl.class), anyMap(), eq(ONE)))
+                .thenReturn(response(200, ONE));
+        endpoint.read(ONE);
+
+        resourceCache.invalidateAll();
+
+        assertThat(resourceCache.getStats().getSize(), is(0L));
+    }
+
+}
@@ -0,0 +1,74 @@
+package com.piksel.sequoia.clientsdk.resource;
+
+
+/*-
+ * #%L
+ * Sequoia Java Client SDK
+ * %%
+ * Copyright (C) 2018 Piksel
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.piksel.sequoia.clientsdk.DefaultJsonElementResponse;
+import com.piksel.sequoia.clientsdk.ResourceResponse;
+import com.piksel.sequoia.clientsdk.Response;
+import com.piksel.sequoia.clientsdk.configuration.DefaultClientConfiguration;
+
+/**
+ * Builds the resources and json responses of the {@code contents} endpoint
+ * used by the endpoint tests.
+ */
+final class ResourceFixtures {
+
+    private static final Gson GSON = DefaultClientConfiguration.getDefaultGson();
+
+    private ResourceFixtures() {
+    }
+
+    /**
+     * A json response of the given status holding a resource for each of the
+     * given references.
+     */
+    static Response<JsonElement> response(int status, Reference... references) {
+        List<String> resources = new ArrayList<>();
+        for (Reference reference : references) {
+            resources.add(GSON.toJson(resource(reference)));
+        }
+        JsonElement payload = new JsonParser().parse("{\"meta\":{},\"contents\":[" + String.join(",", resources) + "]}");
+        return DefaultJsonElementResponse.builder().payload(Optional.of(payload)).statusCode(status)
+                .successStatusCode(status < 300).build();
+    }
+
+    static Resource resource(Reference reference) {
+        Resource resource = new Resource();
+        resource.setOwner(reference.getOwner());
+        resource.setName(reference.getName());
+        resource.setVersion("1");
+        return resource;
+    }
+
+    static List<Reference> refsOf(ResourceResponse<Resource> response) {
+        List<Reference> refs = new ArrayList<>();
+        response.getPayload().get().forEachRemaining(resource -> refs.add(resource.getRef()));
+        return refs;
+    }
+
+}
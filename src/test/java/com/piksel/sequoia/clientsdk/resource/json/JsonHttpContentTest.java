@@ -0,0 +1,143 @@
+package com.piksel.sequoia.clientsdk.resource.json;
+
+/*-
+ * #%L
+ * Sequoia Java Client SDK
+ * %%
+ * Copyright (C) 2018 Piksel
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.io.ByteStreams;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonSerializer;
+import com.piksel.sequoia.clientsdk.configuration.RequestContentConfiguration;
+
+public class JsonHttpContentTest {
+
+    private final AtomicInteger serializations = new AtomicInteger();
+
+    private Gson gson;
+
+    @Before
+    public void setUp() {
+        gson = new GsonBuilder()
+                .registerTypeAdapter(Body.class, (JsonSerializer<Body>) (body, type, context) -> {
+                    serializations.incrementAndGet();
+                    return new JsonPrimitive(body.name);
+                })
+                .create();
+    }
+
+    @Test
+    public void shouldSerializeTheDataOnceForTheLengthAndEveryWrite() throws IOException {
+        JsonHttpContent content = new JsonHttpContent(gson, new Body("ñandú"));
+
+        assertThat(content.getLength(), is((long) "\"ñandú\"".getBytes(UTF_8).length));
+        assertThat(write(content), is("\"ñandú\""));
+        assertThat(write(content), is("\"ñandú\""));
+        assertThat(serializations.get(), is(1));
+    }
+
+    @Test
+    public void shouldSerializeStreamedDataOnEveryWriteWithUnknownLength() throws IOException {
+        JsonHttpContent content = new JsonHttpContent(gson, new Body("test"),
+                RequestContentConfiguration.builder().streamed(true).build());
+
+        assertThat(content.getLength(), is(-1L));
+        assertThat(write(content), is("\"test\""));
+        assertThat(write(content), is("\"test\""));
+        assertThat(serializations.get(), is(2));
+        assertThat(content.isStreamed(), is(true));
+    }
+
+    @Test
+    public void shouldGzipTheEncodedDataOnceAboveTheThreshold() throws IOException {
+        RequestContentConfiguration configuration = RequestContentConfiguration.builder()
+                .gzipThresholdBytes(10).build();
+        JsonHttpContent small = new JsonHttpContent(gson, new Body("test"), configuration);
+        JsonHttpContent large = new JsonHttpContent(gson, new Body("a longer test"), configuration);
+
+        assertThat(small.isGzipped(), is(false));
+        assertThat(write(small), is("\"test\""));
+        assertThat(large.isGzipped(), is(true));
+        byte[] compressed = writeBytes(large);
+        assertThat((long) compressed.length, is(large.getLength()));
+        assertThat(gunzip(compressed), is("\"a longer test\""));
+        assertThat(gunzip(writeBytes(large)), is("\"a longer test\""));
+        assertThat(serializations.get(), is(2));
+        assertThat(configuration.getStatistics().getRequestBytes(), is(36L));
+        assertThat(configuration.getStatistics().getRequestBytesSent(), is(6L + 2 * compressed.length));
+    }
+
+    @Test
+    public void shouldGzipStreamedDataWhenCompressionIsEnabled() throws IOException {
+        RequestContentConfiguration configuration = RequestContentConfiguration.builder()
+                .streamed(true).gzipThresholdBytes(0).build();
+        JsonHttpContent content = new JsonHttpContent(gson, new Body("test"), configuration);
+
+        byte[] compressed = writeBytes(content);
+
+        assertThat(content.isGzipped(), is(true));
+        assertThat(gunzip(compressed), is("\"test\""));
+        assertThat(configuration.getStatistics().getRequestBytes(), is(6L));
+        assertThat(configuration.getStatistics().getRequestBytesSent(), is((long) compressed.length));
+    }
+
+    private String gunzip(byte[] compressed) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return new String(ByteStreams.toByteArray(in), UTF_8);
+        }
+    }
+
+    private byte[] writeBytes(JsonHttpContent content) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        content.writeTo(out);
+        return out.toByteArray();
+    }
+
+    private String write(JsonHttpContent content) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        content.writeTo(out);
+        return new String(out.toByteArray(), UTF_8);
+    }
+
+    private static class Body {
+
+        private final String name;
+
+        Body(String name) {
+            this.name = name;
+        }
+
+    }
+
+}
@@ -30,6 +30,13 @@ import static org.hamcrest.core.IsNull.nullValue;
 import static org.junit.Assert.assertThat;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import javax.inject.Inject;
 
@@ -74,6 +81,25 @@ public class HttpClientAccessCredentialProviderTest {
         assertThat(credential.getRefreshToken(), is(nullValue()));
     }
 
+    @Test
+    public void shouldAcquireASingleAccessTokenForConcurrentRequests() throws Exception {
+        mockResponseProvider.clearResponses();
+        withAccessToken("SOME TOKEN");
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<Credential>> requests = IntStream.range(0, 8)
+                    .mapToObj(i -> (Callable<Credential>) accessTokenProvider::getCredential)
+                    .collect(Collectors.toList());
+
+            for (Future<Credential> credential : executor.invokeAll(requests)) {
+                assertThat(credential.get().getAccessToken(), is("SOME TOKEN"));
+            }
+            assertThat(mockResponseProvider.hasAllResponsesBeenDelivered(), is(true));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
     @Test
     public void shouldReportErrorOnFailureScenario() {
         thrown.expect(AccessTokenAcquisitionException.class);
@@ -0,0 +1,51 @@
+package com.piksel.sequoia.clientsdk.transport;
+
+/*-
+ * #%L
+ * Sequoia Java Client SDK
+ * %%
+ * Copyright (C) 2018 Piksel
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.Collections;
+
+import org.junit.Test;
+
+import nl.jqno.equalsverifier.EqualsVerifier;
+
+public class ConnectionPoolConfigurationTest {
+
+    @Test
+    public void shouldProvideDefaultPoolSizing() {
+        ConnectionPoolConfiguration configuration = ConnectionPoolConfiguration.builder().build();
+
+        assertThat(configuration.getMaxConnectionsTotal(), is(200));
+        assertThat(configuration.getMaxConnectionsPerHost(), is(20));
+        assertThat(configuration.getHostMaxConnections(), is(Collections.emptyMap()));
+        assertThat(configuration.getValidateAfterInactivityMillis(), is(2000));
+        assertThat(configuration.getIdleConnectionTimeoutSeconds(), is(30));
+    }
+
+    @Test
+    public void equalsContract() {
+        EqualsVerifier.forClass(ConnectionPoolConfiguration.class).verify();
+        EqualsVerifier.forClass(ConnectionPoolStats.class).verify();
+    }
+
+}
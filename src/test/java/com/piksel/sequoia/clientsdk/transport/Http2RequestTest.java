@@ -0,0 +1,125 @@
+package com.piksel.sequoia.clientsdk.transport;
+
+/*-
+ * #%L
+ * Sequoia Java Client SDK
+ * %%
+ * Copyright (C) 2018 Piksel
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.google.api.client.http.ByteArrayContent;
+import com.google.api.client.http.LowLevelHttpResponse;
+import com.google.api.client.util.StreamingContent;
+
+public class Http2RequestTest {
+
+    private Http2Transport transport;
+
+    private JdkHttpClient client;
+
+    private Http2Response response;
+
+    @Before
+    public void setUp() throws IOException {
+        transport = mock(Http2Transport.class);
+        client = mock(JdkHttpClient.class);
+        response = new Http2Response(200, Collections.emptyMap(), null);
+        when(transport.client(anyInt())).thenReturn(client);
+        when(client.send(anyString(), any(URI.class), anyListOf(String[].class), any(byte[].class), anyInt()))
+                .thenReturn(response);
+    }
+
+    @Test
+    public void shouldSendTheRequestWithTheGivenTimeouts() throws IOException {
+        Http2Request request = new Http2Request(transport, "GET", "http://localhost/resources");
+        request.addHeader("Accept-Encoding", "gzip");
+        request.addHeader("Host", "localhost");
+        request.setTimeout(1000, 2000);
+
+        LowLevelHttpResponse lowLevelResponse = request.execute();
+
+        assertThat(lowLevelResponse, is(response));
+        verify(transport).client(1000);
+        List<String[]> headers = sentHeaders(null, 2000);
+        assertThat(headers.size(), is(1));
+        assertThat(headers.get(0), is(new String[] { "Accept-Encoding", "gzip" }));
+    }
+
+    @Test
+    public void shouldSendTheBufferedContentWithItsType() throws IOException {
+        Http2Request request = new Http2Request(transport, "POST", "http://localhost/resources");
+        request.setStreamingContent(new ByteArrayContent("application/json", "{}".getBytes()));
+        request.setContentType("application/json");
+        request.setContentLength(2);
+
+        request.execute();
+
+        List<String[]> headers = sentHeaders("{}".getBytes(), 0);
+        assertThat(headers.size(), is(1));
+        assertThat(headers.get(0), is(new String[] { "Content-Type", "application/json" }));
+        assertThat(request.getContentEncoding(), is(nullValue()));
+    }
+
+    @Test
+    public void shouldSendTheContentOfUnknownLengthAsItIsWritten() throws IOException {
+        StreamingContent content = out -> out.write("{}".getBytes());
+        when(client.send(anyString(), any(URI.class), anyListOf(String[].class), eq(content), anyInt()))
+                .thenReturn(response);
+        Http2Request request = new Http2Request(transport, "POST", "http://localhost/resources");
+        request.setStreamingContent(content);
+        request.setContentType("application/json");
+        request.setContentLength(-1);
+
+        LowLevelHttpResponse lowLevelResponse = request.execute();
+
+        assertThat(lowLevelResponse, is(response));
+        verify(client).send(eq("POST"), eq(URI.create("http://localhost/resources")), anyListOf(String[].class),
+                eq(content), eq(0));
+        verify(client, never()).send(anyString(), any(URI.class), anyListOf(String[].class), any(byte[].class),
+                anyInt());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String[]> sentHeaders(byte[] content, int readTimeout) throws IOException {
+        ArgumentCaptor<List> headers = ArgumentCaptor.forClass(List.class);
+        verify(client).send(anyString(), eq(URI.create("http://localhost/resources")), headers.capture(),
+                eq(content), eq(readTimeout));
+        return headers.getValue();
+    }
+
+}
@@ -0,0 +1,131 @@
+package com.piksel.sequoia.clientsdk.transport;
+
+/*-
+ * #%L
+ * Sequoia Java Client SDK
+ * %%
+ * Copyright (C) 2018 Piksel
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalToJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assume.assumeFalse;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import com.google.api.client.http.GenericUrl;
+import com.google.api.client.http.HttpResponse;
+import com.google.api.client.http.json.JsonHttpContent;
+import com.google.api.client.json.gson.GsonFactory;
+
+public class Http2TransportTest {
+
+    @Rule
+    public WireMockRule wireMockRule = new WireMockRule(wireMockConfig().dynamicPort());
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void shouldNotBeCreatedWhenTheRuntimeHasNoHttpClient() {
+        assumeFalse(Http2Transport.isSupported());
+
+        new Http2Transport();
+    }
+
+    @Test
+    public void shouldExecuteRequestsWithTheConfiguredTimeouts() throws IOException {
+        assumeTrue(Http2Transport.isSupported());
+        wireMockRule.stubFor(get(urlEqualTo("/resources")).willReturn(aResponse()
+                .withStatus(200).withHeader("Content-Type", "application/json").withBody("{\"a\":1}")));
+
+        HttpResponse response = new Http2Transport().createRequestFactory()
+                .buildGetRequest(url("/resources"))
+                .setConnectTimeout(1000)
+                .setReadTimeout(1000)
+                .execute();
+
+        assertThat(response.getStatusCode(), is(200));
+        assertThat(response.getContentType(), is("application/json"));
+        assertThat(response.parseAsString(), is("{\"a\":1}"));
+    }
+
+    @Test
+    public void shouldSendTheRequestContent() throws IOException {
+        assumeTrue(Http2Transport.isSupported());
+        wireMockRule.stubFor(post(urlEqualTo("/resources")).willReturn(aResponse().withStatus(201)));
+
+        HttpResponse response = new Http2Transport().createRequestFactory()
+                .buildPostRequest(url("/resources"), new JsonHttpContent(
+                        GsonFactory.getDefaultInstance(), Collections.singletonMap("name", "test")))
+                .execute();
+
+        assertThat(response.getStatusCode(), is(201));
+        wireMockRule.verify(postRequestedFor(urlEqualTo("/resources"))
+                .withRequestBody(equalToJson("{\"name\":\"test\"}")));
+    }
+
+    @Test
+    public void shouldReadResponseHeadersIgnoringCaseAndPseudoHeaders() throws IOException {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        headers.put(":status", Collections.singletonList("200"));
+        headers.put("content-type", Collections.singletonList("application/json"));
+        headers.put("content-length", Collections.singletonList("2"));
+        headers.put("vary", Arrays.asList("Accept", "Accept-Encoding"));
+        AtomicBoolean closed = new AtomicBoolean();
+        InputStream content = new ByteArrayInputStream("{}".getBytes()) {
+            @Override
+            public void close() {
+                closed.set(true);
+            }
+        };
+
+        Http2Response response = new Http2Response(200, headers, content);
+
+        assertThat(response.getStatusCode(), is(200));
+        assertThat(response.getContentType(), is("application/json"));
+        assertThat(response.getContentLength(), is(2L));
+        assertThat(response.getContentEncoding(), is(nullValue()));
+        assertThat(response.getHeaderCount(), is(4));
+        assertThat(response.getHeaderName(3), is("vary"));
+        assertThat(response.getHeaderValue(3), is("Accept-Encoding"));
+        response.disconnect();
+        assertThat(closed.get(), is(true));
+    }
+
+    private GenericUrl url(String path) {
+        return new GenericUrl("http://localhost:" + wireMockRule.port() + path);
+    }
+
+}
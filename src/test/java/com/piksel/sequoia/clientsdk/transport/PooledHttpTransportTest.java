@@ -0,0 +1,150 @@
+package com.piksel.sequoia.clientsdk.transport;
+
+/*-
+ * #%L
+ * Sequoia Java Client SDK
+ * %%
+ * Copyright (C) 2018 Piksel
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalToJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.util.Collections;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import com.google.api.client.http.GenericUrl;
+import com.google.api.client.http.HttpRequest;
+import com.google.api.client.http.HttpResponse;
+import com.google.api.client.http.HttpResponseException;
+import com.google.api.client.http.json.JsonHttpContent;
+import com.google.api.client.json.gson.GsonFactory;
+import com.piksel.sequoia.clientsdk.MessageConfiguration;
+import com.piksel.sequoia.clientsdk.configuration.ClientConfiguration;
+import com.piksel.sequoia.clientsdk.configuration.HostConfiguration;
+
+public class PooledHttpTransportTest {
+
+    @Rule
+    public WireMockRule wireMockRule = new WireMockRule(wireMockConfig().dynamicPort());
+
+    private PooledHttpTransport transport;
+
+    private String baseUrl;
+
+    @Before
+    public void setUp() {
+        baseUrl = "http://localhost:" + wireMockRule.port();
+        transport = new PooledHttpTransport(ConnectionPoolConfiguration.builder()
+                .maxConnectionsPerHost(5)
+                .maxConnectionsForHost(baseUrl, 2)
+                .build());
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        transport.shutdown();
+    }
+
+    @Test
+    public void shouldReuseThePooledConnectionForSequentialRequests() throws IOException {
+        wireMockRule.stubFor(get(urlEqualTo("/resources")).willReturn(aResponse()
+                .withStatus(200).withHeader("Content-Type", "application/json").withBody("{\"a\":1}")));
+
+        assertThat(executeGet("/resources"), is("{\"a\":1}"));
+        assertThat(executeGet("/resources"), is("{\"a\":1}"));
+
+        ConnectionPoolStats stats = transport.getPoolStats();
+        assertThat(stats.getLeased(), is(0));
+        assertThat(stats.getPending(), is(0));
+        assertThat(stats.getAvailable(), is(1));
+    }
+
+    @Test
+    public void shouldSendTheRequestContent() throws IOException {
+        wireMockRule.stubFor(post(urlEqualTo("/resources")).willReturn(aResponse().withStatus(201)));
+
+        HttpResponse response = transport.createRequestFactory()
+                .buildPostRequest(new GenericUrl(baseUrl + "/resources"), new JsonHttpContent(
+                        GsonFactory.getDefaultInstance(), Collections.singletonMap("name", "test")))
+                .execute();
+
+        assertThat(response.getStatusCode(), is(201));
+        wireMockRule.verify(postRequestedFor(urlEqualTo("/resources"))
+                .withHeader("Content-Type", equalTo("application/json; charset=UTF-8"))
+                .withRequestBody(equalToJson("{\"name\":\"test\"}")));
+    }
+
+    @Test
+    public void shouldReleaseTheConnectionOnUnsuccessfulResponses() throws IOException {
+        wireMockRule.stubFor(get(urlEqualTo("/missing")).willReturn(aResponse()
+                .withStatus(404).withBody("not found")));
+
+        try {
+            executeGet("/missing");
+        } catch (HttpResponseException e) {
+            assertThat(e.getStatusCode(), is(404));
+        }
+
+        assertThat(transport.getPoolStats().getLeased(), is(0));
+    }
+
+    @Test
+    public void shouldApplyTheConnectionLimitConfiguredForTheHost() throws IOException {
+        wireMockRule.stubFor(get(urlEqualTo("/resources")).willReturn(aResponse().withStatus(200)));
+
+        executeGet("/resources");
+
+        assertThat(transport.getPoolStats(baseUrl).get().getMax(), is(2));
+        assertThat(transport.getPoolStatsByHost().get(baseUrl).getAvailable(), is(1));
+        assertThat(transport.getPoolStats("http://otherhost").isPresent(), is(false));
+    }
+
+    @Test
+    public void shouldExposePoolStatsThroughTheMessageConfiguration() {
+        MessageConfiguration messageConfiguration = ClientConfiguration.builder()
+                .identityHostConfiguration(new HostConfiguration("http://identity"))
+                .registryHostConfiguration(new HostConfiguration("http://registry"))
+                .registryServiceOwner("owner")
+                .pooledHttpTransport(ConnectionPoolConfiguration.builder().maxConnectionsTotal(10).build())
+                .build().getMessageConfiguration();
+
+        assertThat(messageConfiguration.getTransport(), instanceOf(PooledHttpTransport.class));
+        assertThat(messageConfiguration.getConnectionPoolStats().get().getMax(), is(10));
+    }
+
+    private String executeGet(String path) throws IOException {
+        HttpRequest request = transport.createRequestFactory()
+                .buildGetRequest(new GenericUrl(baseUrl + path));
+        return request.execute().parseAsString();
+    }
+
+}